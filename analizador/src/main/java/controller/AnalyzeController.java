@@ -7,6 +7,7 @@ import service.NotUsedCalculator; // (inyectado por requisito aunque GradingServ
 
 import model.config.Config;
 import model.document.DocumentModel;
+import model.lexical.LineIndex;
 import model.report.GeneralReport;
 
 import view.components.EditorPanel;
@@ -105,6 +106,10 @@ public final class AnalyzeController {
             return; // prevenir reentrada
         analyzing = true;
         final String text = editorPanel.getEditorText();
+        // Reutilizar el índice de líneas cacheado si el editor coincide con el documento
+        final LineIndex lines = (text != null && text.equals(documentModel.getText()))
+                ? documentModel.getLineIndex()
+                : null;
 
         // (Opcional) feedback inmediato
         setAnalyzeBusy(true);
@@ -115,12 +120,14 @@ public final class AnalyzeController {
                 try {
                     // Texto vacío => tratar como resultado vacío sin errores
                     var serviceResult = (text == null || text.isBlank())
-                            ? new AnalyzeService.Result(List.of(), List.of())
-                            : analyzeService.analyzeText(text);
-
-                    var builderResult = reportBuilder.build(serviceResult.tokens(), serviceResult.errors());
-                    var general = gradingService.build(config, serviceResult.tokens(), serviceResult.errors());
-                    return new WorkerResult(serviceResult.errors(), serviceResult.tokens(), builderResult, general);
+                            ? AnalyzeService.Result.empty()
+                            : (lines != null)
+                                    ? analyzeService.analyzeText(text, lines)
+                                    : analyzeService.analyzeText(text);
+
+                    var builderResult = reportBuilder.build(serviceResult.buffer(), serviceResult.errors());
+                    var general = gradingService.build(config, serviceResult.buffer(), serviceResult.errors());
+                    return new WorkerResult(serviceResult.errors(), serviceResult.buffer(), builderResult, general);
                 } catch (Exception ex) {
                     return new WorkerResult(ex);
                 }
@@ -290,13 +297,13 @@ public final class AnalyzeController {
 
     private static final class WorkerResult {
         final List<model.lexical.LexError> errors;
-        final List<model.lexical.Token> tokens;
+        final model.lexical.TokenBuffer tokens;
         final ReportBuilder.Result builderResult;
         final GeneralReport generalReport;
         final Exception failure;
 
         WorkerResult(List<model.lexical.LexError> errors,
-                List<model.lexical.Token> tokens,
+                model.lexical.TokenBuffer tokens,
                 ReportBuilder.Result builderResult,
                 GeneralReport generalReport) {
             this.errors = errors;
@@ -308,7 +315,7 @@ public final class AnalyzeController {
 
         WorkerResult(Exception failure) {
             this.errors = List.of();
-            this.tokens = List.of();
+            this.tokens = null;
             this.builderResult = null; // no se puede instanciar directamente (constructor privado)
             this.generalReport = null;
             this.failure = failure;
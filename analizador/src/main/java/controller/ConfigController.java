@@ -271,6 +271,7 @@ public class ConfigController {
                         "Error de guardado", JOptionPane.ERROR_MESSAGE);
                 return false;
             }
+            // Los setters cambian la versión: los servicios recompilan el lexer
             copyInto(config, reloaded);
         } catch (Exception e) {
             e.printStackTrace();
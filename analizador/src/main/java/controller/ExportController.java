@@ -2,6 +2,9 @@ package controller;
 
 import core.export.CsvWriter;
 import core.export.ExportCoordinator;
+import model.document.DocumentModel;
+import model.lexical.TokenBuffer;
+import model.lexical.TokenType;
 import view.MainWindow;
 import view.components.EditorPanel;
 import view.components.ErrorsTablePanel;
@@ -38,18 +41,17 @@ import java.util.Objects;
  * para quien desee usarlo.</li>
  * </ul>
  * <p>
- * Implementación fiel al esquema: usa {@link CsvWriter} para tokens y errores a
- * partir de los TableModel
- * de las vistas (porque las tablas exponen filas de tipo {@code TokenRow} y
- * {@code ErrorRow}), y usa
- * {@link ExportCoordinator} para el recuento (recibe
- * {@code List<LexemeCountRow>}) y el guardado del
- * texto de entrada.
+ * Implementación fiel al esquema: usa {@link CsvWriter} para errores a partir
+ * del TableModel de la vista (filas de tipo {@code ErrorRow}), y usa
+ * {@link ExportCoordinator} para los tokens (leídos del buffer del último
+ * análisis en {@link DocumentModel}), el recuento (recibe
+ * {@code List<LexemeCountRow>}) y el guardado del texto de entrada.
  */
 public class ExportController {
 
     private final MainWindow mainWindow;
     private final EditorPanel editorPanel;
+    private final DocumentModel documentModel;
     private final ErrorsTablePanel errorsPanel;
     private final TokensTablePanel tokensPanel;
     private final LexemeCountTablePanel countPanel;
@@ -60,11 +62,13 @@ public class ExportController {
 
     public ExportController(MainWindow mainWindow,
             EditorPanel editorPanel,
+            DocumentModel documentModel,
             ErrorsTablePanel errorsPanel,
             TokensTablePanel tokensPanel,
             LexemeCountTablePanel countPanel) {
         this.mainWindow = Objects.requireNonNull(mainWindow, "mainWindow");
         this.editorPanel = Objects.requireNonNull(editorPanel, "editorPanel");
+        this.documentModel = Objects.requireNonNull(documentModel, "documentModel");
         this.errorsPanel = Objects.requireNonNull(errorsPanel, "errorsPanel");
         this.tokensPanel = Objects.requireNonNull(tokensPanel, "tokensPanel");
         this.countPanel = Objects.requireNonNull(countPanel, "countPanel");
@@ -190,9 +194,21 @@ public class ExportController {
         csvWriter.write(file, headers, rows);
     }
 
-    /** Exporta tokens.csv leyendo directamente el {@link TokenTableModel}. */
+    /**
+     * Exporta tokens.csv leyendo directamente el buffer del último análisis
+     * (sin comentarios, igual que la tabla). Si no hay buffer, lee el
+     * {@link TokenTableModel}.
+     */
     public void exportTokensCsv(Path file) throws IOException {
         Objects.requireNonNull(file, "file");
+        TokenBuffer buffer = documentModel.getTokenBuffer();
+        if (buffer != null) {
+            TokenBuffer valid = buffer.without(TokenType.COMMENT);
+            if (valid.size() > 0)
+                coordinator.exportTokens(file, valid);
+            return;
+        }
+
         TokenTableModel model = getTokenModel();
         int n = model.getRowCount();
         if (n <= 0)
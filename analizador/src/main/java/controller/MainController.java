@@ -14,6 +14,7 @@ import javax.swing.event.DocumentEvent;
 import javax.swing.event.DocumentListener;
 import javax.swing.text.BadLocationException;
 import javax.swing.text.Document;
+import javax.swing.text.Segment;
 import javax.swing.text.SimpleAttributeSet;
 import javax.swing.text.StyleConstants;
 import javax.swing.text.Utilities;
@@ -22,6 +23,7 @@ import core.io.ConfigLoader;
 import core.io.ConfigSaver;
 import core.io.TextLoader;
 import core.io.TextSaver;
+import core.lexing.IncrementalLexer;
 import model.config.Config;
 import model.document.DocumentModel;
 import service.AnalyzeService;
@@ -76,10 +78,10 @@ public final class MainController {
             editorPanel, reportsPanel, documentModel, config, analyzeService, reportBuilder, gradingService,
             notUsedCalculator);
     private final ExportController exportController = new ExportController(
-            mainWindow, editorPanel, reportsPanel.getErrorsPanel(), reportsPanel.getTokensPanel(),
+            mainWindow, editorPanel, documentModel, reportsPanel.getErrorsPanel(), reportsPanel.getTokensPanel(),
             reportsPanel.getLexemeCountPanel());
     private final SearchController searchController = new SearchController(
-            editorPanel, searchPanel, searchService);
+            editorPanel, searchPanel, documentModel, searchService);
     private final ConfigController configController = new ConfigController(
             mainWindow, config, configLoader, configSaver);
 
@@ -87,6 +89,14 @@ public final class MainController {
     // no existe)
     private Path configPath = Paths.get("resources", "config.json");
 
+    // Coloreo incremental: relexer vivo (null = requiere coloreo completo) y
+    // rango editado acumulado desde el último coloreo (-1 = sin cambios).
+    // Inicio común, fin en el texto anterior y fin en el texto actual.
+    private IncrementalLexer incrementalLexer;
+    private int editStart = -1;
+    private int editOldEnd;
+    private int editNewEnd;
+
     /** Inicia la aplicación (cargar config + mostrar UI). */
     public void start() {
         EventQueue.invokeLater(() -> {
@@ -208,7 +218,7 @@ public final class MainController {
         final Timer highlightTimer = new Timer(100, e -> {
             if (highlightPending[0]) {
                 highlightPending[0] = false;
-                highlightEditor();
+                highlightIncremental();
             } else {
                 ((Timer) e.getSource()).stop();
             }
@@ -217,11 +227,13 @@ public final class MainController {
         editorPanel.getDocument().addDocumentListener(new DocumentListener() {
             @Override
             public void insertUpdate(DocumentEvent e) {
+                recordEdit(e.getOffset(), 0, e.getLength());
                 onChange();
             }
 
             @Override
             public void removeUpdate(DocumentEvent e) {
+                recordEdit(e.getOffset(), e.getLength(), 0);
                 onChange();
             }
 
@@ -293,25 +305,133 @@ public final class MainController {
         editorPanel.resetAttributes();
     }
 
+    /**
+     * Coloreo completo: recrea el relexer (la configuración pudo cambiar) y
+     * descarta las ediciones pendientes.
+     */
     private void highlightEditor() {
         SwingUtilities.invokeLater(() -> {
             try {
+                incrementalLexer = highlightService.newIncrementalLexer();
+                editStart = -1;
+                var delta = incrementalLexer.reset(new DocumentChars(editorPanel.getDocument()));
                 editorPanel.resetAttributes();
-                var spans = highlightService.highlight(editorPanel.getEditorText());
-                for (var s : spans) {
-                    applyColor(s.start(), s.end() - s.start(), s.color());
-                }
+                applySpans(delta);
             } catch (Exception ignore) {
+                incrementalLexer = null;
                 /* silencioso */ }
         });
     }
 
+    /**
+     * Coloreo tras editar: solo relee y recolorea el rango afectado por las
+     * ediciones acumuladas.
+     */
+    private void highlightIncremental() {
+        if (incrementalLexer == null) {
+            highlightEditor();
+            return;
+        }
+        if (editStart < 0) {
+            return;
+        }
+        try {
+            var delta = incrementalLexer.edit(new DocumentChars(editorPanel.getDocument()),
+                    editStart, editOldEnd - editStart, editNewEnd - editStart);
+            editStart = -1;
+            editorPanel.resetAttributes(delta.relexStart(), delta.relexEnd() - delta.relexStart());
+            applySpans(delta);
+        } catch (Exception ex) {
+            // Estado desincronizado: volver al coloreo completo
+            incrementalLexer = null;
+            highlightEditor();
+        }
+    }
+
+    /**
+     * Acumula una edición del documento en un único rango (coordenadas del
+     * texto anterior al último coloreo y del texto actual).
+     */
+    private void recordEdit(int offset, int removed, int inserted) {
+        if (editStart < 0) {
+            editStart = offset;
+            editOldEnd = offset + removed;
+            editNewEnd = offset + inserted;
+            return;
+        }
+        int end = Math.max(editNewEnd, offset + removed);
+        editOldEnd = end - (editNewEnd - editOldEnd);
+        editNewEnd = end + inserted - removed;
+        editStart = Math.min(editStart, offset);
+    }
+
+    private void applySpans(IncrementalLexer.TokenDelta delta) {
+        for (var s : highlightService.spans(delta.inserted())) {
+            applyColor(s.start(), s.end() - s.start(), s.color());
+        }
+    }
+
     private void applyColor(int start, int length, java.awt.Color color) {
         SimpleAttributeSet attrs = new SimpleAttributeSet();
         StyleConstants.setForeground(attrs, color);
         editorPanel.applyAttributes(start, length, attrs);
     }
 
+    /**
+     * Vista CharSequence del Document del editor sin copiar el texto completo:
+     * lee por tramos con un Segment de retorno parcial (el relexer solo
+     * recorre la zona editada).
+     */
+    private static final class DocumentChars implements CharSequence {
+        private final Document doc;
+        private final int length;
+        private final Segment segment = new Segment();
+        private int segStart = 0;
+        private int segEnd = 0;
+
+        DocumentChars(Document doc) {
+            this.doc = doc;
+            this.length = doc.getLength();
+            segment.setPartialReturn(true);
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < segStart || index >= segEnd) {
+                if (index < 0 || index >= length) {
+                    throw new IndexOutOfBoundsException("Índice fuera del texto: " + index);
+                }
+                try {
+                    doc.getText(index, length - index, segment);
+                } catch (BadLocationException ex) {
+                    throw new IndexOutOfBoundsException(ex.getMessage());
+                }
+                segStart = index;
+                segEnd = index + segment.count;
+            }
+            return segment.array[segment.offset + index - segStart];
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            try {
+                return doc.getText(start, end - start);
+            } catch (BadLocationException ex) {
+                throw new IndexOutOfBoundsException(ex.getMessage());
+            }
+        }
+
+        @Override
+        public String toString() {
+            return subSequence(0, length).toString();
+        }
+    }
+
     /* ===================== Utilidades ===================== */
     public MainWindow getMainWindow() {
         return mainWindow;
@@ -2,13 +2,21 @@ package controller;
 
 import view.components.EditorPanel;
 import view.components.SearchPanel;
+import model.document.DocumentModel;
+import model.lexical.LineIndex;
+import model.lexical.TokenBuffer;
+import model.lexical.TokenType;
+import model.search.FoldedText;
 import model.search.SearchResult;
+import model.search.TrigramIndex;
 import service.SearchService;
 import model.search.MatchRange;
 
 import javax.swing.*;
 import java.util.List;
 import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * Controlador para la funcionalidad de <b>búsqueda</b> exigida por la práctica:
@@ -19,19 +27,41 @@ import java.util.Objects;
  * Esta clase orquesta únicamente: toma el texto del {@link EditorPanel},
  * delega la detección de coincidencias al {@link SearchService} y ordena
  * al {@link SearchPanel} que <b>renderice</b> el texto con los rangos hallados.
+ * <p>
+ * El texto buscado se deja en el {@link DocumentModel}: mientras no cambie,
+ * las consultas reutilizan su índice de líneas y su copia en minúsculas
+ * (las búsquedas "ignorar mayúsculas" no vuelven a plegar el texto). En
+ * textos grandes se habilita además su índice de trigramas, que limita cada
+ * búsqueda a los tramos candidatos; la latencia de cada consulta y el tamaño
+ * del índice se registran (nivel FINE).
+ * <p>
+ * Si en el panel se elige un tipo de token, la consulta se responde con el
+ * índice de tokens del último análisis (lexema/tipo), sin recorrer el texto.
  */
 public class SearchController {
 
+    /** Desde este tamaño de texto (chars) se usa el índice de trigramas. */
+    static final int TRIGRAM_INDEX_MIN_CHARS = 1 << 20;
+
+    private static final Logger LOG = Logger.getLogger(SearchController.class.getName());
+
     private final EditorPanel editorPanel;
     private final SearchPanel searchPanel;
+    private final DocumentModel documentModel;
     private final SearchService searchService;
     private SwingWorker<SearchResult, Void> currentWorker;
 
+    // Cambios del editor y versión del modelo en la última copia del texto al modelo
+    private long syncedEdits = -1;
+    private long syncedVersion = -1;
+
     public SearchController(EditorPanel editorPanel,
             SearchPanel searchPanel,
+            DocumentModel documentModel,
             SearchService searchService) {
         this.editorPanel = Objects.requireNonNull(editorPanel, "editorPanel");
         this.searchPanel = Objects.requireNonNull(searchPanel, "searchPanel");
+        this.documentModel = Objects.requireNonNull(documentModel, "documentModel");
         this.searchService = Objects.requireNonNull(searchService, "searchService");
     }
 
@@ -42,14 +72,20 @@ public class SearchController {
      */
     public void search(String query) {
         String q = (query == null) ? "" : query.trim();
-        String text = editorPanel.getEditorText();
-        String normalized = text.replace("\r\n", "\n").replace('\r', '\n');
+        String normalized = syncText();
+        final long editsUsed = syncedEdits;
 
         // Cancelar cualquier búsqueda previa en curso
         if (currentWorker != null && !currentWorker.isDone()) {
             currentWorker.cancel(true);
         }
 
+        TokenType tokenType = searchPanel.getSelectedTokenType();
+        if (tokenType != null) {
+            searchTokens(q, tokenType, normalized);
+            return;
+        }
+
         if (q.isEmpty()) {
             clearResults(normalized);
             return;
@@ -61,12 +97,29 @@ public class SearchController {
         searchPanel.setControlsEnabled(false);
 
         final String queryUsed = q;
-        final String textUsed = normalized;
+        // Mismo texto que la consulta anterior => mismos índice y copia plegada
+        documentModel.setTrigramIndexEnabled(normalized.length() >= TRIGRAM_INDEX_MIN_CHARS);
+        final String textUsed = documentModel.getText();
+        final LineIndex lines = documentModel.getLineIndex();
+        final FoldedText folded = documentModel.getFoldedText();
+        final TrigramIndex trigrams = documentModel.getTrigramIndex();
 
         currentWorker = new SwingWorker<>() {
             @Override
             protected SearchResult doInBackground() throws Exception {
-                return searchService.findAll(textUsed, queryUsed, !ignoreCase, wholeWord);
+                // Los índices y la copia plegada se construyen/actualizan aquí (perezosos), fuera del EDT
+                long t0 = System.nanoTime();
+                SearchResult result = searchService.findAll(textUsed, lines, folded, trigrams,
+                        queryUsed, !ignoreCase, wholeWord);
+                if (LOG.isLoggable(Level.FINE)) {
+                    long micros = (System.nanoTime() - t0) / 1000;
+                    LOG.fine((trigrams == null)
+                            ? String.format("Búsqueda '%s': %d coincidencias en %d µs (sin índice)",
+                                    queryUsed, result.total(), micros)
+                            : String.format("Búsqueda '%s': %d coincidencias en %d µs; índice %s",
+                                    queryUsed, result.total(), micros, trigrams.stats()));
+                }
+                return result;
             }
 
             @Override
@@ -74,9 +127,8 @@ public class SearchController {
                 try {
                     if (isCancelled()) return;
                     // Evitar resultados obsoletos si cambiaron texto o query
-                    String curTextNorm = editorPanel.getEditorText().replace("\r\n", "\n").replace('\r', '\n');
                     String curQuery = (searchPanel.getQueryText() == null) ? "" : searchPanel.getQueryText().trim();
-                    if (!curTextNorm.equals(textUsed) || !curQuery.equals(queryUsed)) {
+                    if (editorPanel.getEditCount() != editsUsed || !curQuery.equals(queryUsed)) {
                         return;
                     }
                     SearchResult result = get();
@@ -104,13 +156,37 @@ public class SearchController {
         currentWorker.execute();
     }
 
+    /**
+     * Búsqueda entre los tokens del último análisis (lexema exacto de ese
+     * tipo; consulta vacía = todos los tokens del tipo). No recorre el texto:
+     * cuesta lo que las coincidencias, así que corre directamente en el EDT.
+     */
+    private void searchTokens(String lexeme, TokenType type, String normalized) {
+        TokenBuffer buffer = documentModel.getTokenBuffer();
+        if (buffer == null || !normalized.contentEquals(buffer.source())) {
+            clearResults(normalized);
+            JOptionPane.showMessageDialog(null,
+                    (buffer == null)
+                            ? "Analiza el texto antes de buscar por tipo de token."
+                            : "El texto cambió desde el último análisis; vuelve a analizarlo.",
+                    "Buscar", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        SearchResult result = searchService.searchTokens(documentModel, lexeme.isEmpty() ? null : lexeme, type);
+        searchPanel.render(normalized, result.matches());
+        if (result.total() == 0) {
+            JOptionPane.showMessageDialog(null,
+                    "No se encontraron coincidencias.",
+                    "Buscar", JOptionPane.INFORMATION_MESSAGE);
+        }
+    }
+
     /**
      * Limpia los resultados de búsqueda mostrando el texto sin resaltados
      * en el {@link SearchPanel}.
      */
     public void clear() {
-        String text = editorPanel.getEditorText();
-        String normalized = text.replace("\r\n", "\n").replace('\r', '\n');
+        String normalized = normalizeLineBreaks(editorPanel.getEditorText());
         if (currentWorker != null && !currentWorker.isDone()) {
             currentWorker.cancel(true);
         }
@@ -118,6 +194,31 @@ public class SearchController {
         clearResults(normalized);
     }
 
+    /**
+     * Copia el texto del editor (normalizado) al {@link DocumentModel} y lo
+     * devuelve. Si ni el editor ni el modelo cambiaron desde la copia
+     * anterior, devuelve el texto del modelo sin leer el editor: la misma
+     * instancia, que los índices reconocen sin recorrerla.
+     */
+    private String syncText() {
+        long edits = editorPanel.getEditCount();
+        if (edits != syncedEdits || documentModel.getVersion() != syncedVersion) {
+            documentModel.setText(normalizeLineBreaks(editorPanel.getEditorText()));
+            syncedEdits = edits;
+            syncedVersion = documentModel.getVersion();
+        }
+        return documentModel.getText();
+    }
+
+    /**
+     * CRLF y CR pasan a LF. El texto de un componente Swing ya usa solo LF, así
+     * que normalmente se devuelve la misma instancia sin copiarla.
+     */
+    private static String normalizeLineBreaks(String text) {
+        if (text.indexOf('\r') < 0) return text;
+        return text.replace("\r\n", "\n").replace('\r', '\n');
+    }
+
     private void clearResults(String text) {
         // Renderizar sin rangos (sin resaltados)
         searchPanel.render(text, java.util.List.of());
@@ -8,6 +8,7 @@ import java.util.Objects;
 import core.io.TextSaver;
 import model.lexical.LexError;
 import model.lexical.Token;
+import model.lexical.TokenBuffer;
 import model.report.LexemeCountRow;
 
 /**
@@ -65,6 +66,26 @@ public final class ExportCoordinator {
         csvWriter.write(path, headers, rows);
     }
 
+    /**
+     * Exporta la tabla de tokens a CSV leyendo directamente del buffer
+     * columnar. Mismas columnas que {@link #exportTokens(Path, List)}.
+     */
+    public void exportTokens(Path path, TokenBuffer tokens) throws IOException {
+        Objects.requireNonNull(path, "path no puede ser null");
+        Objects.requireNonNull(tokens, "tokens no puede ser null");
+
+        String[] headers = { "NombreToken", "Lexema", "Linea", "Columna" };
+        String[][] rows = new String[tokens.size()][headers.length];
+
+        for (int i = 0; i < tokens.size(); i++) {
+            rows[i][0] = tokens.type(i).toString();
+            rows[i][1] = tokens.lexeme(i);
+            rows[i][2] = String.valueOf(tokens.line(i));
+            rows[i][3] = String.valueOf(tokens.column(i));
+        }
+        csvWriter.write(path, headers, rows);
+    }
+
     /**
      * Exporta la tabla de recuento a CSV (cuando NO hay errores).
      * Columnas: "Lexema", "Tipo", "Cantidad"
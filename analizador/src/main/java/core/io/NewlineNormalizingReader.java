@@ -0,0 +1,80 @@
+package core.io;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reader que normaliza los saltos de línea al vuelo: las secuencias \r\n y
+ * \r se entregan como \n (misma regla que {@link TextLoader}).
+ *
+ * Permite normalizar sin pasadas extra sobre el texto completo; lo usan la
+ * carga en memoria y el análisis por flujo. Un CR al final de un bloque se
+ * recuerda para descartar el LF que abra el siguiente.
+ */
+public final class NewlineNormalizingReader extends FilterReader {
+
+    private boolean afterCr = false;
+
+    /**
+     * @param in Reader de origen (se cierra junto con este)
+     */
+    public NewlineNormalizingReader(Reader in) {
+        super(in);
+    }
+
+    @Override
+    public int read() throws IOException {
+        char[] one = new char[1];
+        int n = read(one, 0, 1);
+        return (n < 0) ? -1 : one[0];
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        if (len == 0) return 0;
+        while (true) {
+            int n = in.read(cbuf, off, len);
+            if (n < 0) return -1;
+            int w = off;
+            for (int i = off; i < off + n; i++) {
+                char ch = cbuf[i];
+                if (ch == '\n' && afterCr) {
+                    afterCr = false; // LF de un CRLF: ya se emitió como \n
+                    continue;
+                }
+                afterCr = (ch == '\r');
+                cbuf[w++] = afterCr ? '\n' : ch;
+            }
+            // Un bloque formado solo por el LF de un CRLF no produce nada: leer otra vez
+            if (w > off) return w - off;
+        }
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        char[] tmp = new char[(int) Math.min(n, 8192)];
+        long skipped = 0;
+        while (skipped < n) {
+            int r = read(tmp, 0, (int) Math.min(tmp.length, n - skipped));
+            if (r < 0) break;
+            skipped += r;
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public void mark(int readAheadLimit) throws IOException {
+        throw new IOException("mark no soportado");
+    }
+
+    @Override
+    public void reset() throws IOException {
+        throw new IOException("reset no soportado");
+    }
+}
@@ -3,9 +3,12 @@ package core.io;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 
 /**
  * Carga el texto de entrada desde un archivo de texto.
@@ -17,7 +20,11 @@ import java.nio.file.Path;
  * Decisiones:
  *  - Se utiliza UTF-8.
  *  - Se lee carácter por carácter en bloques (char[]) para preservar el contenido del archivo.
- *  - Se normalizan los saltos de línea: las secuencias \r\n y \r se reemplazan por \n.
+ *  - Se normalizan los saltos de línea: las secuencias \r\n y \r se reemplazan por \n
+ *    al vuelo ({@link NewlineNormalizingReader}), sin pasadas extra de replace.
+ *  - {@link #open(Path)} entrega el mismo contenido como Reader para analizarlo
+ *    por flujo sin cargarlo en memoria; {@link #map(Path)} lo mapea como bytes
+ *    UTF-8 (sin normalizar: el lexer por bytes normaliza al leer).
  *  - Sin lógica adicional de análisis (no corresponde a esta rama).
  *
  * Errores:
@@ -42,17 +49,62 @@ public final class TextLoader {
             throw new IllegalArgumentException("El archivo no existe, no es regular o no es legible: " + path);
         }
 
-        // Lectura por bloques (mantiene el contenido del archivo).
-        StringBuilder sb = new StringBuilder();
-        try (Reader reader = new InputStreamReader(Files.newInputStream(path), StandardCharsets.UTF_8)) {
+        // Lectura por bloques ya normalizada; capacidad según el tamaño del archivo
+        // (en chars, a lo sumo tantos como bytes en UTF-8)
+        long size = Files.size(path);
+        StringBuilder sb = new StringBuilder((int) Math.min(size, Integer.MAX_VALUE - 8));
+        try (Reader reader = open(path)) {
             char[] buffer = new char[8192];
             int n;
             while ((n = reader.read(buffer)) != -1) {
                 sb.append(buffer, 0, n);
             }
         }
+        return sb.toString();
+    }
+
+    /**
+     * Abre el archivo como Reader UTF-8 con los saltos de línea normalizados
+     * (mismo contenido que {@link #load(Path)}, sin retenerlo). El llamador
+     * debe cerrarlo.
+     *
+     * @param path Ruta del archivo de texto.
+     * @return Reader normalizado.
+     * @throws IOException Si ocurre un error al abrir el archivo.
+     */
+    public Reader open(Path path) throws IOException {
+        if (path == null) {
+            throw new IllegalArgumentException("La ruta del archivo no puede ser null.");
+        }
+        // InputStreamReader reemplaza secuencias UTF-8 inválidas en vez de fallar
+        return new NewlineNormalizingReader(
+                new InputStreamReader(Files.newInputStream(path), StandardCharsets.UTF_8));
+    }
 
-        String content = sb.toString();
-        return content.replace("\r\n", "\n").replace("\r", "\n");
+    /**
+     * Mapea el archivo en memoria (solo lectura) como bytes UTF-8 sin decodificar.
+     * El contenido lo pagina el sistema operativo bajo demanda: no ocupa heap.
+     *
+     * @param path Ruta del archivo de texto.
+     * @return Buffer mapeado de todo el archivo.
+     * @throws IOException              Si ocurre un error al abrir o mapear el archivo.
+     * @throws IllegalArgumentException Si la ruta es inválida o el archivo supera los 2 GB
+     *                                  (límite de un MappedByteBuffer; usar {@link #open(Path)}).
+     */
+    public MappedByteBuffer map(Path path) throws IOException {
+        if (path == null) {
+            throw new IllegalArgumentException("La ruta del archivo no puede ser null.");
+        }
+        if (!Files.exists(path) || !Files.isRegularFile(path) || !Files.isReadable(path)) {
+            throw new IllegalArgumentException("El archivo no existe, no es regular o no es legible: " + path);
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("El archivo es demasiado grande para mapearlo: " + path);
+            }
+            // El mapeo sigue siendo válido tras cerrar el canal
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
     }
 }
@@ -0,0 +1,80 @@
+package core.lexing;
+
+import java.util.Set;
+
+import core.lexing.stream.CharClasses;
+import model.config.CommentsConfig;
+import model.config.Config;
+
+/**
+ * Tabla de despacho por primer carácter para la cascada de reconocedores.
+ *
+ * Para cada carácter ASCII guarda una máscara con los pasos de la cascada que
+ * PUEDEN reconocer algo empezando en él (p. ej. 'c' solo habilita
+ * identificadores); los caracteres &gt;= 128 comparten una máscara de respaldo
+ * (solo símbolos configurados no ASCII). La cascada sigue probando los pasos
+ * en su orden original, pero salta los que se descartarían de inmediato, así
+ * que el resultado es idéntico token a token.
+ *
+ * Se precalcula una vez desde la configuración ({@link CompiledLexer}).
+ */
+final class CascadeDispatch {
+
+    static final int BLOCK_END = 1;
+    static final int STRING = 1 << 1;
+    static final int LINE_COMMENT = 1 << 2;
+    static final int BLOCK_COMMENT = 1 << 3;
+    static final int REPEATED_OPERATOR = 1 << 4;
+    static final int DECIMAL = 1 << 5;
+    static final int NUMBER = 1 << 6;
+    static final int IDENTIFIER = 1 << 7;
+    static final int OPERATOR = 1 << 8;
+    static final int PUNCTUATION = 1 << 9;
+    static final int GROUPING = 1 << 10;
+
+    private final short[] ascii = new short[128];
+    private int fallback;
+
+    CascadeDispatch(Config config) {
+        for (int c = 0; c < 128; c++) {
+            int mask = 0;
+            if (CharClasses.isQuote(c)) mask |= STRING;
+            if (CharClasses.isDigit(c)) mask |= DECIMAL | NUMBER;
+            if (CharClasses.isLetter(c)) mask |= IDENTIFIER;
+            ascii[c] = (short) mask;
+        }
+
+        CommentsConfig com = config.getComentarios();
+        if (com != null) {
+            markFirst(com.getBloqueFin(), BLOCK_END);
+            markFirst(com.getLinea(), LINE_COMMENT);
+            // El reconocedor de bloque exige apertura y cierre configurados
+            if (com.getBloqueFin() != null && !com.getBloqueFin().isEmpty()) {
+                markFirst(com.getBloqueInicio(), BLOCK_COMMENT);
+            }
+        }
+        for (String op : config.getOperadores()) {
+            // La racha repetida solo se evalúa si el carácter es un operador por sí solo
+            if (op.length() == 1) markFirst(op, REPEATED_OPERATOR);
+        }
+        markFirsts(config.getOperadores(), OPERATOR);
+        markFirsts(config.getPuntuacion(), PUNCTUATION);
+        markFirsts(config.getAgrupacion(), GROUPING);
+    }
+
+    /** Pasos de la cascada que pueden reconocer algo que empiece con c. */
+    int mask(int c) {
+        return (c >= 0 && c < 128) ? ascii[c] : fallback;
+    }
+
+    private void markFirsts(Set<String> symbols, int bit) {
+        for (String s : symbols) markFirst(s, bit);
+    }
+
+    private void markFirst(String symbol, int bit) {
+        if (symbol == null || symbol.isEmpty()) return;
+        char c = symbol.charAt(0);
+        if (c < 128) ascii[c] |= (short) bit;
+        else fallback |= bit;
+    }
+}
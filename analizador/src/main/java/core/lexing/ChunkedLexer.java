@@ -0,0 +1,182 @@
+package core.lexing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import model.lexical.LexError;
+import model.lexical.LineIndex;
+import model.lexical.TokenBuffer;
+import model.lexical.TokenType;
+
+/**
+ * Análisis DFA en paralelo por tramos (modo {@link LexerEngine.Mode#PARALLEL}).
+ *
+ * Idea:
+ *  - El texto se corta en tramos que empiezan justo después de un salto de
+ *    línea. Cada tramo se analiza en el ForkJoinPool suponiendo que en su
+ *    inicio NO se está dentro de una cadena o comentario de bloque (escaneo
+ *    especulativo, desde el inicio del tramo hasta el primer token que empiece
+ *    en el tramo siguiente).
+ *  - Luego una pasada secuencial empalma los tramos: el escaneo real del tramo
+ *    anterior termina en un índice "de arrastre". Si coincide con el inicio de
+ *    un token especulativo, el resto del tramo se copia tal cual. Si no (p. ej.
+ *    un comentario de bloque o una cadena cruzó el corte), se relee desde el
+ *    arrastre hasta volver a coincidir con un inicio especulativo o salir del
+ *    tramo.
+ *
+ * Es correcto porque en modo DFA el lexer no guarda estado entre tokens: lo
+ * que sigue a un inicio de token depende solo de ese índice. El resultado es
+ * idéntico al análisis secuencial.
+ */
+final class ChunkedLexer {
+
+    /** Tamaño mínimo de tramo: por debajo no compensa repartir. */
+    static final int MIN_CHUNK = 1 << 16;
+
+    /** Resultado especulativo de un tramo [start, end). */
+    private static final class Chunk {
+        final int start;
+        final int end;
+        TokenBuffer tokens;
+        List<LexError> errors;
+        int stop; // primer índice de reanudación >= end (o fin del texto)
+
+        Chunk(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    private final LexerEngine engine;
+    private final ForkJoinPool pool;
+    private final int minChunk;
+
+    /**
+     * @param engine   lexer con AFD
+     * @param pool     hilos para el escaneo especulativo
+     * @param minChunk tamaño mínimo de tramo en chars (las pruebas usan tramos chicos)
+     */
+    ChunkedLexer(LexerEngine engine, ForkJoinPool pool, int minChunk) {
+        this.engine = engine;
+        this.pool = pool;
+        this.minChunk = minChunk;
+    }
+
+    /** ¿Vale la pena repartir un texto de esta longitud? */
+    static boolean worthSplitting(int length, int parallelism) {
+        return parallelism > 1 && length >= 2 * MIN_CHUNK;
+    }
+
+    /**
+     * Analiza el texto por tramos en paralelo y empalma el resultado.
+     *
+     * @param text  texto completo
+     * @param lines índice de líneas del texto (compartido por todos los tramos)
+     */
+    LexerEngine.Result analyze(String text, LineIndex lines) {
+        List<Chunk> chunks = split(text, Math.max(minChunk, text.length() / (pool.getParallelism() * 4)));
+
+        // 1) Escaneo especulativo de cada tramo
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                List<RecursiveAction> tasks = new ArrayList<>(chunks.size());
+                for (Chunk c : chunks) {
+                    tasks.add(new RecursiveAction() {
+                        @Override
+                        protected void compute() {
+                            speculate(text, lines, c);
+                        }
+                    });
+                }
+                invokeAll(tasks);
+            }
+        });
+
+        // 2) Empalme secuencial con reparación de fronteras
+        TokenBuffer out = new TokenBuffer(text, lines, LexerEngine.estimateTokens(text));
+        List<LexError> errors = new ArrayList<>();
+        int carry = 0;
+        for (Chunk c : chunks) {
+            carry = stitch(text, c, carry, out, errors);
+        }
+        return new LexerEngine.Result(out, List.copyOf(errors));
+    }
+
+    /** Cortes tras un '\n' cerca de múltiplos del tamaño objetivo. */
+    private static List<Chunk> split(String text, int target) {
+        int n = text.length();
+        List<Chunk> chunks = new ArrayList<>();
+        int start = 0;
+        while (start < n) {
+            int end = Math.min(n, start + target);
+            while (end < n && text.charAt(end - 1) != '\n') end++;
+            chunks.add(new Chunk(start, end));
+            start = end;
+        }
+        return chunks;
+    }
+
+    /** Escanea el tramo suponiendo estado inicial neutro. */
+    private void speculate(String text, LineIndex lines, Chunk c) {
+        c.tokens = new TokenBuffer(text, lines, (c.end - c.start) / 4 + 16);
+        c.errors = new ArrayList<>();
+        var sink = new LexerEngine.ResultSink(c.tokens, c.errors);
+        c.stop = engine.scanDfa(text, c.start, c.start, sink, new LexerEngine.ScanHook() {
+            @Override
+            public boolean resume(int index, int reach) {
+                return index < c.end;
+            }
+
+            @Override
+            public void emitted(int reachBefore) { }
+        });
+    }
+
+    /**
+     * Agrega a 'out' los tokens del tramo a partir del índice de arrastre real.
+     *
+     * @return índice de arrastre para el tramo siguiente
+     */
+    private int stitch(String text, Chunk c, int carry, TokenBuffer out, List<LexError> errors) {
+        TokenBuffer spec = c.tokens;
+        int[] next = { 0 };      // primer token especulativo con inicio >= índice actual
+        boolean[] synced = { false };
+
+        // Releer desde el arrastre hasta coincidir con un inicio especulativo
+        // (si el arrastre ya coincide, se detiene sin emitir nada)
+        var sink = new LexerEngine.ResultSink(out, errors);
+        int stop = engine.scanDfa(text, carry, carry, sink, new LexerEngine.ScanHook() {
+            @Override
+            public boolean resume(int index, int reach) {
+                if (index >= c.end) return false;
+                int t = next[0];
+                while (t < spec.size() && spec.start(t) < index) t++;
+                next[0] = t;
+                if (t < spec.size() && spec.start(t) == index) {
+                    synced[0] = true;
+                    return false;
+                }
+                return true;
+            }
+
+            @Override
+            public void emitted(int reachBefore) { }
+        });
+        if (!synced[0]) {
+            return stop;
+        }
+
+        // Copiar el resto especulativo; cada token ERROR tiene exactamente un LexError
+        int from = next[0];
+        int skippedErrors = 0;
+        for (int i = 0; i < from; i++) {
+            if (spec.type(i) == TokenType.ERROR) skippedErrors++;
+        }
+        out.append(spec, from, spec.size());
+        errors.addAll(c.errors.subList(skippedErrors, c.errors.size()));
+        return c.stop;
+    }
+}
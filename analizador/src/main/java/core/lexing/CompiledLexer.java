@@ -0,0 +1,156 @@
+package core.lexing;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import core.lexing.dfa.Dfa;
+import core.lexing.dfa.LexRule;
+import core.lexing.dfa.LexerDfaCompiler;
+import core.lexing.policy.AlphabetPolicy;
+import core.lexing.recognizer.StringRecognizer;
+import core.lexing.recognizer.TokenClassifier;
+import core.lexing.table.OperatorTable;
+import core.lexing.table.ReservedWords;
+import model.config.CommentsConfig;
+import model.config.Config;
+
+/**
+ * Todo lo que el lexer deriva de una configuración: tablas de operadores,
+ * puntuación y agrupación, palabras reservadas, alfabeto (general y de
+ * cadenas), despacho de la cascada y AFD.
+ *
+ * Decisiones:
+ * - Inmutable y seguro para compartir entre hilos: trabaja sobre una COPIA de
+ * la configuración, de modo que editar el Config vivo no lo altera.
+ * - Se identifica por su huella ({@link #fingerprint(Config)}): el contenido
+ * canónico de la configuración. Dos configuraciones con la misma huella
+ * producen exactamente el mismo lexer; {@link LexerCache} la usa como clave.
+ * - Cada {@link LexerEngine} construido sobre él solo agrega el modo y los
+ * reconocedores sin estado.
+ */
+public final class CompiledLexer {
+
+    private final String fingerprint;
+    private final Config config;
+
+    // Operadores, puntuación y agrupación en un solo trie (y sus vistas)
+    private final OperatorTable symbolTable;
+    private final OperatorTable opTable;
+    private final OperatorTable punctTable;
+    private final OperatorTable groupTable;
+    private final ReservedWords reserved;
+    private final StringRecognizer stringRec;
+    private final AlphabetPolicy alphabetPolicy;
+    private final TokenClassifier classifier;
+    private final CascadeDispatch dispatch;
+
+    // null si se compiló solo para el modo CASCADE
+    private final Dfa<LexRule> dfa;
+
+    /**
+     * Compila la configuración (incluido el AFD).
+     * @param config configuración cargada desde config.json (se copia)
+     */
+    public CompiledLexer(Config config) {
+        this(config, true);
+    }
+
+    CompiledLexer(Config config, boolean withDfa) {
+        Objects.requireNonNull(config, "config no puede ser null");
+        this.config = snapshot(config);
+        this.fingerprint = fingerprint(this.config);
+
+        this.symbolTable = OperatorTable.merged(List.of(
+                this.config.getOperadores(), this.config.getPuntuacion(), this.config.getAgrupacion()));
+        this.opTable = symbolTable.category(0);
+        this.punctTable = symbolTable.category(1);
+        this.groupTable = symbolTable.category(2);
+        this.reserved = new ReservedWords(this.config.getPalabrasReservadas());
+        this.stringRec = new StringRecognizer(this.config, opTable, punctTable, groupTable);
+        this.alphabetPolicy = new AlphabetPolicy(this.config, symbolTable);
+        this.classifier = new TokenClassifier(reserved);
+        this.dispatch = new CascadeDispatch(this.config);
+
+        this.dfa = withDfa ? LexerDfaCompiler.compile(this.config) : null;
+    }
+
+    /**
+     * Huella de contenido de una configuración: cada sección en su orden, con
+     * la longitud antepuesta a cada elemento (sin ambigüedad de separadores).
+     * Se compara completa, no solo su hash, así que no hay colisiones.
+     *
+     * @param config configuración (no null)
+     * @return huella canónica
+     */
+    public static String fingerprint(Config config) {
+        Objects.requireNonNull(config, "config no puede ser null");
+        StringBuilder sb = new StringBuilder(256);
+        appendSection(sb, config.getPalabrasReservadas());
+        appendSection(sb, config.getOperadores());
+        appendSection(sb, config.getPuntuacion());
+        appendSection(sb, config.getAgrupacion());
+        CommentsConfig c = config.getComentarios();
+        if (c == null) {
+            sb.append('-');
+        } else {
+            appendItem(sb, c.getLinea());
+            appendItem(sb, c.getBloqueInicio());
+            appendItem(sb, c.getBloqueFin());
+        }
+        return sb.toString();
+    }
+
+    /** Huella de la configuración con la que se compiló. */
+    public String fingerprint() { return fingerprint; }
+
+    /** Copia de la configuración con la que se compiló (no modificar). */
+    Config config() { return config; }
+
+    OperatorTable symbolTable() { return symbolTable; }
+    OperatorTable opTable() { return opTable; }
+    OperatorTable punctTable() { return punctTable; }
+    OperatorTable groupTable() { return groupTable; }
+    StringRecognizer stringRecognizer() { return stringRec; }
+    AlphabetPolicy alphabetPolicy() { return alphabetPolicy; }
+    TokenClassifier classifier() { return classifier; }
+    CascadeDispatch dispatch() { return dispatch; }
+    Dfa<LexRule> dfa() { return dfa; }
+
+    /* ===================== helpers internos ===================== */
+
+    private static void appendSection(StringBuilder sb, Set<String> items) {
+        if (items == null) {
+            sb.append('-');
+            return;
+        }
+        sb.append(items.size()).append('[');
+        for (String s : items) appendItem(sb, s);
+        sb.append(']');
+    }
+
+    private static void appendItem(StringBuilder sb, String s) {
+        if (s == null) {
+            sb.append('-');
+        } else {
+            sb.append(s.length()).append(':').append(s);
+        }
+    }
+
+    private static Config snapshot(Config src) {
+        Config copy = new Config();
+        copy.setPalabrasReservadas(src.getPalabrasReservadas());
+        copy.setOperadores(src.getOperadores());
+        copy.setPuntuacion(src.getPuntuacion());
+        copy.setAgrupacion(src.getAgrupacion());
+        CommentsConfig c = src.getComentarios();
+        if (c != null) {
+            CommentsConfig cc = new CommentsConfig();
+            cc.setLinea(c.getLinea());
+            cc.setBloqueInicio(c.getBloqueInicio());
+            cc.setBloqueFin(c.getBloqueFin());
+            copy.setComentarios(cc);
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,304 @@
+package core.lexing;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import model.lexical.LineIndex;
+import model.lexical.TokenBuffer;
+import model.lexical.TokenType;
+
+/**
+ * Relexer incremental para el editor: tras una edición vuelve a escanear solo
+ * la zona afectada y devuelve un {@link TokenDelta}.
+ *
+ * Idea:
+ *  - El lexer (modo DFA) no guarda estado entre tokens: lo único que importa es
+ *    el índice donde empieza cada escaneo. Por eso basta con reanudar en un
+ *    inicio de token previo a la edición y detenerse en cuanto un inicio de
+ *    token nuevo coincide con uno viejo ya pasado el área editada.
+ *  - Punto seguro de reinicio: el último token k cuyo "alcance previo" (todo lo
+ *    que se leyó, lookahead incluido, antes de su inicio) no llega a la
+ *    edición. El alcance se guarda por token y es no decreciente, así que se
+ *    busca en forma binaria.
+ *  - Resincronización: en un inicio de token p &gt;= fin de la edición (texto
+ *    nuevo) con un token viejo en p - delta. Desde ahí el texto y el estado del
+ *    lexer son idénticos, así que la cola vieja se conserva.
+ *
+ * Almacenamiento: arreglos columnares con un hueco (gap buffer) en el punto de
+ * la última edición. Los tokens antes del hueco guardan desplazamientos
+ * absolutos; los de después, relativos al FIN del texto, de modo que cambiar
+ * la longitud del texto no obliga a tocar la cola. Mover el hueco cuesta lo
+ * que la distancia entre ediciones consecutivas (poco al teclear).
+ *
+ * Uso: {@link #reset(CharSequence)} con el texto inicial y luego
+ * {@link #edit(CharSequence, int, int, int)} por cada edición (o grupo de
+ * ediciones fusionado en un solo rango). No es thread-safe.
+ */
+public final class IncrementalLexer {
+
+    /**
+     * Cambio en la secuencia de tokens producido por una edición.
+     *
+     * @param firstToken    índice del primer token reemplazado
+     * @param removedTokens cantidad de tokens viejos reemplazados
+     * @param inserted      tokens nuevos (sobre el texto nuevo), en orden
+     * @param relexStart    desplazamiento donde se reanudó el escaneo
+     * @param relexEnd      desplazamiento donde se resincronizó (o fin del texto);
+     *                      fuera de [relexStart, relexEnd) los tokens no cambian
+     */
+    public record TokenDelta(int firstToken, int removedTokens, TokenBuffer inserted,
+                             int relexStart, int relexEnd) { }
+
+    private static final TokenType[] TYPES = TokenType.values();
+
+    private final LexerEngine engine;
+
+    private int textLength;
+
+    // Columnas con hueco [gapStart, gapEnd)
+    private byte[] types = new byte[16];
+    private int[] starts = new int[16];   // absolutos antes del hueco; relativos al fin después
+    private int[] lengths = new int[16];
+    private int[] reaches = new int[16];  // alcance previo al inicio del token (misma convención)
+    private int gapStart = 0;
+    private int gapEnd = 16;
+
+    /**
+     * @param engine lexer con AFD, modo {@link LexerEngine.Mode#DFA} o
+     *               {@link LexerEngine.Mode#PARALLEL} (no null)
+     */
+    public IncrementalLexer(LexerEngine engine) {
+        this.engine = Objects.requireNonNull(engine, "engine no puede ser null");
+        if (engine.mode() == LexerEngine.Mode.CASCADE) {
+            throw new IllegalArgumentException("El relexer incremental requiere un modo con AFD.");
+        }
+    }
+
+    /** Cantidad de tokens actuales. */
+    public int tokenCount() {
+        return gapStart + (types.length - gapEnd);
+    }
+
+    /** Longitud del texto al que corresponden los tokens actuales. */
+    public int textLength() {
+        return textLength;
+    }
+
+    /**
+     * Analiza el texto completo y descarta el estado previo.
+     *
+     * @param text texto completo (no null)
+     * @return delta que reemplaza todos los tokens anteriores
+     */
+    public TokenDelta reset(CharSequence text) {
+        Objects.requireNonNull(text, "text no puede ser null");
+        int removed = tokenCount();
+        gapStart = 0;
+        gapEnd = types.length;
+        textLength = text.length();
+        return relex(text, 0, 0, 0, 0, removed);
+    }
+
+    /**
+     * Aplica una edición y relee solo lo necesario.
+     *
+     * El texto puede ser una vista viva (p. ej. sobre el Document del editor):
+     * solo se lee durante esta llamada y únicamente alrededor de la edición.
+     *
+     * @param text            texto completo YA editado (no null)
+     * @param offset          inicio de la edición
+     * @param removedLength   caracteres eliminados (en el texto anterior)
+     * @param insertedLength  caracteres insertados (en el texto nuevo)
+     * @return tokens reemplazados e insertados
+     */
+    public TokenDelta edit(CharSequence text, int offset, int removedLength, int insertedLength) {
+        Objects.requireNonNull(text, "text no puede ser null");
+        if (offset < 0 || removedLength < 0 || insertedLength < 0 || offset + removedLength > textLength) {
+            throw new IllegalArgumentException("Edición fuera del texto: " + offset + "-" + removedLength);
+        }
+        if (text.length() != textLength - removedLength + insertedLength) {
+            throw new IllegalArgumentException("La longitud del texto no corresponde a la edición.");
+        }
+
+        // 1) Último token cuyo alcance previo no llega a la edición
+        int k = lastSafeToken(offset);
+        int from = (k < 0) ? 0 : start(k);
+        int initialReach = (k < 0) ? 0 : reach(k);
+        if (k < 0) k = 0;
+
+        // 2) Hueco en k (con la longitud vieja) y luego actualizar la longitud
+        moveGap(k);
+        textLength = text.length();
+
+        return relex(text, k, from, initialReach, offset + insertedLength, 0);
+    }
+
+    /**
+     * Materializa los tokens actuales en un TokenBuffer sobre 'text'
+     * (O(n); para reportes o pruebas).
+     */
+    public TokenBuffer snapshot(CharSequence text) {
+        Objects.requireNonNull(text, "text no puede ser null");
+        if (text.length() != textLength) {
+            throw new IllegalArgumentException("La longitud del texto no corresponde a los tokens.");
+        }
+        int n = tokenCount();
+        TokenBuffer out = new TokenBuffer(text, new LineIndex(text), n);
+        for (int i = 0; i < n; i++) {
+            out.add(TYPES[types[slot(i)]], start(i), lengths[slot(i)]);
+        }
+        return out;
+    }
+
+    /* ===================== escaneo y empalme ===================== */
+
+    /**
+     * Escanea desde 'from' (hueco ya ubicado en k) hasta resincronizar con la
+     * cola vieja o llegar al final, y empalma los tokens nuevos en el hueco.
+     *
+     * @param syncFrom índice mínimo (texto nuevo) a partir del cual se puede
+     *                 resincronizar (fin de la edición)
+     * @param extraRemoved tokens que el llamador ya descartó (solo reset)
+     */
+    private TokenDelta relex(CharSequence text, int k, int from, int initialReach,
+                             int syncFrom, int extraRemoved) {
+        // Índice perezoso: solo se construiría si alguien pide posiciones del delta
+        LineIndex lines = new LineIndex(text);
+        TokenBuffer inserted = new TokenBuffer(text, lines, 16);
+        int[][] newReaches = { new int[16] };
+        int[] state = { gapEnd, -1, initialReach }; // [slot viejo candidato, índice de resincronización, alcance final]
+        final int len = textLength;
+
+        // Sin errores: el coloreo solo necesita los tokens (evita derivar posiciones)
+        engine.scanDfa(text, from, initialReach, new LexerEngine.ResultSink(inserted, null),
+                new LexerEngine.ScanHook() {
+                    @Override
+                    public boolean resume(int index, int reach) {
+                        state[2] = reach;
+                        if (index < syncFrom) return true;
+                        // Avanzar por la cola vieja (relativa al fin) hasta alcanzar 'index'
+                        int target = index - len;
+                        int slot = state[0];
+                        while (slot < types.length && starts[slot] < target) slot++;
+                        state[0] = slot;
+                        if (slot < types.length && starts[slot] == target) {
+                            state[1] = index;
+                            return false;
+                        }
+                        return true;
+                    }
+
+                    @Override
+                    public void emitted(int reachBefore) {
+                        int i = inserted.size() - 1;
+                        if (i == newReaches[0].length) newReaches[0] = Arrays.copyOf(newReaches[0], i * 2);
+                        newReaches[0][i] = reachBefore;
+                    }
+                });
+
+        // Tokens viejos reemplazados: desde el hueco hasta el candidato de resincronización
+        boolean synced = state[1] >= 0;
+        int keepSlot = synced ? state[0] : types.length;
+        int removed = extraRemoved + (keepSlot - gapEnd);
+        gapEnd = keepSlot;
+
+        // Insertar los nuevos en el hueco (absolutos)
+        int n = inserted.size();
+        ensureGap(n);
+        for (int i = 0; i < n; i++) {
+            types[gapStart] = (byte) inserted.type(i).ordinal();
+            starts[gapStart] = inserted.start(i);
+            lengths[gapStart] = inserted.length(i);
+            reaches[gapStart] = newReaches[0][i];
+            gapStart++;
+        }
+
+        // La cola conserva alcances viejos; acotarlos por lo leído ahora (estimación
+        // conservadora y no decreciente). Solo cambia el prefijo de la cola con alcance menor.
+        int finalReachRel = state[2] - len;
+        for (int slot = gapEnd; slot < types.length && reaches[slot] < finalReachRel; slot++) {
+            reaches[slot] = finalReachRel;
+        }
+
+        return new TokenDelta(k, removed, inserted, from, synced ? state[1] : len);
+    }
+
+    /** Último token (lógico) con alcance previo &lt;= offset, o -1. */
+    private int lastSafeToken(int offset) {
+        int lo = 0, hi = tokenCount() - 1, ans = -1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (reach(mid) <= offset) {
+                ans = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return ans;
+    }
+
+    /* ===================== gap buffer ===================== */
+
+    private int slot(int i) {
+        return (i < gapStart) ? i : i + (gapEnd - gapStart);
+    }
+
+    private int start(int i) {
+        return (i < gapStart) ? starts[i] : starts[slot(i)] + textLength;
+    }
+
+    private int reach(int i) {
+        return (i < gapStart) ? reaches[i] : reaches[slot(i)] + textLength;
+    }
+
+    /** Ubica el hueco en el índice lógico k (convierte absolutos/relativos). */
+    private void moveGap(int k) {
+        int gap = gapEnd - gapStart;
+        while (gapStart > k) {
+            int src = --gapStart;
+            int dst = --gapEnd;
+            types[dst] = types[src];
+            starts[dst] = starts[src] - textLength;
+            lengths[dst] = lengths[src];
+            reaches[dst] = reaches[src] - textLength;
+        }
+        while (gapStart < k) {
+            int src = gapEnd++;
+            int dst = gapStart++;
+            types[dst] = types[src];
+            starts[dst] = starts[src] + textLength;
+            lengths[dst] = lengths[src];
+            reaches[dst] = reaches[src] + textLength;
+        }
+        assert gapEnd - gapStart == gap;
+    }
+
+    /** Garantiza espacio para 'needed' tokens en el hueco. */
+    private void ensureGap(int needed) {
+        int gap = gapEnd - gapStart;
+        if (gap >= needed) return;
+        int tail = types.length - gapEnd;
+        int cap = Math.max(types.length * 2, gapStart + needed + tail + 16);
+        int newGapEnd = cap - tail;
+        types = regrow(types, cap, newGapEnd, tail);
+        starts = regrow(starts, cap, newGapEnd, tail);
+        lengths = regrow(lengths, cap, newGapEnd, tail);
+        reaches = regrow(reaches, cap, newGapEnd, tail);
+        gapEnd = newGapEnd;
+    }
+
+    private byte[] regrow(byte[] a, int cap, int newGapEnd, int tail) {
+        byte[] b = new byte[cap];
+        System.arraycopy(a, 0, b, 0, gapStart);
+        System.arraycopy(a, gapEnd, b, newGapEnd, tail);
+        return b;
+    }
+
+    private int[] regrow(int[] a, int cap, int newGapEnd, int tail) {
+        int[] b = new int[cap];
+        System.arraycopy(a, 0, b, 0, gapStart);
+        System.arraycopy(a, gapEnd, b, newGapEnd, tail);
+        return b;
+    }
+}
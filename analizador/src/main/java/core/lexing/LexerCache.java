@@ -0,0 +1,92 @@
+package core.lexing;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import model.config.Config;
+
+/**
+ * Caché del {@link CompiledLexer} de la configuración vigente, compartida por
+ * los servicios de análisis y de resaltado (este último reanaliza cada
+ * ~100 ms mientras se escribe).
+ *
+ * Decisiones:
+ * - Una sola entrada: la app usa una configuración a la vez. La clave es la
+ * huella de contenido, así que un Config editado en su lugar produce un
+ * fallo (y se recompila) aunque sea el mismo objeto.
+ * - Armar la huella recorre toda la configuración; antes se compara el mismo
+ * objeto y su {@link Config#getVersion()}: si no cambió, es un acierto sin
+ * armarla. Por eso no hace falta invalidar al guardar una configuración
+ * nueva: copiarla con los setters cambia la versión.
+ * - La entrada vive en un AtomicReference: leer y reemplazar son atómicos y
+ * sin bloqueos; si dos hilos fallan a la vez ambos compilan el mismo
+ * contenido y gana el último (resultados idénticos).
+ * - Contadores de aciertos/fallos para medir su efecto.
+ */
+public final class LexerCache {
+
+    private static final LexerCache SHARED = new LexerCache();
+
+    private final AtomicReference<Entry> current = new AtomicReference<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /** Instancia común de la aplicación. */
+    public static LexerCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Lexer compilado para el contenido actual de la configuración.
+     * @param config configuración (no null)
+     * @return el cacheado si la huella coincide; si no, uno recién compilado
+     */
+    public CompiledLexer get(Config config) {
+        Objects.requireNonNull(config, "config no puede ser null");
+        // La versión se lee antes que el contenido: si cambia en medio, la
+        // entrada queda con la versión vieja y la próxima consulta recompara
+        long version = config.getVersion();
+        Entry cached = current.get();
+        if (cached != null && cached.source() == config && cached.version() == version) {
+            hits.incrementAndGet();
+            return cached.lexer();
+        }
+        String key = CompiledLexer.fingerprint(config);
+        if (cached != null && cached.lexer().fingerprint().equals(key)) {
+            hits.incrementAndGet();
+            current.set(new Entry(cached.lexer(), config, version));
+            return cached.lexer();
+        }
+        misses.incrementAndGet();
+        CompiledLexer compiled = new CompiledLexer(config);
+        current.set(new Entry(compiled, config, version));
+        return compiled;
+    }
+
+    /**
+     * Motor con el lexer compilado de la caché.
+     * @param config configuración (no null)
+     * @param mode   DFA o PARALLEL (CASCADE no usa lo compilado: se rechaza)
+     */
+    public LexerEngine engine(Config config, LexerEngine.Mode mode) {
+        Objects.requireNonNull(mode, "mode no puede ser null");
+        if (mode == LexerEngine.Mode.CASCADE) {
+            throw new IllegalArgumentException("La caché solo sirve modos con AFD.");
+        }
+        return new LexerEngine(get(config), mode);
+    }
+
+    /** Consultas resueltas con la entrada cacheada. */
+    public long hits() {
+        return hits.get();
+    }
+
+    /** Consultas que tuvieron que compilar. */
+    public long misses() {
+        return misses.get();
+    }
+
+    /** Lexer compilado y la configuración (y versión) con que se validó. */
+    private record Entry(CompiledLexer lexer, Config source, long version) { }
+}
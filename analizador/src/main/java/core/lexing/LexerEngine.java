@@ -4,16 +4,32 @@ package core.lexing;
 import model.config.Config;
 import model.lexical.*;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
-
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import core.lexing.dfa.Dfa;
+import core.lexing.dfa.LexRule;
+import core.lexing.dfa.LexerDfaCompiler;
 import core.lexing.policy.*;
 import core.lexing.recognizer.*;
+import core.lexing.stream.ByteCursor;
 import core.lexing.stream.CharClasses;
 import core.lexing.stream.CharCursor;
+import core.lexing.stream.LineTracker;
+import core.lexing.stream.Lookahead;
+import core.lexing.stream.ReaderCursor;
+import core.lexing.stream.StreamCursor;
 import core.lexing.table.OperatorTable;
-import core.lexing.table.ReservedWords;
 
 /**
  * Orquestador del análisis léxico (char-a-char) conforme a la práctica.
@@ -26,31 +42,184 @@ import core.lexing.table.ReservedWords;
  *  - Generar tokens con tipo (incluyendo COMMENT y ERROR), lexema exacto y
  *    posición 1-based del inicio del lexema.
  *
+ * Modos:
+ *  - DFA (por defecto): la configuración se compila en un único AFD
+ *    ({@link LexerDfaCompiler}) y cada token se obtiene con UNA pasada de
+ *    maximal munch; la etiqueta {@link LexRule} indica tipo, error y longitudes.
+ *  - PARALLEL: el mismo AFD aplicado por tramos en el ForkJoinPool común, con
+ *    reparación secuencial de las fronteras ({@link ChunkedLexer}); los textos
+ *    pequeños se analizan como en DFA.
+ *  - CASCADE: la cascada original de reconocedores; se conserva como referencia
+ *    (todos los modos producen exactamente los mismos tokens y errores).
+ *
  * Restricciones:
  *  - Trabaja únicamente con CharCursor (peek/next), sin regex ni utilidades de cadena avanzadas.
  */
 public final class LexerEngine {
 
-    /** Resultado agregado del análisis léxico. */
+    /** Estrategia de reconocimiento. */
+    public enum Mode {
+        /** Un único AFD compilado desde la configuración. */
+        DFA,
+        /** El AFD aplicado por tramos en paralelo (textos grandes). */
+        PARALLEL,
+        /** Cascada de reconocedores (implementación de referencia). */
+        CASCADE
+    }
+
+    /**
+     * Resultado agregado del análisis léxico.
+     * Los tokens viven en un {@link TokenBuffer} columnar; tokens() es una
+     * vista perezosa sobre él.
+     */
     public static final class Result {
-        private final List<Token> tokens;
+        private final TokenBuffer buffer;
+        private final List<LexError> errors;
+
+        public Result(TokenBuffer buffer, List<LexError> errors) {
+            this.buffer = Objects.requireNonNull(buffer, "buffer no puede ser null");
+            this.errors = Objects.requireNonNull(errors, "errors no puede ser null");
+        }
+        public TokenBuffer buffer() { return buffer; }
+        public List<Token> tokens() { return buffer.asList(); }
+        public List<LexError> errors() { return errors; }
+    }
+
+    /**
+     * Sink que arma el {@link Result}: tokens en un TokenBuffer columnar y
+     * errores como {@link LexError} (posición derivada del índice de líneas
+     * del buffer).
+     */
+    public static final class ResultSink implements TokenSink {
+        private final TokenBuffer tokens;
         private final List<LexError> errors;
 
-        public Result(List<Token> tokens, List<LexError> errors) {
+        /**
+         * @param text  texto que se analizará (no null)
+         * @param lines índice de líneas de ese texto (no null)
+         */
+        public ResultSink(CharSequence text, LineIndex lines) {
+            this(new TokenBuffer(text, lines, estimateTokens(text)), new ArrayList<>());
+        }
+
+        /** Sobre un buffer y una lista dados; errors null = descartar errores. */
+        ResultSink(TokenBuffer tokens, List<LexError> errors) {
             this.tokens = tokens;
             this.errors = errors;
         }
-        public List<Token> tokens() { return tokens; }
+
+        @Override
+        public void token(TokenType type, CharSequence text, int start, int length) {
+            tokens.add(type, start, length);
+        }
+
+        @Override
+        public void error(CharSequence text, int start, int length, String message) {
+            // Los errores son pocos: solo ellos materializan lexema y posición
+            if (errors == null) return;
+            String lex = text.subSequence(start, start + length).toString();
+            errors.add(new LexError(lex, tokens.lineIndex().position(start), message));
+        }
+
+        /** Resultado con lo recibido hasta ahora. */
+        public Result result() {
+            return new Result(tokens, errors == null ? List.of() : List.copyOf(errors));
+        }
+    }
+
+    /**
+     * Resultado del modo de validación: solo errores y conteos por tipo, sin
+     * tokens ni lexemas (salvo los de los errores).
+     */
+    public static final class Validation {
+        private static final TokenType[] TYPES = TokenType.values();
+
+        private final int[] counts;
+        private final List<LexError> errors;
+        private final boolean complete;
+
+        Validation(int[] counts, List<LexError> errors, boolean complete) {
+            this.counts = counts;
+            this.errors = errors;
+            this.complete = complete;
+        }
+
+        /** ¿Sin errores léxicos? (con límite, basta con el primero para saberlo). */
+        public boolean isClean() { return errors.isEmpty(); }
+
+        /** Errores encontrados (a lo sumo el límite pedido). */
         public List<LexError> errors() { return errors; }
+
+        /** false si el análisis se detuvo al alcanzar el límite de errores. */
+        public boolean complete() { return complete; }
+
+        /** Cantidad de tokens del tipo indicado (hasta donde se analizó). */
+        public int count(TokenType type) { return counts[type.ordinal()]; }
+
+        /** Cantidad total de tokens (incluye COMMENT y ERROR, como Result). */
+        public int tokenCount() {
+            int total = 0;
+            for (TokenType t : TYPES) total += counts[t.ordinal()];
+            return total;
+        }
+    }
+
+    /**
+     * Sink del modo de validación: cuenta por tipo y guarda solo los errores.
+     * Como {@link ScanHook} detiene el escaneo cuando se alcanza el límite.
+     */
+    private static final class ValidationSink implements TokenSink, ScanHook {
+        private final int[] counts = new int[Validation.TYPES.length];
+        private final List<LexError> errors = new ArrayList<>();
+        private final LineIndex lines;
+        private final int maxErrors;
+        private boolean stopped;
+
+        ValidationSink(LineIndex lines, int maxErrors) {
+            this.lines = lines;
+            this.maxErrors = maxErrors;
+        }
+
+        @Override
+        public void token(TokenType type, CharSequence text, int start, int length) {
+            if (stopped) return;
+            counts[type.ordinal()]++;
+            if (type == TokenType.ERROR && errors.size() >= maxErrors) stopped = true;
+        }
+
+        @Override
+        public void error(CharSequence text, int start, int length, String message) {
+            if (stopped) return;
+            String lex = text.subSequence(start, start + length).toString();
+            errors.add(new LexError(lex, lines.position(start), message));
+        }
+
+        @Override
+        public boolean resume(int index, int reach) {
+            return !stopped;
+        }
+
+        @Override
+        public void emitted(int reachBefore) { }
+
+        Validation result() {
+            return new Validation(counts, List.copyOf(errors), !stopped);
+        }
     }
 
     private final Config config;
+    private final Mode mode;
+
+    // Tablas, alfabeto de cadenas y AFD (compartibles entre motores)
+    private final CompiledLexer compiled;
+
+    // AFD compilado (modos DFA y PARALLEL)
+    private final Dfa<LexRule> dfa;
 
     // Tablas configurables
     private final OperatorTable opTable;
     private final OperatorTable punctTable;
     private final OperatorTable groupTable;
-    private final ReservedWords reserved;
 
     // Reconocedores
     private final LineCommentRecognizer lineComment = new LineCommentRecognizer();
@@ -67,29 +236,69 @@ public final class LexerEngine {
 
     private final TokenClassifier classifier;
 
+    // Pasos de la cascada aplicables según el primer carácter
+    private final CascadeDispatch dispatch;
+
     // Políticas
-    private final AlphabetPolicy alphabetPolicy = new AlphabetPolicy();
+    private final AlphabetPolicy alphabetPolicy;
     private final ErrorRecoveryPolicy recoveryPolicy = new ErrorRecoveryPolicy();
 
     /**
-     * Construye el lexer con la configuración dinámica.
+     * Construye el lexer con la configuración dinámica (modo DFA).
      * @param config archivo de configuración cargado desde config.json
      */
     public LexerEngine(Config config) {
-        this.config = Objects.requireNonNull(config, "config no puede ser null");
+        this(config, Mode.DFA);
+    }
 
-        this.opTable = new OperatorTable(config.getOperadores());
-        this.punctTable = new OperatorTable(config.getPuntuacion());
-        this.groupTable = new OperatorTable(config.getAgrupacion());
-        this.reserved = new ReservedWords(config.getPalabrasReservadas());
+    /**
+     * Construye el lexer con la configuración dinámica y el modo indicado.
+     * Compila todo desde cero; para reutilizar lo compilado, ver {@link LexerCache}.
+     * @param config archivo de configuración cargado desde config.json
+     * @param mode   estrategia de reconocimiento
+     */
+    public LexerEngine(Config config, Mode mode) {
+        this(new CompiledLexer(Objects.requireNonNull(config, "config no puede ser null"),
+                mode != Mode.CASCADE), mode);
+    }
+
+    /**
+     * Construye el lexer sobre una configuración ya compilada (sin recompilar).
+     * @param compiled tablas y AFD de la configuración
+     * @param mode     estrategia de reconocimiento
+     */
+    public LexerEngine(CompiledLexer compiled, Mode mode) {
+        this.compiled = Objects.requireNonNull(compiled, "compiled no puede ser null");
+        this.mode = Objects.requireNonNull(mode, "mode no puede ser null");
+        if (mode != Mode.CASCADE && compiled.dfa() == null) {
+            throw new IllegalArgumentException("La configuración compilada no incluye el AFD.");
+        }
+        this.config = compiled.config();
+
+        this.opTable = compiled.opTable();
+        this.punctTable = compiled.punctTable();
+        this.groupTable = compiled.groupTable();
 
         this.operatorRec = new OperatorRecognizer(opTable);
         this.punctuationRec = new PunctuationRecognizer(punctTable);
         this.groupingRec = new GroupingRecognizer(groupTable);
 
-        this.stringRec = new StringRecognizer(config, opTable, punctTable, groupTable);
+        this.stringRec = compiled.stringRecognizer();
+        this.alphabetPolicy = compiled.alphabetPolicy();
+        this.classifier = compiled.classifier();
+        this.dispatch = compiled.dispatch();
+
+        this.dfa = (mode != Mode.CASCADE) ? compiled.dfa() : null;
+    }
+
+    /** Configuración compilada que usa este motor. */
+    public CompiledLexer compiled() {
+        return compiled;
+    }
 
-        this.classifier = new TokenClassifier(reserved);
+    /** Modo de reconocimiento de esta instancia. */
+    public Mode mode() {
+        return mode;
     }
 
     /**
@@ -97,79 +306,454 @@ public final class LexerEngine {
      * Produce tokens y errores con posiciones 1-based.
      *
      * @param text texto de entrada
-     * @return Result con listas inmutables de tokens y errores.
+     * @return Result con el buffer de tokens y la lista inmutable de errores.
      */
     public Result analyze(String text) {
         if (text == null) throw new IllegalArgumentException("El texto de entrada no puede ser null.");
+        return analyze(text, new LineIndex(text));
+    }
+
+    /**
+     * Igual que {@link #analyze(String)} reutilizando un índice de líneas ya
+     * construido para ese texto (p. ej. el cacheado en DocumentModel). Los
+     * tokens solo guardan desplazamientos; línea/columna se derivan del índice.
+     *
+     * @param text  texto de entrada
+     * @param lines índice de líneas del mismo texto
+     * @return Result con el buffer de tokens y la lista inmutable de errores.
+     */
+    public Result analyze(String text, LineIndex lines) {
+        if (text == null) throw new IllegalArgumentException("El texto de entrada no puede ser null.");
+        if (lines == null || !text.contentEquals(lines.text())) {
+            throw new IllegalArgumentException("El índice de líneas no corresponde al texto.");
+        }
+        return switch (mode) {
+            case DFA -> analyzeDfa(text, lines);
+            case PARALLEL -> analyzeParallel(text, lines);
+            case CASCADE -> analyzeCascade(text, lines);
+        };
+    }
+
+    /**
+     * Análisis en modo "push": cada token (y cada error) se entrega al sink
+     * apenas se reconoce; el lexer no retiene nada. El sink decide qué guardar
+     * (p. ej. {@link ResultSink} arma el Result clásico; un contador solo
+     * agrega).
+     *
+     * En modo CASCADE (referencia) se analiza completo y luego se reenvía; el
+     * modo PARALLEL se recorre secuencialmente para conservar el orden.
+     *
+     * @param text texto de entrada (no null; no debe cambiar durante el análisis)
+     * @param sink destino de tokens y errores (no null)
+     */
+    public void analyze(CharSequence text, TokenSink sink) {
+        if (text == null) throw new IllegalArgumentException("El texto de entrada no puede ser null.");
+        Objects.requireNonNull(sink, "sink no puede ser null");
+        if (mode == Mode.CASCADE) {
+            replay(text, analyzeCascade(text.toString(), new LineIndex(text)), sink);
+            return;
+        }
+        scanDfa(text, 0, 0, sink, null);
+    }
+
+    /**
+     * Modo de validación: recorre el texto como el análisis completo pero solo
+     * cuenta tokens por tipo y registra errores; no arma buffer de tokens ni
+     * materializa lexemas válidos. El índice de líneas se construye recién con
+     * el primer error.
+     *
+     * @param text      texto de entrada (no null)
+     * @param maxErrors detenerse tras este número de errores (>= 1);
+     *                  Integer.MAX_VALUE = analizar todo
+     * @return conteos y errores; complete() indica si se llegó al final
+     */
+    public Validation validate(CharSequence text, int maxErrors) {
+        if (text == null) throw new IllegalArgumentException("El texto de entrada no puede ser null.");
+        if (maxErrors < 1) throw new IllegalArgumentException("maxErrors debe ser >= 1: " + maxErrors);
+        var sink = new ValidationSink(new LineIndex(text), maxErrors);
+        if (mode == Mode.CASCADE) {
+            // Referencia: análisis completo reenviado (el sink ignora lo posterior al límite)
+            replay(text, analyzeCascade(text.toString(), new LineIndex(text)), sink);
+        } else {
+            // PARALLEL se recorre secuencialmente: el corte temprano no se beneficia de tramos
+            scanDfa(text, 0, 0, sink, sink);
+        }
+        return sink.result();
+    }
+
+    /** Capacidad inicial del buffer del análisis por flujo (chars). */
+    public static final int STREAM_BUFFER = 1 << 16;
+
+    /**
+     * Análisis por flujo con memoria acotada: lee del Reader a través de un
+     * {@link ReaderCursor} (buffer circular) y entrega todo al sink sin
+     * retener el texto. Pensado para archivos más grandes que el heap.
+     *
+     * Diferencias con {@link #analyze(CharSequence, TokenSink)}:
+     *  - 'text' en el sink es la ventana del buffer (válida solo durante la
+     *    llamada) y 'start' es 0; la ubicación absoluta llega antes por
+     *    {@link TokenSink#position(long, int, int)}.
+     *  - Requiere un modo con AFD (DFA o PARALLEL, que aquí es secuencial).
+     *
+     * @param reader fuente (no null; no se cierra aquí). Para archivos, usar
+     *               TextLoader.open para la misma normalización de saltos
+     * @param sink   destino de tokens y errores (no null)
+     * @throws IOException si falla la lectura
+     */
+    public void analyze(Reader reader, TokenSink sink) throws IOException {
+        analyze(reader, sink, STREAM_BUFFER);
+    }
+
+    /** Igual que {@link #analyze(Reader, TokenSink)} con capacidad inicial dada (pruebas). */
+    void analyze(Reader reader, TokenSink sink, int bufferCapacity) throws IOException {
+        Objects.requireNonNull(reader, "reader no puede ser null");
+        Objects.requireNonNull(sink, "sink no puede ser null");
+        if (dfa == null) {
+            throw new IllegalStateException("El análisis por flujo requiere un modo con AFD.");
+        }
+        try {
+            streamDfa(new ReaderCursor(reader, bufferCapacity), sink);
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    /**
+     * Análisis por flujo directamente sobre bytes UTF-8 (p. ej. el
+     * MappedByteBuffer de TextLoader.map): el AFD recorre los bytes con un
+     * {@link ByteCursor}, sin decodificar el archivo a chars ni copiarlo al
+     * heap. CR y CRLF se leen como '\n', igual que al cargar con TextLoader.
+     *
+     * Mismo contrato con el sink que {@link #analyze(Reader, TokenSink)}.
+     *
+     * @param utf8 contenido UTF-8 de position() a limit() (no null; no se modifica)
+     * @param sink destino de tokens y errores (no null)
+     */
+    public void analyze(ByteBuffer utf8, TokenSink sink) {
+        Objects.requireNonNull(utf8, "utf8 no puede ser null");
+        Objects.requireNonNull(sink, "sink no puede ser null");
+        if (dfa == null) {
+            throw new IllegalStateException("El análisis por flujo requiere un modo con AFD.");
+        }
+        streamDfa(new ByteCursor(utf8), sink);
+    }
+
+    /** Bucle común del análisis por flujo: 'text' en el sink es la ventana del cursor. */
+    private void streamDfa(StreamCursor cursor, TokenSink sink) {
+        CharSequence window = cursor.window();
+        var m = new Dfa.Match<LexRule>();
+        while (!cursor.eof()) {
+            if (CharClasses.isSpaceOrNewline(cursor.peek())) {
+                cursor.next();
+                continue;
+            }
+            dfa.evaluate(cursor, m);
+            if (m.accepted() && m.acceptTag() != LexRule.ALPHABET_SKIP) {
+                sink.position(cursor.index(), cursor.line(), cursor.column());
+            }
+            emit(window, 0, cursor, m, sink);
+        }
+    }
+
+    /**
+     * Análisis en modo "pull": los tokens se producen a medida que se piden,
+     * con memoria constante (la posición se lleva con un {@link LineTracker}
+     * en vez de un índice de líneas).
+     *
+     * @param text    texto de entrada (no null; no debe cambiar mientras se recorra)
+     * @param onError recibe cada error justo antes de su token ERROR (no null)
+     * @return spliterator secuencial y ordenado de tokens
+     */
+    public Spliterator<Token> spliterator(CharSequence text, Consumer<? super LexError> onError) {
+        if (text == null) throw new IllegalArgumentException("El texto de entrada no puede ser null.");
+        Objects.requireNonNull(onError, "onError no puede ser null");
+        if (mode == Mode.CASCADE) {
+            Result r = analyzeCascade(text.toString(), new LineIndex(text));
+            r.errors().forEach(onError);
+            return r.tokens().spliterator();
+        }
+        return new DfaSpliterator(text, onError);
+    }
+
+    /** Stream de tokens en modo "pull" (los errores solo aparecen como tokens ERROR). */
+    public Stream<Token> stream(CharSequence text) {
+        return StreamSupport.stream(spliterator(text, e -> { }), false);
+    }
+
+    /**
+     * Modo PARALLEL: reparte por tramos si el texto es grande y hay más de un
+     * hilo disponible; si no, equivale al modo DFA.
+     */
+    private Result analyzeParallel(String text, LineIndex lines) {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        if (!ChunkedLexer.worthSplitting(text.length(), pool.getParallelism())) {
+            return analyzeDfa(text, lines);
+        }
+        return new ChunkedLexer(this, pool, ChunkedLexer.MIN_CHUNK).analyze(text, lines);
+    }
+
+    /**
+     * Modo DFA: una sola evaluación del autómata por token.
+     * La regla aceptada determina tipo, mensaje y cuánto consumir.
+     */
+    private Result analyzeDfa(String text, LineIndex lines) {
+        var sink = new ResultSink(new TokenBuffer(text, lines, estimateTokens(text)), new ArrayList<>());
+        scanDfa(text, 0, 0, sink, null);
+        return sink.result();
+    }
 
+    /**
+     * Observador del escaneo DFA (uso interno del relexer incremental y del
+     * análisis por tramos).
+     *
+     * "Alcance" (reach) = índice exclusivo hasta donde se ha leído texto,
+     * incluido el lookahead del AFD: todo lo producido hasta ese punto depende
+     * solo de text[0..reach).
+     */
+    interface ScanHook {
+        /**
+         * Se invoca antes de evaluar en 'index' (ya saltados los blancos).
+         * @param reach alcance de todas las lecturas anteriores a 'index'
+         * @return false para detener el escaneo sin evaluar en 'index'
+         */
+        boolean resume(int index, int reach);
+
+        /**
+         * Se invoca tras agregar un token.
+         * @param reachBefore alcance de las lecturas anteriores al inicio del token
+         */
+        void emitted(int reachBefore);
+    }
+
+    /**
+     * Escaneo DFA desde 'from' hasta EOF o hasta que el hook lo detenga.
+     *
+     * @param text         texto completo
+     * @param from         índice donde inicia un token o un blanco
+     * @param initialReach alcance de lo leído antes de 'from'
+     * @param sink         destino de tokens y errores
+     * @param hook         observador (puede ser null)
+     * @return índice donde se detuvo el escaneo
+     */
+    int scanDfa(CharSequence text, int from, int initialReach, TokenSink sink, ScanHook hook) {
         var cursor = new CharCursor(text);
-        var tokens = new ArrayList<Token>();
+        cursor.seek(from);
+        int reach = initialReach;
+        var m = new Dfa.Match<LexRule>(); // reutilizado: sin asignaciones por token
+
+        while (!cursor.eof()) {
+            int start = cursor.index();
+            if (CharClasses.isSpaceOrNewline(cursor.peek())) {
+                // Toda la racha de blancos de una vez
+                int run = cursor.spaceRun(0);
+                cursor.seek(start + run);
+                reach = Math.max(reach, start + run);
+                continue;
+            }
+            if (hook != null && !hook.resume(start, reach)) {
+                break;
+            }
+
+            int reachBefore = reach;
+            dfa.evaluate(cursor, m);
+            reach = Math.max(reach, start + m.examined());
+            if (emit(text, start, cursor, m, sink) && hook != null) {
+                hook.emitted(reachBefore);
+            }
+        }
+        return cursor.index();
+    }
+
+    /**
+     * Entrega al sink el token reconocido en la posición del cursor y lo
+     * consume. 'start' es el índice de esa posición dentro de 'text' (0 si
+     * 'text' es la ventana de un {@link StreamCursor}).
+     *
+     * @return true si se emitió un token
+     */
+    private boolean emit(CharSequence text, int start, Lookahead cursor, Dfa.Match<LexRule> m, TokenSink sink) {
+        if (!m.accepted() || m.acceptTag() == LexRule.ALPHABET_SKIP) {
+            // Permitido pero sin token (p. ej. prefijo de comentario rechazado): avanzar 1
+            consume(cursor, 1);
+            return false;
+        }
+
+        LexRule rule = m.acceptTag();
+        int consumeLen = m.length() - rule.trailing();
+        // examined - 1 = desplazamiento del carácter (o EOF) que detuvo al AFD: el
+        // lexema no puede incluir el EOF (no se consulta text.length(), que en
+        // una ventana de flujo puede no ser barato)
+        int lexLen = Math.min(consumeLen - rule.lexemeTrim(), m.examined() - 1);
+        TokenType type = rule.type();
+        if (rule.isError()) {
+            sink.error(text, start, lexLen, rule.message());
+        } else if (rule == LexRule.IDENTIFIER) {
+            type = classifier.classifyIdentOrReserved(text, start, lexLen);
+        }
+        sink.token(type, text, start, lexLen);
+        consume(cursor, consumeLen);
+        return true;
+    }
+
+    /** Reenvía un Result ya calculado a un sink (cada error antes de su token ERROR). */
+    private static void replay(CharSequence text, Result r, TokenSink sink) {
+        TokenBuffer tokens = r.buffer();
+        int nextError = 0;
+        for (int i = 0; i < tokens.size(); i++) {
+            TokenType type = tokens.type(i);
+            if (type == TokenType.ERROR && nextError < r.errors().size()) {
+                LexError e = r.errors().get(nextError++);
+                sink.error(text, tokens.start(i), tokens.length(i), e.mensaje());
+            }
+            sink.token(type, text, tokens.start(i), tokens.length(i));
+        }
+    }
+
+    /**
+     * Recorrido "pull" del AFD: cada tryAdvance escanea hasta el siguiente
+     * token. Es su propio sink para capturar el token recién emitido.
+     */
+    private final class DfaSpliterator implements Spliterator<Token>, TokenSink {
+        private final CharSequence text;
+        private final Consumer<? super LexError> onError;
+        private final CharCursor cursor;
+        private final LineTracker tracker = new LineTracker();
+        private final Dfa.Match<LexRule> match = new Dfa.Match<>();
+        private int tracked = 0; // índice hasta donde avanzó el tracker
+
+        // Token capturado por el último emit
+        private TokenType type;
+        private int start;
+        private int length;
+
+        DfaSpliterator(CharSequence text, Consumer<? super LexError> onError) {
+            this.text = text;
+            this.onError = onError;
+            this.cursor = new CharCursor(text);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Token> action) {
+            Objects.requireNonNull(action, "action no puede ser null");
+            while (!cursor.eof()) {
+                if (CharClasses.isSpaceOrNewline(cursor.peek())) {
+                    cursor.advance(cursor.spaceRun(0));
+                    continue;
+                }
+                if (emit(text, cursor.index(), cursor, dfa.evaluate(cursor, match), this)) {
+                    action.accept(new Token(type, text.subSequence(start, start + length).toString(),
+                            positionOf(start)));
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void token(TokenType type, CharSequence text, int start, int length) {
+            this.type = type;
+            this.start = start;
+            this.length = length;
+        }
+
+        @Override
+        public void error(CharSequence text, int start, int length, String message) {
+            String lex = text.subSequence(start, start + length).toString();
+            onError.accept(recoveryPolicy.buildLexError(lex, positionOf(start), message));
+        }
+
+        /** Posición de 'offset' (no decreciente entre llamadas). */
+        private Position positionOf(int offset) {
+            tracker.advance(text, tracked, offset);
+            tracked = offset;
+            return tracker.position();
+        }
+
+        @Override
+        public Spliterator<Token> trySplit() {
+            return null; // secuencial: cada token depende de dónde terminó el anterior
+        }
+
+        @Override
+        public long estimateSize() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL;
+        }
+    }
+
+    /** Modo CASCADE: prueba los reconocedores en orden en cada posición. */
+    private Result analyzeCascade(String text, LineIndex lines) {
+        var cursor = new CharCursor(text, lines);
+        var tokens = new TokenBuffer(text, lines, estimateTokens(text));
         var errors = new ArrayList<LexError>();
 
         while (!cursor.eof()) {
 
-            // 0) Saltos/blancos del alfabeto (espacio, CR/LF) se omiten
+            // 0) Saltos/blancos del alfabeto (espacio, CR/LF) se omiten (toda la racha)
             if (CharClasses.isSpaceOrNewline(cursor.peek())) {
-                cursor.next();
+                cursor.seek(cursor.index() + cursor.spaceRun(0));
                 continue;
             }
 
-            // Posición de inicio del posible lexema
-            Position pos = cursor.position();
+            // Inicio del posible lexema (la posición se deriva solo para errores)
+            int start = cursor.index();
+
+            // Solo se prueban los pasos que pueden empezar con este carácter
+            int steps = dispatch.mask(cursor.peek());
 
             // Delimitador de cierre de bloque sin apertura
             String blockEnd = config.getComentarios() != null ? config.getComentarios().getBloqueFin() : null;
-            if (blockEnd != null && startsWith(cursor, blockEnd)) {
+            if ((steps & CascadeDispatch.BLOCK_END) != 0 && blockEnd != null && startsWith(cursor, blockEnd)) {
                 String lex = buildLexeme(cursor, blockEnd.length());
-                errors.add(recoveryPolicy.buildLexError(lex, pos,
-                        "Delimitador de cierre de bloque sin apertura"));
-                tokens.add(new Token(TokenType.ERROR, lex, pos));
+                errors.add(recoveryPolicy.buildLexError(lex, cursor.position(), LexRule.BLOCK_END_ORPHAN.message()));
+                tokens.add(TokenType.ERROR, start, lex.length());
                 consume(cursor, blockEnd.length());
                 continue;
             }
 
-            Recognition r;
+            long r = Recognition.NO_MATCH;
 
             // 1) Cadenas
-            r = stringRec.recognize(cursor);
-            if (r.matched()) {
-                if (r.hasError()) {
-                    int consumeLen = r.length();
-                    int lexemeLen = consumeLen;
-                    if (StringRecognizer.MSG_SIMBOLO_INVALIDO.equals(r.errorMessage())) {
-                        lexemeLen = Math.max(0, consumeLen - 1);
+            if ((steps & CascadeDispatch.STRING) != 0) r = stringRec.recognize(cursor);
+            if (Recognition.matched(r)) {
+                int len = Recognition.length(r);
+                if (Recognition.hasError(r)) {
+                    int lexemeLen = len;
+                    if (Recognition.errorCode(r) == Recognition.STRING_INVALID_SYMBOL) {
+                        lexemeLen = Math.max(0, len - 1);
                     }
                     String lex = buildLexeme(cursor, lexemeLen);
-                    errors.add(recoveryPolicy.buildLexError(lex, pos, r.errorMessage()));
-                    tokens.add(new Token(TokenType.ERROR, lex, pos));
-                    consume(cursor, consumeLen);
+                    errors.add(recoveryPolicy.buildLexError(lex, cursor.position(), Recognition.errorMessage(r)));
+                    tokens.add(TokenType.ERROR, start, lex.length());
                 } else {
-                    String lex = buildLexeme(cursor, r.length());
-                    tokens.add(new Token(TokenType.STRING, lex, pos));
-                    consume(cursor, r.length());
+                    tokens.add(TokenType.STRING, start, span(cursor, len));
                 }
+                consume(cursor, len);
                 continue;
             }
 
             // 2) Comentarios (se IGNORAN; solo reportar error si bloque no cierra)
-            r = lineComment.recognize(cursor, config.getComentarios());
-            if (r.matched()) {
-                String lex = buildLexeme(cursor, r.length());
-                tokens.add(new Token(TokenType.COMMENT, lex, pos));
-                consume(cursor, r.length());
+            if ((steps & CascadeDispatch.LINE_COMMENT) != 0) r = lineComment.recognize(cursor, config.getComentarios());
+            if (Recognition.matched(r)) {
+                tokens.add(TokenType.COMMENT, start, span(cursor, Recognition.length(r)));
+                consume(cursor, Recognition.length(r));
                 continue;
             }
-            r = blockComment.recognize(cursor, config.getComentarios());
-            if (r.matched()) {
-                String lex = buildLexeme(cursor, r.length());
-                if (r.hasError()) {
+            if ((steps & CascadeDispatch.BLOCK_COMMENT) != 0) r = blockComment.recognize(cursor, config.getComentarios());
+            if (Recognition.matched(r)) {
+                if (Recognition.hasError(r)) {
                     // Error: comentario de bloque no cerrado (consume hasta EOF según reconocedor)
-                    errors.add(recoveryPolicy.buildLexError(lex, pos, r.errorMessage()));
-                    tokens.add(new Token(TokenType.ERROR, lex, pos));
+                    String lex = buildLexeme(cursor, Recognition.length(r));
+                    errors.add(recoveryPolicy.buildLexError(lex, cursor.position(), Recognition.errorMessage(r)));
+                    tokens.add(TokenType.ERROR, start, lex.length());
                 } else {
-                    tokens.add(new Token(TokenType.COMMENT, lex, pos));
+                    tokens.add(TokenType.COMMENT, start, span(cursor, Recognition.length(r)));
                 }
-                consume(cursor, r.length());
+                consume(cursor, Recognition.length(r));
                 continue;
             }
 
@@ -179,101 +763,72 @@ public final class LexerEngine {
             //           y NO existe un operador definido exactamente con esa repetición, se reporta error
             //           consumiendo toda la racha.
             char firstCh = (char) cursor.peek();
-            if (firstCh != CharCursor.EOF) {
-                String firstSym = Character.toString(firstCh);
-                if (opTable.contains(firstSym)) {
-                    int run = 1;
-                    while (true) {
-                        int peeked = cursor.peek(run);
-                        if (peeked == CharCursor.EOF || (char) peeked != firstCh) break;
-                        run++;
-                    }
-                    if (run >= 2) {
-                        // ¿Existe un operador exactamente igual a la racha (p.ej. "==")?
-                        StringBuilder sb = new StringBuilder(run);
-                        for (int i = 0; i < run; i++) sb.append(firstCh);
-                        String repeated = sb.toString();
-                        if (!opTable.contains(repeated)) {
-                            String lex = buildLexeme(cursor, run);
-                            errors.add(recoveryPolicy.buildLexError(lex, pos, "Secuencia inválida de operador repetido"));
-                            tokens.add(new Token(TokenType.ERROR, lex, pos));
-                            consume(cursor, run);
-                            continue;
-                        }
-                    }
+            if ((steps & CascadeDispatch.REPEATED_OPERATOR) != 0 && opTable.containsRun(firstCh, 1)) {
+                int run = 1;
+                while (true) {
+                    int peeked = cursor.peek(run);
+                    if (peeked == CharCursor.EOF || (char) peeked != firstCh) break;
+                    run++;
+                }
+                // ¿Existe un operador exactamente igual a la racha (p.ej. "==")?
+                if (run >= 2 && !opTable.containsRun(firstCh, run)) {
+                    String lex = buildLexeme(cursor, run);
+                    errors.add(recoveryPolicy.buildLexError(lex, cursor.position(), LexRule.REPEATED_OPERATOR.message()));
+                    tokens.add(TokenType.ERROR, start, lex.length());
+                    consume(cursor, run);
+                    continue;
                 }
             }
 
             // 3) Decimales (primero, para no confundir con enteros válidos)
-            r = decimalRec.recognize(cursor);
-            if (r.matched()) {
-                if (r.hasError()) {
-                    String lex = buildLexeme(cursor, r.length());
-                    errors.add(recoveryPolicy.buildLexError(lex, pos, r.errorMessage()));
-                    tokens.add(new Token(TokenType.ERROR, lex, pos));
-                    consume(cursor, r.length());
-                } else {
-                    String lex = buildLexeme(cursor, r.length());
-                    tokens.add(new Token(TokenType.DECIMAL, lex, pos));
-                    consume(cursor, r.length());
-                }
+            if ((steps & CascadeDispatch.DECIMAL) != 0) r = decimalRec.recognize(cursor);
+            if (Recognition.matched(r)) {
+                emitNumeric(cursor, start, r, TokenType.DECIMAL, tokens, errors);
                 continue;
             }
 
             // 4) Enteros (y "número mal formado" si tras dígitos hay letra inmediata)
-            r = numberRec.recognize(cursor);
-            if (r.matched()) {
-                if (r.hasError()) {
-                    String lex = buildLexeme(cursor, r.length());
-                    errors.add(recoveryPolicy.buildLexError(lex, pos, r.errorMessage()));
-                    tokens.add(new Token(TokenType.ERROR, lex, pos));
-                    consume(cursor, r.length());
-                } else {
-                    String lex = buildLexeme(cursor, r.length());
-                    tokens.add(new Token(TokenType.NUMBER, lex, pos));
-                    consume(cursor, r.length());
-                }
+            if ((steps & CascadeDispatch.NUMBER) != 0) r = numberRec.recognize(cursor);
+            if (Recognition.matched(r)) {
+                emitNumeric(cursor, start, r, TokenType.NUMBER, tokens, errors);
                 continue;
             }
 
             // 5) Identificadores / Palabras reservadas
-            r = identRec.recognize(cursor);
-            if (r.matched()) {
-                String lex = buildLexeme(cursor, r.length());
-                TokenType type = classifier.classifyIdentOrReserved(lex);
-                tokens.add(new Token(type, lex, pos));
-                consume(cursor, r.length());
+            if ((steps & CascadeDispatch.IDENTIFIER) != 0) r = identRec.recognize(cursor);
+            if (Recognition.matched(r)) {
+                int len = span(cursor, Recognition.length(r));
+                TokenType type = classifier.classifyIdentOrReserved(text, start, len);
+                tokens.add(type, start, len);
+                consume(cursor, Recognition.length(r));
                 continue;
             }
 
             // 6) Operadores / Puntuación / Agrupación (greedy longest-first en cada categoría)
-            r = operatorRec.recognize(cursor);
-            if (r.matched()) {
-                String lex = buildLexeme(cursor, r.length());
-                tokens.add(new Token(TokenType.OPERATOR, lex, pos));
-                consume(cursor, r.length());
+            if ((steps & CascadeDispatch.OPERATOR) != 0) r = operatorRec.recognize(cursor);
+            if (Recognition.matched(r)) {
+                tokens.add(TokenType.OPERATOR, start, span(cursor, Recognition.length(r)));
+                consume(cursor, Recognition.length(r));
                 continue;
             }
-            r = punctuationRec.recognize(cursor);
-            if (r.matched()) {
-                String lex = buildLexeme(cursor, r.length());
-                tokens.add(new Token(TokenType.PUNCTUATION, lex, pos));
-                consume(cursor, r.length());
+            if ((steps & CascadeDispatch.PUNCTUATION) != 0) r = punctuationRec.recognize(cursor);
+            if (Recognition.matched(r)) {
+                tokens.add(TokenType.PUNCTUATION, start, span(cursor, Recognition.length(r)));
+                consume(cursor, Recognition.length(r));
                 continue;
             }
-            r = groupingRec.recognize(cursor);
-            if (r.matched()) {
-                String lex = buildLexeme(cursor, r.length());
-                tokens.add(new Token(TokenType.GROUPING, lex, pos));
-                consume(cursor, r.length());
+            if ((steps & CascadeDispatch.GROUPING) != 0) r = groupingRec.recognize(cursor);
+            if (Recognition.matched(r)) {
+                tokens.add(TokenType.GROUPING, start, span(cursor, Recognition.length(r)));
+                consume(cursor, Recognition.length(r));
                 continue;
             }
 
             // 7) Símbolo fuera del alfabeto → error y avanzar 1
-            if (!alphabetPolicy.isAllowedAt(cursor, config, opTable, punctTable, groupTable)) {
+            if (!alphabetPolicy.isAllowedAt(cursor)) {
                 String offending = buildLexeme(cursor, 1);
-                errors.add(new LexError(offending, pos, "Símbolo fuera del alfabeto permitido"));
-                tokens.add(new Token(TokenType.ERROR, offending, pos));
+                errors.add(new LexError(offending, cursor.position(), LexRule.ALPHABET_ERROR.message()));
+                tokens.add(TokenType.ERROR, start, offending.length());
                 consume(cursor, 1);
                 continue;
             }
@@ -282,16 +837,37 @@ public final class LexerEngine {
             consume(cursor, 1);
         }
 
-        return new Result(List.copyOf(tokens), List.copyOf(errors));
+        return new Result(tokens, List.copyOf(errors));
     }
 
     /* ----------------- utilitarios internos ----------------- */
 
-    private static void consume(CharCursor cursor, int length) {
-        for (int i = 0; i < length; i++) {
-            if (cursor.eof()) break;
-            cursor.next();
+    /** Capacidad inicial del buffer: ~1 token cada 4 chars (acotada). */
+    static int estimateTokens(CharSequence text) {
+        return Math.min(text.length() / 4 + 16, 1 << 20);
+    }
+
+    /** Decimal o entero reconocido: token válido o error con su lexema. */
+    private void emitNumeric(CharCursor cursor, int start, long r, TokenType type,
+                             TokenBuffer tokens, List<LexError> errors) {
+        int len = Recognition.length(r);
+        if (Recognition.hasError(r)) {
+            String lex = buildLexeme(cursor, len);
+            errors.add(recoveryPolicy.buildLexError(lex, cursor.position(), Recognition.errorMessage(r)));
+            tokens.add(TokenType.ERROR, start, lex.length());
+        } else {
+            tokens.add(type, start, span(cursor, len));
         }
+        consume(cursor, len);
+    }
+
+    /** Longitud del lexema de 'len' chars desde el cursor, acotada al EOF (sin construirlo). */
+    private static int span(CharCursor cursor, int len) {
+        return Math.min(len, cursor.length() - cursor.index());
+    }
+
+    private static void consume(Lookahead cursor, int length) {
+        cursor.advance(length);
     }
 
     private static String buildLexeme(CharCursor cursor, int len) {
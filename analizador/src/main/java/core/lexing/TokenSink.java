@@ -0,0 +1,51 @@
+package core.lexing;
+
+import model.lexical.TokenType;
+
+/**
+ * Destino de los tokens a medida que el lexer los produce (modo "push").
+ *
+ * Permite agregar, filtrar o exportar sin retener todo el análisis: el lexer
+ * no guarda nada por su cuenta. {@link LexerEngine.ResultSink} es la
+ * implementación que arma el {@link LexerEngine.Result} clásico.
+ *
+ * Los lexemas NO se materializan: se entregan como rango [start, start+length)
+ * sobre el texto analizado; quien los necesite llama a text.subSequence.
+ * Las implementaciones que solo leen el lexema con text/start (sin suponer
+ * desplazamientos absolutos, p. ej. contadores) sirven igual para el análisis
+ * por flujo.
+ */
+public interface TokenSink {
+
+    /**
+     * Token reconocido (incluye COMMENT y ERROR).
+     *
+     * @param type   tipo del token
+     * @param text   texto analizado
+     * @param start  desplazamiento 0-based del inicio del lexema
+     * @param length longitud del lexema
+     */
+    void token(TokenType type, CharSequence text, int start, int length);
+
+    /**
+     * Error léxico; se informa inmediatamente antes de su token ERROR.
+     *
+     * @param text    texto analizado
+     * @param start   desplazamiento 0-based del inicio del lexema erróneo
+     * @param length  longitud del lexema erróneo
+     * @param message mensaje en español
+     */
+    void error(CharSequence text, int start, int length, String message);
+
+    /**
+     * Solo en el análisis por flujo (Reader o bytes): ubicación absoluta del
+     * token (y de su error, si lo hay) que se entrega a continuación, ya que
+     * ahí 'text' es solo una ventana. En memoria no se invoca: 'start' ya es
+     * absoluto.
+     *
+     * @param offset desplazamiento 0-based en el flujo
+     * @param line   línea 1-based
+     * @param column columna 1-based
+     */
+    default void position(long offset, int line, int column) { }
+}
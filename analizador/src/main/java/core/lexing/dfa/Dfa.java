@@ -1,6 +1,7 @@
 package core.lexing.dfa;
 
 import core.lexing.stream.CharCursor;
+import core.lexing.stream.Lookahead;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -23,27 +24,48 @@ import java.util.List;
  *            - Registra el último estado de aceptación alcanzado y la longitud
  *            hasta allí.
  *            - Se detiene cuando no hay transición aplicable o se alcanza EOF.
+ *            - Al alcanzar EOF puede seguir una única transición por EOF
+ *            (pseudo-símbolo); si acepta, la longitud incluye ese +1.
  *            - Devuelve un Match con: ¿hubo aceptación?, longitud y etiqueta
  *            del estado aceptado.
  *
+ *            Representación empaquetada (la construye {@link DfaBuilder}):
+ *            - Clases de equivalencia de caracteres: chars que se comportan
+ *            igual en TODOS los estados comparten clase. byte[] para ASCII y
+ *            tabla de rangos ordenada (búsqueda binaria) para el resto.
+ *            - Matriz int[] estados × (clases + 1) con el siguiente estado (-1 =
+ *            sin transición); la última columna es la transición por EOF.
+ *            - evaluate() solo indexa arreglos; evaluateLinear() conserva el
+ *            recorrido original por List&lt;Transition&gt; como referencia.
+ *
  *            Importante:
  *            - NO consume del cursor (SRP). Quien llame decide cuántos
  *            caracteres consumir luego.
- *            - No hay minimización ni diagnósticos de no-determinismo aquí
- *            (núcleo mínimo).
+ *            - No hay diagnósticos de no-determinismo aquí (núcleo mínimo); la
+ *            minimización la hace {@link DfaBuilder#minimize(int)}.
  */
 public final class Dfa<T> {
 
-    /** Resultado de una evaluación del DFA desde la posición actual del cursor. */
+    /**
+     * Resultado de una evaluación del DFA desde la posición actual del cursor.
+     * Reutilizable: {@link #evaluate(Lookahead, Match)} lo sobrescribe, así un
+     * bucle de análisis usa una sola instancia para todos sus tokens.
+     */
     public static final class Match<T> {
-        private final boolean accepted;
-        private final int length;
-        private final T acceptTag;
+        private boolean accepted;
+        private int length;
+        private T acceptTag;
+        private int examined;
+
+        /** Resultado vacío (sin aceptación), para llenar con evaluate. */
+        public Match() { }
 
-        private Match(boolean accepted, int length, T acceptTag) {
+        private Match<T> set(boolean accepted, int length, T acceptTag, int examined) {
             this.accepted = accepted;
             this.length = length;
             this.acceptTag = acceptTag;
+            this.examined = examined;
+            return this;
         }
 
         /** ¿Se reconoció algún prefijo válido? */
@@ -63,14 +85,50 @@ public final class Dfa<T> {
         public T acceptTag() {
             return acceptTag;
         }
+
+        /**
+         * Caracteres inspeccionados desde la posición inicial, incluido el que
+         * detuvo el recorrido (un EOF leído también cuenta). Indica hasta dónde
+         * depende el resultado del texto (lookahead); lo usa el relexer
+         * incremental.
+         */
+        public int examined() {
+            return examined;
+        }
     }
 
     private final List<State<T>> states;
     private final int startState;
 
-    Dfa(List<State<T>> states, int startState) {
+    // Representación empaquetada
+    private final byte[] asciiClass;    // clase de cada char < 128
+    private final int[] rangeStarts;    // inicio de cada rango >= 128 (ordenado)
+    private final int[] rangeClasses;   // clase de cada rango
+    private final int classCount;       // sin contar la columna EOF
+    private final int stride;           // classCount + 1
+    private final int[] next;           // estados × stride
+    private final boolean[] accepting;
+    private final Object[] tags;
+
+    Dfa(List<State<T>> states, int startState,
+        byte[] asciiClass, int[] rangeStarts, int[] rangeClasses, int classCount, int[] next) {
         this.states = Collections.unmodifiableList(new ArrayList<>(states));
         this.startState = startState;
+        this.asciiClass = asciiClass;
+        this.rangeStarts = rangeStarts;
+        this.rangeClasses = rangeClasses;
+        this.classCount = classCount;
+        this.stride = classCount + 1;
+        this.next = next;
+
+        int n = this.states.size();
+        this.accepting = new boolean[n];
+        this.tags = new Object[n];
+        for (int i = 0; i < n; i++) {
+            State<T> s = this.states.get(i);
+            accepting[i] = s.isAccepting();
+            tags[i] = s.acceptTag();
+        }
     }
 
     /** Estados (vista inmodificable). Útil para pruebas y diagnósticos. */
@@ -83,18 +141,97 @@ public final class Dfa<T> {
         return startState;
     }
 
+    /** Cantidad de clases de equivalencia de caracteres (sin contar EOF). */
+    public int classCount() {
+        return classCount;
+    }
+
+    /** Clase de equivalencia del carácter 'c' (0..classCount-1). */
+    public int classOf(int c) {
+        if (c < 128) return asciiClass[c] & 0xFF;
+        int lo = 0, hi = rangeStarts.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (rangeStarts[mid] <= c) lo = mid;
+            else hi = mid - 1;
+        }
+        return rangeClasses[lo];
+    }
+
     /**
      * Evalúa el DFA desde la posición actual del cursor (sin consumir) y
-     * retorna el prefijo aceptado MÁS LARGO.
+     * retorna el prefijo aceptado MÁS LARGO. Acepta cualquier
+     * {@link Lookahead} (texto en memoria o ventana sobre un Reader).
+     */
+    public Match<T> evaluate(Lookahead cursor) {
+        return evaluate(cursor, new Match<>());
+    }
+
+    /**
+     * Igual que {@link #evaluate(Lookahead)} escribiendo el resultado en
+     * 'out' (sin asignar memoria por token).
+     *
+     * @return 'out'
      */
-    public Match<T> evaluate(CharCursor cursor) {
+    @SuppressWarnings("unchecked")
+    public Match<T> evaluate(Lookahead cursor, Match<T> out) {
         if (cursor == null || cursor.eof()) {
-            return new Match<>(false, 0, null);
+            return out.set(false, 0, null, 0);
         }
 
+        final int[] next = this.next;
+        final boolean[] accepting = this.accepting;
         int current = startState;
         int offset = 0;
 
+        int lastAcceptLen = -1;
+        int lastAcceptState = -1;
+
+        while (true) {
+            if (accepting[current]) {
+                lastAcceptLen = offset;
+                lastAcceptState = current;
+            }
+
+            int c = cursor.peek(offset);
+            if (c == CharCursor.EOF) {
+                int eof = next[current * stride + classCount];
+                if (eof >= 0 && accepting[eof]) {
+                    lastAcceptLen = offset + 1;
+                    lastAcceptState = eof;
+                }
+                break;
+            }
+
+            int to = next[current * stride + (c < 128 ? asciiClass[c] & 0xFF : classOf(c))];
+            if (to < 0)
+                break; // no hay transición aplicable
+
+            current = to;
+            offset++;
+        }
+
+        // offset = posición del carácter (o EOF) que detuvo el recorrido
+        if (lastAcceptLen >= 0) {
+            return out.set(true, lastAcceptLen, (T) tags[lastAcceptState], offset + 1);
+        }
+        return out.set(false, 0, null, offset + 1);
+    }
+
+    /**
+     * Evaluación de referencia sobre la lista de transiciones de cada estado
+     * (búsqueda lineal). Mismo resultado que {@link #evaluate(Lookahead)}; se
+     * conserva para pruebas y comparaciones de rendimiento.
+     */
+    public Match<T> evaluateLinear(Lookahead cursor) {
+        if (cursor == null || cursor.eof()) {
+            return new Match<T>().set(false, 0, null, 0);
+        }
+
+        int current = startState;
+        int offset = 0;
+        int examined;
+
         int lastAcceptLen = -1;
         T lastAcceptTag = null;
 
@@ -108,6 +245,17 @@ public final class Dfa<T> {
 
             int c = cursor.peek(offset);
             if (c == CharCursor.EOF) {
+                // EOF como pseudo-símbolo: a lo sumo una transición y se termina
+                examined = offset + 1;
+                int eof = s.eofTarget();
+                if (eof >= 0) {
+                    offset++;
+                    State<T> e = states.get(eof);
+                    if (e.isAccepting()) {
+                        lastAcceptLen = offset;
+                        lastAcceptTag = e.acceptTag();
+                    }
+                }
                 break;
             }
 
@@ -119,8 +267,10 @@ public final class Dfa<T> {
                     break; // determinista: la primera que matchee
                 }
             }
-            if (nextState < 0)
+            if (nextState < 0) {
+                examined = offset + 1;
                 break; // no hay transición aplicable
+            }
 
             // Avanzamos localmente
             current = nextState;
@@ -128,8 +278,8 @@ public final class Dfa<T> {
         }
 
         if (lastAcceptLen >= 0) {
-            return new Match<>(true, lastAcceptLen, lastAcceptTag);
+            return new Match<T>().set(true, lastAcceptLen, lastAcceptTag, examined);
         }
-        return new Match<>(false, 0, null);
+        return new Match<T>().set(false, 0, null, examined);
     }
 }
@@ -1,7 +1,13 @@
 package core.lexing.dfa;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
 
 /**
  * Constructor (builder) de AFDs deterministas sin regex.
@@ -23,6 +29,10 @@ import java.util.List;
  *            mantener simple.
  *            - El determinismo se garantiza por construcción del usuario del
  *            builder.
+ *            - build() empaqueta el AFD: calcula clases de equivalencia de
+ *            caracteres y la matriz densa de transiciones que usa Dfa.evaluate.
+ *            - minimize() (opcional, antes de build) poda estados inalcanzables
+ *            y muertos y fusiona los equivalentes (Hopcroft).
  */
 public final class DfaBuilder<T> {
 
@@ -69,11 +79,377 @@ public final class DfaBuilder<T> {
         return this;
     }
 
+    /**
+     * Agrega una transición por el pseudo-símbolo EOF desde 'from' hacia 'to'.
+     * Permite expresar aceptaciones que dependen de "no hay más texto"
+     * (p. ej. cadena o comentario sin cierre). El EOF cuenta como un carácter
+     * más en la longitud del match; quien llama descuenta ese contexto.
+     */
+    public DfaBuilder<T> onEof(int from, int to) {
+        checkState(from);
+        checkState(to);
+        states.get(from).setEofTransition(to);
+        return this;
+    }
+
+    /**
+     * Resultado de {@link #minimize(int)}: nuevo id del estado inicial y
+     * cantidad de estados antes y después de minimizar.
+     */
+    public record Reduction(int startState, int statesBefore, int statesAfter) { }
+
+    /**
+     * Minimiza el autómata en el lugar (renumera los estados):
+     *  1) descarta estados inalcanzables desde 'startState';
+     *  2) descarta estados muertos (desde los que no se llega a aceptación);
+     *  3) fusiona estados equivalentes con el algoritmo de Hopcroft.
+     *
+     * La partición inicial separa los estados por etiqueta de aceptación
+     * (equals), de modo que nunca se fusionan estados que acepten reglas
+     * distintas y la prioridad entre etiquetas se conserva. El EOF se trata
+     * como un símbolo más. Los ids previos dejan de ser válidos: usar
+     * {@link Reduction#startState()} al construir.
+     *
+     * @param startState estado inicial actual
+     * @return nuevo estado inicial y conteo de estados antes/después
+     */
+    public Reduction minimize(int startState) {
+        checkState(startState);
+        int before = states.size();
+        Alphabet alpha = alphabet();
+        int classCount = alpha.columns.size();
+        int symbols = classCount + 1; // + EOF
+
+        // δ(s, a) con la columna EOF al final
+        int[] delta = new int[before * symbols];
+        for (int s = 0; s < before; s++) {
+            for (int a = 0; a < classCount; a++) delta[s * symbols + a] = alpha.columns.get(a)[s];
+            delta[s * symbols + classCount] = states.get(s).eofTarget();
+        }
+
+        // 1) Alcanzables desde el inicio
+        boolean[] reachable = new boolean[before];
+        ArrayDeque<Integer> work = new ArrayDeque<>();
+        reachable[startState] = true;
+        work.add(startState);
+        while (!work.isEmpty()) {
+            int s = work.poll();
+            for (int a = 0; a < symbols; a++) {
+                int t = delta[s * symbols + a];
+                if (t >= 0 && !reachable[t]) {
+                    reachable[t] = true;
+                    work.add(t);
+                }
+            }
+        }
+
+        // 2) Vivos: alcanzables que llegan a un estado de aceptación (BFS inverso)
+        List<List<Integer>> preds = new ArrayList<>(before);
+        for (int s = 0; s < before; s++) preds.add(new ArrayList<>());
+        boolean[] live = new boolean[before];
+        for (int s = 0; s < before; s++) {
+            if (!reachable[s]) continue;
+            for (int a = 0; a < symbols; a++) {
+                int t = delta[s * symbols + a];
+                if (t >= 0) preds.get(t).add(s);
+            }
+            if (states.get(s).isAccepting()) {
+                live[s] = true;
+                work.add(s);
+            }
+        }
+        while (!work.isEmpty()) {
+            for (int p : preds.get(work.poll())) {
+                if (!live[p]) {
+                    live[p] = true;
+                    work.add(p);
+                }
+            }
+        }
+
+        // Estados conservados renumerados 0..m-1; m es un sumidero explícito
+        int[] dense = new int[before];
+        int m = 0;
+        for (int s = 0; s < before; s++) dense[s] = (live[s] || s == startState) ? m++ : -1;
+        int[] original = new int[m];
+        for (int s = 0; s < before; s++) if (dense[s] >= 0) original[dense[s]] = s;
+        int total = m + 1;
+        int sink = m;
+        int[] d = new int[total * symbols];
+        for (int q = 0; q < total; q++) {
+            for (int a = 0; a < symbols; a++) {
+                int t = (q == sink) ? -1 : delta[original[q] * symbols + a];
+                d[q * symbols + a] = (t >= 0 && dense[t] >= 0) ? dense[t] : sink;
+            }
+        }
+
+        // 3) Hopcroft, partiendo de (¿acepta?, etiqueta); el sumidero no acepta
+        int[] blockOf = new int[total];
+        Map<List<Object>, Integer> initial = new HashMap<>();
+        for (int q = 0; q < total; q++) {
+            State<T> st = (q == sink) ? null : states.get(original[q]);
+            List<Object> key = (st != null && st.isAccepting())
+                    ? Arrays.asList(Boolean.TRUE, st.acceptTag())
+                    : Arrays.asList(Boolean.FALSE, null);
+            Integer b = initial.get(key);
+            if (b == null) {
+                b = initial.size();
+                initial.put(key, b);
+            }
+            blockOf[q] = b;
+        }
+        hopcroft(d, total, symbols, blockOf, initial.size());
+
+        // Nuevos ids por orden de primera aparición; el bloque del sumidero no se emite
+        int deadBlock = blockOf[sink];
+        int[] newId = new int[total];
+        Arrays.fill(newId, -1);
+        List<Integer> representatives = new ArrayList<>();
+        if (blockOf[dense[startState]] == deadBlock) {
+            // Inicio muerto: queda un único estado sin transiciones
+            newId[deadBlock] = 0;
+            representatives.add(dense[startState]);
+        }
+        for (int q = 0; q < m; q++) {
+            int b = blockOf[q];
+            if (b != deadBlock && newId[b] < 0) {
+                newId[b] = representatives.size();
+                representatives.add(q);
+            }
+        }
+
+        List<State<T>> rebuilt = new ArrayList<>(representatives.size());
+        int intervals = alpha.starts.length - 1;
+        for (int id = 0; id < representatives.size(); id++) {
+            int q = representatives.get(id);
+            State<T> old = states.get(original[q]);
+            State<T> st = new State<>(id);
+            if (old.isAccepting()) st.setAccepting(old.acceptTag());
+            if (blockOf[q] != deadBlock) {
+                // Transiciones reconstruidas por intervalo (rangos contiguos fusionados)
+                int runStart = 0;
+                int runTarget = -1;
+                for (int i = 0; i <= intervals; i++) {
+                    int to = -1;
+                    if (i < intervals) {
+                        int t = d[q * symbols + alpha.intervalClass[i]];
+                        if (blockOf[t] != deadBlock) to = newId[blockOf[t]];
+                    }
+                    if (to != runTarget) {
+                        if (runTarget >= 0) {
+                            st.addTransition(Transition.onRange((char) alpha.starts[runStart],
+                                    (char) (alpha.starts[i] - 1), runTarget));
+                        }
+                        runStart = i;
+                        runTarget = to;
+                    }
+                }
+                int eof = d[q * symbols + classCount];
+                if (blockOf[eof] != deadBlock) st.setEofTransition(newId[blockOf[eof]]);
+            }
+            rebuilt.add(st);
+        }
+
+        states.clear();
+        states.addAll(rebuilt);
+        return new Reduction(newId[blockOf[dense[startState]]], before, states.size());
+    }
+
+    /**
+     * Refinamiento de particiones de Hopcroft sobre la función total 'd'
+     * (total estados × symbols), partiendo de la partición 'blockOf' con
+     * 'blocks' bloques. Refina 'blockOf' en el lugar.
+     */
+    private static void hopcroft(int[] d, int total, int symbols, int[] blockOf, int blocks) {
+
+        // Bloques como segmentos contiguos de 'elems'
+        int[] elems = new int[total];
+        int[] pos = new int[total];
+        int[] first = new int[total];
+        int[] end = new int[total];
+        int[] marked = new int[total];
+        int[] counts = new int[blocks];
+        for (int q = 0; q < total; q++) counts[blockOf[q]]++;
+        for (int b = 0, acc = 0; b < blocks; b++) {
+            first[b] = acc;
+            end[b] = acc;
+            acc += counts[b];
+        }
+        for (int q = 0; q < total; q++) {
+            int b = blockOf[q];
+            elems[end[b]] = q;
+            pos[q] = end[b]++;
+        }
+
+        // Transiciones inversas en formato CSR por símbolo
+        int[] invStart = new int[symbols * (total + 1) + 1];
+        for (int q = 0; q < total; q++) {
+            for (int a = 0; a < symbols; a++) invStart[a * (total + 1) + d[q * symbols + a] + 1]++;
+        }
+        for (int i = 1; i < invStart.length; i++) invStart[i] += invStart[i - 1];
+        int[] invFill = Arrays.copyOf(invStart, invStart.length);
+        int[] inv = new int[total * symbols];
+        for (int q = 0; q < total; q++) {
+            for (int a = 0; a < symbols; a++) inv[invFill[a * (total + 1) + d[q * symbols + a]]++] = q;
+        }
+
+        // Lista de trabajo de pares (bloque, símbolo)
+        BitSet inWork = new BitSet();
+        ArrayDeque<int[]> work = new ArrayDeque<>();
+        for (int b = 0; b < blocks; b++) {
+            for (int a = 0; a < symbols; a++) {
+                inWork.set(b * symbols + a);
+                work.add(new int[] { b, a });
+            }
+        }
+
+        int[] splitter = new int[total];
+        int[] touched = new int[total];
+        while (!work.isEmpty()) {
+            int[] pair = work.poll();
+            int splitBlock = pair[0];
+            int a = pair[1];
+            inWork.clear(splitBlock * symbols + a);
+
+            // Copia del bloque: marcar predecesores reordena 'elems'
+            int size = end[splitBlock] - first[splitBlock];
+            System.arraycopy(elems, first[splitBlock], splitter, 0, size);
+
+            int touchedCount = 0;
+            for (int i = 0; i < size; i++) {
+                int t = splitter[i];
+                int base = a * (total + 1) + t;
+                for (int k = invStart[base]; k < invStart[base + 1]; k++) {
+                    int p = inv[k];
+                    int b = blockOf[p];
+                    if (marked[b] == 0) touched[touchedCount++] = b;
+                    // Mover 'p' a la zona marcada (prefijo) de su bloque
+                    int dst = first[b] + marked[b];
+                    int other = elems[dst];
+                    elems[pos[p]] = other;
+                    pos[other] = pos[p];
+                    elems[dst] = p;
+                    pos[p] = dst;
+                    marked[b]++;
+                }
+            }
+
+            for (int i = 0; i < touchedCount; i++) {
+                int b = touched[i];
+                int m = marked[b];
+                marked[b] = 0;
+                if (m == end[b] - first[b]) continue; // todo el bloque: no se divide
+
+                // El prefijo marcado pasa a ser un bloque nuevo
+                int nb = blocks++;
+                first[nb] = first[b];
+                end[nb] = first[b] + m;
+                first[b] = end[nb];
+                for (int k = first[nb]; k < end[nb]; k++) blockOf[elems[k]] = nb;
+
+                int smaller = (end[nb] - first[nb]) <= (end[b] - first[b]) ? nb : b;
+                for (int c = 0; c < symbols; c++) {
+                    int target = inWork.get(b * symbols + c) ? nb : smaller;
+                    if (!inWork.get(target * symbols + c)) {
+                        inWork.set(target * symbols + c);
+                        work.add(new int[] { target, c });
+                    }
+                }
+            }
+        }
+    }
+
     /** Construye el DFA con el estado inicial indicado. */
     public Dfa<T> build(int startState) {
         checkState(startState);
-        // Copia defensiva ya la hace Dfa en su constructor
-        return new Dfa<>(states, startState);
+
+        Alphabet alpha = alphabet();
+        int[] starts = alpha.starts;
+        int intervals = starts.length - 1;
+        int n = states.size();
+        int[] intervalClass = alpha.intervalClass;
+        List<int[]> columns = alpha.columns;
+        int classCount = columns.size();
+
+        // 3) Mapa ASCII (byte[]) y tabla de rangos >= 128 (rangos contiguos fusionados)
+        byte[] ascii = new byte[128];
+        List<Integer> rangeStarts = new ArrayList<>();
+        List<Integer> rangeClasses = new ArrayList<>();
+        for (int i = 0; i < intervals; i++) {
+            int cls = intervalClass[i];
+            if (starts[i] < 128) {
+                for (int c = starts[i]; c < starts[i + 1]; c++) ascii[c] = (byte) cls;
+            } else if (rangeClasses.isEmpty() || rangeClasses.get(rangeClasses.size() - 1) != cls) {
+                rangeStarts.add(starts[i]);
+                rangeClasses.add(cls);
+            }
+        }
+
+        // 4) Matriz densa estados × (clases + EOF)
+        int stride = classCount + 1;
+        int[] next = new int[n * stride];
+        for (int s = 0; s < n; s++) {
+            for (int cls = 0; cls < classCount; cls++) next[s * stride + cls] = columns.get(cls)[s];
+            next[s * stride + classCount] = states.get(s).eofTarget();
+        }
+
+        // Copia defensiva de la lista de estados ya la hace Dfa en su constructor
+        return new Dfa<>(states, startState, ascii,
+                rangeStarts.stream().mapToInt(Integer::intValue).toArray(),
+                rangeClasses.stream().mapToInt(Integer::intValue).toArray(),
+                classCount, next);
+    }
+
+    /** Intervalos elementales de chars y su clase (columna de destinos única). */
+    private static final class Alphabet {
+        int[] starts;          // fronteras de intervalos (último = 0x10000)
+        int[] intervalClass;   // clase de cada intervalo
+        List<int[]> columns;   // destino por estado de cada clase
+    }
+
+    private Alphabet alphabet() {
+        // 1) Intervalos elementales: fronteras de todas las transiciones
+        TreeSet<Integer> bounds = new TreeSet<>();
+        bounds.add(0);
+        bounds.add(128); // ASCII y el resto se indexan por separado
+        bounds.add(0x10000);
+        for (State<T> s : states) {
+            for (Transition t : s.transitions()) t.addBounds(bounds);
+        }
+        int[] starts = bounds.stream().mapToInt(Integer::intValue).toArray();
+        int intervals = starts.length - 1;
+
+        // 2) Columna de destinos por intervalo; columnas iguales => misma clase
+        int n = states.size();
+        int[] intervalClass = new int[intervals];
+        List<int[]> columns = new ArrayList<>();
+        Map<String, Integer> classByColumn = new HashMap<>();
+        for (int i = 0; i < intervals; i++) {
+            int[] column = new int[n];
+            for (int s = 0; s < n; s++) column[s] = target(states.get(s), starts[i]);
+            String key = Arrays.toString(column);
+            Integer cls = classByColumn.get(key);
+            if (cls == null) {
+                cls = columns.size();
+                classByColumn.put(key, cls);
+                columns.add(column);
+            }
+            intervalClass[i] = cls;
+        }
+
+        Alphabet alpha = new Alphabet();
+        alpha.starts = starts;
+        alpha.intervalClass = intervalClass;
+        alpha.columns = columns;
+        return alpha;
+    }
+
+    /** Destino desde 's con el carácter 'c' (primera transición que matchee), o -1. */
+    private static int target(State<?> s, int c) {
+        for (Transition t : s.transitions()) {
+            if (t.matches(c)) return t.toState();
+        }
+        return -1;
     }
 
     private void checkState(int id) {
@@ -0,0 +1,71 @@
+package core.lexing.dfa;
+
+import core.lexing.recognizer.BlockCommentRecognizer;
+import core.lexing.recognizer.DecimalRecognizer;
+import core.lexing.recognizer.NumberRecognizer;
+import core.lexing.recognizer.StringRecognizer;
+import model.lexical.TokenType;
+
+/**
+ * Etiquetas de aceptación del AFD léxico compilado desde config.json.
+ *
+ * El orden de declaración ES la prioridad: replica el orden en que el lexer
+ * por cascada prueba sus reconocedores (la primera regla que reconoce algo gana
+ * y, dentro de ella, el prefijo más largo).
+ *
+ * Cada regla indica:
+ *  - type: tipo de token emitido (null si la regla no emite token).
+ *  - message: mensaje de error (null si la regla es válida).
+ *  - trailing: caracteres de contexto posterior incluidos en el match que NO
+ *    forman parte del lexema (p. ej. el carácter/EOF que cierra una racha).
+ *  - lexemeTrim: caracteres consumidos que no se reportan en el lexema
+ *    (solo la cadena con símbolo inválido).
+ */
+public enum LexRule {
+    BLOCK_END_ORPHAN(TokenType.ERROR, "Delimitador de cierre de bloque sin apertura", 0, 0),
+    STRING(TokenType.STRING, null, 0, 0),
+    STRING_UNCLOSED(TokenType.ERROR, StringRecognizer.MSG_NO_CERRADA, 1, 0),
+    STRING_INVALID_SYMBOL(TokenType.ERROR, StringRecognizer.MSG_SIMBOLO_INVALIDO, 0, 1),
+    LINE_COMMENT(TokenType.COMMENT, null, 1, 0),
+    BLOCK_COMMENT(TokenType.COMMENT, null, 0, 0),
+    BLOCK_COMMENT_UNCLOSED(TokenType.ERROR, BlockCommentRecognizer.MSG_UNCLOSED, 1, 0),
+    REPEATED_OPERATOR(TokenType.ERROR, "Secuencia inválida de operador repetido", 1, 0),
+    DECIMAL(TokenType.DECIMAL, null, 0, 0),
+    DECIMAL_MALFORMED(TokenType.ERROR, DecimalRecognizer.MSG_FALTAN_DIGITOS, 1, 0),
+    NUMBER_MALFORMED(TokenType.ERROR, NumberRecognizer.MSG_MAL_FORMADO, 0, 0),
+    NUMBER(TokenType.NUMBER, null, 0, 0),
+    IDENTIFIER(TokenType.IDENTIFIER, null, 0, 0),
+    OPERATOR(TokenType.OPERATOR, null, 0, 0),
+    PUNCTUATION(TokenType.PUNCTUATION, null, 0, 0),
+    GROUPING(TokenType.GROUPING, null, 0, 0),
+    /** Inicio de comentario permitido por el alfabeto que no formó token: avanzar 1 sin emitir. */
+    ALPHABET_SKIP(null, null, 0, 0),
+    ALPHABET_ERROR(TokenType.ERROR, "Símbolo fuera del alfabeto permitido", 0, 0);
+
+    private final TokenType type;
+    private final String message;
+    private final int trailing;
+    private final int lexemeTrim;
+
+    LexRule(TokenType type, String message, int trailing, int lexemeTrim) {
+        this.type = type;
+        this.message = message;
+        this.trailing = trailing;
+        this.lexemeTrim = lexemeTrim;
+    }
+
+    /** Tipo de token emitido (null para ALPHABET_SKIP). */
+    public TokenType type() { return type; }
+
+    /** Mensaje de error en español, o null si la regla es válida. */
+    public String message() { return message; }
+
+    /** ¿La regla reporta un error léxico? */
+    public boolean isError() { return message != null; }
+
+    /** Caracteres de contexto posterior a descontar de la longitud del match. */
+    public int trailing() { return trailing; }
+
+    /** Caracteres consumidos que no forman parte del lexema reportado. */
+    public int lexemeTrim() { return lexemeTrim; }
+}
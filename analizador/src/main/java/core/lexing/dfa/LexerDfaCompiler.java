@@ -0,0 +1,553 @@
+package core.lexing.dfa;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+import model.config.CommentsConfig;
+import model.config.Config;
+
+/**
+ * Compilador Config → AFD léxico único.
+ *
+ * Construye, sin regex, un autómata por cada reconocedor de la cascada de
+ * {@link core.lexing.LexerEngine} (cadenas, comentarios, decimales, números,
+ * identificadores, operadores, puntuación, agrupación y casos de error) y los
+ * combina en un solo {@link Dfa} etiquetado con {@link LexRule}.
+ *
+ * Semántica de prioridad:
+ *  - La cascada NO es "el match más largo gana": gana la primera regla que
+ *    reconoce algo y, dentro de ella, su prefijo más largo.
+ *  - Para reproducirlo con maximal munch, cada estado del AFD recuerda la mejor
+ *    regla ya aceptada en el camino (h). Solo acepta reglas con prioridad igual o
+ *    mayor que h, y se descartan los sub-autómatas que ya no pueden superar a h.
+ *    Así las etiquetas a lo largo de un recorrido solo mejoran y la última
+ *    aceptación es exactamente el resultado de la cascada.
+ *
+ * Contexto posterior:
+ *  - Algunas reglas solo aceptan al ver el carácter (o EOF) que las termina
+ *    (p. ej. la racha de operador repetido). Esas reglas declaran trailing = 1
+ *    y el lexer descuenta ese carácter de la longitud.
+ */
+public final class LexerDfaCompiler {
+
+    /** Tamaño del alfabeto de trabajo (unidades UTF-16). */
+    private static final int ALPHABET = 0x10000;
+
+    private static final int NO_RULE = LexRule.values().length;
+
+    private LexerDfaCompiler() { /* utilitaria: no instanciable */ }
+
+    /**
+     * Compila la configuración en un AFD que cubre todas las clases de token.
+     *
+     * @param config configuración del lenguaje (no null)
+     * @return AFD cuyo estado de aceptación indica la regla reconocida
+     */
+    public static Dfa<LexRule> compile(Config config) {
+        return compile(config, r -> { });
+    }
+
+    /**
+     * Igual que {@link #compile(Config)}, informando el resultado de la
+     * minimización (estados antes/después) a 'report'.
+     *
+     * @param config configuración del lenguaje (no null)
+     * @param report receptor del conteo de estados (no null)
+     * @return AFD minimizado
+     */
+    public static Dfa<LexRule> compile(Config config, Consumer<DfaBuilder.Reduction> report) {
+        Objects.requireNonNull(config, "config no puede ser null");
+        Objects.requireNonNull(report, "report no puede ser null");
+        return determinize(nfa(config), report);
+    }
+
+    /**
+     * Igual que {@link #compile(Config)} sin minimizar (referencia para
+     * pruebas de la minimización).
+     */
+    static Dfa<LexRule> compileUnminimized(Config config) {
+        Objects.requireNonNull(config, "config no puede ser null");
+        return determinize(nfa(config), null);
+    }
+
+    /** AFN con las reglas de la configuración, en orden de prioridad. */
+    private static Nfa nfa(Config config) {
+        Nfa nfa = new Nfa();
+        CommentsConfig com = config.getComentarios();
+        String line = (com != null) ? com.getLinea() : null;
+        String open = (com != null) ? com.getBloqueInicio() : null;
+        String close = (com != null) ? com.getBloqueFin() : null;
+
+        if (!isEmpty(close)) nfa.literal(close, LexRule.BLOCK_END_ORPHAN);
+        addString(nfa, config, com);
+        if (!isEmpty(line)) addLineComment(nfa, line);
+        if (!isEmpty(open) && !isEmpty(close)) addBlockComment(nfa, open, close);
+        addRepeatedOperator(nfa, config.getOperadores());
+        addDecimal(nfa);
+        addNumber(nfa);
+        addIdentifier(nfa);
+        nfa.trie(config.getOperadores(), LexRule.OPERATOR);
+        nfa.trie(config.getPuntuacion(), LexRule.PUNCTUATION);
+        nfa.trie(config.getAgrupacion(), LexRule.GROUPING);
+        if (!isEmpty(line)) nfa.literal(line, LexRule.ALPHABET_SKIP);
+        if (!isEmpty(open)) nfa.literal(open, LexRule.ALPHABET_SKIP);
+        addAnyChar(nfa);
+        return nfa;
+    }
+
+    /* ====================== sub-autómatas por regla ====================== */
+
+    /** '"' permitido* ( '"' | EOF | símbolo inválido ). */
+    private static void addString(Nfa nfa, Config config, CommentsConfig com) {
+        BitSet allowed = new BitSet(ALPHABET);
+        allowed.set('a', 'z' + 1);
+        allowed.set('A', 'Z' + 1);
+        allowed.set('0', '9' + 1);
+        allowed.set(' ');
+        allowed.set('\n');
+        allowed.set('\r');
+        addChars(allowed, config.getOperadores());
+        addChars(allowed, config.getPuntuacion());
+        addChars(allowed, config.getAgrupacion());
+        if (com != null) {
+            addChars(allowed, com.getLinea());
+            addChars(allowed, com.getBloqueInicio());
+            addChars(allowed, com.getBloqueFin());
+        }
+        allowed.clear('"');
+
+        LexRule best = LexRule.STRING;
+        int q0 = nfa.start(best);
+        int body = nfa.state(best);
+        nfa.edge(q0, chars('"'), body);
+        nfa.edge(body, allowed, body);
+        nfa.edge(body, chars('"'), nfa.accept(best, LexRule.STRING));
+        nfa.eof(body, nfa.accept(best, LexRule.STRING_UNCLOSED));
+        BitSet invalid = complement(allowed);
+        invalid.clear('"');
+        nfa.edge(body, invalid, nfa.accept(best, LexRule.STRING_INVALID_SYMBOL));
+    }
+
+    /** prefijo (x contenido*)? fin-de-línea|EOF, con x distinto del último char del prefijo. */
+    private static void addLineComment(Nfa nfa, String prefix) {
+        LexRule best = LexRule.LINE_COMMENT;
+        int p = nfa.chain(nfa.start(best), prefix, best);
+        char last = prefix.charAt(prefix.length() - 1);
+        int content = nfa.state(best);
+        int acc = nfa.accept(best, LexRule.LINE_COMMENT);
+
+        BitSet newline = chars('\r', '\n');
+        BitSet first = complement(newline);
+        first.clear(last);
+        BitSet firstNewline = (BitSet) newline.clone();
+        firstNewline.clear(last);
+
+        nfa.edge(p, first, content);
+        nfa.edge(p, firstNewline, acc);
+        nfa.eof(p, acc);
+        nfa.edge(content, complement(newline), content);
+        nfa.edge(content, newline, acc);
+        nfa.eof(content, acc);
+    }
+
+    /** apertura, búsqueda tipo KMP del primer cierre; EOF sin cierre ⇒ error. */
+    private static void addBlockComment(Nfa nfa, String open, String close) {
+        LexRule best = LexRule.BLOCK_COMMENT;
+        int m = close.length();
+        int[] k = new int[m];
+        k[0] = nfa.chain(nfa.start(best), open, best);
+        for (int j = 1; j < m; j++) k[j] = nfa.state(best);
+        int acc = nfa.accept(best, LexRule.BLOCK_COMMENT);
+        int unclosed = nfa.accept(best, LexRule.BLOCK_COMMENT_UNCLOSED);
+
+        BitSet closeChars = new BitSet(ALPHABET);
+        addChars(closeChars, close);
+        for (int j = 0; j < m; j++) {
+            Map<Integer, BitSet> byTarget = new HashMap<>();
+            for (int x = closeChars.nextSetBit(0); x >= 0; x = closeChars.nextSetBit(x + 1)) {
+                int next = kmpNext(close, j, (char) x);
+                int target = (next == m) ? acc : k[next];
+                byTarget.computeIfAbsent(target, t -> new BitSet(ALPHABET)).set(x);
+            }
+            for (var e : byTarget.entrySet()) nfa.edge(k[j], e.getValue(), e.getKey());
+            nfa.edge(k[j], complement(closeChars), k[0]);
+            nfa.eof(k[j], unclosed);
+        }
+    }
+
+    /** Longitud del prefijo más largo de 'pat' que es sufijo de pat[0..j) + x. */
+    private static int kmpNext(String pat, int j, char x) {
+        String s = pat.substring(0, j) + x;
+        for (int len = Math.min(pat.length(), s.length()); len > 0; len--) {
+            if (s.endsWith(pat.substring(0, len))) return len;
+        }
+        return 0;
+    }
+
+    /**
+     * Racha c^k (k >= 2) de un operador de un carácter, maximal, cuando c^k NO es
+     * un operador definido. La maximalidad se asegura aceptando solo al ver el
+     * carácter distinto (o EOF) que corta la racha.
+     */
+    private static void addRepeatedOperator(Nfa nfa, Set<String> operators) {
+        if (operators == null) return;
+        LexRule best = LexRule.REPEATED_OPERATOR;
+        int q0 = -1;
+        int acc = -1;
+        for (String op : operators) {
+            if (op.length() != 1) continue;
+            char c = op.charAt(0);
+            Set<Integer> exempt = new TreeSet<>();
+            int maxExempt = 1;
+            for (String other : operators) {
+                if (other.length() >= 2 && isRunOf(other, c)) {
+                    exempt.add(other.length());
+                    maxExempt = Math.max(maxExempt, other.length());
+                }
+            }
+            if (q0 < 0) {
+                q0 = nfa.start(best);
+                acc = nfa.accept(best, LexRule.REPEATED_OPERATOR);
+            }
+            int top = maxExempt + 1;
+            int prev = q0;
+            BitSet self = chars(c);
+            BitSet cut = complement(self);
+            for (int run = 1; run <= top; run++) {
+                int r = nfa.state(best);
+                nfa.edge(prev, self, r);
+                if (run >= 2 && !exempt.contains(run)) {
+                    nfa.edge(r, cut, acc);
+                    nfa.eof(r, acc);
+                }
+                if (run == top) nfa.edge(r, self, r);
+                prev = r;
+            }
+        }
+    }
+
+    private static boolean isRunOf(String s, char c) {
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) != c) return false;
+        }
+        return true;
+    }
+
+    /** dígitos '.' dígitos+ ; o "dígitos '.'" seguido de no-dígito/EOF ⇒ error. */
+    private static void addDecimal(Nfa nfa) {
+        LexRule best = LexRule.DECIMAL;
+        BitSet digits = digits();
+        int d0 = nfa.start(best);
+        int d1 = nfa.state(best);
+        int dot = nfa.state(best);
+        int frac = nfa.accept(best, LexRule.DECIMAL);
+        int err = nfa.accept(best, LexRule.DECIMAL_MALFORMED);
+        nfa.edge(d0, digits, d1);
+        nfa.edge(d1, digits, d1);
+        nfa.edge(d1, chars('.'), dot);
+        nfa.edge(dot, digits, frac);
+        nfa.edge(frac, digits, frac);
+        nfa.edge(dot, complement(digits), err);
+        nfa.eof(dot, err);
+    }
+
+    /** dígitos+ ; dígitos+ letra ⇒ "Número mal formado". */
+    private static void addNumber(Nfa nfa) {
+        LexRule best = LexRule.NUMBER_MALFORMED;
+        int n0 = nfa.start(best);
+        int n1 = nfa.accept(best, LexRule.NUMBER);
+        nfa.edge(n0, digits(), n1);
+        nfa.edge(n1, digits(), n1);
+        nfa.edge(n1, letters(), nfa.accept(best, LexRule.NUMBER_MALFORMED));
+    }
+
+    /** letra (letra|dígito)*. La clasificación reservada/identificador se hace después. */
+    private static void addIdentifier(Nfa nfa) {
+        LexRule best = LexRule.IDENTIFIER;
+        int i0 = nfa.start(best);
+        int i1 = nfa.accept(best, LexRule.IDENTIFIER);
+        BitSet alnum = letters();
+        alnum.or(digits());
+        nfa.edge(i0, letters(), i1);
+        nfa.edge(i1, alnum, i1);
+    }
+
+    /** Cualquier carácter aislado ⇒ "Símbolo fuera del alfabeto permitido". */
+    private static void addAnyChar(Nfa nfa) {
+        LexRule best = LexRule.ALPHABET_ERROR;
+        int e0 = nfa.start(best);
+        BitSet all = new BitSet(ALPHABET);
+        all.set(0, ALPHABET);
+        nfa.edge(e0, all, nfa.accept(best, LexRule.ALPHABET_ERROR));
+    }
+
+    /* ====================== determinización ====================== */
+
+    /**
+     * Construcción por subconjuntos sobre clases de equivalencia de caracteres,
+     * extendida con la mejor regla aceptada hasta el momento (h). El resultado
+     * se minimiza antes de empaquetarlo: variantes de h que ya no influyen en
+     * el resultado producen estados equivalentes.
+     *
+     * @param report receptor del conteo de estados; null = no minimizar
+     */
+    private static Dfa<LexRule> determinize(Nfa nfa, Consumer<DfaBuilder.Reduction> report) {
+        int[] bounds = classBounds(nfa);
+        int classes = bounds.length - 1;
+
+        DfaBuilder<LexRule> builder = new DfaBuilder<>();
+        Map<String, Integer> ids = new HashMap<>();
+        List<int[]> pendingSets = new ArrayList<>();
+        List<Integer> pendingH = new ArrayList<>();
+        Deque<Integer> work = new ArrayDeque<>();
+
+        int[] startSet = nfa.starts.stream().mapToInt(Integer::intValue).sorted().toArray();
+        int start = builder.addState();
+        ids.put(key(startSet, NO_RULE), start);
+        pendingSets.add(startSet);
+        pendingH.add(NO_RULE);
+        work.add(start);
+
+        while (!work.isEmpty()) {
+            int id = work.poll();
+            int[] set = pendingSets.get(id);
+            int h = pendingH.get(id);
+
+            int runStart = 0;
+            int runTarget = -2;
+            for (int k = 0; k <= classes; k++) {
+                int target = -1;
+                if (k < classes) {
+                    BitSet raw = new BitSet();
+                    for (int s : set) {
+                        NState ns = nfa.states.get(s);
+                        for (int e = 0; e < ns.sets.size(); e++) {
+                            if (ns.sets.get(e).get(bounds[k])) raw.set(ns.targets.get(e));
+                        }
+                    }
+                    target = successor(nfa, raw, h, builder, ids, pendingSets, pendingH, work);
+                }
+                if (target != runTarget) {
+                    if (runTarget >= 0) {
+                        builder.onRange(id, (char) bounds[runStart], (char) (bounds[k] - 1), runTarget);
+                    }
+                    runStart = k;
+                    runTarget = target;
+                }
+            }
+
+            BitSet rawEof = new BitSet();
+            for (int s : set) {
+                int eof = nfa.states.get(s).eof;
+                if (eof >= 0) rawEof.set(eof);
+            }
+            int eofTarget = successor(nfa, rawEof, h, builder, ids, pendingSets, pendingH, work);
+            if (eofTarget >= 0) builder.onEof(id, eofTarget);
+        }
+        if (report == null) {
+            return builder.build(start);
+        }
+        DfaBuilder.Reduction reduction = builder.minimize(start);
+        report.accept(reduction);
+        return builder.build(reduction.startState());
+    }
+
+    /** Calcula (y registra si es nuevo) el estado sucesor; -1 si es estado muerto. */
+    private static int successor(Nfa nfa, BitSet raw, int h, DfaBuilder<LexRule> builder,
+                                 Map<String, Integer> ids, List<int[]> pendingSets,
+                                 List<Integer> pendingH, Deque<Integer> work) {
+        int accept = NO_RULE;
+        for (int s = raw.nextSetBit(0); s >= 0; s = raw.nextSetBit(s + 1)) {
+            NState ns = nfa.states.get(s);
+            if (ns.best > h) {
+                raw.clear(s);
+                continue;
+            }
+            if (ns.accept != null && ns.accept.ordinal() <= h) {
+                accept = Math.min(accept, ns.accept.ordinal());
+            }
+        }
+        int newH = Math.min(h, accept);
+        for (int s = raw.nextSetBit(0); s >= 0; s = raw.nextSetBit(s + 1)) {
+            if (nfa.states.get(s).best > newH) raw.clear(s);
+        }
+        if (raw.isEmpty() && accept == NO_RULE) return -1;
+
+        int[] set = raw.stream().toArray();
+        String key = key(set, newH);
+        Integer existing = ids.get(key);
+        if (existing != null) return existing;
+
+        int id = builder.addState();
+        if (accept != NO_RULE) builder.setAccepting(id, LexRule.values()[accept]);
+        ids.put(key, id);
+        pendingSets.add(set);
+        pendingH.add(newH);
+        work.add(id);
+        return id;
+    }
+
+    /** Fronteras de las clases de equivalencia: inicio de cada intervalo + ALPHABET. */
+    private static int[] classBounds(Nfa nfa) {
+        TreeSet<Integer> bounds = new TreeSet<>();
+        bounds.add(0);
+        bounds.add(ALPHABET);
+        for (NState ns : nfa.states) {
+            for (BitSet set : ns.sets) {
+                for (int i = set.nextSetBit(0); i >= 0; i = set.nextSetBit(i)) {
+                    int j = set.nextClearBit(i);
+                    bounds.add(i);
+                    bounds.add(Math.min(j, ALPHABET));
+                    if (j >= ALPHABET) break;
+                    i = j;
+                }
+            }
+        }
+        return bounds.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static String key(int[] set, int h) {
+        return Arrays.toString(set) + "|" + h;
+    }
+
+    /* ====================== conjuntos de caracteres ====================== */
+
+    private static BitSet chars(char... cs) {
+        BitSet b = new BitSet(ALPHABET);
+        for (char c : cs) b.set(c);
+        return b;
+    }
+
+    private static BitSet digits() {
+        BitSet b = new BitSet(ALPHABET);
+        b.set('0', '9' + 1);
+        return b;
+    }
+
+    private static BitSet letters() {
+        BitSet b = new BitSet(ALPHABET);
+        b.set('a', 'z' + 1);
+        b.set('A', 'Z' + 1);
+        return b;
+    }
+
+    private static BitSet complement(BitSet set) {
+        BitSet b = (BitSet) set.clone();
+        b.flip(0, ALPHABET);
+        return b;
+    }
+
+    private static void addChars(BitSet dst, Set<String> symbols) {
+        if (symbols == null) return;
+        for (String s : symbols) addChars(dst, s);
+    }
+
+    private static void addChars(BitSet dst, String s) {
+        if (s == null) return;
+        for (int i = 0; i < s.length(); i++) dst.set(s.charAt(i));
+    }
+
+    private static boolean isEmpty(String s) {
+        return s == null || s.isEmpty();
+    }
+
+    /* ====================== AFN auxiliar ====================== */
+
+    /** Estado del AFN: aristas por conjunto de chars, arista por EOF y regla aceptada. */
+    private static final class NState {
+        final int best;          // mejor regla (ordinal) alcanzable en su sub-autómata
+        LexRule accept;          // null si no acepta
+        final List<BitSet> sets = new ArrayList<>();
+        final List<Integer> targets = new ArrayList<>();
+        int eof = -1;
+
+        NState(LexRule best) {
+            this.best = best.ordinal();
+        }
+    }
+
+    /** AFN formado por la unión de un sub-autómata (determinista) por regla. */
+    private static final class Nfa {
+        final List<NState> states = new ArrayList<>();
+        final List<Integer> starts = new ArrayList<>();
+
+        int state(LexRule best) {
+            states.add(new NState(best));
+            return states.size() - 1;
+        }
+
+        int start(LexRule best) {
+            int s = state(best);
+            starts.add(s);
+            return s;
+        }
+
+        int accept(LexRule best, LexRule rule) {
+            int s = state(best);
+            states.get(s).accept = rule;
+            return s;
+        }
+
+        void edge(int from, BitSet set, int to) {
+            if (set.isEmpty()) return;
+            states.get(from).sets.add(set);
+            states.get(from).targets.add(to);
+        }
+
+        void eof(int from, int to) {
+            states.get(from).eof = to;
+        }
+
+        /** Cadena de estados para 's' desde 'from'; retorna el estado final. */
+        int chain(int from, String s, LexRule best) {
+            int cur = from;
+            for (int i = 0; i < s.length(); i++) {
+                int next = state(best);
+                edge(cur, chars(s.charAt(i)), next);
+                cur = next;
+            }
+            return cur;
+        }
+
+        /** Literal exacto con su propia regla de aceptación. */
+        void literal(String s, LexRule rule) {
+            int end = chain(start(rule), s, rule);
+            states.get(end).accept = rule;
+        }
+
+        /** Trie de símbolos (longest-first implícito por maximal munch). */
+        void trie(Set<String> symbols, LexRule rule) {
+            if (symbols == null || symbols.isEmpty()) return;
+            int root = start(rule);
+            for (String sym : symbols) {
+                if (sym == null || sym.isEmpty()) continue;
+                int cur = root;
+                for (int i = 0; i < sym.length(); i++) {
+                    cur = child(cur, sym.charAt(i), rule);
+                }
+                states.get(cur).accept = rule;
+            }
+        }
+
+        private int child(int node, char c, LexRule rule) {
+            NState ns = states.get(node);
+            for (int e = 0; e < ns.sets.size(); e++) {
+                BitSet set = ns.sets.get(e);
+                if (set.cardinality() == 1 && set.get(c)) return ns.targets.get(e);
+            }
+            int next = state(rule);
+            edge(node, chars(c), next);
+            return next;
+        }
+    }
+}
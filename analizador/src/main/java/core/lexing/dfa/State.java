@@ -23,6 +23,9 @@ public final class State<T> {
 
     private final List<Transition> transitions = new ArrayList<>();
 
+    // Transición por fin de entrada (pseudo-símbolo EOF); -1 si no existe.
+    private int eofTarget = -1;
+
     public State(int id) {
         this.id = id;
     }
@@ -53,6 +56,16 @@ public final class State<T> {
         transitions.add(t);
     }
 
+    /** Define la transición por EOF (contexto posterior "fin de entrada"). */
+    void setEofTransition(int toState) {
+        this.eofTarget = toState;
+    }
+
+    /** Estado destino al leer EOF, o -1 si no hay transición por EOF. */
+    public int eofTarget() {
+        return eofTarget;
+    }
+
     /** Vista inmodificable de las transiciones salientes. */
     public List<Transition> transitions() {
         return Collections.unmodifiableList(transitions);
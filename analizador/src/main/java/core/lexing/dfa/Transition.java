@@ -1,6 +1,7 @@
 package core.lexing.dfa;
 
 import java.util.Arrays;
+import java.util.SortedSet;
 
 /**
  * Transición determinista desde un estado hacia otro,
@@ -61,6 +62,19 @@ public final class Transition {
         return toState;
     }
 
+    /**
+     * Agrega a 'out' las fronteras de los intervalos de chars que activan esta
+     * transición (inicio inclusivo y fin exclusivo). Usado al empaquetar el AFD
+     * en clases de equivalencia.
+     */
+    void addBounds(SortedSet<Integer> out) {
+        switch (kind) {
+            case SINGLE -> { out.add((int) single); out.add(single + 1); }
+            case RANGE  -> { out.add((int) from); out.add(to + 1); }
+            case SET    -> { for (char c : set) { out.add((int) c); out.add(c + 1); } }
+        }
+    }
+
     /** ¿El carácter 'c' activa esta transición? */
     public boolean matches(int c) {
         if (c < 0) return false; // EOF no matchea
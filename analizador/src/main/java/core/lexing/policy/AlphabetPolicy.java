@@ -1,7 +1,7 @@
 package core.lexing.policy;
 
-import core.lexing.stream.CharClasses;
 import core.lexing.stream.CharCursor;
+import core.lexing.table.CharSet;
 import core.lexing.table.OperatorTable;
 import model.config.CommentsConfig;
 import model.config.Config;
@@ -20,47 +20,89 @@ import model.config.Config;
  *
  * Esta política NO reconoce tokens; solo responde si en la posición actual puede
  * iniciar algún símbolo permitido. El reconocimiento/consumo lo hace el lexer.
+ *
+ * La configuración se compila una vez en mapas de bits ({@link CharSet}) de
+ * caracteres permitidos y de primeros caracteres de símbolos largos.
  */
 public final class AlphabetPolicy {
 
+    private final OperatorTable symbols;
+    private final String lineComment;
+    private final String blockStart;
+
+    // Caracteres permitidos sin mirar más allá (base + símbolos de un solo char)
+    private final CharSet allowed = baseAlphabet();
+    // Primeros caracteres de símbolos/comentarios más largos: hay que verificar
+    // que el símbolo completo esté en el texto
+    private final CharSet starts = new CharSet();
+
+    /**
+     * Compila la política para una configuración.
+     *
+     * @param config  configuración (para los prefijos de comentario; puede ser null)
+     * @param symbols tabla combinada de operadores, puntuación y agrupación
+     *                ({@link OperatorTable#merged(java.util.List)}; puede ser null)
+     */
+    public AlphabetPolicy(Config config, OperatorTable symbols) {
+        this.symbols = symbols;
+        CommentsConfig com = (config != null) ? config.getComentarios() : null;
+        this.lineComment = (com != null) ? com.getLinea() : null;
+        this.blockStart = (com != null) ? com.getBloqueInicio() : null;
+
+        if (symbols != null) {
+            for (String s : symbols.symbols()) addStart(s);
+        }
+        addStart(lineComment);
+        addStart(blockStart);
+    }
+
+    /**
+     * Alfabeto base de la guía: letras, dígitos, espacio, saltos de línea y
+     * comilla doble. Devuelve un conjunto nuevo (se puede ampliar).
+     */
+    public static CharSet baseAlphabet() {
+        return new CharSet()
+                .addRange('a', 'z')
+                .addRange('A', 'Z')
+                .addRange('0', '9')
+                .add(' ').add('\n').add('\r')
+                .add('"');
+    }
+
     /**
      * ¿El símbolo en la posición actual pertenece al alfabeto?
      * Se verifica de forma conservadora:
      *  - Si es letra, dígito, espacio o salto de línea ⇒ permitido.
      *  - Si es comilla doble ⇒ permitido (podría iniciar cadena).
-     *  - Si coincide con el inicio de un operador/puntuación/agrupación (greedy) ⇒ permitido.
+     *  - Si coincide con el inicio de un operador/puntuación/agrupación ⇒ permitido
+     *    (una sola pasada por la tabla combinada de las tres categorías).
      *  - Si inicia un comentario de línea o bloque ⇒ permitido.
      * En caso contrario ⇒ fuera del alfabeto.
+     *
+     * Los dos primeros casos y los símbolos de un solo carácter se resuelven con
+     * un bit; solo un char que inicia un símbolo más largo mira el lookahead.
      */
-    public boolean isAllowedAt(CharCursor cursor,
-                               Config config,
-                               OperatorTable operators,
-                               OperatorTable punctuation,
-                               OperatorTable grouping) {
+    public boolean isAllowedAt(CharCursor cursor) {
         if (cursor == null || cursor.eof()) return true; // EOF no se reporta como símbolo inválido
         int c = cursor.peek();
-
-        // Base del alfabeto
-        if (CharClasses.isLetter(c) || CharClasses.isDigit(c) || CharClasses.isSpaceOrNewline(c)) return true;
-        if (CharClasses.isQuote(c)) return true;
+        if (allowed.contains(c)) return true;
+        if (!starts.contains(c)) return false;
 
         // Símbolos configurados
-        if (operators != null && operators.longestMatch(cursor) != null) return true;
-        if (punctuation != null && punctuation.longestMatch(cursor) != null) return true;
-        if (grouping != null && grouping.longestMatch(cursor) != null) return true;
+        if (symbols != null && symbols.longestMatchLength(cursor) > 0) return true;
 
         // Comentarios
-        CommentsConfig com = (config != null) ? config.getComentarios() : null;
-        if (com != null) {
-            if (startsWith(cursor, com.getLinea())) return true;
-            if (startsWith(cursor, com.getBloqueInicio())) return true;
-        }
+        return startsWith(cursor, lineComment) || startsWith(cursor, blockStart);
+    }
 
-        return false;
+    private void addStart(String s) {
+        if (s == null || s.isEmpty()) return;
+        if (s.length() == 1) allowed.add(s.charAt(0));
+        else starts.add(s.charAt(0));
     }
 
     /** ¿El texto a partir del cursor inicia exactamente con 's'? (sin consumir). */
-    private boolean startsWith(CharCursor cursor, String s) {
+    private static boolean startsWith(CharCursor cursor, String s) {
         if (s == null || s.isEmpty()) return false;
         for (int i = 0; i < s.length(); i++) {
             int ch = cursor.peek(i);
@@ -8,7 +8,7 @@ import model.config.CommentsConfig;
  *   - Debe iniciar con 'comentarios.bloqueInicio' y terminar con 'comentarios.bloqueFin'.
  *   - Si NO se encuentra el delimitador de cierre hasta EOF, se reporta un ERROR:
  *       mensaje: "Comentario de bloque no cerrado"
- *       errorLexeme: el delimitador de apertura (para el reporte de errores).
+ *       (código {@link Recognition#BLOCK_COMMENT_UNCLOSED}).
  *
  * Este reconocedor NO consume caracteres; únicamente calcula la longitud del
  * match (o hasta EOF en el caso de error) para que el llamador decida consumir.
@@ -19,19 +19,19 @@ import model.config.CommentsConfig;
  */
 public final class BlockCommentRecognizer {
 
-    private static final String MSG_UNCLOSED = "Comentario de bloque no cerrado";
+    public static final String MSG_UNCLOSED = "Comentario de bloque no cerrado";
 
     /**
      * Intenta reconocer un comentario de bloque en la posición actual del cursor.
      *
      * @param cursor flujo de caracteres (no se consume aquí)
      * @param cfg    configuración de comentarios (prefijos/sufijos)
-     * @return Recognition:
+     * @return resultado codificado ({@link Recognition}):
      *   - matched=false si NO comienza con el prefijo de comentario de bloque.
      *   - matched=true y sin error: longitud incluye apertura, contenido y cierre.
      *   - matched=true y con error: longitud desde la apertura hasta EOF (sin cierre).
      */
-    public Recognition recognize(CharCursor cursor, CommentsConfig cfg) {
+    public long recognize(CharCursor cursor, CommentsConfig cfg) {
         if (cursor == null || cursor.eof()) return Recognition.noMatch();
         if (cfg == null) return Recognition.noMatch();
 
@@ -45,23 +45,25 @@ public final class BlockCommentRecognizer {
             return Recognition.noMatch();
         }
 
-        // Buscamos el primer cierre 'close' char a char.
+        // Buscamos el primer cierre 'close': saltamos hasta cada aparición de su
+        // primer carácter y ahí comparamos el resto.
         int offset = open.length();
+        char first = close.charAt(0);
 
         while (true) {
-            int c = cursor.peek(offset);
-            if (c == CharCursor.EOF) {
+            int at = cursor.find(first, offset);
+            if (at < 0) {
                 // No hubo cierre: se reporta error y la longitud consumirá hasta EOF.
-                int lengthToEof = offset; // desde inicio del bloque hasta EOF
-                return Recognition.error(lengthToEof, open, MSG_UNCLOSED);
+                int lengthToEof = cursor.length() - cursor.index(); // desde inicio del bloque hasta EOF
+                return Recognition.error(lengthToEof, Recognition.BLOCK_COMMENT_UNCLOSED);
             }
-            // ¿En la posición actual comienza el sufijo de cierre?
-            if (startsWith(cursor, close, offset)) {
+            // ¿En esta posición comienza el sufijo de cierre?
+            if (startsWith(cursor, close, at)) {
                 // Longitud total: apertura + contenido + cierre
-                int total = offset + close.length();
+                int total = at + close.length();
                 return Recognition.match(total);
             }
-            offset++;
+            offset = at + 1;
         }
     }
 
@@ -22,18 +22,18 @@ import core.lexing.stream.CharCursor;
  */
 public final class DecimalRecognizer {
 
-    private static final String MSG_FALTAN_DIGITOS = "Decimal mal formado: faltan dígitos";
+    public static final String MSG_FALTAN_DIGITOS = "Decimal mal formado: faltan dígitos";
 
     /**
      * Intenta reconocer un número decimal válido o el caso de error "12.".
      *
      * @param cursor flujo de caracteres (no se consume aquí)
-     * @return Recognition:
+     * @return resultado codificado ({@link Recognition}):
      *   - matched=false si no empieza con dígitos seguidos de '.'.
      *   - matched=true sin error: longitud = dígitosAntes + 1 (punto) + dígitosDespués(>=1).
      *   - matched=true con error: si no hay dígito tras '.', longitud = dígitosAntes + 1.
      */
-    public Recognition recognize(CharCursor cursor) {
+    public long recognize(CharCursor cursor) {
         if (cursor == null || cursor.eof()) return Recognition.noMatch();
 
         int i = 0;
@@ -41,12 +41,7 @@ public final class DecimalRecognizer {
         if (!CharClasses.isDigit(c0)) return Recognition.noMatch();
 
         // 1) dígitos antes del punto
-        int countBefore = 1;
-        while (true) {
-            int c = cursor.peek(i + countBefore);
-            if (c == CharCursor.EOF || !CharClasses.isDigit(c)) break;
-            countBefore++;
-        }
+        int countBefore = 1 + cursor.digitRun(i + 1);
 
         // Debe haber un punto a continuación
         int dot = cursor.peek(i + countBefore);
@@ -57,16 +52,11 @@ public final class DecimalRecognizer {
         if (firstAfter == CharCursor.EOF || !CharClasses.isDigit(firstAfter)) {
             // Error "12."
             int errorLen = countBefore + 1; // incluye el '.'
-            return Recognition.error(errorLen, "<lexema:" + errorLen + ">", MSG_FALTAN_DIGITOS);
+            return Recognition.error(errorLen, Recognition.DECIMAL_MISSING_DIGITS);
         }
 
         // 3) consumir dígitos después del punto
-        int countAfter = 1; // ya contamos el primero
-        while (true) {
-            int c = cursor.peek(i + countBefore + 1 + countAfter);
-            if (c == CharCursor.EOF || !CharClasses.isDigit(c)) break;
-            countAfter++;
-        }
+        int countAfter = 1 + cursor.digitRun(i + countBefore + 2); // ya contamos el primero
 
         int total = countBefore + 1 + countAfter;
         return Recognition.match(total);
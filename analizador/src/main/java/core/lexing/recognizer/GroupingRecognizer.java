@@ -32,16 +32,16 @@ public final class GroupingRecognizer {
      * Intenta reconocer un signo de agrupación en la posición actual.
      *
      * @param cursor flujo de caracteres (no se consume aquí)
-     * @return Recognition:
+     * @return resultado codificado ({@link Recognition}):
      *   - matched=false si no hay agrupación en esta posición.
      *   - matched=true  y length = tamaño del símbolo más largo si sí hay.
      */
-    public Recognition recognize(CharCursor cursor) {
+    public long recognize(CharCursor cursor) {
         if (cursor == null || cursor.eof()) return Recognition.noMatch();
 
-        String sym = table.longestMatch(cursor);
-        if (sym == null) return Recognition.noMatch();
+        int len = table.longestMatchLength(cursor);
+        if (len == 0) return Recognition.noMatch();
 
-        return Recognition.match(sym.length());
+        return Recognition.match(len);
     }
 }
@@ -23,11 +23,11 @@ public final class IdentifierRecognizer {
      * Intenta reconocer un identificador comenzando en la posición actual.
      *
      * @param cursor flujo de caracteres (no se consume aquí)
-     * @return Recognition:
+     * @return resultado codificado ({@link Recognition}):
      *   - matched=false si el primer char no es letra.
      *   - matched=true  y length >= 1 si es un identificador válido (letra (letra|dígito)*).
      */
-    public Recognition recognize(CharCursor cursor) {
+    public long recognize(CharCursor cursor) {
         if (cursor == null || cursor.eof()) return Recognition.noMatch();
 
         int c0 = cursor.peek();
@@ -35,16 +35,8 @@ public final class IdentifierRecognizer {
             return Recognition.noMatch();
         }
 
-        int len = 1; // ya contamos la primera letra
-        while (true) {
-            int c = cursor.peek(len);
-            if (c == CharCursor.EOF) break;
-            if (CharClasses.isLetter(c) || CharClasses.isDigit(c)) {
-                len++;
-            } else {
-                break;
-            }
-        }
+        // Primera letra + racha de letras/dígitos
+        int len = 1 + cursor.alnumRun(1);
         return Recognition.match(len);
     }
 }
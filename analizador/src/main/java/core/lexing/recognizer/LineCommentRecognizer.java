@@ -22,11 +22,11 @@ public final class LineCommentRecognizer {
      *
      * @param cursor  flujo de caracteres (no se consume aquí)
      * @param cfg     configuración de comentarios (prefijos/sufijos)
-     * @return Recognition:
+     * @return resultado codificado ({@link Recognition}):
      *   - matched=false si NO comienza con el prefijo de comentario de línea.
      *   - matched=true  y length > 0 si SÍ hay comentario de línea (sin error).
      */
-    public Recognition recognize(CharCursor cursor, CommentsConfig cfg) {
+    public long recognize(CharCursor cursor, CommentsConfig cfg) {
         if (cursor == null || cursor.eof()) return Recognition.noMatch();
         if (cfg == null || cfg.getLinea() == null || cfg.getLinea().isEmpty()) return Recognition.noMatch();
 
@@ -43,24 +43,10 @@ public final class LineCommentRecognizer {
             }
         }
 
-        // Calcula longitud: prefijo + contenido hasta antes del salto de línea/EOF.
-        int offset = prefix.length();
-
-        while (true) {
-            int c = cursor.peek(offset);
-            if (c == CharCursor.EOF) break;
-            if (c == '\r') {
-                // Si es CRLF, no incluimos el '\n'
-                if (cursor.peek(offset + 1) == '\n') {
-                    // Comentario termina antes de CRLF (no se incluyen saltos)
-                }
-                break;
-            }
-            if (c == '\n') {
-                break;
-            }
-            offset++;
-        }
+        // Calcula longitud: prefijo + contenido hasta antes del salto de línea/EOF
+        // (con CRLF el comentario termina antes del '\r'; no se incluyen saltos).
+        int brk = cursor.findLineBreak(prefix.length());
+        int offset = (brk >= 0) ? brk : cursor.length() - cursor.index();
 
         return Recognition.match(offset);
     }
@@ -24,19 +24,19 @@ import core.lexing.stream.CharCursor;
  */
 public final class NumberRecognizer {
 
-    private static final String MSG_MAL_FORMADO = "Número mal formado";
+    public static final String MSG_MAL_FORMADO = "Número mal formado";
 
     /**
      * Intenta reconocer un número entero o el caso de error indicado.
      *
      * @param cursor flujo de caracteres (no se consume aquí)
-     * @return Recognition:
+     * @return resultado codificado ({@link Recognition}):
      *   - matched=false si el primer char no es dígito.
      *   - matched=true sin error: longitud = cantidad de dígitos.
      *   - matched=true con error: si el char posterior a los dígitos es LETRA,
      *       longitud = dígitos + 1 (incluye la primera letra), mensaje "Número mal formado".
      */
-    public Recognition recognize(CharCursor cursor) {
+    public long recognize(CharCursor cursor) {
         if (cursor == null || cursor.eof()) return Recognition.noMatch();
 
         int c0 = cursor.peek();
@@ -44,36 +44,17 @@ public final class NumberRecognizer {
             return Recognition.noMatch();
         }
 
-        // Consumimos dígitos en lookahead
-        int len = 1;
-        while (true) {
-            int c = cursor.peek(len);
-            if (c == CharCursor.EOF) break;
-            if (CharClasses.isDigit(c)) {
-                len++;
-            } else {
-                break;
-            }
-        }
+        // Racha de dígitos en lookahead
+        int len = 1 + cursor.digitRun(1);
 
         // Si el primer no-dígito inmediatamente después es una LETRA, es error "número mal formado".
         int next = cursor.peek(len);
         if (next != CharCursor.EOF && CharClasses.isLetter(next)) {
             // Incluimos únicamente la primera letra inválida en el lexema del error
-            return Recognition.error(len + 1, buildErrorLexemeLength(len + 1), MSG_MAL_FORMADO);
+            return Recognition.error(len + 1, Recognition.NUMBER_MALFORMED);
         }
 
         // Número entero válido
         return Recognition.match(len);
     }
-
-    /**
-     * Construye un "símbolo o cadena de error" genérico para el reporte, dado
-     * que el reconocedor no consume ni guarda substring. Para mantener bajo
-     * acoplamiento, retornamos un placeholder que indica la longitud capturada.
-     * La materialización del lexema exacto la hará el lexer al consumir.
-     */
-    private String buildErrorLexemeLength(int length) {
-        return "<lexema:" + length + ">";
-    }
 }
@@ -2,7 +2,7 @@ package core.lexing.recognizer;
 
 /**
  * Resultado de un intento de reconocimiento desde la posición actual del cursor,
- * sin consumir caracteres del flujo.
+ * sin consumir caracteres del flujo, codificado en un {@code long}.
  *
  * Convenciones:
  *  - matched == false  => no hay coincidencia; length = 0; hasError = false.
@@ -14,53 +14,73 @@ package core.lexing.recognizer;
  *  - length indica CUÁNTOS caracteres debería consumir el llamador si decide avanzar.
  *  - Para comentarios de bloque sin cierre, length suele abarcar desde el inicio del
  *    comentario hasta EOF (ya que no existe cierre).
+ *
+ * Codificación (los reconocedores se prueban hasta diez veces por posición y
+ * no deben crear objetos):
+ *  - bits 0..31: longitud.
+ *  - bits 32..39: código de error (0 = sin error); el mensaje sale de una
+ *    tabla estática con {@link #errorMessage(long)}.
+ *  - bit 40: matched.
  */
 public final class Recognition {
 
-    private final boolean matched;
-    private final int length;
-    private final boolean hasError;
-    private final String errorMessage;
-    private final String errorLexeme; // símbolo o cadena asociada al error (para reporte)
+    /** Sin coincidencia. */
+    public static final long NO_MATCH = 0L;
 
-    private Recognition(boolean matched, int length, boolean hasError, String errorMessage, String errorLexeme) {
-        this.matched = matched;
-        this.length = length;
-        this.hasError = hasError;
-        this.errorMessage = errorMessage;
-        this.errorLexeme = errorLexeme;
-    }
+    // Códigos de error
+    public static final int NO_ERROR = 0;
+    public static final int STRING_UNCLOSED = 1;
+    public static final int STRING_INVALID_SYMBOL = 2;
+    public static final int BLOCK_COMMENT_UNCLOSED = 3;
+    public static final int DECIMAL_MISSING_DIGITS = 4;
+    public static final int NUMBER_MALFORMED = 5;
+
+    private static final String[] MESSAGES = {
+            null,
+            StringRecognizer.MSG_NO_CERRADA,
+            StringRecognizer.MSG_SIMBOLO_INVALIDO,
+            BlockCommentRecognizer.MSG_UNCLOSED,
+            DecimalRecognizer.MSG_FALTAN_DIGITOS,
+            NumberRecognizer.MSG_MAL_FORMADO
+    };
+
+    private static final long MATCHED = 1L << 40;
+    private static final int CODE_SHIFT = 32;
+
+    private Recognition() { /* utilitaria: no instanciable */ }
 
     /** No hubo match alguno. */
-    public static Recognition noMatch() {
-        return new Recognition(false, 0, false, null, null);
+    public static long noMatch() {
+        return NO_MATCH;
     }
 
     /** Hubo match válido (sin error). */
-    public static Recognition match(int length) {
+    public static long match(int length) {
         if (length <= 0) throw new IllegalArgumentException("La longitud de un match debe ser > 0.");
-        return new Recognition(true, length, false, null, null);
+        return MATCHED | length;
     }
 
-    /** Hubo match pero se detectó un error sobre el lexema reconocido. */
-    public static Recognition error(int length, String errorLexeme, String errorMessage) {
+    /** Hubo match pero se detectó un error (código de la tabla) sobre el lexema reconocido. */
+    public static long error(int length, int errorCode) {
         if (length <= 0) throw new IllegalArgumentException("La longitud de un match debe ser > 0.");
-        if (errorMessage == null) throw new IllegalArgumentException("El mensaje de error no puede ser null.");
-        return new Recognition(true, length, true, errorMessage, errorLexeme);
+        if (errorCode <= NO_ERROR || errorCode >= MESSAGES.length) {
+            throw new IllegalArgumentException("Código de error desconocido: " + errorCode);
+        }
+        return MATCHED | ((long) errorCode << CODE_SHIFT) | length;
     }
 
     /** ¿Se reconoció el patrón desde la posición actual? */
-    public boolean matched() { return matched; }
+    public static boolean matched(long r) { return (r & MATCHED) != 0; }
 
     /** Longitud del prefijo reconocido (caracteres a consumir si se avanza). */
-    public int length() { return length; }
+    public static int length(long r) { return (int) r; }
 
     /** ¿El reconocimiento trae un error asociado? (p. ej., bloque no cerrado) */
-    public boolean hasError() { return hasError; }
+    public static boolean hasError(long r) { return errorCode(r) != NO_ERROR; }
 
-    /** Mensaje del error (en español), si existe. */
-    public String errorMessage() { return errorMessage; }
+    /** Código del error, o {@link #NO_ERROR}. */
+    public static int errorCode(long r) { return (int) (r >>> CODE_SHIFT) & 0xFF; }
 
-    /** Símbolo o cadena asociada al error (para reporte), si existe. */
-    public String errorLexeme() { return errorLexeme; }
+    /** Mensaje del error (en español), o null si no hay error. */
+    public static String errorMessage(long r) { return MESSAGES[errorCode(r)]; }
 }
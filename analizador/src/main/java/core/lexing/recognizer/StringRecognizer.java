@@ -1,14 +1,13 @@
 package core.lexing.recognizer;
 
+import core.lexing.policy.AlphabetPolicy;
 import core.lexing.stream.CharClasses;
 import core.lexing.stream.CharCursor;
+import core.lexing.table.CharSet;
 import core.lexing.table.OperatorTable;
 import model.config.Config;
 import model.config.CommentsConfig;
 
-import java.util.HashSet;
-import java.util.Set;
-
 /**
  * Reconocedor de CADENAS entre comillas dobles.
  *
@@ -26,19 +25,21 @@ import java.util.Set;
  * Importante:
  *  - NO consume del cursor (sólo calcula longitud).
  *  - NO usa regex; char-a-char con peek(k).
+ *  - El alfabeto de la cadena (base + chars de símbolos y comentarios) se
+ *    compila en un {@link CharSet}: cada carácter cuesta una prueba de bit.
  */
 public final class StringRecognizer {
 
-    private static final String MSG_NO_CERRADA = "Cadena no cerrada";
+    public static final String MSG_NO_CERRADA = "Cadena no cerrada";
     public static final String MSG_SIMBOLO_INVALIDO = "Símbolo fuera del alfabeto permitido en cadena";
 
-    private final Set<Character> allowedChars;
+    private final CharSet allowedChars;
 
     public StringRecognizer(Config config,
                              OperatorTable operators,
                              OperatorTable punctuation,
                              OperatorTable grouping) {
-        this.allowedChars = new HashSet<>();
+        this.allowedChars = AlphabetPolicy.baseAlphabet();
 
         addCharsFromTable(operators);
         addCharsFromTable(punctuation);
@@ -56,7 +57,7 @@ public final class StringRecognizer {
      * Intenta reconocer una cadena delimitada por comillas.
      *
      * @param cursor flujo de caracteres (no se consume aquí)
-     * @return Recognition:
+     * @return resultado codificado ({@link Recognition}):
      *   - matched=false si el primer char no es comilla doble ".
      *   - matched=true sin error: longitud = desde la comilla inicial hasta la comilla de cierre inclusive.
      *   - matched=true con error: si no hay comilla de cierre hasta EOF, longitud = desde inicio hasta EOF,
@@ -64,7 +65,7 @@ public final class StringRecognizer {
      *   - matched=true con error: si se encuentra un símbolo fuera del alfabeto
      *       permitido, longitud = lexema parcial + símbolo inválido.
      */
-    public Recognition recognize(CharCursor cursor) {
+    public long recognize(CharCursor cursor) {
         if (cursor == null || cursor.eof()) return Recognition.noMatch();
         if (!CharClasses.isQuote(cursor.peek())) return Recognition.noMatch();
 
@@ -73,7 +74,7 @@ public final class StringRecognizer {
             int c = cursor.peek(len);
             if (c == CharCursor.EOF) {
                 // No apareció cierre
-                return Recognition.error(len, "\"", MSG_NO_CERRADA);
+                return Recognition.error(len, Recognition.STRING_UNCLOSED);
             }
             if (c == '"') {
                 // cierre incluido
@@ -82,17 +83,14 @@ public final class StringRecognizer {
             }
             if (!isAllowedChar(c)) {
                 // Consumimos también el símbolo inválido para evitar bucles
-                return Recognition.error(len + 1, null, MSG_SIMBOLO_INVALIDO);
+                return Recognition.error(len + 1, Recognition.STRING_INVALID_SYMBOL);
             }
             len++;
         }
     }
 
     private boolean isAllowedChar(int c) {
-        if (CharClasses.isLetter(c) || CharClasses.isDigit(c) || CharClasses.isSpaceOrNewline(c) || CharClasses.isQuote(c)) {
-            return true;
-        }
-        return allowedChars.contains((char) c);
+        return allowedChars.contains(c);
     }
 
     private void addCharsFromTable(OperatorTable table) {
@@ -103,10 +101,7 @@ public final class StringRecognizer {
     }
 
     private void addCharsFromString(String s) {
-        if (s == null) return;
-        for (int i = 0; i < s.length(); i++) {
-            allowedChars.add(s.charAt(i));
-        }
+        allowedChars.addAll(s);
     }
 }
 
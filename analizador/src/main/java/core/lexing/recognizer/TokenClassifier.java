@@ -41,4 +41,18 @@ public final class TokenClassifier {
                 ? TokenType.RESERVED_WORD
                 : TokenType.IDENTIFIER;
     }
+
+    /**
+     * Igual que {@link #classifyIdentOrReserved(String)} pero sobre un rango
+     * del texto analizado, sin construir el lexema.
+     * @param text   texto (o ventana de flujo) que contiene el lexema (no null)
+     * @param start  inicio del lexema
+     * @param length longitud del lexema
+     * @return TokenType.RESERVED_WORD o TokenType.IDENTIFIER
+     */
+    public TokenType classifyIdentOrReserved(CharSequence text, int start, int length) {
+        return reserved.isReserved(text, start, length)
+                ? TokenType.RESERVED_WORD
+                : TokenType.IDENTIFIER;
+    }
 }
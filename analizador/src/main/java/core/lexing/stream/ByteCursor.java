@@ -0,0 +1,238 @@
+package core.lexing.stream;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * Cursor sobre los BYTES UTF-8 de un texto (p. ej. un archivo mapeado con
+ * FileChannel.map): el lexer recorre el buffer sin decodificar a un String.
+ *
+ * Decisiones:
+ * - El alfabeto del lenguaje es ASCII: un byte &lt; 0x80 es directamente el
+ * carácter. Solo los bytes &gt;= 0x80 pasan por una decodificación UTF-8
+ * mínima en línea (para que el lexema de error sea el carácter real); los
+ * caracteres fuera del BMP se entregan como su par sustituto, igual que en un
+ * String. Las secuencias mal formadas se reemplazan por U+FFFD como lo hace
+ * el decodificador de Java (un reemplazo por prefijo máximo válido).
+ * - Los saltos se normalizan al vuelo como en TextLoader: CR y CRLF se leen
+ * como un único '\n'. Así el resultado coincide con cargar el archivo y
+ * analizarlo en memoria.
+ * - Índices y lookahead cuentan CARACTERES (unidades UTF-16), no bytes. El
+ * AFD pide peek(0), peek(1), ... en orden, así que se cachea el último
+ * carácter decodificado y cada peek cuesta O(1).
+ * - La posición interna se codifica como (byte &lt;&lt; 1 | mitad), donde
+ * mitad = 1 indica el sustituto bajo de un carácter de 4 bytes.
+ * - Como en {@link ReaderCursor}, la ventana mide solo el lookahead ya
+ * decodificado, no lo que queda hasta el final del archivo.
+ */
+public final class ByteCursor implements StreamCursor {
+
+    private static final char REPLACEMENT = '�';
+
+    private final ByteBuffer bytes;
+    private final int limit;
+    private final LineTracker tracker = new LineTracker();
+    private final Window window = new Window();
+
+    private long pos = 0;      // posición codificada del siguiente carácter
+    private long index = 0;    // índice absoluto en chars
+    private int ahead = 0;     // caracteres decodificados por adelantado desde pos
+
+    // Caché del último peek: el carácter k (relativo) y la posición que le sigue
+    private int cachedK = -1;
+    private char cachedChar;
+    private long cachedNext;
+
+    // Resultado de decodeAt
+    private char unit;
+
+    /**
+     * @param bytes contenido UTF-8 (de position() a limit(); no se modifica)
+     */
+    public ByteCursor(ByteBuffer bytes) {
+        Objects.requireNonNull(bytes, "bytes no puede ser null");
+        this.bytes = bytes.slice();
+        this.limit = this.bytes.limit();
+    }
+
+    @Override
+    public boolean eof() {
+        return (pos >>> 1) >= limit;
+    }
+
+    @Override
+    public int peek() {
+        return peek(0);
+    }
+
+    @Override
+    public int peek(int k) {
+        if (k < 0) return EOF;
+        if (k == cachedK) return cachedChar;
+        // Reanudar desde el último carácter cacheado si está antes de k
+        int i;
+        long p;
+        if (cachedK >= 0 && cachedK < k) {
+            i = cachedK + 1;
+            p = cachedNext;
+        } else {
+            i = 0;
+            p = pos;
+        }
+        while (true) {
+            long next = decodeAt(p);
+            if (next < 0) return EOF;
+            if (i == k) {
+                if (k >= ahead) ahead = k + 1;
+                cachedK = k;
+                cachedChar = unit;
+                cachedNext = next;
+                return unit;
+            }
+            p = next;
+            i++;
+        }
+    }
+
+    @Override
+    public int next() {
+        long next = decodeAt(pos);
+        if (next < 0) return EOF;
+        char ch = unit;
+        pos = next;
+        index++;
+        if (ahead > 0) ahead--;
+        tracker.advance(ch);
+        // El carácter k pasa a ser el k-1
+        cachedK = (cachedK > 0) ? cachedK - 1 : -1;
+        return ch;
+    }
+
+    @Override
+    public long index() {
+        return index;
+    }
+
+    @Override
+    public int line() {
+        return tracker.line();
+    }
+
+    @Override
+    public int column() {
+        return tracker.column();
+    }
+
+    @Override
+    public CharSequence window() {
+        return window;
+    }
+
+    /**
+     * Decodifica el carácter en la posición codificada p y lo deja en 'unit'.
+     *
+     * @return posición codificada siguiente, o -1 si p está al final
+     */
+    private long decodeAt(long p) {
+        int b = (int) (p >>> 1);
+        if (b >= limit) return -1;
+        int x = bytes.get(b) & 0xFF;
+
+        // Camino rápido: ASCII (con CR/CRLF normalizados a '\n')
+        if (x < 0x80) {
+            if (x == '\r') {
+                unit = '\n';
+                return (long) ((b + 1 < limit && bytes.get(b + 1) == '\n') ? b + 2 : b + 1) << 1;
+            }
+            unit = (char) x;
+            return (long) (b + 1) << 1;
+        }
+
+        // Segunda mitad (sustituto bajo) de un carácter de 4 bytes
+        if ((p & 1) != 0) {
+            int cp = codePoint4(b);
+            unit = Character.lowSurrogate(cp);
+            return (long) (b + 4) << 1;
+        }
+
+        // Secuencia multibyte: se avanza por los bytes de continuación válidos;
+        // si la secuencia queda incompleta, ese prefijo vale un único U+FFFD
+        // (mismo reemplazo que el decodificador UTF-8 de Java en TextLoader)
+        int need = (x >= 0xC2 && x <= 0xDF) ? 1 : (x >= 0xE0 && x <= 0xEF) ? 2 : (x >= 0xF0 && x <= 0xF4) ? 3 : 0;
+        int got = 0;
+        if (need > 0 && b + 1 < limit && validSecond(x, bytes.get(b + 1) & 0xFF)) {
+            got = 1;
+            while (got < need && continuation(b + 1 + got)) got++;
+        }
+        if (need == 0 || got < need) {
+            unit = REPLACEMENT;
+            return (long) (b + 1 + got) << 1;
+        }
+        if (need == 1) {
+            unit = (char) (((x & 0x1F) << 6) | (bytes.get(b + 1) & 0x3F));
+            return (long) (b + 2) << 1;
+        }
+        if (need == 2) {
+            char ch = (char) (((x & 0x0F) << 12) | ((bytes.get(b + 1) & 0x3F) << 6) | (bytes.get(b + 2) & 0x3F));
+            // Un sustituto codificado (ED A0..BF xx) es inválido completo
+            unit = Character.isSurrogate(ch) ? REPLACEMENT : ch;
+            return (long) (b + 3) << 1;
+        }
+        unit = Character.highSurrogate(codePoint4(b));
+        return ((long) b << 1) | 1;
+    }
+
+    /** Segundo byte admitido tras 'lead' (excluye formas sobrelargas y &gt; U+10FFFF). */
+    private static boolean validSecond(int lead, int b1) {
+        switch (lead) {
+            case 0xE0: return b1 >= 0xA0 && b1 <= 0xBF;
+            case 0xF0: return b1 >= 0x90 && b1 <= 0xBF;
+            case 0xF4: return b1 >= 0x80 && b1 <= 0x8F;
+            default:   return (b1 & 0xC0) == 0x80;
+        }
+    }
+
+    private boolean continuation(int b) {
+        return b < limit && (bytes.get(b) & 0xC0) == 0x80;
+    }
+
+    private int codePoint4(int b) {
+        return ((bytes.get(b) & 0x07) << 18) | ((bytes.get(b + 1) & 0x3F) << 12)
+                | ((bytes.get(b + 2) & 0x3F) << 6) | (bytes.get(b + 3) & 0x3F);
+    }
+
+    /**
+     * CharSequence sobre el lookahead (índice 0 = siguiente carácter). Los
+     * accesos en orden creciente son O(1); length() es lo ya decodificado.
+     */
+    private final class Window implements CharSequence {
+        @Override
+        public int length() {
+            return ahead;
+        }
+
+        @Override
+        public char charAt(int i) {
+            int c = peek(i);
+            if (c == EOF) {
+                throw new IndexOutOfBoundsException("Fuera de la ventana: " + i);
+            }
+            return (char) c;
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            if (start < 0 || start > end) {
+                throw new IndexOutOfBoundsException("Rango fuera de la ventana: " + start + "-" + end);
+            }
+            char[] out = new char[end - start];
+            for (int i = start; i < end; i++) out[i - start] = charAt(i);
+            return new String(out);
+        }
+
+        @Override
+        public String toString() {
+            return subSequence(0, length()).toString();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package core.lexing.stream;
 
+import model.lexical.LineIndex;
 import model.lexical.Position;
 
 /**
@@ -7,7 +8,7 @@ import model.lexical.Position;
  *
  * Objetivo:
  * - Proveer operaciones básicas de escaneo: peek(), peek(k), next(), eof().
- * - Mantener posición 1-based (línea/columna) para reportes.
+ * - Exponer la posición 1-based (línea/columna) para reportes.
  * - Tratar correctamente los saltos de línea: '\n', '\r' y la secuencia Windows
  * "\r\n"
  * como UN solo salto de línea a efectos de conteo.
@@ -17,6 +18,9 @@ import model.lexical.Position;
  * char.
  * - La posición devuelta por position() corresponde SIEMPRE al próximo carácter
  * a leer.
+ * - next() solo avanza el índice: línea/columna NO se cuentan carácter a
+ * carácter, se derivan del índice con un {@link LineIndex} (compartible y
+ * construido de forma perezosa) solo cuando alguien las pide.
  * - No realiza reconocimiento de patrones ni manipulación de cadenas; solo
  * navegación.
  *
@@ -27,10 +31,9 @@ import model.lexical.Position;
  * posiciones,
  * la validación de alfabeto se hará en otra rama (p. ej., AlphabetPolicy).
  */
-public final class CharCursor {
+public final class CharCursor implements Lookahead {
 
-    /** Constante EOF: valor negativo para representar fin de flujo. */
-    public static final int EOF = -1;
+    // EOF (valor negativo para representar fin de flujo) se hereda de Lookahead
 
     private final CharSequence texto;
     private final int length;
@@ -38,12 +41,21 @@ public final class CharCursor {
     // Índice actual (0-based) del siguiente char a leer.
     private int index = 0;
 
-    // Posición 1-based del siguiente char a leer.
-    private int linea = 1;
-    private int columna = 1;
+    // Inicios de línea para traducir índice -> (línea, columna)
+    private final LineIndex lines;
 
-    // Para detectar la secuencia CRLF y no contar dos saltos.
-    private boolean ultimoFueCR = false;
+    // Búsqueda de rachas (vectorial si la JVM lo permite)
+    private static final RunScanner SCANNER = RunScanner.get();
+    private static final boolean VECTOR = SCANNER != RunScanner.scalar();
+    // Los primeros chars de una racha se leen uno a uno: la mayoría de los
+    // lexemas son cortos y no compensa copiar un bloque
+    private static final int SCALAR_PREFIX = 16;
+    private static final int BLOCK = 512;
+
+    private static final int SPACES = 0, ALNUM = 1, DIGITS = 2, CHAR = 3, LINE_BREAK = 4;
+
+    // Bloque de trabajo para el escáner vectorial (se crea al primer uso)
+    private char[] block;
 
     /**
      * Crea un cursor sobre el texto indicado.
@@ -51,16 +63,31 @@ public final class CharCursor {
      * @param texto contenido inmutable a recorrer; no puede ser null
      */
     public CharCursor(CharSequence texto) {
+        this(texto, (texto == null) ? null : new LineIndex(texto));
+    }
+
+    /**
+     * Crea un cursor que reutiliza un índice de líneas ya construido.
+     *
+     * @param texto contenido inmutable a recorrer; no puede ser null
+     * @param lines índice de líneas de ese mismo texto; no puede ser null
+     */
+    public CharCursor(CharSequence texto, LineIndex lines) {
         if (texto == null) {
             throw new IllegalArgumentException("El texto de entrada no puede ser null.");
         }
+        if (lines == null) {
+            throw new IllegalArgumentException("El índice de líneas no puede ser null.");
+        }
         this.texto = texto;
         this.length = texto.length();
+        this.lines = lines;
     }
 
     /**
      * Indica si no quedan más caracteres por leer.
      */
+    @Override
     public boolean eof() {
         return index >= length;
     }
@@ -70,6 +97,7 @@ public final class CharCursor {
      * 
      * @return código de carácter (0..65535) o EOF si no hay más.
      */
+    @Override
     public int peek() {
         if (eof())
             return EOF;
@@ -82,6 +110,7 @@ public final class CharCursor {
      * @param k desplazamiento (0 = mismo que peek())
      * @return código de carácter o EOF si está fuera de rango.
      */
+    @Override
     public int peek(int k) {
         int pos = index + k;
         if (pos < 0 || pos >= length)
@@ -91,56 +120,68 @@ public final class CharCursor {
 
     /**
      * Consume y devuelve el próximo carácter.
-     * Actualiza línea/columna de acuerdo al carácter leído.
-     * Trata "\r\n" como un solo salto de línea.
+     * Solo avanza el índice (la posición se deriva al pedirla).
      *
      * @return código del carácter consumido o EOF si no hay más.
      */
+    @Override
     public int next() {
         if (eof())
             return EOF;
+        return texto.charAt(index++);
+    }
 
-        int ch = texto.charAt(index++);
-        // Actualización de posición
-        if (ch == '\r') {
-            // Salto de línea por CR
-            linea++;
-            columna = 1;
-            ultimoFueCR = true; // si lo siguiente es '\n', no volver a contar otro salto
-        } else if (ch == '\n') {
-            if (ultimoFueCR) {
-                // Parte de CRLF: ya contamos el salto con el CR anterior
-                ultimoFueCR = false;
-                // columna queda en 1; no incrementamos línea otra vez
-            } else {
-                // LF solitario: cuenta un salto
-                linea++;
-                columna = 1;
-            }
-        } else {
-            // Carácter normal
-            columna++;
-            ultimoFueCR = false;
+    /**
+     * Consume hasta n caracteres en un solo paso: solo mueve el índice (acotado
+     * al final del texto); línea y columna se derivan al pedirlas.
+     *
+     * @param n cantidad a consumir (&lt;= 0 no consume nada)
+     * @return cantidad efectivamente consumida
+     */
+    @Override
+    public int advance(int n) {
+        if (n <= 0)
+            return 0;
+        int step = Math.min(n, length - index);
+        index += step;
+        return step;
+    }
+
+    /**
+     * Reubica el cursor en el índice indicado (0..length). Como la posición se
+     * deriva del índice, no hay estado adicional que recalcular.
+     *
+     * @param index índice 0-based del siguiente carácter a leer
+     */
+    public void seek(int index) {
+        if (index < 0 || index > length) {
+            throw new IllegalArgumentException("Índice fuera del texto: " + index);
         }
-        return ch;
+        this.index = index;
     }
 
     /**
      * Posición (1-based) del siguiente carácter a leer.
      * Úsela para capturar la posición de inicio de un lexema antes de consumirlo.
+     * Trata "\r\n" como un solo salto de línea.
      */
     public Position position() {
-        return new Position(linea, columna);
+        return lines.position(index);
     }
 
     /** Línea actual (1-based) del siguiente carácter a leer. */
     public int line() {
-        return linea;
+        return lines.line(index);
     }
 
     /** Columna actual (1-based) del siguiente carácter a leer. */
     public int column() {
-        return columna;
+        return lines.column(index);
+    }
+
+    /** Índice de líneas usado para derivar las posiciones. */
+    public LineIndex lineIndex() {
+        return lines;
     }
 
     /**
@@ -151,6 +192,92 @@ public final class CharCursor {
         return index;
     }
 
+    /* ===================== rachas (sin consumir) ===================== */
+
+    /** Cantidad de espacios/saltos de línea consecutivos desde el desplazamiento k. */
+    public int spaceRun(int k) {
+        int from = index + k;
+        return scanTo(SPACES, '\0', from) - from;
+    }
+
+    /** Cantidad de letras ASCII o dígitos consecutivos desde el desplazamiento k. */
+    public int alnumRun(int k) {
+        int from = index + k;
+        return scanTo(ALNUM, '\0', from) - from;
+    }
+
+    /** Cantidad de dígitos consecutivos desde el desplazamiento k. */
+    public int digitRun(int k) {
+        int from = index + k;
+        return scanTo(DIGITS, '\0', from) - from;
+    }
+
+    /**
+     * Desplazamiento (&gt;= k, relativo al cursor) de la próxima aparición de c,
+     * o -1 si no aparece antes del EOF.
+     */
+    public int find(char c, int k) {
+        int at = scanTo(CHAR, c, index + k);
+        return at < length ? at - index : -1;
+    }
+
+    /** Como {@link #find(char, int)} para el próximo '\n' o '\r'. */
+    public int findLineBreak(int k) {
+        int at = scanTo(LINE_BREAK, '\0', index + k);
+        return at < length ? at - index : -1;
+    }
+
+    /**
+     * Índice absoluto donde se corta la racha (o donde aparece lo buscado);
+     * length si llega al final. Tras un prefijo escalar, si el texto permite
+     * copiar bloques (String/StringBuilder) y hay escáner vectorial, se copia
+     * de a BLOCK chars y se delega en {@link RunScanner}.
+     */
+    private int scanTo(int op, char c, int from) {
+        if (from < 0) from = 0;
+        if (from >= length) return from;
+        int i = from;
+        int prefixEnd = VECTOR ? Math.min(length, from + SCALAR_PREFIX) : length;
+        for (; i < prefixEnd; i++) {
+            if (stops(op, c, texto.charAt(i))) return i;
+        }
+        if (i >= length) return length;
+
+        boolean copyable = texto instanceof String || texto instanceof StringBuilder;
+        if (!copyable) {
+            for (; i < length; i++) {
+                if (stops(op, c, texto.charAt(i))) return i;
+            }
+            return length;
+        }
+        if (block == null) block = new char[BLOCK];
+        while (i < length) {
+            int n = Math.min(BLOCK, length - i);
+            if (texto instanceof String str) str.getChars(i, i + n, block, 0);
+            else ((StringBuilder) texto).getChars(i, i + n, block, 0);
+            int j = switch (op) {
+                case SPACES -> SCANNER.skipSpaces(block, 0, n);
+                case ALNUM -> SCANNER.skipAlnum(block, 0, n);
+                case DIGITS -> SCANNER.skipDigits(block, 0, n);
+                case CHAR -> SCANNER.indexOf(c, block, 0, n);
+                default -> SCANNER.indexOfLineBreak(block, 0, n);
+            };
+            if (j < n) return i + j;
+            i += n;
+        }
+        return length;
+    }
+
+    private static boolean stops(int op, char c, char ch) {
+        return switch (op) {
+            case SPACES -> !CharClasses.isSpaceOrNewline(ch);
+            case ALNUM -> !(CharClasses.isLetter(ch) || CharClasses.isDigit(ch));
+            case DIGITS -> !CharClasses.isDigit(ch);
+            case CHAR -> ch == c;
+            default -> ch == '\n' || ch == '\r';
+        };
+    }
+
     /** Longitud total del texto subyacente. */
     public int length() {
         return length;
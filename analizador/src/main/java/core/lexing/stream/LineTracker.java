@@ -0,0 +1,111 @@
+package core.lexing.stream;
+
+import model.lexical.Position;
+
+/**
+ * Contador incremental de línea/columna para recorridos hacia adelante que no
+ * pueden (o no quieren) construir un {@link model.lexical.LineIndex} completo:
+ * memoria constante, un carácter a la vez.
+ *
+ * Mismas reglas que LineIndex: CR, LF y CRLF cuentan como UN salto, y el LF
+ * de un CRLF queda ya en la línea siguiente, columna 1.
+ *
+ * Los avances en bloque no miran cada carácter: saltan de un salto de línea
+ * al siguiente con {@link RunScanner#indexOfLineBreak} y la columna sale de la
+ * distancia al último salto.
+ */
+public final class LineTracker {
+
+    private static final RunScanner SCANNER = RunScanner.get();
+    private static final int BLOCK = 512;
+
+    private int line = 1;
+    private int column = 1;
+    private boolean afterCr = false;
+
+    // Bloque de trabajo para copiar textos que no son char[] (se crea al primer uso)
+    private char[] block;
+
+    /** Registra el carácter consumido. */
+    public void advance(char ch) {
+        if (ch == '\r') {
+            line++;
+            column = 1;
+            afterCr = true;
+            return;
+        }
+        if (ch == '\n') {
+            if (!afterCr) {
+                line++;
+                column = 1;
+            }
+            // El LF de un CRLF no mueve la posición
+        } else {
+            column++;
+        }
+        afterCr = false;
+    }
+
+    /**
+     * Registra los caracteres [from, to) del texto.
+     *
+     * @param text texto recorrido
+     * @param from primer índice (inclusive)
+     * @param to   último índice (exclusivo)
+     */
+    public void advance(CharSequence text, int from, int to) {
+        if (text instanceof String || text instanceof StringBuilder) {
+            if (block == null) block = new char[BLOCK];
+            for (int i = from; i < to; i += BLOCK) {
+                int n = Math.min(BLOCK, to - i);
+                if (text instanceof String str) str.getChars(i, i + n, block, 0);
+                else ((StringBuilder) text).getChars(i, i + n, block, 0);
+                advance(block, 0, n);
+            }
+            return;
+        }
+        for (int i = from; i < to; i++) advance(text.charAt(i));
+    }
+
+    /**
+     * Registra los caracteres a[from, to) contando los saltos en bloque.
+     *
+     * @param a    caracteres recorridos
+     * @param from primer índice (inclusive)
+     * @param to   último índice (exclusivo)
+     */
+    public void advance(char[] a, int from, int to) {
+        if (from >= to) return;
+        int i = from;
+        // LF que completa un CRLF partido entre dos avances
+        if (afterCr && a[i] == '\n') i++;
+
+        int lineStart = -1; // índice tras el último salto visto
+        while (true) {
+            int b = SCANNER.indexOfLineBreak(a, i, to);
+            if (b >= to) break;
+            line++;
+            i = b + 1;
+            if (a[b] == '\r' && i < to && a[i] == '\n') i++;
+            lineStart = i;
+        }
+        if (lineStart >= 0) column = 1 + (to - lineStart);
+        else column += to - i;
+        afterCr = a[to - 1] == '\r';
+    }
+
+    /** Línea 1-based del siguiente carácter. */
+    public int line() {
+        return line;
+    }
+
+    /** Columna 1-based del siguiente carácter. */
+    public int column() {
+        return column;
+    }
+
+    /** Posición del siguiente carácter. */
+    public Position position() {
+        return new Position(line, column);
+    }
+}
@@ -0,0 +1,38 @@
+package core.lexing.stream;
+
+/**
+ * Lectura hacia adelante con lookahead acotado: lo mínimo que necesita el AFD
+ * léxico. La implementan {@link CharCursor} (texto completo en memoria) y
+ * {@link ReaderCursor} (ventana deslizante sobre un Reader).
+ */
+public interface Lookahead {
+
+    /** Valor de peek/next al no haber más caracteres. */
+    int EOF = -1;
+
+    /** ¿No quedan caracteres por leer? */
+    boolean eof();
+
+    /** Código del próximo carácter sin consumirlo, o EOF. */
+    int peek();
+
+    /** Código del carácter a distancia k (0 = peek()) sin consumirlo, o EOF. */
+    int peek(int k);
+
+    /** Consume y devuelve el próximo carácter, o EOF. */
+    int next();
+
+    /**
+     * Consume hasta n caracteres (menos si llega antes el EOF).
+     * Los cursores que pueden saltar sin recorrer carácter a carácter lo
+     * redefinen.
+     *
+     * @param n cantidad a consumir (&lt;= 0 no consume nada)
+     * @return cantidad efectivamente consumida
+     */
+    default int advance(int n) {
+        int done = 0;
+        while (done < n && next() != EOF) done++;
+        return done;
+    }
+}
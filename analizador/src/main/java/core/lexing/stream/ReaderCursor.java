@@ -0,0 +1,194 @@
+package core.lexing.stream;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Objects;
+
+import model.lexical.Position;
+
+/**
+ * Cursor sobre un {@link Reader} con un buffer circular: solo guarda el
+ * lookahead pendiente, no el texto completo, de modo que se pueden analizar
+ * archivos más grandes que el heap.
+ *
+ * Decisiones:
+ * - El buffer (capacidad potencia de 2) se rellena bajo demanda desde el
+ * Reader cuando peek(k) pide más allá de lo leído.
+ * - Si un solo lexema (con su lookahead) no cabe, el buffer se DUPLICA: la
+ * memoria queda acotada por el token más largo (p. ej. un comentario de
+ * bloque sin cerrar hasta el final), no por el tamaño del archivo.
+ * - Línea/columna se cuentan al consumir con un {@link LineTracker}; el índice
+ * absoluto es long. advance(n) registra tramos enteros del anillo a la vez.
+ * - Los errores de E/S durante peek/next se propagan como
+ * {@link UncheckedIOException}.
+ */
+public final class ReaderCursor implements StreamCursor {
+
+    private final Reader reader;
+    private final LineTracker tracker = new LineTracker();
+    private final Window window = new Window();
+
+    private char[] buf;
+    private int mask;
+    private int head = 0;      // posición en buf del siguiente carácter
+    private int count = 0;     // caracteres leídos por adelantado desde head
+    private boolean drained = false;
+    private long index = 0;
+
+    /**
+     * @param reader   fuente de caracteres (no null; no se cierra aquí)
+     * @param capacity capacidad inicial del buffer en chars (se redondea a potencia de 2)
+     */
+    public ReaderCursor(Reader reader, int capacity) {
+        this.reader = Objects.requireNonNull(reader, "reader no puede ser null");
+        if (capacity < 1) {
+            throw new IllegalArgumentException("La capacidad debe ser >= 1");
+        }
+        int cap = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.buf = new char[cap];
+        this.mask = cap - 1;
+    }
+
+    @Override
+    public boolean eof() {
+        return !fill(0);
+    }
+
+    @Override
+    public int peek() {
+        return peek(0);
+    }
+
+    @Override
+    public int peek(int k) {
+        if (k < 0 || !fill(k)) return EOF;
+        return buf[(head + k) & mask];
+    }
+
+    @Override
+    public int next() {
+        if (!fill(0)) return EOF;
+        char ch = buf[head];
+        head = (head + 1) & mask;
+        count--;
+        index++;
+        tracker.advance(ch);
+        return ch;
+    }
+
+    /**
+     * Consume hasta n caracteres del buffer de una vez: la línea/columna se
+     * actualiza por tramos contiguos del anillo, contando los saltos en bloque.
+     */
+    @Override
+    public int advance(int n) {
+        int done = 0;
+        while (done < n && fill(0)) {
+            int step = Math.min(Math.min(n - done, count), buf.length - head);
+            tracker.advance(buf, head, head + step);
+            head = (head + step) & mask;
+            count -= step;
+            index += step;
+            done += step;
+        }
+        return done;
+    }
+
+    /** Índice absoluto (0-based) del siguiente carácter. */
+    @Override
+    public long index() {
+        return index;
+    }
+
+    /** Línea 1-based del siguiente carácter. */
+    @Override
+    public int line() {
+        return tracker.line();
+    }
+
+    /** Columna 1-based del siguiente carácter. */
+    @Override
+    public int column() {
+        return tracker.column();
+    }
+
+    /** Posición del siguiente carácter. */
+    public Position position() {
+        return tracker.position();
+    }
+
+    /** Capacidad actual del buffer (crece solo con lexemas más largos que ella). */
+    public int capacity() {
+        return buf.length;
+    }
+
+    /**
+     * Vista del lookahead ya leído: charAt(0) es el siguiente carácter. Se
+     * reutiliza y solo es válida hasta el próximo next().
+     */
+    @Override
+    public CharSequence window() {
+        return window;
+    }
+
+    /** Garantiza (si el Reader tiene datos) que haya más de k chars por adelantado. */
+    private boolean fill(int k) {
+        while (count <= k && !drained) {
+            if (count == buf.length) grow();
+            int tail = (head + count) & mask;
+            int contiguous = Math.min(buf.length - count, buf.length - tail);
+            int n;
+            try {
+                n = reader.read(buf, tail, contiguous);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            if (n < 0) drained = true;
+            else count += n;
+        }
+        return count > k;
+    }
+
+    /** Duplica el buffer desenrollando el anillo al inicio. */
+    private void grow() {
+        char[] b = new char[buf.length * 2];
+        int first = Math.min(count, buf.length - head);
+        System.arraycopy(buf, head, b, 0, first);
+        System.arraycopy(buf, 0, b, first, count - first);
+        buf = b;
+        mask = b.length - 1;
+        head = 0;
+    }
+
+    /** CharSequence sobre el anillo (índice 0 = siguiente carácter). */
+    private final class Window implements CharSequence {
+        @Override
+        public int length() {
+            return count;
+        }
+
+        @Override
+        public char charAt(int i) {
+            if (i < 0 || i >= count) {
+                throw new IndexOutOfBoundsException("Fuera de la ventana: " + i);
+            }
+            return buf[(head + i) & mask];
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            if (start < 0 || end > count || start > end) {
+                throw new IndexOutOfBoundsException("Rango fuera de la ventana: " + start + "-" + end);
+            }
+            char[] out = new char[end - start];
+            for (int i = start; i < end; i++) out[i - start] = buf[(head + i) & mask];
+            return new String(out);
+        }
+
+        @Override
+        public String toString() {
+            return subSequence(0, count).toString();
+        }
+    }
+}
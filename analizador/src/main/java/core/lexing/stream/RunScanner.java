@@ -0,0 +1,65 @@
+package core.lexing.stream;
+
+/**
+ * Búsqueda del fin de una "racha" de caracteres sobre un bloque char[]:
+ * blancos, letras/dígitos, dígitos, o la próxima aparición de un carácter.
+ *
+ * Cada método recibe el rango [from, to) y devuelve el primer índice que NO
+ * pertenece a la racha (o el de la aparición buscada); 'to' si no hay.
+ *
+ * Implementaciones (se elige una en tiempo de ejecución, {@link #get()}):
+ * - vectorial (jdk.incubator.vector): compara 16–32 chars por instrucción.
+ * Requiere lanzar la JVM con --add-modules jdk.incubator.vector.
+ * - escalar: un char por iteración; se usa si el módulo no está disponible,
+ * si el hardware tiene menos de 8 carriles de 16 bits o si se fuerza con
+ * -Danalizador.scan=scalar.
+ */
+public interface RunScanner {
+
+    /** Primer índice que no es espacio, '\n' ni '\r'. */
+    int skipSpaces(char[] a, int from, int to);
+
+    /** Primer índice que no es letra ASCII ni dígito. */
+    int skipAlnum(char[] a, int from, int to);
+
+    /** Primer índice que no es dígito ASCII. */
+    int skipDigits(char[] a, int from, int to);
+
+    /** Índice de la primera aparición de c. */
+    int indexOf(char c, char[] a, int from, int to);
+
+    /** Índice del primer '\n' o '\r'. */
+    int indexOfLineBreak(char[] a, int from, int to);
+
+    /** Nombre de la implementación (diagnóstico y benchmarks). */
+    String name();
+
+    /** Implementación elegida para esta JVM. */
+    static RunScanner get() {
+        return Selected.INSTANCE;
+    }
+
+    /** Implementación escalar (referencia y respaldo). */
+    static RunScanner scalar() {
+        return ScalarRunScanner.INSTANCE;
+    }
+
+    /** Elección perezosa y única: la clase vectorial solo se carga si el módulo existe. */
+    final class Selected {
+        static final RunScanner INSTANCE = select();
+
+        private Selected() { }
+
+        private static RunScanner select() {
+            if ("scalar".equals(System.getProperty("analizador.scan"))) return scalar();
+            if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) return scalar();
+            try {
+                Class<?> c = Class.forName("core.lexing.stream.VectorRunScanner");
+                RunScanner vector = (RunScanner) c.getDeclaredConstructor().newInstance();
+                return vector.name().equals("scalar") ? scalar() : vector;
+            } catch (ReflectiveOperationException | LinkageError ex) {
+                return scalar();
+            }
+        }
+    }
+}
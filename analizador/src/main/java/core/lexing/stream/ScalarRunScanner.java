@@ -0,0 +1,49 @@
+package core.lexing.stream;
+
+/** {@link RunScanner} de un char por iteración. */
+final class ScalarRunScanner implements RunScanner {
+
+    static final ScalarRunScanner INSTANCE = new ScalarRunScanner();
+
+    private ScalarRunScanner() { }
+
+    @Override
+    public int skipSpaces(char[] a, int from, int to) {
+        int i = from;
+        while (i < to && CharClasses.isSpaceOrNewline(a[i])) i++;
+        return i;
+    }
+
+    @Override
+    public int skipAlnum(char[] a, int from, int to) {
+        int i = from;
+        while (i < to && (CharClasses.isLetter(a[i]) || CharClasses.isDigit(a[i]))) i++;
+        return i;
+    }
+
+    @Override
+    public int skipDigits(char[] a, int from, int to) {
+        int i = from;
+        while (i < to && CharClasses.isDigit(a[i])) i++;
+        return i;
+    }
+
+    @Override
+    public int indexOf(char c, char[] a, int from, int to) {
+        int i = from;
+        while (i < to && a[i] != c) i++;
+        return i;
+    }
+
+    @Override
+    public int indexOfLineBreak(char[] a, int from, int to) {
+        int i = from;
+        while (i < to && a[i] != '\n' && a[i] != '\r') i++;
+        return i;
+    }
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+}
@@ -0,0 +1,24 @@
+package core.lexing.stream;
+
+/**
+ * Cursor de flujo: además del lookahead, expone la ubicación absoluta y una
+ * ventana de lectura sobre el lookahead (el texto completo no existe en
+ * memoria). Lo implementan {@link ReaderCursor} y {@link ByteCursor}.
+ */
+public interface StreamCursor extends Lookahead {
+
+    /** Índice absoluto (0-based, en chars) del siguiente carácter. */
+    long index();
+
+    /** Línea 1-based del siguiente carácter. */
+    int line();
+
+    /** Columna 1-based del siguiente carácter. */
+    int column();
+
+    /**
+     * Vista del lookahead: charAt(0) es el siguiente carácter. Solo es válida
+     * hasta el próximo next().
+     */
+    CharSequence window();
+}
@@ -0,0 +1,94 @@
+package core.lexing.stream;
+
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link RunScanner} con la Vector API: carga SPECIES.length() chars a la
+ * vez, arma la máscara de los que cortan la racha y toma el primer carril
+ * encendido. La cola que no llena un vector se termina en escalar.
+ *
+ * Los chars se tratan como short con signo: los &gt;= 0x8000 quedan negativos
+ * y nunca caen en los rangos ASCII comparados, como corresponde.
+ *
+ * Solo se carga por reflexión desde {@link RunScanner#get()} cuando el módulo
+ * jdk.incubator.vector está presente.
+ */
+final class VectorRunScanner implements RunScanner {
+
+    private static final VectorSpecies<Short> SPECIES = ShortVector.SPECIES_PREFERRED;
+    private static final int LANES = SPECIES.length();
+
+    private final ScalarRunScanner tail = ScalarRunScanner.INSTANCE;
+
+    @Override
+    public int skipSpaces(char[] a, int from, int to) {
+        int i = from;
+        for (; i + LANES <= to; i += LANES) {
+            ShortVector v = ShortVector.fromCharArray(SPECIES, a, i);
+            VectorMask<Short> in = v.eq((short) ' ').or(v.eq((short) '\n')).or(v.eq((short) '\r'));
+            VectorMask<Short> out = in.not();
+            if (out.anyTrue()) return i + out.firstTrue();
+        }
+        return tail.skipSpaces(a, i, to);
+    }
+
+    @Override
+    public int skipAlnum(char[] a, int from, int to) {
+        int i = from;
+        for (; i + LANES <= to; i += LANES) {
+            ShortVector v = ShortVector.fromCharArray(SPECIES, a, i);
+            // (c | 0x20) en 'a'..'z' solo para letras ASCII
+            ShortVector lower = v.lanewise(VectorOperators.OR, (short) 0x20);
+            VectorMask<Short> letter = lower.compare(VectorOperators.GE, (short) 'a')
+                    .and(lower.compare(VectorOperators.LE, (short) 'z'));
+            VectorMask<Short> digit = v.compare(VectorOperators.GE, (short) '0')
+                    .and(v.compare(VectorOperators.LE, (short) '9'));
+            VectorMask<Short> out = letter.or(digit).not();
+            if (out.anyTrue()) return i + out.firstTrue();
+        }
+        return tail.skipAlnum(a, i, to);
+    }
+
+    @Override
+    public int skipDigits(char[] a, int from, int to) {
+        int i = from;
+        for (; i + LANES <= to; i += LANES) {
+            ShortVector v = ShortVector.fromCharArray(SPECIES, a, i);
+            VectorMask<Short> out = v.compare(VectorOperators.GE, (short) '0')
+                    .and(v.compare(VectorOperators.LE, (short) '9')).not();
+            if (out.anyTrue()) return i + out.firstTrue();
+        }
+        return tail.skipDigits(a, i, to);
+    }
+
+    @Override
+    public int indexOf(char c, char[] a, int from, int to) {
+        int i = from;
+        ShortVector target = ShortVector.broadcast(SPECIES, (short) c);
+        for (; i + LANES <= to; i += LANES) {
+            VectorMask<Short> hit = ShortVector.fromCharArray(SPECIES, a, i).compare(VectorOperators.EQ, target);
+            if (hit.anyTrue()) return i + hit.firstTrue();
+        }
+        return tail.indexOf(c, a, i, to);
+    }
+
+    @Override
+    public int indexOfLineBreak(char[] a, int from, int to) {
+        int i = from;
+        for (; i + LANES <= to; i += LANES) {
+            ShortVector v = ShortVector.fromCharArray(SPECIES, a, i);
+            VectorMask<Short> hit = v.eq((short) '\n').or(v.eq((short) '\r'));
+            if (hit.anyTrue()) return i + hit.firstTrue();
+        }
+        return tail.indexOfLineBreak(a, i, to);
+    }
+
+    @Override
+    public String name() {
+        // Con menos de 8 carriles no compensa: se pide el respaldo escalar
+        return LANES < 8 ? "scalar" : "vector" + LANES;
+    }
+}
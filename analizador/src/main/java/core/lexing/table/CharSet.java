@@ -0,0 +1,52 @@
+package core.lexing.table;
+
+import java.util.Arrays;
+
+/**
+ * Conjunto de caracteres como mapa de bits: pertenencia con un solo acceso
+ * y una máscara, sin autoboxing ni hash.
+ *
+ * Decisiones:
+ * - Un bit por char (hasta 64K bits = 8 KB), pero el arreglo solo crece hasta
+ * el char más alto agregado: con un alfabeto ASCII son dos longs.
+ * - Se llena al compilar la configuración y luego solo se consulta; no es
+ * segura para escrituras concurrentes.
+ */
+public final class CharSet {
+
+    private long[] bits = new long[2];
+
+    /** Agrega un carácter. */
+    public CharSet add(char c) {
+        int word = c >>> 6;
+        if (word >= bits.length) bits = Arrays.copyOf(bits, word + 1);
+        bits[word] |= 1L << c;
+        return this;
+    }
+
+    /** Agrega el rango [from, to] (inclusive). */
+    public CharSet addRange(char from, char to) {
+        for (int c = from; c <= to; c++) add((char) c);
+        return this;
+    }
+
+    /** Agrega cada carácter de s (null se ignora). */
+    public CharSet addAll(CharSequence s) {
+        if (s == null) return this;
+        for (int i = 0; i < s.length(); i++) add(s.charAt(i));
+        return this;
+    }
+
+    /** Agrega todos los caracteres de otro conjunto. */
+    public CharSet addAll(CharSet other) {
+        if (other.bits.length > bits.length) bits = Arrays.copyOf(bits, other.bits.length);
+        for (int i = 0; i < other.bits.length; i++) bits[i] |= other.bits[i];
+        return this;
+    }
+
+    /** ¿Contiene el código c? (EOF y códigos fuera de rango: false). */
+    public boolean contains(int c) {
+        int word = c >>> 6;
+        return word < bits.length && (bits[word] & (1L << c)) != 0;
+    }
+}
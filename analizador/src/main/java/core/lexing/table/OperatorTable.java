@@ -1,10 +1,12 @@
 package core.lexing.table;
 
-import core.lexing.stream.CharCursor;
+import core.lexing.stream.Lookahead;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
@@ -19,45 +21,95 @@ import java.util.Set;
  *
  * Decisiones de diseño:
  *   - No consume caracteres (SRP). El consumo lo hará el reconocedor/lexer.
- *   - Ordena internamente los símbolos por longitud descendente para garantizar
- *     reconocimiento ávido (greedy). En conjuntos pequeños/medianos es simple y eficiente.
+ *   - Los símbolos viven en un trie: el match más largo sale de UNA pasada
+ *     char a char (la última aceptación vista), sin probar símbolo por símbolo.
+ *   - contains() es una búsqueda en un HashSet, O(1) esperado.
+ *   - Varias categorías (operadores, puntuación, agrupación) pueden compartir un
+ *     mismo trie ({@link #merged(List)}): cada nodo de aceptación guarda una
+ *     máscara con las categorías que terminan en él, y {@link #category(int)}
+ *     da la vista de una sola categoría.
  *   - Sin regex, sin helpers de cadena avanzados; solo comparaciones char-a-char
- *     con CharCursor.peek(k), coherente con la práctica.
+ *     con peek(k), coherente con la práctica.
  */
 public final class OperatorTable {
 
+    private final Trie trie;
+    private final int mask;               // categorías visibles desde esta tabla
+
     private final List<String> symbols;   // ordenados por longitud desc
+    private final Set<String> lookup;
     private final int maxLen;
 
+    // Vistas por categoría (solo en tablas combinadas; null en el resto)
+    private OperatorTable[] parts;
+
     /**
      * @param symbolSet conjunto de símbolos (no null, sin cadenas vacías)
      *                  p. ej. operadores ["+", "-", "*", "/", "%", "="]
      *                  o puntuación/agrupación del config.json
      */
     public OperatorTable(Set<String> symbolSet) {
-        Objects.requireNonNull(symbolSet, "El conjunto de símbolos no puede ser null");
-
-        // Copia defensiva y validación mínima
-        List<String> tmp = new ArrayList<>(symbolSet.size());
-        for (String s : symbolSet) {
-            if (s == null) {
-                throw new IllegalArgumentException("Un símbolo no puede ser null.");
-            }
-            if (s.isEmpty()) {
-                throw new IllegalArgumentException("Los símbolos no pueden ser cadenas vacías.");
-            }
-            tmp.add(s);
-        }
+        this(new Trie(), 1, validated(symbolSet));
+        trie.addAll(symbols, 0);
+    }
 
-        // Orden por longitud descendente para greedy matching
-        tmp.sort(Comparator.comparingInt(String::length).reversed());
-        this.symbols = Collections.unmodifiableList(tmp);
+    private OperatorTable(Trie trie, int mask, List<String> sortedSymbols) {
+        this.trie = trie;
+        this.mask = mask;
+        this.symbols = Collections.unmodifiableList(sortedSymbols);
+        this.lookup = new HashSet<>(sortedSymbols);
 
         int ml = 0;
         for (String s : symbols) ml = Math.max(ml, s.length());
         this.maxLen = ml;
     }
 
+    /**
+     * Construye un único trie para varias categorías de símbolos.
+     * La tabla devuelta reconoce cualquiera de ellos; {@link #category(int)}
+     * restringe a una sola categoría sin copiar el trie.
+     *
+     * @param categories conjuntos de símbolos en orden (máximo 31)
+     * @return tabla combinada
+     */
+    public static OperatorTable merged(List<Set<String>> categories) {
+        Objects.requireNonNull(categories, "La lista de categorías no puede ser null");
+        if (categories.size() > 31) {
+            throw new IllegalArgumentException("Demasiadas categorías: " + categories.size());
+        }
+        Trie trie = new Trie();
+        List<String> all = new ArrayList<>();
+        List<List<String>> parts = new ArrayList<>(categories.size());
+        for (int i = 0; i < categories.size(); i++) {
+            List<String> part = validated(categories.get(i));
+            trie.addAll(part, i);
+            parts.add(part);
+            all.addAll(part);
+        }
+        all.sort(Comparator.comparingInt(String::length).reversed());
+
+        OperatorTable table = new OperatorTable(trie, (1 << categories.size()) - 1, all);
+        table.parts = new OperatorTable[parts.size()];
+        for (int i = 0; i < parts.size(); i++) {
+            table.parts[i] = new OperatorTable(trie, 1 << i, parts.get(i));
+        }
+        return table;
+    }
+
+    /**
+     * Vista de una categoría de una tabla combinada; comparte el trie.
+     *
+     * @param index posición de la categoría en {@link #merged(List)}
+     * @return tabla restringida a esa categoría
+     */
+    public OperatorTable category(int index) {
+        if (parts == null) {
+            if (index == 0) return this;
+            throw new IndexOutOfBoundsException("La tabla tiene una sola categoría: " + index);
+        }
+        return parts[index];
+    }
+
     /** Vista inmodificable de los símbolos (útil para diagnósticos/pruebas). */
     public List<String> symbols() {
         return symbols;
@@ -75,26 +127,139 @@ public final class OperatorTable {
      * No consume caracteres. El reconocedor debe consumir tantos chars
      * como la longitud del símbolo devuelto.
      */
-    public String longestMatch(CharCursor cursor) {
-        if (cursor == null || cursor.eof()) return null;
-
-        // Recorre de mayor a menor longitud; retorna el primero que calce
-        outer:
-        for (String sym : symbols) {
-            int len = sym.length();
-            for (int i = 0; i < len; i++) {
-                int ch = cursor.peek(i);
-                if (ch == CharCursor.EOF || (char) ch != sym.charAt(i)) {
-                    continue outer; // este símbolo no matchea
-                }
+    public String longestMatch(Lookahead cursor) {
+        int node = longestMatchNode(cursor);
+        return node < 0 ? null : trie.word[node];
+    }
+
+    /**
+     * Igual que {@link #longestMatch(Lookahead)} pero sin materializar el
+     * símbolo: devuelve su longitud, o 0 si no hay coincidencia.
+     */
+    public int longestMatchLength(Lookahead cursor) {
+        int node = longestMatchNode(cursor);
+        return node < 0 ? 0 : trie.word[node].length();
+    }
+
+    /** ¿El conjunto contiene exactamente este símbolo? (búsqueda hash). */
+    public boolean contains(String symbol) {
+        return lookup.contains(symbol);
+    }
+
+    /**
+     * ¿El conjunto contiene el símbolo formado por 'count' repeticiones de c?
+     * (p. ej. containsRun('=', 2) para "=="). Recorre el trie sin construir la cadena.
+     */
+    public boolean containsRun(char c, int count) {
+        if (count <= 0 || count > maxLen) return false;
+        int node = 0;
+        for (int i = 0; i < count; i++) {
+            node = trie.child(node, c);
+            if (node < 0) return false;
+        }
+        return (trie.accept[node] & mask) != 0;
+    }
+
+    /** Recorre el trie una vez y devuelve el último nodo que acepta en esta vista, o -1. */
+    private int longestMatchNode(Lookahead cursor) {
+        if (cursor == null || cursor.eof()) return -1;
+        int best = -1;
+        int node = 0;
+        for (int i = 0; i < maxLen; i++) {
+            int ch = cursor.peek(i);
+            if (ch == Lookahead.EOF) break;
+            node = trie.child(node, (char) ch);
+            if (node < 0) break;
+            if ((trie.accept[node] & mask) != 0) best = node;
+        }
+        return best;
+    }
+
+    private static List<String> validated(Set<String> symbolSet) {
+        Objects.requireNonNull(symbolSet, "El conjunto de símbolos no puede ser null");
+
+        // Copia defensiva y validación mínima
+        List<String> tmp = new ArrayList<>(symbolSet.size());
+        for (String s : symbolSet) {
+            if (s == null) {
+                throw new IllegalArgumentException("Un símbolo no puede ser null.");
+            }
+            if (s.isEmpty()) {
+                throw new IllegalArgumentException("Los símbolos no pueden ser cadenas vacías.");
             }
-            return sym; // match completo
+            tmp.add(s);
         }
-        return null;
+
+        // Orden por longitud descendente (diagnósticos y compatibilidad de symbols())
+        tmp.sort(Comparator.comparingInt(String::length).reversed());
+        return tmp;
     }
 
-    /** ¿El conjunto contiene exactamente este símbolo? (útil para validaciones simples). */
-    public boolean contains(String symbol) {
-        return symbols.contains(symbol);
+    /**
+     * Trie sobre arreglos: cada nodo guarda sus hijos como claves char ordenadas
+     * (búsqueda binaria), la máscara de categorías que aceptan en él y el
+     * símbolo que representa. El nodo 0 es la raíz.
+     */
+    private static final class Trie {
+        char[][] keys = new char[8][];
+        int[][] next = new int[8][];
+        int[] accept = new int[8];
+        String[] word = new String[8];
+        int size = 1;
+
+        Trie() {
+            keys[0] = new char[0];
+            next[0] = new int[0];
+        }
+
+        int child(int node, char c) {
+            int k = Arrays.binarySearch(keys[node], c);
+            return k >= 0 ? next[node][k] : -1;
+        }
+
+        void addAll(List<String> symbols, int category) {
+            for (String s : symbols) add(s, category);
+        }
+
+        private void add(String s, int category) {
+            int node = 0;
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                int child = child(node, c);
+                if (child < 0) child = link(node, c);
+                node = child;
+            }
+            accept[node] |= 1 << category;
+            word[node] = s;
+        }
+
+        private int link(int parent, char c) {
+            if (size == accept.length) {
+                int cap = size * 2;
+                keys = Arrays.copyOf(keys, cap);
+                next = Arrays.copyOf(next, cap);
+                accept = Arrays.copyOf(accept, cap);
+                word = Arrays.copyOf(word, cap);
+            }
+            int id = size++;
+            keys[id] = new char[0];
+            next[id] = new int[0];
+
+            // Inserción ordenada de la nueva arista en el padre
+            char[] ks = keys[parent];
+            int[] ns = next[parent];
+            int at = -(Arrays.binarySearch(ks, c) + 1);
+            char[] nk = new char[ks.length + 1];
+            int[] nn = new int[ns.length + 1];
+            System.arraycopy(ks, 0, nk, 0, at);
+            System.arraycopy(ns, 0, nn, 0, at);
+            nk[at] = c;
+            nn[at] = id;
+            System.arraycopy(ks, at, nk, at + 1, ks.length - at);
+            System.arraycopy(ns, at, nn, at + 1, ns.length - at);
+            keys[parent] = nk;
+            next[parent] = nn;
+            return id;
+        }
     }
 }
@@ -13,11 +13,25 @@ import java.util.Set;
  *  - Mantener la colección inmodificable hacia afuera para evitar efectos laterales.
  *
  * No realiza normalizaciones, ni analiza el lexema; eso es trabajo del reconocedor.
+ *
+ * Búsqueda sin asignaciones: las palabras se compilan en una tabla hash de
+ * direccionamiento abierto (capacidad potencia de dos, carga &lt;= 1/2) con el
+ * hash de cada palabra guardado aparte. Así se puede clasificar directamente
+ * un rango (texto, inicio, longitud) del buffer analizado sin construir el
+ * String del lexema: solo se comparan chars cuando coinciden hash y longitud.
  */
 public final class ReservedWords {
 
     private final Set<String> words; // LinkedHashSet para mantener orden de inserción (si interesa en reportes)
 
+    // Tabla hash compilada (slots vacíos: null)
+    private final String[] slots;
+    private final int[] hashes;
+    private final int slotMask;
+
+    // Bit i encendido si existe alguna palabra de longitud i (i < 64; 63 = "63 o más")
+    private final long lengths;
+
     /**
      * @param words conjunto de palabras reservadas; no null. Puede estar vacío.
      */
@@ -25,6 +39,22 @@ public final class ReservedWords {
         Objects.requireNonNull(words, "El conjunto de palabras reservadas no puede ser null");
         // Copia defensiva (case-sensitive por diseño de la práctica)
         this.words = Collections.unmodifiableSet(new LinkedHashSet<>(words));
+
+        int cap = Integer.highestOneBit(Math.max(2, this.words.size()) * 2 - 1) << 1;
+        this.slots = new String[cap];
+        this.hashes = new int[cap];
+        this.slotMask = cap - 1;
+        long lens = 0;
+        for (String w : this.words) {
+            if (w == null) continue;
+            int h = mix(w.hashCode());
+            int i = h & slotMask;
+            while (slots[i] != null) i = (i + 1) & slotMask;
+            slots[i] = w;
+            hashes[i] = h;
+            lens |= 1L << Math.min(w.length(), 63);
+        }
+        this.lengths = lens;
     }
 
     /** ¿El lexema coincide EXACTAMENTE con una palabra reservada? (case-sensitive) */
@@ -33,6 +63,28 @@ public final class ReservedWords {
         return words.contains(lexeme);
     }
 
+    /**
+     * ¿El rango [start, start + length) de text es EXACTAMENTE una palabra
+     * reservada? No construye el lexema ni asigna memoria.
+     *
+     * @param text   texto (o ventana de flujo) que contiene el lexema
+     * @param start  inicio del lexema dentro de text
+     * @param length longitud del lexema
+     */
+    public boolean isReserved(CharSequence text, int start, int length) {
+        if (text == null || (lengths & (1L << Math.min(length, 63))) == 0) return false;
+
+        // Mismo polinomio que String.hashCode, para coincidir con el de las palabras
+        int raw = 0;
+        for (int k = 0; k < length; k++) raw = 31 * raw + text.charAt(start + k);
+        int h = mix(raw);
+
+        for (int i = h & slotMask; slots[i] != null; i = (i + 1) & slotMask) {
+            if (hashes[i] == h && sameChars(slots[i], text, start, length)) return true;
+        }
+        return false;
+    }
+
     /** Vista inmodificable del conjunto subyacente (útil para pruebas/reportes). */
     public Set<String> asSet() {
         return words;
@@ -42,4 +94,17 @@ public final class ReservedWords {
     public int size() {
         return words.size();
     }
+
+    /** Dispersa los bits altos del hash hacia los bajos que indexan la tabla. */
+    private static int mix(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    private static boolean sameChars(String word, CharSequence text, int start, int length) {
+        if (word.length() != length) return false;
+        for (int k = 0; k < length; k++) {
+            if (word.charAt(k) != text.charAt(start + k)) return false;
+        }
+        return true;
+    }
 }
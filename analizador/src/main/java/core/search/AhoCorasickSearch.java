@@ -0,0 +1,126 @@
+package core.search;
+
+import java.util.Arrays;
+
+/**
+ * Autómata de Aho-Corasick: encuentra en UNA pasada todas las apariciones
+ * (incluidas las solapadas) de varios patrones a la vez.
+ *
+ * Decisiones:
+ * - Los chars de los patrones se agrupan en clases (0 = "cualquier otro
+ * char") y la función de transición se completa en una tabla densa
+ * {@code estados x clases}: avanzar es un acceso a arreglo por char, sin
+ * seguir enlaces de fallo durante la búsqueda.
+ * - Cada estado guarda el primer patrón que termina en él y un enlace al
+ * estado más cercano de su cadena de fallos que también termina alguno;
+ * los patrones repetidos se encadenan entre sí.
+ * - Compara chars exactos: el llamador pliega patrones y texto si no
+ * distingue mayúsculas.
+ */
+final class AhoCorasickSearch {
+
+    /** Receptor de coincidencias: inicio (0-based) e índice del patrón. */
+    @FunctionalInterface
+    interface Hit {
+        void accept(int start, int pattern);
+    }
+
+    private final char[] classOf = new char[Character.MAX_VALUE + 1];
+    private final int classes;
+    private final int[] delta;      // delta[estado * classes + clase]
+    private final int[] first;      // primer patrón que termina en el estado, o -1
+    private final int[] output;     // siguiente estado con salida en la cadena de fallos, o -1
+    private final int[] nextSame;   // siguiente patrón idéntico, o -1
+    private final int[] length;     // longitud de cada patrón
+
+    /**
+     * @param patterns patrones no vacíos (ya plegados si no distingue mayúsculas)
+     */
+    AhoCorasickSearch(char[][] patterns) {
+        int k = 1;
+        int maxStates = 1;
+        for (char[] p : patterns) {
+            for (char c : p) {
+                if (classOf[c] == 0) classOf[c] = (char) k++;
+            }
+            maxStates += p.length;
+        }
+        this.classes = k;
+        this.length = new int[patterns.length];
+        this.nextSame = new int[patterns.length];
+
+        // 1) Trie: -1 = sin transición todavía
+        int[] d = new int[maxStates * k];
+        Arrays.fill(d, -1);
+        int[] out = new int[maxStates];
+        Arrays.fill(out, -1);
+        int states = 1;
+        for (int i = patterns.length - 1; i >= 0; i--) {
+            int s = 0;
+            for (char c : patterns[i]) {
+                int slot = s * k + classOf[c];
+                if (d[slot] < 0) d[slot] = states++;
+                s = d[slot];
+            }
+            length[i] = patterns[i].length;
+            nextSame[i] = out[s];   // recorrido inverso => lista en orden ascendente
+            out[s] = i;
+        }
+
+        // 2) Fallos por anchura; la transición que falta es la del estado de fallo
+        int[] fail = new int[states];
+        int[] link = new int[states];
+        link[0] = -1;
+        int[] queue = new int[states];
+        int head = 0, tail = 0;
+        for (int c = 0; c < k; c++) {
+            int t = d[c];
+            if (t < 0) {
+                d[c] = 0;
+            } else {
+                fail[t] = 0;
+                link[t] = -1;
+                queue[tail++] = t;
+            }
+        }
+        while (head < tail) {
+            int s = queue[head++];
+            for (int c = 0; c < k; c++) {
+                int slot = s * k + c;
+                int t = d[slot];
+                int viaFail = d[fail[s] * k + c];
+                if (t < 0) {
+                    d[slot] = viaFail;
+                } else {
+                    fail[t] = viaFail;
+                    link[t] = (out[viaFail] >= 0) ? viaFail : link[viaFail];
+                    queue[tail++] = t;
+                }
+            }
+        }
+        this.delta = (states == maxStates) ? d : Arrays.copyOf(d, states * k);
+        this.first = Arrays.copyOf(out, states);
+        this.output = link;
+    }
+
+    /**
+     * Recorre {@code text} e informa cada aparición en orden de FIN; a igual
+     * fin, primero el patrón más largo.
+     */
+    void forEach(String text, Hit hit) {
+        final int k = classes;
+        final int[] d = delta;
+        final char[] cls = classOf;
+        int s = 0;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            s = d[s * k + cls[text.charAt(i)]];
+            int t = (first[s] >= 0) ? s : output[s];
+            while (t >= 0) {
+                for (int p = first[t]; p >= 0; p = nextSame[p]) {
+                    hit.accept(i + 1 - length[p], p);
+                }
+                t = output[t];
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package core.search;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * {@link SubstringSearch} de Boyer-Moore-Horspool: compara de derecha a
+ * izquierda y, al fallar, salta según el char del texto bajo el último del
+ * patrón.
+ *
+ * La tabla de saltos se indexa por el byte bajo del char (256 entradas en
+ * vez de 64K): chars distintos con el mismo byte comparten el salto MÍNIMO,
+ * lo que solo acorta algún salto, nunca se pasa una aparición.
+ */
+final class HorspoolSearch implements SubstringSearch {
+
+    private final char[] pattern;   // ya plegado si no distingue mayúsculas
+    private final boolean caseSensitive;
+    private final int[] shift = new int[256];
+
+    HorspoolSearch(char[] pattern, boolean caseSensitive) {
+        this.pattern = pattern;
+        this.caseSensitive = caseSensitive;
+        int m = pattern.length;
+        Arrays.fill(shift, m);
+        for (int j = 0; j < m - 1; j++) shift[pattern[j] & 0xFF] = m - 1 - j;
+    }
+
+    @Override
+    public void forEach(String text, int from, int to, IntConsumer out) {
+        char[] p = pattern;
+        int last = p.length - 1;
+        char end = p[last];
+        int limit = to - p.length;
+        for (int i = from; i <= limit; ) {
+            char c = at(text, i + last);
+            if (c == end) {
+                int j = last - 1;
+                while (j >= 0 && at(text, i + j) == p[j]) j--;
+                if (j < 0) out.accept(i);
+            }
+            i += shift[c & 0xFF];
+        }
+    }
+
+    private char at(String text, int i) {
+        char c = text.charAt(i);
+        return caseSensitive ? c : SubstringSearch.fold(c);
+    }
+
+    @Override
+    public String name() {
+        return "horspool";
+    }
+}
@@ -0,0 +1,25 @@
+package core.search;
+
+import java.util.function.IntConsumer;
+
+/** {@link SubstringSearch} sensible a mayúsculas sobre String.indexOf (intrínseco). */
+final class IndexOfSearch implements SubstringSearch {
+
+    private final String pattern;
+
+    IndexOfSearch(String pattern) {
+        this.pattern = pattern;
+    }
+
+    @Override
+    public void forEach(String text, int from, int to, IntConsumer out) {
+        for (int at = text.indexOf(pattern, from, to); at >= 0; at = text.indexOf(pattern, at + 1, to)) {
+            out.accept(at);
+        }
+    }
+
+    @Override
+    public String name() {
+        return "indexOf";
+    }
+}
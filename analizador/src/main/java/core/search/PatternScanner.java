@@ -1,14 +1,21 @@
 package core.search;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
+import model.search.FoldedText;
+
 /**
- * Escáner ingenuo (naive) de patrones, char-a-char y sensible/insensible a mayúsculas.
- * No usa regex ni helpers avanzados; compara carácter por carácter para cumplir la práctica.
+ * Escáner de patrones, char-a-char y sensible/insensible a mayúsculas.
+ * No usa regex; compara carácter por carácter para cumplir la práctica.
  *
  * Política:
  *  - Permite coincidencias solapadas (se avanza i++ incluso tras encontrar un match).
+ *
+ * Los candidatos salen de un {@link SubstringSearch} (indexOf, Horspool o
+ * Two-Way según el patrón) en lugar de probar cada posición; las variantes
+ * ingenuas O(n·m) se conservan como referencia (naiveFindAll*).
  */
 public final class PatternScanner {
 
@@ -24,6 +31,26 @@ public final class PatternScanner {
      * @throws IllegalArgumentException si pattern es null o vacío
      */
     public static List<int[]> findAll(String text, String pattern, boolean caseSensitive, boolean wholeWord) {
+        final int m = checkedLength(pattern);
+        final int n = text.length();
+        var res = new ArrayList<int[]>();
+        if (m > n) return res;
+
+        SubstringSearch.compile(pattern, caseSensitive).forEach(text, i -> {
+            if (wholeWord) {
+                boolean leftOk = (i == 0) || !isWordChar(text.charAt(i - 1));
+                boolean rightOk = (i + m >= n) || !isWordChar(text.charAt(i + m));
+                if (!(leftOk && rightOk)) {
+                    return;
+                }
+            }
+            res.add(new int[]{i, m});
+        });
+        return res;
+    }
+
+    /** Referencia ingenua de {@link #findAll}: prueba cada posición. */
+    static List<int[]> naiveFindAll(String text, String pattern, boolean caseSensitive, boolean wholeWord) {
         if (pattern == null || pattern.isEmpty()) {
             throw new IllegalArgumentException("El patrón de búsqueda no puede ser null ni vacío.");
         }
@@ -62,8 +89,204 @@ public final class PatternScanner {
         return Character.isLetterOrDigit(c) || c == '_';
     }
     
-    // Búsqueda por code points (no normaliza, offsets en UTF-16)
+    /**
+     * Búsqueda por code points (no normaliza, offsets en UTF-16).
+     *
+     * Las mayúsculas/minúsculas de Unicode no cruzan planos: si el patrón no
+     * tiene sustitutos, una coincidencia por code points es exactamente una
+     * coincidencia char a char, y los candidatos salen del mismo
+     * {@link SubstringSearch}. Cada candidato se confirma con la comparación
+     * por code points (un par sustituto del texto no se parte). Con
+     * sustitutos en el patrón e insensible a mayúsculas se usa la referencia.
+     */
     public static List<int[]> findAllCodePoints(String text, String pattern, boolean caseSensitive, boolean wholeWord) {
+        final int m = checkedLength(pattern);
+        final int n = text.length();
+        var res = new ArrayList<int[]>();
+        if (m > n) return res;
+        if (!caseSensitive && hasSurrogate(pattern)) {
+            return naiveFindAllCodePoints(text, pattern, false, wholeWord);
+        }
+        scan(text, text, SubstringSearch.compile(pattern, caseSensitive), pattern, caseSensitive, true,
+                wholeWord, 0, n, res);
+        return res;
+    }
+
+    /**
+     * Igual que {@link #findAllCodePoints(String, String, boolean, boolean)}
+     * sobre {@code text.source()}, pero las búsquedas insensibles a mayúsculas
+     * comparan el patrón plegado contra la copia ya plegada del texto (sin
+     * plegar nada por comparación).
+     */
+    public static List<int[]> findAllCodePoints(FoldedText text, String pattern, boolean caseSensitive, boolean wholeWord) {
+        return findAllCodePoints(text.source(), text, null, pattern, caseSensitive, wholeWord);
+    }
+
+    /**
+     * Igual que {@link #findAllCodePoints(String, String, boolean, boolean)}
+     * pero solo dentro de los tramos {@code [desde, hasta)} de
+     * {@code windows} (pares ordenados y disjuntos, p. ej. los candidatos de
+     * un {@link model.search.TrigramIndex}); null = todo el texto.
+     *
+     * @param folded copia plegada de {@code text} (puede ser null)
+     */
+    public static List<int[]> findAllCodePoints(String text, FoldedText folded, int[] windows,
+            String pattern, boolean caseSensitive, boolean wholeWord) {
+        final int m = checkedLength(pattern);
+        boolean useFolded = !caseSensitive && folded != null && !hasSurrogate(pattern);
+        if (!useFolded && (windows == null || (!caseSensitive && hasSurrogate(pattern)))) {
+            return findAllCodePoints(text, pattern, caseSensitive, wholeWord);
+        }
+        final int n = text.length();
+        var res = new ArrayList<int[]>();
+        if (m > n) return res;
+
+        // Sin sustitutos en el patrón, coincidir por code points en minúsculas
+        // es coincidir char a char entre las dos copias plegadas
+        SubstringSearch search = useFolded
+                ? SubstringSearch.compile(FoldedText.fold(pattern), true)
+                : SubstringSearch.compile(pattern, caseSensitive);
+        String haystack = useFolded ? folded.text() : text;
+        if (windows == null) {
+            scan(text, haystack, search, pattern, caseSensitive, !useFolded, wholeWord, 0, n, res);
+        } else {
+            for (int w = 0; w < windows.length; w += 2) {
+                scan(text, haystack, search, pattern, caseSensitive, !useFolded, wholeWord, windows[w], windows[w + 1], res);
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Recorre {@code haystack} (el texto o su copia plegada) en [from, to) y
+     * agrega a 'res' las coincidencias confirmadas; 'verify' = confirmar cada
+     * candidato por code points sobre el texto original.
+     */
+    private static void scan(String text, String haystack, SubstringSearch search, String pattern,
+            boolean caseSensitive, boolean verify, boolean wholeWord, int from, int to, List<int[]> res) {
+        final int n = text.length();
+        final int m = pattern.length();
+        search.forEach(haystack, from, to, i -> {
+            int end = verify ? codePointMatchEnd(text, i, pattern, caseSensitive) : i + m;
+            if (end < 0) return;
+            if (wholeWord) {
+                boolean leftOk = (i == 0) || !isWordCp(Character.codePointBefore(text, i));
+                boolean rightOk = (end >= n) || !isWordCp(Character.codePointAt(text, end));
+                if (!(leftOk && rightOk)) {
+                    return;
+                }
+            }
+            res.add(new int[]{i, end - i});
+        });
+    }
+
+    /**
+     * Busca varios patrones en una sola pasada con las mismas reglas que
+     * {@link #findAllCodePoints(String, String, boolean, boolean)} para cada
+     * uno. Devuelve {inicio, longitud, índice del patrón} ordenados por inicio
+     * y, a igual inicio, por índice del patrón.
+     *
+     * Los patrones con sustitutos (raros) se buscan aparte con el escáner por
+     * code points; el resto, con un único autómata de Aho-Corasick.
+     *
+     * @param folded copia plegada de {@code text} (puede ser null; solo se usa
+     *               si no distingue mayúsculas)
+     */
+    public static List<int[]> findAllCodePoints(String text, FoldedText folded, List<String> patterns,
+            boolean caseSensitive, boolean wholeWord) {
+        final int n = text.length();
+        final int count = patterns.size();
+        char[][] automaton = new char[count][];
+        int[] automatonIndex = new int[count];
+        int used = 0;
+        long[] hits = new long[16];
+        int hitCount = 0;
+
+        for (int p = 0; p < count; p++) {
+            String pattern = patterns.get(p);
+            checkedLength(pattern);
+            if (hasSurrogate(pattern)) {
+                for (int[] sp : findAllCodePoints(text, pattern, caseSensitive, wholeWord)) {
+                    if (hitCount == hits.length) hits = Arrays.copyOf(hits, hitCount * 2);
+                    hits[hitCount++] = hitKey(sp[0], p);
+                }
+            } else {
+                automaton[used] = caseSensitive ? pattern.toCharArray() : FoldedText.fold(pattern).toCharArray();
+                automatonIndex[used++] = p;
+            }
+        }
+
+        if (used > 0) {
+            String haystack = caseSensitive ? text
+                    : (folded != null) ? folded.text() : FoldedText.fold(text);
+            var ac = new AhoCorasickSearch(Arrays.copyOf(automaton, used));
+            long[][] acc = { hits };
+            int[] size = { hitCount };
+            ac.forEach(haystack, (i, local) -> {
+                if (wholeWord) {
+                    int end = i + automaton[local].length;
+                    boolean leftOk = (i == 0) || !isWordCp(Character.codePointBefore(text, i));
+                    boolean rightOk = (end >= n) || !isWordCp(Character.codePointAt(text, end));
+                    if (!(leftOk && rightOk)) {
+                        return;
+                    }
+                }
+                if (size[0] == acc[0].length) acc[0] = Arrays.copyOf(acc[0], size[0] * 2);
+                acc[0][size[0]++] = hitKey(i, automatonIndex[local]);
+            });
+            hits = acc[0];
+            hitCount = size[0];
+        }
+
+        // El autómata informa por fin de coincidencia: reordenar por inicio
+        Arrays.sort(hits, 0, hitCount);
+        var res = new ArrayList<int[]>(hitCount);
+        for (int h = 0; h < hitCount; h++) {
+            int start = (int) (hits[h] >>> 32);
+            int p = (int) hits[h];
+            res.add(new int[]{start, patterns.get(p).length(), p});
+        }
+        return res;
+    }
+
+    private static long hitKey(int start, int pattern) {
+        return ((long) start << 32) | pattern;
+    }
+
+    /** Fin (exclusivo) de la coincidencia por code points en i, o -1. */
+    private static int codePointMatchEnd(String text, int i, String pattern, boolean caseSensitive) {
+        final int n = text.length();
+        final int m = pattern.length();
+        int ti = i;
+        int pj = 0;
+        while (pj < m && ti < n) {
+            int a = Character.codePointAt(text, ti);
+            int b = Character.codePointAt(pattern, pj);
+            int ca = caseSensitive ? a : Character.toLowerCase(a);
+            int cb = caseSensitive ? b : Character.toLowerCase(b);
+            if (ca != cb) return -1;
+            ti += Character.charCount(a);
+            pj += Character.charCount(b);
+        }
+        return (pj == m) ? ti : -1;
+    }
+
+    private static boolean hasSurrogate(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (Character.isSurrogate(s.charAt(i))) return true;
+        }
+        return false;
+    }
+
+    private static int checkedLength(String pattern) {
+        if (pattern == null || pattern.isEmpty()) {
+            throw new IllegalArgumentException("El patrón de búsqueda no puede ser null ni vacío.");
+        }
+        return pattern.length();
+    }
+
+    /** Referencia ingenua de {@link #findAllCodePoints}: prueba cada posición. */
+    static List<int[]> naiveFindAllCodePoints(String text, String pattern, boolean caseSensitive, boolean wholeWord) {
         if (pattern == null || pattern.isEmpty()) {
             throw new IllegalArgumentException("El patrón de búsqueda no puede ser null ni vacío.");
         }
@@ -4,9 +4,11 @@ import core.lexing.recognizer.*;
 import core.lexing.stream.CharCursor;
 import model.config.CommentsConfig;
 import model.config.Config;
-import model.lexical.Position;
+import model.lexical.LineIndex;
+import model.search.FoldedText;
 import model.search.MatchRange;
 import model.search.SearchResult;
+import model.search.TrigramIndex;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -19,8 +21,9 @@ import java.util.Objects;
  * - Busca un patrón (char-a-char, sin regex) con sensibilidad opcional.
  * - Opcionalmente excluye coincidencias dentro de comentarios (línea/bloque)
  * según la configuración (config.json).
- * - Calcula posiciones 1-based para inicio y fin de cada coincidencia,
- * tratando CR, LF y CRLF como saltos de línea válidos.
+ * - Expone posiciones 1-based para inicio y fin de cada coincidencia,
+ * tratando CR, LF y CRLF como saltos de línea válidos; se derivan bajo
+ * demanda de un {@link LineIndex} compartido.
  *
  * Sin UI, sin coloreo: este motor provee datos para que la capa de vista
  * resalte.
@@ -50,20 +53,66 @@ public final class SearchEngine {
             boolean includeComments,
             Config config) {
         Objects.requireNonNull(text, "El texto no puede ser null.");
+        return search(text, new LineIndex(text), pattern, caseSensitive, wholeWord, includeComments, config);
+    }
+
+    /**
+     * Igual que {@link #search(String, String, boolean, boolean, boolean, Config)}
+     * reutilizando el índice de líneas del texto (p. ej. el de DocumentModel).
+     *
+     * @param lines índice de líneas del mismo texto (no null)
+     */
+    public SearchResult search(String text,
+            LineIndex lines,
+            String pattern,
+            boolean caseSensitive,
+            boolean wholeWord,
+            boolean includeComments,
+            Config config) {
+        Objects.requireNonNull(text, "El texto no puede ser null.");
+        return search(text, lines, null, null, pattern, caseSensitive, wholeWord, includeComments, config);
+    }
+
+    /**
+     * Igual que {@link #search(String, LineIndex, String, boolean, boolean, boolean, Config)}
+     * con los índices del texto ya disponibles (p. ej. los de DocumentModel):
+     * - con la copia en minúsculas, las búsquedas insensibles a mayúsculas no
+     * vuelven a plegar el texto;
+     * - con el índice de trigramas, solo se recorren los tramos que pueden
+     * contener el patrón (patrones de 3 chars o más; si no, se recorre todo).
+     *
+     * @param folded   copia plegada del mismo texto (null = plegar al comparar)
+     * @param trigrams índice de trigramas del documento (puede ser null)
+     */
+    public SearchResult search(String text,
+            LineIndex lines,
+            FoldedText folded,
+            TrigramIndex trigrams,
+            String pattern,
+            boolean caseSensitive,
+            boolean wholeWord,
+            boolean includeComments,
+            Config config) {
+        Objects.requireNonNull(text, "El texto no puede ser null.");
+        Objects.requireNonNull(lines, "El índice de líneas no puede ser null.");
         Objects.requireNonNull(pattern, "El patrón no puede ser null.");
+        if (folded != null && !text.equals(folded.source())) {
+            throw new IllegalArgumentException("La copia plegada no corresponde al texto.");
+        }
         if (pattern.isEmpty()) {
             throw new IllegalArgumentException("El patrón de búsqueda no puede ser vacío.");
         }
 
-        // 1) Precalcular líneas (para mapear índice -> (línea, columna))
-        int[] lineStarts = computeLineStarts(text);
+        // 1) Las posiciones (línea, columna) se derivan de 'lines' al pedirlas
 
         // 2) Si se deben excluir comentarios, construir la máscara de comentarios
         boolean[] inComment = includeComments ? null
                 : buildCommentMask(text, (config != null) ? config.getComentarios() : null);
 
-        // 3) Buscar todas las coincidencias (índices y longitudes)
-        List<int[]> spans = PatternScanner.findAllCodePoints(text, pattern, caseSensitive, wholeWord);
+        // 3) Buscar todas las coincidencias (índices y longitudes), solo en los
+        // tramos candidatos si hay índice de trigramas
+        int[] windows = (trigrams != null) ? trigrams.candidateWindows(text, pattern, caseSensitive) : null;
+        List<int[]> spans = PatternScanner.findAllCodePoints(text, folded, windows, pattern, caseSensitive, wholeWord);
 
         // 4) Filtrar por comentarios (si corresponde) y construir rangos con posiciones
         var ranges = new ArrayList<MatchRange>(spans.size());
@@ -76,72 +125,59 @@ public final class SearchEngine {
                 continue; // excluir coincidencias dentro de comentarios
             }
 
-            Position pStart = indexToPosition(lineStarts, start);
-            Position pEnd = indexToPosition(lineStarts, end);
-            ranges.add(new MatchRange(start, end, pStart, pEnd));
+            ranges.add(new MatchRange(start, end, lines));
         }
 
         return new SearchResult(ranges);
     }
 
-    /* ---------------------- utilitarios internos ---------------------- */
-
     /**
-     * Construye arreglo de inicios de línea (0-based) tratando CR/LF/CRLF como
-     * saltos.
+     * Busca varios patrones en una sola pasada (autómata de Aho-Corasick) con
+     * las mismas opciones que {@link #search(String, LineIndex, FoldedText, TrigramIndex,
+     * String, boolean, boolean, boolean, Config)}. Cada rango lleva en
+     * {@link MatchRange#patternIndex()} el índice del patrón en
+     * {@code patterns}; los rangos quedan ordenados por inicio.
+     *
+     * @param patterns patrones a buscar (no null ni vacía; ninguno null ni vacío)
+     * @param folded   copia plegada del mismo texto (puede ser null)
      */
-    private static int[] computeLineStarts(String text) {
-        // Peor caso: cada carácter inicia una línea => tamaño = length + 1
-        int n = text.length();
-        int[] tmp = new int[n + 1];
-        int count = 0;
-        tmp[count++] = 0; // primera línea siempre inicia en 0
-
-        for (int i = 0; i < n; i++) {
-            char ch = text.charAt(i);
-            if (ch == '\r') {
-                // CR: inicio de nueva línea es i+1
-                int next = i + 1;
-                // Si es CRLF, considerarlo un solo salto (la siguiente línea empieza en i+2)
-                if (next < n && text.charAt(next) == '\n') {
-                    tmp[count++] = next + 1;
-                    i = next; // saltar el '\n'
-                } else {
-                    tmp[count++] = next;
-                }
-            } else if (ch == '\n') {
-                tmp[count++] = i + 1;
-            }
+    public SearchResult searchAll(String text,
+            LineIndex lines,
+            FoldedText folded,
+            List<String> patterns,
+            boolean caseSensitive,
+            boolean wholeWord,
+            boolean includeComments,
+            Config config) {
+        Objects.requireNonNull(text, "El texto no puede ser null.");
+        Objects.requireNonNull(lines, "El índice de líneas no puede ser null.");
+        Objects.requireNonNull(patterns, "La lista de patrones no puede ser null.");
+        if (folded != null && !text.equals(folded.source())) {
+            throw new IllegalArgumentException("La copia plegada no corresponde al texto.");
+        }
+        if (patterns.isEmpty()) {
+            throw new IllegalArgumentException("La lista de patrones no puede ser vacía.");
         }
-        int[] lineStarts = new int[count];
-        System.arraycopy(tmp, 0, lineStarts, 0, count);
-        return lineStarts;
-    }
 
-    /** Convierte índice 0-based a (línea, columna) 1-based usando lineStarts. */
-    private static Position indexToPosition(int[] lineStarts, int index) {
-        int line = binarySearchLine(lineStarts, index);
-        int lineStart = lineStarts[line];
-        int col = index - lineStart + 1;
-        return new Position(line + 1, col);
-    }
+        boolean[] inComment = includeComments ? null
+                : buildCommentMask(text, (config != null) ? config.getComentarios() : null);
+
+        List<int[]> spans = PatternScanner.findAllCodePoints(text, folded, patterns, caseSensitive, wholeWord);
 
-    /** Devuelve la línea (0-based) que contiene al índice dado. */
-    private static int binarySearchLine(int[] lineStarts, int index) {
-        int lo = 0, hi = lineStarts.length - 1;
-        while (lo <= hi) {
-            int mid = (lo + hi) >>> 1;
-            int v = lineStarts[mid];
-            if (v == index)
-                return mid;
-            if (v < index)
-                lo = mid + 1;
-            else
-                hi = mid - 1;
+        var ranges = new ArrayList<MatchRange>(spans.size());
+        for (int[] sp : spans) {
+            int start = sp[0];
+            int end = start + sp[1] - 1;
+            if (inComment != null && overlapsComment(inComment, start, end)) {
+                continue;
+            }
+            ranges.add(new MatchRange(start, end, lines, sp[2]));
         }
-        return Math.max(0, lo - 1);
+        return new SearchResult(ranges);
     }
 
+    /* ---------------------- utilitarios internos ---------------------- */
+
     /**
      * Construye una máscara booleana donde {@code true} indica "posición dentro de
      * comentario".
@@ -157,18 +193,18 @@ public final class SearchEngine {
             int start = cursor.index();
 
             // Comentario de línea
-            Recognition r = lineComment.recognize(cursor, cfg);
-            if (r.matched()) {
-                mark(mask, start, r.length());
-                consume(cursor, r.length());
+            long r = lineComment.recognize(cursor, cfg);
+            if (Recognition.matched(r)) {
+                mark(mask, start, Recognition.length(r));
+                cursor.advance(Recognition.length(r));
                 continue;
             }
 
             // Comentario de bloque (si no cierra, length llega a EOF)
             r = blockComment.recognize(cursor, cfg);
-            if (r.matched()) {
-                mark(mask, start, r.length());
-                consume(cursor, r.length());
+            if (Recognition.matched(r)) {
+                mark(mask, start, Recognition.length(r));
+                cursor.advance(Recognition.length(r));
                 continue;
             }
 
@@ -199,9 +235,4 @@ public final class SearchEngine {
         }
         return false;
     }
-
-    private static void consume(CharCursor cursor, int length) {
-        for (int i = 0; i < length && !cursor.eof(); i++)
-            cursor.next();
-    }
 }
@@ -0,0 +1,93 @@
+package core.search;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Búsqueda de TODAS las apariciones (solapadas incluidas) de un patrón fijo
+ * en un texto, sensible o insensible a mayúsculas.
+ *
+ * Insensible a mayúsculas significa lo mismo que en el escáner ingenuo:
+ * dos chars coinciden si sus {@link Character#toLowerCase(char)} son iguales.
+ *
+ * Implementaciones (se elige una al compilar el patrón, {@link #compile}):
+ * - indexOf: String.indexOf, intrínseco vectorizado de la JVM; para patrones
+ * cortos sensibles a mayúsculas.
+ * - Horspool: Boyer-Moore-Horspool sobre chars plegados; salta hasta m chars
+ * por comparación fallida. Para patrones largos o insensibles a mayúsculas.
+ * - Two-Way: Crochemore-Perrin, lineal en el peor caso con memoria O(1);
+ * para patrones de alfabeto pobre ("aaaa", "abab"), donde los saltos de
+ * Horspool degeneran en O(n·m).
+ */
+public interface SubstringSearch {
+
+    /** Desde esta longitud, un patrón sensible a mayúsculas usa Horspool/Two-Way. */
+    int LONG_PATTERN = 16;
+
+    /** Con menos chars distintos que esto, el patrón usa Two-Way. */
+    int POOR_ALPHABET = 4;
+
+    /**
+     * Llama a 'out' con el índice de inicio de cada aparición, en orden.
+     *
+     * @param text texto donde buscar (no null)
+     * @param out  receptor de los inicios
+     */
+    default void forEach(String text, IntConsumer out) {
+        forEach(text, 0, text.length(), out);
+    }
+
+    /**
+     * Igual que {@link #forEach(String, IntConsumer)} limitado a las
+     * apariciones que caen enteras en {@code [from, to)}; no lee fuera de
+     * ese tramo.
+     */
+    void forEach(String text, int from, int to, IntConsumer out);
+
+    /** Nombre del algoritmo (diagnóstico y benchmarks). */
+    String name();
+
+    /**
+     * Elige el algoritmo según la longitud y el alfabeto del patrón.
+     *
+     * @param pattern       patrón (no null ni vacío)
+     * @param caseSensitive true = sensible a mayúsculas/minúsculas
+     */
+    static SubstringSearch compile(String pattern, boolean caseSensitive) {
+        if (pattern == null || pattern.isEmpty()) {
+            throw new IllegalArgumentException("El patrón de búsqueda no puede ser null ni vacío.");
+        }
+        if (caseSensitive && pattern.length() < LONG_PATTERN) {
+            return new IndexOfSearch(pattern);
+        }
+        char[] folded = caseSensitive ? pattern.toCharArray() : fold(pattern);
+        if (pattern.length() > 1 && distinct(folded) < POOR_ALPHABET) {
+            return new TwoWaySearch(folded, caseSensitive);
+        }
+        return new HorspoolSearch(folded, caseSensitive);
+    }
+
+    /** Char en minúsculas, con atajo para ASCII. */
+    static char fold(char c) {
+        if (c < 128) return (c >= 'A' && c <= 'Z') ? (char) (c + ('a' - 'A')) : c;
+        return Character.toLowerCase(c);
+    }
+
+    private static char[] fold(String s) {
+        char[] out = new char[s.length()];
+        for (int i = 0; i < out.length; i++) out[i] = fold(s.charAt(i));
+        return out;
+    }
+
+    /** Cantidad de chars distintos (se corta al llegar a POOR_ALPHABET). */
+    private static int distinct(char[] p) {
+        int count = 0;
+        outer:
+        for (int i = 0; i < p.length && count < POOR_ALPHABET; i++) {
+            for (int k = 0; k < i; k++) {
+                if (p[k] == p[i]) continue outer;
+            }
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,121 @@
+package core.search;
+
+import java.util.function.IntConsumer;
+
+/**
+ * {@link SubstringSearch} Two-Way (Crochemore-Perrin): parte el patrón en su
+ * sufijo máximo y compara primero la mitad derecha y luego la izquierda.
+ * Nunca retrocede en el texto más de lo que avanzó, así que es O(n + m) aun
+ * con patrones y textos muy repetitivos, con memoria O(1).
+ */
+final class TwoWaySearch implements SubstringSearch {
+
+    private final char[] pattern;   // ya plegado si no distingue mayúsculas
+    private final boolean caseSensitive;
+
+    // Factorización crítica: pattern = u v con |u| = ell + 1
+    private final int ell;
+    private final int period;
+    private final boolean periodic;
+
+    TwoWaySearch(char[] pattern, boolean caseSensitive) {
+        this.pattern = pattern;
+        this.caseSensitive = caseSensitive;
+        int m = pattern.length;
+
+        int[] p = new int[1];
+        int[] q = new int[1];
+        int i = maxSuffix(pattern, p, false);
+        int j = maxSuffix(pattern, q, true);
+        int l = (i > j) ? i : j;
+        int per = (i > j) ? p[0] : q[0];
+
+        // ¿u es sufijo de pattern[0, per + ell]? => el patrón es periódico con ese período
+        boolean isPeriodic = per + l + 1 <= m;
+        for (int k = 0; isPeriodic && k <= l; k++) {
+            if (pattern[k] != pattern[k + per]) isPeriodic = false;
+        }
+        this.ell = l;
+        this.periodic = isPeriodic;
+        this.period = isPeriodic ? per : Math.max(l + 1, m - l - 1) + 1;
+    }
+
+    @Override
+    public void forEach(String text, int from, int to, IntConsumer out) {
+        char[] x = pattern;
+        int m = x.length;
+        int limit = to - m;
+        int j = from;
+        if (periodic) {
+            int memory = -1;
+            while (j <= limit) {
+                int i = Math.max(ell, memory) + 1;
+                while (i < m && x[i] == at(text, i + j)) i++;
+                if (i >= m) {
+                    i = ell;
+                    while (i > memory && x[i] == at(text, i + j)) i--;
+                    if (i <= memory) out.accept(j);
+                    j += period;
+                    memory = m - period - 1;
+                } else {
+                    j += i - ell;
+                    memory = -1;
+                }
+            }
+        } else {
+            while (j <= limit) {
+                int i = ell + 1;
+                while (i < m && x[i] == at(text, i + j)) i++;
+                if (i >= m) {
+                    i = ell;
+                    while (i >= 0 && x[i] == at(text, i + j)) i--;
+                    if (i < 0) out.accept(j);
+                    j += period;
+                } else {
+                    j += i - ell;
+                }
+            }
+        }
+    }
+
+    private char at(String text, int i) {
+        char c = text.charAt(i);
+        return caseSensitive ? c : SubstringSearch.fold(c);
+    }
+
+    /**
+     * Sufijo máximo de x según el orden de chars (o su inverso): devuelve el
+     * índice anterior a su inicio y deja su período en per[0].
+     */
+    private static int maxSuffix(char[] x, int[] per, boolean reversed) {
+        int m = x.length;
+        int ms = -1, j = 0, k = 1, p = 1;
+        while (j + k < m) {
+            char a = x[j + k];
+            char b = x[ms + k];
+            if (reversed ? a > b : a < b) {
+                j += k;
+                k = 1;
+                p = j - ms;
+            } else if (a == b) {
+                if (k != p) {
+                    k++;
+                } else {
+                    j += p;
+                    k = 1;
+                }
+            } else {
+                ms = j;
+                j = ms + 1;
+                k = p = 1;
+            }
+        }
+        per[0] = p;
+        return ms;
+    }
+
+    @Override
+    public String name() {
+        return "two-way";
+    }
+}
@@ -19,6 +19,9 @@ public final class CommentsConfig {
     private String bloqueInicio;
     private String bloqueFin;
 
+    // Sello de la última modificación (ver Config.getVersion)
+    private transient volatile long stamp;
+
     /** Constructor vacío requerido por librerías de JSON (Gson/Jackson). */
     public CommentsConfig() {}
 
@@ -33,9 +36,11 @@ public final class CommentsConfig {
     public String getBloqueInicio() { return bloqueInicio; }
     public String getBloqueFin() { return bloqueFin; }
 
-    public void setLinea(String linea) { this.linea = linea; }
-    public void setBloqueInicio(String bloqueInicio) { this.bloqueInicio = bloqueInicio; }
-    public void setBloqueFin(String bloqueFin) { this.bloqueFin = bloqueFin; }
+    public void setLinea(String linea) { this.linea = linea; stamp = Config.nextStamp(); }
+    public void setBloqueInicio(String bloqueInicio) { this.bloqueInicio = bloqueInicio; stamp = Config.nextStamp(); }
+    public void setBloqueFin(String bloqueFin) { this.bloqueFin = bloqueFin; stamp = Config.nextStamp(); }
+
+    long stamp() { return stamp; }
 
     /** Validación mínima de campos obligatorios (sin lógica extra). */
     public void validate() {
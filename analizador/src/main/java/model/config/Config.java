@@ -1,7 +1,10 @@
 package model.config;
 
+import java.util.Collections;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 import core.lexing.policy.AlphabetPolicy;
 import core.lexing.stream.CharCursor;
@@ -29,18 +32,25 @@ public final class Config {
     private Set<String> agrupacion = new LinkedHashSet<>();
     private CommentsConfig comentarios;
 
+    // Sellos de modificación: globales, así que siempre crecen aunque se
+    // reemplace 'comentarios' por otro objeto (ver getVersion)
+    private static final AtomicLong STAMPS = new AtomicLong();
+    private transient volatile long stamp;
+
     /** Constructor vacío para librerías JSON. */
     public Config() {}
 
-    public Set<String> getPalabrasReservadas() { return palabrasReservadas; }
+    // Los conjuntos se devuelven de solo lectura: toda modificación pasa por
+    // los setters o validate(), que son los que cambian la versión
+    public Set<String> getPalabrasReservadas() { return view(palabrasReservadas); }
     public Set<String> getOperadores() { 
-        return operadores; 
+        return view(operadores); 
     }
     public Set<String> getPuntuacion() { 
-        return puntuacion; 
+        return view(puntuacion); 
     }
     public Set<String> getAgrupacion() { 
-        return agrupacion; 
+        return view(agrupacion); 
     }
     public CommentsConfig getComentarios() { 
         return comentarios; 
@@ -48,18 +58,33 @@ public final class Config {
 
     public void setPalabrasReservadas(Set<String> palabrasReservadas) {
         this.palabrasReservadas = (palabrasReservadas == null) ? new LinkedHashSet<>() : new LinkedHashSet<>(palabrasReservadas);
+        stamp = nextStamp();
     }
     public void setOperadores(Set<String> operadores) {
         this.operadores = (operadores == null) ? new LinkedHashSet<>() : new LinkedHashSet<>(operadores);
+        stamp = nextStamp();
     }
     public void setPuntuacion(Set<String> puntuacion) {
         this.puntuacion = (puntuacion == null) ? new LinkedHashSet<>() : new LinkedHashSet<>(puntuacion);
+        stamp = nextStamp();
     }
     public void setAgrupacion(Set<String> agrupacion) {
         this.agrupacion = (agrupacion == null) ? new LinkedHashSet<>() : new LinkedHashSet<>(agrupacion);
+        stamp = nextStamp();
     }
     public void setComentarios(CommentsConfig comentarios) {
         this.comentarios = comentarios;
+        stamp = nextStamp();
+    }
+
+    /**
+     * Versión del contenido: cambia con cada setter, con validate() y con los
+     * setters de 'comentarios'. Si no cambió, el contenido tampoco (lo
+     * contrario no vale: reasignar lo mismo también la cambia).
+     */
+    public long getVersion() {
+        CommentsConfig c = comentarios;
+        return (c == null) ? stamp : Math.max(stamp, c.stamp());
     }
 
     /**
@@ -82,16 +107,15 @@ public final class Config {
         operadores       = trimAndCheck("operadores",       operadores);
         puntuacion       = trimAndCheck("puntuacion",       puntuacion);
         agrupacion       = trimAndCheck("agrupacion",       agrupacion);
+        stamp = nextStamp();
 
-        AlphabetPolicy policy = new AlphabetPolicy();
-        OperatorTable opTable = new OperatorTable(operadores);
-        OperatorTable punctTable = new OperatorTable(puntuacion);
-        OperatorTable groupTable = new OperatorTable(agrupacion);
+        OperatorTable symbols = OperatorTable.merged(List.of(operadores, puntuacion, agrupacion));
+        AlphabetPolicy policy = new AlphabetPolicy(this, symbols);
 
-        checkAlphabet("palabrasReservadas", palabrasReservadas, policy, opTable, punctTable, groupTable);
-        checkAlphabet("operadores", operadores, policy, opTable, punctTable, groupTable);
-        checkAlphabet("puntuacion", puntuacion, policy, opTable, punctTable, groupTable);
-        checkAlphabet("agrupacion", agrupacion, policy, opTable, punctTable, groupTable);
+        checkAlphabet("palabrasReservadas", palabrasReservadas, policy, symbols);
+        checkAlphabet("operadores", operadores, policy, symbols);
+        checkAlphabet("puntuacion", puntuacion, policy, symbols);
+        checkAlphabet("agrupacion", agrupacion, policy, symbols);
 
          // Asegurarse de que operadores, puntuacion y agrupacion no tengan símbolos duplicados entre sí.
         Set<String> duplicates = new LinkedHashSet<>();
@@ -113,6 +137,14 @@ public final class Config {
         }
     }
 
+    static long nextStamp() {
+        return STAMPS.incrementAndGet();
+    }
+
+    private static Set<String> view(Set<String> values) {
+        return (values == null) ? null : Collections.unmodifiableSet(values);
+    }
+
     /** Normaliza un conjunto: trim de cada elemento y verificación de vacío. */
     private Set<String> trimAndCheck(String key, Set<String> values) {
         Set<String> cleaned = new LinkedHashSet<>();
@@ -130,23 +162,18 @@ public final class Config {
     private void checkAlphabet(String key,
                                Set<String> values,
                                AlphabetPolicy policy,
-                               OperatorTable opTable,
-                               OperatorTable punctTable,
-                               OperatorTable groupTable) {
+                               OperatorTable symbols) {
         for (String s : values) {
             CharCursor cursor = new CharCursor(s);
             while (!cursor.eof()) {
-                if (!policy.isAllowedAt(cursor, this, opTable, punctTable, groupTable)) {
+                if (!policy.isAllowedAt(cursor)) {
                     throw new IllegalArgumentException("Símbolo fuera del alfabeto en '" + key + "': '" + s + "'");
                 }
-                String match = opTable.longestMatch(cursor);
-                if (match == null) match = punctTable.longestMatch(cursor);
-                if (match == null) match = groupTable.longestMatch(cursor);
-                if (match != null) {
-                    for (int i = 0; i < match.length(); i++) cursor.next();
-                } else {
-                    cursor.next();
-                }
+                // Mismo orden que el lexer: operadores, puntuación y luego agrupación
+                int len = symbols.category(0).longestMatchLength(cursor);
+                if (len == 0) len = symbols.category(1).longestMatchLength(cursor);
+                if (len == 0) len = symbols.category(2).longestMatchLength(cursor);
+                for (int i = 0; i < Math.max(1, len); i++) cursor.next();
             }
         }
     }
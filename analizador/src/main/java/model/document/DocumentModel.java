@@ -6,9 +6,14 @@ import java.util.List;
 import java.util.Objects;
 
 import model.lexical.LexError;
+import model.lexical.LineIndex;
 import model.lexical.Token;
+import model.lexical.TokenBuffer;
 import model.report.GeneralReport;
+import model.search.FoldedText;
 import model.search.SearchResult;
+import model.search.TokenIndex;
+import model.search.TrigramIndex;
 
 /**
  * Modelo central que representa el estado del documento que edita el usuario.
@@ -20,8 +25,14 @@ import model.search.SearchResult;
 public final class DocumentModel {
 
     private String text = "";            // texto completo en memoria
+    private long version;                 // se incrementa cada vez que cambia 'text'
+    private LineIndex lineIndex;          // índice de líneas de 'text' (perezoso)
+    private FoldedText foldedText;        // copia en minúsculas de 'text' (perezosa)
+    private TrigramIndex trigramIndex;    // índice de trigramas (opcional; null = deshabilitado)
     private Path   filePath;              // ruta del archivo abierto (puede ser null)
     private List<Token> tokens = List.of();
+    private TokenBuffer tokenBuffer;      // buffer del último análisis (puede ser null)
+    private TokenIndex tokenIndex;        // índice lexema/tipo de 'tokenBuffer' (perezoso)
     private List<LexError> errors = List.of();
     private SearchResult searchResult;    // última búsqueda realizada
     private GeneralReport generalReport;  // último reporte general generado
@@ -32,8 +43,70 @@ public final class DocumentModel {
         return text;
     }
 
+    /**
+     * Reemplaza el texto. Si el contenido es el mismo se conserva la instancia
+     * actual: los índices comparan por identidad y no vuelven a recorrerlo.
+     */
     public void setText(String text) {
-        this.text = Objects.requireNonNull(text, "text no puede ser null");
+        Objects.requireNonNull(text, "text no puede ser null");
+        if (text.equals(this.text)) return;
+        // El índice y la copia plegada corresponden al texto anterior
+        this.text = text;
+        this.lineIndex = null;
+        this.foldedText = null;
+        this.version++;
+        if (trigramIndex != null) {
+            trigramIndex.setText(text); // se pone al día en la próxima búsqueda
+        }
+    }
+
+    /**
+     * Versión del texto: cambia cada vez que {@link #setText(String)} recibe
+     * un contenido distinto (asignar el mismo texto no la altera). Permite
+     * saber si el texto cambió sin compararlo.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Índice de líneas del texto actual. Se construye una sola vez por texto
+     * y se comparte entre análisis, búsqueda y reportes.
+     */
+    public LineIndex getLineIndex() {
+        if (lineIndex == null) {
+            lineIndex = new LineIndex(text);
+        }
+        return lineIndex;
+    }
+
+    /**
+     * Copia en minúsculas del texto actual para búsquedas insensibles a
+     * mayúsculas. Se pliega una sola vez por versión del texto (al primer uso)
+     * y se reutiliza entre consultas.
+     */
+    public FoldedText getFoldedText() {
+        if (foldedText == null) {
+            foldedText = new FoldedText(text);
+        }
+        return foldedText;
+    }
+
+    /**
+     * Habilita o deshabilita el índice de trigramas del texto. Sobrevive a los
+     * cambios de texto: cada edición reindexa solo los bloques que toca.
+     */
+    public void setTrigramIndexEnabled(boolean enabled) {
+        if (!enabled) {
+            trigramIndex = null;
+        } else if (trigramIndex == null) {
+            trigramIndex = new TrigramIndex(text);
+        }
+    }
+
+    /** Índice de trigramas del texto, o null si está deshabilitado. */
+    public TrigramIndex getTrigramIndex() {
+        return trigramIndex;
     }
 
     public Path getFilePath() {
@@ -65,6 +138,34 @@ public final class DocumentModel {
 
     public void setTokens(List<Token> tokens) {
         this.tokens = (tokens == null) ? List.of() : List.copyOf(tokens);
+        this.tokenBuffer = null;
+        this.tokenIndex = null;
+    }
+
+    /**
+     * Guarda el buffer columnar sin copiar: getTokens() pasa a ser una vista
+     * perezosa sobre él.
+     */
+    public void setTokens(TokenBuffer buffer) {
+        this.tokenBuffer = buffer;
+        this.tokenIndex = null;
+        this.tokens = (buffer == null) ? List.of() : buffer.asList();
+    }
+
+    /** Buffer de tokens del último análisis, o null si no hay. */
+    public TokenBuffer getTokenBuffer() {
+        return tokenBuffer;
+    }
+
+    /**
+     * Índice por lexema y tipo de los tokens del último análisis; se construye
+     * al primer uso. Null si no hay buffer (tokens dados como lista).
+     */
+    public TokenIndex getTokenIndex() {
+        if (tokenIndex == null && tokenBuffer != null) {
+            tokenIndex = new TokenIndex(tokenBuffer);
+        }
+        return tokenIndex;
     }
 
     /** Lista inmutable de errores léxicos. */
@@ -84,6 +185,8 @@ public final class DocumentModel {
     /** Limpia tokens y errores (p.ej. antes de un nuevo análisis). */
     public void clearAnalysis() {
         tokens = List.of();
+        tokenBuffer = null;
+        tokenIndex = null;
         errors = List.of();
         generalReport = null;
     }
@@ -0,0 +1,134 @@
+package model.lexical;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Índice de inicios de línea de un texto: traduce desplazamientos 0-based a
+ * {@link Position} (línea/columna 1-based) con búsqueda binaria.
+ *
+ * Reglas (idénticas al conteo histórico de CharCursor):
+ * - CR, LF y la secuencia CRLF cuentan como UN salto de línea.
+ * - La columna es 1 + distancia al inicio de la línea.
+ * - El LF de un CRLF se ubica ya en la línea siguiente, columna 1.
+ *
+ * El arreglo de inicios se construye de forma perezosa en la primera consulta
+ * y se reutiliza después; pensado para construirse una sola vez por texto y
+ * compartirse (lexer, búsqueda, coloreo, reportes).
+ */
+public final class LineIndex {
+
+    private final CharSequence text;
+
+    // Inicios de línea (0-based); null hasta la primera consulta
+    private volatile int[] lineStarts;
+
+    /**
+     * @param text texto a indexar (no null; no debe cambiar mientras se use)
+     */
+    public LineIndex(CharSequence text) {
+        this.text = Objects.requireNonNull(text, "text no puede ser null");
+    }
+
+    /** Texto indexado. */
+    public CharSequence text() {
+        return text;
+    }
+
+    /** Cantidad de líneas (un texto vacío tiene 1). */
+    public int lineCount() {
+        return starts().length;
+    }
+
+    /** Desplazamiento 0-based del inicio de la línea 1-based indicada. */
+    public int lineStart(int line) {
+        int[] starts = starts();
+        if (line < 1 || line > starts.length) {
+            throw new IllegalArgumentException("Línea fuera de rango: " + line);
+        }
+        return starts[line - 1];
+    }
+
+    /** Línea 1-based del desplazamiento indicado (0..length). */
+    public int line(int offset) {
+        return lineIndexOf(offset) + 1;
+    }
+
+    /** Columna 1-based del desplazamiento indicado (0..length). */
+    public int column(int offset) {
+        return columnAt(offset, lineIndexOf(offset));
+    }
+
+    /** Posición (línea/columna 1-based) del desplazamiento indicado. */
+    public Position position(int offset) {
+        int line = lineIndexOf(offset);
+        return new Position(line + 1, columnAt(offset, line));
+    }
+
+    /**
+     * Desplazamiento 0-based de una posición (inverso de position); las
+     * posiciones fuera de rango se acotan al texto.
+     */
+    public int offsetOf(Position pos) {
+        Objects.requireNonNull(pos, "pos no puede ser null");
+        int[] starts = starts();
+        if (pos.linea() > starts.length) return text.length();
+        return Math.min(text.length(), starts[pos.linea() - 1] + pos.columna() - 1);
+    }
+
+    /** Línea 0-based que contiene al desplazamiento. */
+    private int lineIndexOf(int offset) {
+        if (offset < 0 || offset > text.length()) {
+            throw new IndexOutOfBoundsException("Desplazamiento fuera del texto: " + offset);
+        }
+        int[] starts = starts();
+        // El LF de un CRLF pertenece (como en CharCursor) al inicio de la línea siguiente
+        int key = (offset > 0 && offset < text.length()
+                && text.charAt(offset) == '\n' && text.charAt(offset - 1) == '\r') ? offset + 1 : offset;
+        int lo = 0, hi = starts.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (starts[mid] <= key) lo = mid;
+            else hi = mid - 1;
+        }
+        return lo;
+    }
+
+    /** Columna 1-based de 'offset' en la línea 0-based 'line' (el LF de un CRLF queda en 1). */
+    private int columnAt(int offset, int line) {
+        return Math.max(0, offset - starts()[line]) + 1;
+    }
+
+    private int[] starts() {
+        int[] s = lineStarts;
+        if (s == null) {
+            s = computeLineStarts(text);
+            lineStarts = s;
+        }
+        return s;
+    }
+
+    /** Inicios de línea (0-based) tratando CR/LF/CRLF como un salto. */
+    private static int[] computeLineStarts(CharSequence text) {
+        int n = text.length();
+        int[] tmp = new int[16];
+        int count = 0;
+        tmp[count++] = 0; // primera línea siempre inicia en 0
+
+        for (int i = 0; i < n; i++) {
+            char ch = text.charAt(i);
+            int next;
+            if (ch == '\r') {
+                // CRLF: un solo salto (la siguiente línea empieza tras el '\n')
+                next = (i + 1 < n && text.charAt(i + 1) == '\n') ? ++i + 1 : i + 1;
+            } else if (ch == '\n') {
+                next = i + 1;
+            } else {
+                continue;
+            }
+            if (count == tmp.length) tmp = Arrays.copyOf(tmp, count * 2);
+            tmp[count++] = next;
+        }
+        return Arrays.copyOf(tmp, count);
+    }
+}
@@ -0,0 +1,145 @@
+package model.lexical;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Tabla de símbolos de un análisis: asigna a cada lexema distinto un id
+ * entero denso (0, 1, 2, ... en orden de primera aparición).
+ *
+ * Decisiones:
+ * - El lexema NO se copia al internarlo: de cada id se guarda solo el rango
+ * de su primera aparición en el texto fuente, su longitud y su hash. El
+ * String se materializa una sola vez, al pedirlo con {@link #lexeme(int)}, y
+ * lo comparten todas las apariciones (filas, recuento, exportación).
+ * - Búsqueda por tabla hash de direccionamiento abierto (capacidad potencia de
+ * dos, carga &lt;= 1/2) que compara directamente sobre el texto fuente, sin
+ * construir claves.
+ * - La llena el lexer a través de {@link TokenBuffer#add}; no es segura para
+ * escrituras concurrentes.
+ */
+public final class SymbolTable {
+
+    private final CharSequence source;
+
+    // Por id
+    private int[] starts = new int[16];
+    private int[] lengths = new int[16];
+    private int[] hashes = new int[16];
+    private String[] lexemes = new String[16];
+    private int size;
+
+    // Slots: id + 1 (0 = vacío)
+    private int[] slots = new int[32];
+
+    /**
+     * @param source texto del que se internan los lexemas (no null)
+     */
+    public SymbolTable(CharSequence source) {
+        this.source = Objects.requireNonNull(source, "source no puede ser null");
+    }
+
+    /**
+     * Devuelve el id del lexema source[start, start + length), creándolo si es
+     * la primera vez que aparece.
+     */
+    public int intern(int start, int length) {
+        int h = hash(source, start, length);
+        int mask = slots.length - 1;
+        int i = h & mask;
+        for (int s; (s = slots[i]) != 0; i = (i + 1) & mask) {
+            int id = s - 1;
+            if (hashes[id] == h && lengths[id] == length
+                    && sameChars(source, starts[id], source, start, length)) {
+                return id;
+            }
+        }
+
+        if (size == starts.length) {
+            int cap = size * 2;
+            starts = Arrays.copyOf(starts, cap);
+            lengths = Arrays.copyOf(lengths, cap);
+            hashes = Arrays.copyOf(hashes, cap);
+            lexemes = Arrays.copyOf(lexemes, cap);
+        }
+        int id = size++;
+        starts[id] = start;
+        lengths[id] = length;
+        hashes[id] = h;
+        slots[i] = id + 1;
+        if (size * 2 > slots.length) rehash();
+        return id;
+    }
+
+    /**
+     * Id de un lexema dado como texto, o -1 si no apareció en el análisis
+     * (p. ej. para saber si un símbolo de config.json se usó).
+     */
+    public int find(CharSequence lexeme) {
+        if (lexeme == null) return -1;
+        int length = lexeme.length();
+        int h = hash(lexeme, 0, length);
+        int mask = slots.length - 1;
+        for (int i = h & mask, s; (s = slots[i]) != 0; i = (i + 1) & mask) {
+            int id = s - 1;
+            if (hashes[id] == h && lengths[id] == length
+                    && sameChars(source, starts[id], lexeme, 0, length)) {
+                return id;
+            }
+        }
+        return -1;
+    }
+
+    /** Cantidad de lexemas distintos. */
+    public int size() {
+        return size;
+    }
+
+    /** Longitud del lexema con ese id. */
+    public int length(int id) {
+        checkId(id);
+        return lengths[id];
+    }
+
+    /** Lexema con ese id; se copia del texto fuente la primera vez y luego se reutiliza. */
+    public String lexeme(int id) {
+        checkId(id);
+        String s = lexemes[id];
+        if (s == null) {
+            s = source.subSequence(starts[id], starts[id] + lengths[id]).toString();
+            lexemes[id] = s;
+        }
+        return s;
+    }
+
+    private void rehash() {
+        int[] grown = new int[slots.length * 2];
+        int mask = grown.length - 1;
+        for (int id = 0; id < size; id++) {
+            int i = hashes[id] & mask;
+            while (grown[i] != 0) i = (i + 1) & mask;
+            grown[i] = id + 1;
+        }
+        slots = grown;
+    }
+
+    /** Polinomio de String.hashCode, con los bits altos mezclados hacia los bajos. */
+    private static int hash(CharSequence text, int start, int length) {
+        int h = 0;
+        for (int k = 0; k < length; k++) h = 31 * h + text.charAt(start + k);
+        return h ^ (h >>> 16);
+    }
+
+    private static boolean sameChars(CharSequence a, int aStart, CharSequence b, int bStart, int length) {
+        for (int k = 0; k < length; k++) {
+            if (a.charAt(aStart + k) != b.charAt(bStart + k)) return false;
+        }
+        return true;
+    }
+
+    private void checkId(int id) {
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException("Id de símbolo fuera de rango: " + id);
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package model.lexical;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Almacenamiento columnar de los tokens de un análisis.
+ *
+ * En lugar de un {@link Token} (con su {@link Position} y su String) por
+ * token, guarda cada atributo en un arreglo primitivo que crece por
+ * duplicación:
+ * - tipo: byte[] (ordinal de {@link TokenType}).
+ * - inicio y longitud del lexema: int[] (desplazamientos 0-based en el texto).
+ * - id del lexema: int[] (internado en la {@link SymbolTable} del análisis).
+ *
+ * El lexema NO se copia: se materializa bajo demanda desde el texto fuente
+ * ({@link #lexeme(int)}), una sola vez por lexema distinto gracias a la tabla
+ * de símbolos. Recuento, "no utilizados" y exportación trabajan sobre los
+ * ids. Tampoco se guardan línea/columna: se derivan del desplazamiento con
+ * el {@link LineIndex} compartido solo al mostrar o exportar.
+ * {@link #asList()} ofrece una vista List&lt;Token&gt; perezosa para el
+ * código que aún trabaja con registros.
+ *
+ * Solo el lexer agrega tokens; una vez entregado el buffer se trata como
+ * inmutable.
+ */
+public final class TokenBuffer {
+
+    private static final TokenType[] TYPES = TokenType.values();
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final CharSequence source;
+    private final LineIndex lineIndex;
+    private final SymbolTable symbols;
+
+    private byte[] types;
+    private int[] starts;
+    private int[] lengths;
+    private int[] ids;
+    private int size;
+
+    /**
+     * Crea un buffer vacío sobre el texto fuente indicado.
+     *
+     * @param source texto del que se extraen los lexemas (no null)
+     */
+    public TokenBuffer(CharSequence source) {
+        this(source, new LineIndex(Objects.requireNonNull(source, "source no puede ser null")), DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Crea un buffer vacío con capacidad inicial.
+     *
+     * @param source          texto del que se extraen los lexemas (no null)
+     * @param lineIndex       índice de líneas de ese mismo texto (no null)
+     * @param initialCapacity cantidad de tokens esperada (>= 0)
+     */
+    public TokenBuffer(CharSequence source, LineIndex lineIndex, int initialCapacity) {
+        this(source, lineIndex, new SymbolTable(Objects.requireNonNull(source, "source no puede ser null")),
+                initialCapacity);
+    }
+
+    private TokenBuffer(CharSequence source, LineIndex lineIndex, SymbolTable symbols, int initialCapacity) {
+        this.source = Objects.requireNonNull(source, "source no puede ser null");
+        this.lineIndex = Objects.requireNonNull(lineIndex, "lineIndex no puede ser null");
+        this.symbols = symbols;
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("La capacidad inicial debe ser >= 0");
+        }
+        int cap = Math.max(initialCapacity, 1);
+        this.types = new byte[cap];
+        this.starts = new int[cap];
+        this.lengths = new int[cap];
+        this.ids = new int[cap];
+    }
+
+    /**
+     * Agrega un token.
+     *
+     * @param type   tipo (no null)
+     * @param start  desplazamiento 0-based del inicio del lexema
+     * @param length longitud del lexema
+     */
+    public void add(TokenType type, int start, int length) {
+        Objects.requireNonNull(type, "El tipo de token no puede ser null");
+        if (start < 0 || length < 0 || start + length > source.length()) {
+            throw new IllegalArgumentException("Rango de lexema fuera del texto: " + start + "+" + length);
+        }
+        if (size == types.length) grow();
+        types[size] = (byte) type.ordinal();
+        starts[size] = start;
+        lengths[size] = length;
+        ids[size] = symbols.intern(start, length);
+        size++;
+    }
+
+    /**
+     * Agrega al final los tokens [from, to) de otro buffer sobre el mismo
+     * texto (empalme de análisis parciales; copia solo arreglos primitivos).
+     *
+     * @param other buffer de origen (no null)
+     * @param from  primer token a copiar (inclusive)
+     * @param to    último token a copiar (exclusivo)
+     */
+    public void append(TokenBuffer other, int from, int to) {
+        Objects.requireNonNull(other, "other no puede ser null");
+        if (other.source.length() != source.length()) {
+            throw new IllegalArgumentException("Los buffers no comparten el mismo texto.");
+        }
+        if (from < 0 || to > other.size || from > to) {
+            throw new IndexOutOfBoundsException("Rango de tokens inválido: " + from + "-" + to);
+        }
+        int n = to - from;
+        while (size + n > types.length) grow();
+        System.arraycopy(other.types, from, types, size, n);
+        System.arraycopy(other.starts, from, starts, size, n);
+        System.arraycopy(other.lengths, from, lengths, size, n);
+        if (other.symbols == symbols) {
+            System.arraycopy(other.ids, from, ids, size, n);
+        } else {
+            // Otra tabla de símbolos: traducir cada id una sola vez
+            int[] remap = new int[other.symbols.size()];
+            for (int k = 0; k < n; k++) {
+                int id = other.ids[from + k];
+                if (remap[id] == 0) remap[id] = symbols.intern(other.starts[from + k], other.lengths[from + k]) + 1;
+                ids[size + k] = remap[id] - 1;
+            }
+        }
+        size += n;
+    }
+
+    private void grow() {
+        int cap = types.length * 2;
+        types = Arrays.copyOf(types, cap);
+        starts = Arrays.copyOf(starts, cap);
+        lengths = Arrays.copyOf(lengths, cap);
+        ids = Arrays.copyOf(ids, cap);
+    }
+
+    /** Texto fuente de los lexemas. */
+    public CharSequence source() {
+        return source;
+    }
+
+    /** Índice de líneas compartido con el que se derivan las posiciones. */
+    public LineIndex lineIndex() {
+        return lineIndex;
+    }
+
+    /** Tabla de símbolos del análisis (compartida por las copias de {@link #without}). */
+    public SymbolTable symbols() {
+        return symbols;
+    }
+
+    /** Cantidad de tokens. */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** Tipo del token i. */
+    public TokenType type(int i) {
+        checkIndex(i);
+        return TYPES[types[i]];
+    }
+
+    /** Desplazamiento 0-based del inicio del lexema i. */
+    public int start(int i) {
+        checkIndex(i);
+        return starts[i];
+    }
+
+    /** Longitud del lexema i. */
+    public int length(int i) {
+        checkIndex(i);
+        return lengths[i];
+    }
+
+    /** Desplazamiento 0-based (exclusivo) del fin del lexema i. */
+    public int end(int i) {
+        checkIndex(i);
+        return starts[i] + lengths[i];
+    }
+
+    /** Id del lexema i en {@link #symbols()}. */
+    public int id(int i) {
+        checkIndex(i);
+        return ids[i];
+    }
+
+    /** Línea 1-based del inicio del token i (búsqueda binaria en el índice). */
+    public int line(int i) {
+        checkIndex(i);
+        return lineIndex.line(starts[i]);
+    }
+
+    /** Columna 1-based del inicio del token i. */
+    public int column(int i) {
+        checkIndex(i);
+        return lineIndex.column(starts[i]);
+    }
+
+    /** Posición del token i (se calcula en cada llamada). */
+    public Position position(int i) {
+        checkIndex(i);
+        return lineIndex.position(starts[i]);
+    }
+
+    /** Lexema del token i (un mismo String para todas las apariciones). */
+    public String lexeme(int i) {
+        checkIndex(i);
+        return symbols.lexeme(ids[i]);
+    }
+
+    /** Materializa el token i como registro {@link Token}. */
+    public Token token(int i) {
+        return new Token(type(i), lexeme(i), position(i));
+    }
+
+    /**
+     * Copia del buffer sin los tokens del tipo indicado (p. ej. COMMENT para
+     * los reportes). Solo copia arreglos primitivos; comparte el texto fuente
+     * y la tabla de símbolos.
+     */
+    public TokenBuffer without(TokenType type) {
+        Objects.requireNonNull(type, "type no puede ser null");
+        byte skip = (byte) type.ordinal();
+        TokenBuffer out = new TokenBuffer(source, lineIndex, symbols, size);
+        for (int i = 0; i < size; i++) {
+            if (types[i] == skip) continue;
+            int k = out.size++;
+            out.types[k] = types[i];
+            out.starts[k] = starts[i];
+            out.lengths[k] = lengths[i];
+            out.ids[k] = ids[i];
+        }
+        return out;
+    }
+
+    /**
+     * Vista inmodificable como List&lt;Token&gt;: cada get(i) materializa el
+     * token en ese momento (no se guardan los registros).
+     */
+    public List<Token> asList() {
+        return new AbstractList<>() {
+            @Override
+            public Token get(int index) {
+                return token(index);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private void checkIndex(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Índice de token fuera de rango: " + i);
+        }
+    }
+}
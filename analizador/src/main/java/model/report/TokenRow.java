@@ -2,6 +2,7 @@ package model.report;
 
 import java.util.Objects;
 
+import model.lexical.LineIndex;
 import model.lexical.Position;
 import model.lexical.TokenType;
 
@@ -12,19 +13,35 @@ import model.lexical.TokenType;
  *  - Posición (línea/columna) del INICIO del lexema
  *
  * La guía pide mostrar estos tres campos cuando NO hay errores.
+ * La posición puede venir ya calculada o como desplazamiento + índice de
+ * líneas; en ese caso se calcula al pedirla (al mostrar o exportar la fila).
  */
 public final class TokenRow {
     private final TokenType nombreToken;
     private final String lexema;
-    private final Position posicion;
+    private final Position posicion;   // null si se deriva de offset
+    private final int offset;
+    private final LineIndex lineas;
 
     public TokenRow(TokenType nombreToken, String lexema, Position posicion) {
         this.nombreToken = Objects.requireNonNull(nombreToken, "nombreToken no puede ser null");
         this.lexema = Objects.requireNonNull(lexema, "lexema no puede ser null");
         this.posicion = Objects.requireNonNull(posicion, "posicion no puede ser null");
+        this.offset = -1;
+        this.lineas = null;
+    }
+
+    /** Fila cuya posición se calcula bajo demanda desde el desplazamiento. */
+    public TokenRow(TokenType nombreToken, String lexema, int offset, LineIndex lineas) {
+        this.nombreToken = Objects.requireNonNull(nombreToken, "nombreToken no puede ser null");
+        this.lexema = Objects.requireNonNull(lexema, "lexema no puede ser null");
+        this.lineas = Objects.requireNonNull(lineas, "lineas no puede ser null");
+        if (offset < 0) throw new IllegalArgumentException("offset debe ser >= 0");
+        this.offset = offset;
+        this.posicion = null;
     }
 
     public TokenType nombreToken() { return nombreToken; }
     public String lexema() { return lexema; }
-    public Position posicion() { return posicion; }
+    public Position posicion() { return (posicion != null) ? posicion : lineas.position(offset); }
 }
@@ -0,0 +1,75 @@
+package model.search;
+
+import java.util.Objects;
+
+/**
+ * Copia en minúsculas de un texto para búsquedas insensibles a mayúsculas:
+ * con ella, comparar "sin distinguir mayúsculas" es comparar chars iguales.
+ *
+ * Decisiones:
+ * - Se pliega por code point con {@link Character#toLowerCase(int)}, la misma
+ * regla que usa la búsqueda por code points.
+ * - Esa regla nunca cambia la longitud UTF-16 (las mayúsculas/minúsculas de
+ * Unicode no cruzan planos), así que los desplazamientos de la copia son los
+ * del texto original y no hace falta un mapa de offsets.
+ * - La copia se construye de forma perezosa en la primera consulta (puede ser
+ * en un hilo de fondo) y se reutiliza, como {@link model.lexical.LineIndex}.
+ */
+public final class FoldedText {
+
+    private final String source;
+
+    // Copia plegada; null hasta la primera consulta
+    private volatile String folded;
+
+    /**
+     * @param source texto original (no null)
+     */
+    public FoldedText(String source) {
+        this.source = Objects.requireNonNull(source, "source no puede ser null");
+    }
+
+    /** Texto original. */
+    public String source() {
+        return source;
+    }
+
+    /** Texto plegado a minúsculas (mismas posiciones que el original). */
+    public String text() {
+        String f = folded;
+        if (f == null) {
+            f = fold(source);
+            folded = f;
+        }
+        return f;
+    }
+
+    /**
+     * Pliega un texto a minúsculas code point a code point. Si no cambia
+     * nada devuelve la misma instancia.
+     */
+    public static String fold(String s) {
+        int n = s.length();
+        int i = 0;
+        // Prefijo que ya está en minúsculas: no se copia
+        while (i < n) {
+            int cp = s.codePointAt(i);
+            if (Character.toLowerCase(cp) != cp) break;
+            i += Character.charCount(cp);
+        }
+        if (i == n) return s;
+
+        char[] out = new char[n];
+        s.getChars(0, i, out, 0);
+        while (i < n) {
+            char c = s.charAt(i);
+            if (c < 128) {
+                out[i++] = (c >= 'A' && c <= 'Z') ? (char) (c + ('a' - 'A')) : c;
+                continue;
+            }
+            int cp = s.codePointAt(i);
+            i += Character.toChars(Character.toLowerCase(cp), out, i);
+        }
+        return new String(out);
+    }
+}
@@ -2,20 +2,26 @@ package model.search;
 
 import java.util.Objects;
 
+import model.lexical.LineIndex;
 import model.lexical.Position;
 
 /**
  * Representa un rango de coincidencia dentro del texto:
  *  - startIndex y endIndex son índices 0-based (endIndex es INCLUSIVO).
- *  - startPosition y endPosition son posiciones 1-based (línea/columna).
+ *  - startPosition y endPosition son posiciones 1-based (línea/columna); si
+ *    se construye con un {@link LineIndex} se calculan al pedirlas.
+ *  - patternIndex indica qué patrón coincidió en una búsqueda de varios
+ *    patrones (índice en la lista consultada); -1 en búsquedas de uno solo.
  *
  * Esta clase es de modelo puro (sin lógica).
  */
 public final class MatchRange {
     private final int startIndex;
     private final int endIndex; // inclusivo
-    private final Position startPosition;
+    private final Position startPosition; // null si se derivan de 'lines'
     private final Position endPosition;
+    private final LineIndex lines;
+    private final int patternIndex;
 
     public MatchRange(int startIndex, int endIndex, Position startPosition, Position endPosition) {
         if (startIndex < 0 || endIndex < startIndex) {
@@ -25,10 +31,34 @@ public final class MatchRange {
         this.endIndex = endIndex;
         this.startPosition = Objects.requireNonNull(startPosition, "startPosition no puede ser null");
         this.endPosition = Objects.requireNonNull(endPosition, "endPosition no puede ser null");
+        this.lines = null;
+        this.patternIndex = -1;
+    }
+
+    /** Rango cuyas posiciones se derivan bajo demanda del índice de líneas. */
+    public MatchRange(int startIndex, int endIndex, LineIndex lines) {
+        this(startIndex, endIndex, lines, -1);
+    }
+
+    /**
+     * Rango de una búsqueda de varios patrones, etiquetado con el índice del
+     * patrón que coincidió.
+     */
+    public MatchRange(int startIndex, int endIndex, LineIndex lines, int patternIndex) {
+        if (startIndex < 0 || endIndex < startIndex) {
+            throw new IllegalArgumentException("Rango inválido: startIndex debe ser >= 0 y endIndex >= startIndex.");
+        }
+        this.startIndex = startIndex;
+        this.endIndex = endIndex;
+        this.lines = Objects.requireNonNull(lines, "lines no puede ser null");
+        this.startPosition = null;
+        this.endPosition = null;
+        this.patternIndex = patternIndex;
     }
 
     public int startIndex() { return startIndex; }
     public int endIndex()   { return endIndex; }
-    public Position startPosition() { return startPosition; }
-    public Position endPosition()   { return endPosition; }
+    public Position startPosition() { return (startPosition != null) ? startPosition : lines.position(startIndex); }
+    public Position endPosition()   { return (endPosition != null) ? endPosition : lines.position(endIndex); }
+    public int patternIndex() { return patternIndex; }
 }
@@ -0,0 +1,117 @@
+package model.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import model.lexical.LineIndex;
+import model.lexical.TokenBuffer;
+import model.lexical.TokenType;
+
+/**
+ * Índice de los tokens de un análisis para búsquedas por lexema y/o tipo
+ * ("todos los IDENTIFICADORES x", "todos los OPERADORES %") sin recorrer el
+ * texto: cada consulta cuesta lo que las apariciones del lexema (o del tipo)
+ * consultado.
+ *
+ * Decisiones:
+ * - Se indexa el {@link TokenBuffer}, no la lista de {@link model.lexical.Token}:
+ * sus lexemas ya están internados en la {@link model.lexical.SymbolTable}
+ * del análisis y sus tokens guardan el desplazamiento en el texto.
+ * - Lexema -> tokens y tipo -> tokens se guardan como listas contiguas
+ * (conteo y desplazamientos por id / ordinal, en orden de texto), con dos
+ * int[] por agrupación en lugar de un mapa de listas.
+ * - Los lexemas se comparan exactos, como los distingue el lexer.
+ * - Los resultados son los mismos {@link MatchRange}/{@link SearchResult}
+ * de la búsqueda por texto, con posiciones derivadas del {@link LineIndex}
+ * del análisis.
+ */
+public final class TokenIndex {
+
+    private static final int TYPE_COUNT = TokenType.values().length;
+
+    private final TokenBuffer buffer;
+
+    // Tokens de cada lexema: byLexeme[byLexemeStart[id] .. byLexemeStart[id + 1])
+    private final int[] byLexemeStart;
+    private final int[] byLexeme;
+
+    // Tokens de cada tipo: byType[byTypeStart[ordinal] .. byTypeStart[ordinal + 1])
+    private final int[] byTypeStart;
+    private final int[] byType;
+
+    /**
+     * @param buffer tokens del análisis (no null; no debe cambiar mientras se use)
+     */
+    public TokenIndex(TokenBuffer buffer) {
+        this.buffer = Objects.requireNonNull(buffer, "buffer no puede ser null");
+        final int n = buffer.size();
+        int[] ids = new int[n];
+        int[] types = new int[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = buffer.id(i);
+            types[i] = buffer.type(i).ordinal();
+        }
+        this.byLexemeStart = new int[buffer.symbols().size() + 1];
+        this.byLexeme = group(ids, byLexemeStart);
+        this.byTypeStart = new int[TYPE_COUNT + 1];
+        this.byType = group(types, byTypeStart);
+    }
+
+    /** Buffer indexado (su texto fuente es el del análisis). */
+    public TokenBuffer buffer() {
+        return buffer;
+    }
+
+    /**
+     * Tokens con ese lexema y/o ese tipo.
+     *
+     * @param lexeme lexema exacto (null = cualquiera)
+     * @param type   tipo de token (null = cualquiera)
+     * @return coincidencias en orden de texto
+     * @throws IllegalArgumentException si lexeme y type son ambos null
+     */
+    public SearchResult find(String lexeme, TokenType type) {
+        if (lexeme == null && type == null) {
+            throw new IllegalArgumentException("Se requiere un lexema o un tipo de token.");
+        }
+        final int[] list;
+        final int from;
+        final int to;
+        if (lexeme != null) {
+            int id = buffer.symbols().find(lexeme);
+            if (id < 0) return new SearchResult(List.of());
+            list = byLexeme;
+            from = byLexemeStart[id];
+            to = byLexemeStart[id + 1];
+        } else {
+            list = byType;
+            from = byTypeStart[type.ordinal()];
+            to = byTypeStart[type.ordinal() + 1];
+        }
+
+        LineIndex lines = buffer.lineIndex();
+        var ranges = new ArrayList<MatchRange>(to - from);
+        for (int k = from; k < to; k++) {
+            int t = list[k];
+            // Un mismo lexema puede tener más de un tipo (p. ej. ERROR)
+            if (type != null && buffer.type(t) != type) continue;
+            int start = buffer.start(t);
+            ranges.add(new MatchRange(start, start + Math.max(1, buffer.length(t)) - 1, lines));
+        }
+        return new SearchResult(ranges);
+    }
+
+    /**
+     * Agrupa los índices 0..n-1 por clave (ordenamiento por conteo, estable):
+     * llena 'start' (tamaño claves + 1) y devuelve los índices agrupados.
+     */
+    private static int[] group(int[] keys, int[] start) {
+        for (int key : keys) start[key + 1]++;
+        for (int k = 1; k < start.length; k++) start[k] += start[k - 1];
+        int[] next = start.clone();
+        int[] out = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) out[next[keys[i]]++] = i;
+        return out;
+    }
+}
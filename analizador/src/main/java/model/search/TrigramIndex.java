@@ -0,0 +1,410 @@
+package model.search;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Índice invertido de trigramas del texto del documento, para que una
+ * búsqueda en textos grandes compare solo los tramos que pueden contener el
+ * patrón en lugar de recorrer todo el texto.
+ *
+ * Decisiones:
+ * - El texto se parte en bloques de ~{@link #BLOCK} chars y cada trigrama
+ * (en minúsculas) apunta a los bloques que lo contienen, no a posiciones:
+ * las listas son más cortas (~1,5 bytes por char de texto en
+ * TrigramIndexBenchmark; {@link #stats()} da la cifra real) y una edición
+ * solo reindexa los bloques que toca.
+ * - Cada bloque indexa también los trigramas que empiezan hasta
+ * {@link #OVERLAP} chars después de su fin: una coincidencia que empieza en
+ * el bloque tiene allí sus primeros trigramas aunque cruce al siguiente.
+ * - {@link #setText(String)} solo anota el texto nuevo; la actualización se
+ * hace al consultar (en el hilo de la búsqueda): prefijo y sufijo comunes
+ * con el texto indexado delimitan la edición y se reindexan esos bloques.
+ * - Los ids de bloques retirados no se reutilizan: las listas de bloques son
+ * crecientes y se intersecan por mezcla; los ids muertos se saltan y, si
+ * superan a los vivos, el índice se reconstruye entero.
+ * - Se construye de forma perezosa en la primera consulta, como
+ * {@link FoldedText} y {@link model.lexical.LineIndex}.
+ */
+public final class TrigramIndex {
+
+    /** Tamaño objetivo de bloque, en chars. */
+    public static final int BLOCK = 8192;
+
+    /** Trigramas indexados más allá del fin de cada bloque. */
+    static final int OVERLAP = 64;
+
+    /**
+     * Tamaño, memoria y volumen de listas del índice; {@code updates} cuenta
+     * las veces que se construyó o se puso al día con un texto nuevo.
+     */
+    public record Stats(int blocks, int trigrams, long postings, long memoryBytes, long updates) { }
+
+    private static final long USED = 1L << 48;   // marca de casilla ocupada en 'keys'
+
+    private static final int DIFF_CHUNK = 4096;  // tramo para comparar textos al actualizar
+
+    private volatile String text;   // texto actual del documento
+    private String indexed;         // texto que describe el índice; null = sin construir
+
+    // Bloques vivos en orden de posición y datos por id
+    private int[] order = new int[0];
+    private int blockCount;
+    private int[] startOf = new int[0];
+    private int[] lengthOf = new int[0];
+    private boolean[] alive = new boolean[0];
+    private int nextId;
+    private int deadCount;
+
+    // Trigrama -> ids de bloque crecientes (hash abierto)
+    private long[] keys;
+    private int[][] lists;
+    private int[] sizes;
+    private int trigramCount;
+    private long postingCount;
+    private long updates;
+
+    /**
+     * @param text texto inicial del documento (no null)
+     */
+    public TrigramIndex(String text) {
+        this.text = Objects.requireNonNull(text, "text no puede ser null");
+    }
+
+    /**
+     * Anota el texto nuevo del documento; el índice se pone al día en la
+     * próxima consulta.
+     */
+    public void setText(String text) {
+        this.text = Objects.requireNonNull(text, "text no puede ser null");
+    }
+
+    /**
+     * Tramos {@code [desde, hasta)} (pares ordenados y disjuntos) fuera de
+     * los cuales {@code pattern} no aparece en {@code text}.
+     *
+     * @return tramos a verificar, o null si el índice no sirve para esta
+     *         consulta (patrón de menos de 3 chars, patrón con sustitutos
+     *         insensible a mayúsculas o texto distinto del documento): buscar
+     *         en todo el texto
+     */
+    public synchronized int[] candidateWindows(String text, String pattern, boolean caseSensitive) {
+        final int m = pattern.length();
+        if (m < 3 || (!caseSensitive && hasSurrogate(pattern))) return null;
+        if (!text.equals(this.text)) return null;
+        refresh(text);
+
+        // Listas de los trigramas del patrón (sin repetir); falta una => no hay coincidencias
+        int q = Math.min(m - 3, OVERLAP - 1) + 1;
+        int[][] wanted = new int[q][];
+        int[] wantedSize = new int[q];
+        int count = 0;
+        outer:
+        for (int j = 0; j < q; j++) {
+            int slot = find(key(fold(pattern.charAt(j)), fold(pattern.charAt(j + 1)), fold(pattern.charAt(j + 2))));
+            if (slot < 0) return new int[0];
+            for (int k = 0; k < count; k++) {
+                if (wanted[k] == lists[slot]) continue outer;
+            }
+            wanted[count] = lists[slot];
+            wantedSize[count++] = sizes[slot];
+        }
+        sortBySize(wanted, wantedSize, count);
+
+        // Intersección partiendo de la lista más corta
+        final int n = text.length();
+        int[] cursor = new int[count];
+        long[] windows = new long[16];
+        int found = 0;
+        int[] shortest = wanted[0];
+        candidates:
+        for (int a = 0; a < wantedSize[0]; a++) {
+            int id = shortest[a];
+            if (!alive[id]) continue;
+            for (int k = 1; k < count; k++) {
+                int at = gallop(wanted[k], cursor[k], wantedSize[k], id);
+                cursor[k] = at;
+                if (at == wantedSize[k]) break candidates;
+                if (wanted[k][at] != id) continue candidates;
+            }
+            if (found == windows.length) windows = Arrays.copyOf(windows, found * 2);
+            int from = startOf[id];
+            int to = (int) Math.min((long) from + lengthOf[id] + m - 1, n);
+            windows[found++] = ((long) from << 32) | to;
+        }
+
+        // Por posición, uniendo tramos que se tocan
+        Arrays.sort(windows, 0, found);
+        int[] out = new int[found * 2];
+        int w = 0;
+        for (int k = 0; k < found; k++) {
+            int from = (int) (windows[k] >>> 32);
+            int to = (int) windows[k];
+            if (w > 0 && from <= out[w - 1]) {
+                out[w - 1] = Math.max(out[w - 1], to);
+            } else {
+                out[w++] = from;
+                out[w++] = to;
+            }
+        }
+        return (w == out.length) ? out : Arrays.copyOf(out, w);
+    }
+
+    /** Tamaño actual del índice (sin construirlo si aún no se consultó). */
+    public synchronized Stats stats() {
+        long bytes = 0;
+        if (keys != null) {
+            bytes += (long) keys.length * (Long.BYTES + Integer.BYTES + Integer.BYTES); // keys, sizes, referencias
+            for (int[] list : lists) {
+                if (list != null) bytes += 16 + (long) list.length * Integer.BYTES;
+            }
+        }
+        bytes += (long) order.length * Integer.BYTES
+                + (long) startOf.length * (Integer.BYTES + Integer.BYTES + 1);
+        return new Stats(blockCount, trigramCount, postingCount, bytes, updates);
+    }
+
+    /* ---------------------- construcción y edición ---------------------- */
+
+    /** Pone el índice al día con 'current' (construye o reindexa la zona editada). */
+    private void refresh(String current) {
+        String old = indexed;
+        if (old == current) return;
+        updates++;
+        if (old == null || blockCount == 0 || deadCount > Math.max(blockCount, 1024)) {
+            build(current);
+            return;
+        }
+        final int oldLen = old.length();
+        final int newLen = current.length();
+        int limit = Math.min(oldLen, newLen);
+        // Prefijo y sufijo comunes: por tramos con regionMatches y luego char a char
+        int prefix = 0;
+        while (prefix + DIFF_CHUNK <= limit && old.regionMatches(prefix, current, prefix, DIFF_CHUNK)) {
+            prefix += DIFF_CHUNK;
+        }
+        while (prefix < limit && old.charAt(prefix) == current.charAt(prefix)) prefix++;
+        if (prefix == oldLen && oldLen == newLen) {
+            indexed = current;
+            return;
+        }
+        int suffix = 0;
+        while (suffix + DIFF_CHUNK <= limit - prefix
+                && old.regionMatches(oldLen - suffix - DIFF_CHUNK, current, newLen - suffix - DIFF_CHUNK, DIFF_CHUNK)) {
+            suffix += DIFF_CHUNK;
+        }
+        while (suffix < limit - prefix && old.charAt(oldLen - 1 - suffix) == current.charAt(newLen - 1 - suffix)) {
+            suffix++;
+        }
+        replaceBlocks(current, prefix, oldLen - suffix, newLen - oldLen);
+        indexed = current;
+    }
+
+    /**
+     * Reindexa los bloques cuyos trigramas leen chars de {@code [from, oldEnd)}
+     * del texto anterior ({@code delta} = cambio de longitud).
+     */
+    private void replaceBlocks(String current, int from, int oldEnd, int delta) {
+        // Primer bloque que lee algún char >= from (incluido su solape)
+        int first = 0;
+        while (first < blockCount - 1) {
+            int id = order[first];
+            if (startOf[id] + lengthOf[id] + OVERLAP + 2 > from) break;
+            first++;
+        }
+        // Último bloque que contiene un char editado (o el punto de inserción)
+        int lastChar = Math.max(from, oldEnd - 1);
+        int last = first;
+        while (last < blockCount - 1 && startOf[order[last]] + lengthOf[order[last]] <= lastChar) last++;
+
+        int regionStart = startOf[order[first]];
+        int regionEnd = startOf[order[last]] + lengthOf[order[last]] + delta;
+        for (int k = first; k <= last; k++) {
+            alive[order[k]] = false;
+            deadCount++;
+        }
+
+        // Partir la zona en bloques nuevos de tamaño parejo
+        int len = regionEnd - regionStart;
+        int pieces = (len == 0) ? 0 : (len + BLOCK - 1) / BLOCK;
+        int[] fresh = new int[pieces];
+        for (int k = 0, at = regionStart; k < pieces; k++) {
+            int size = (len - (at - regionStart)) / (pieces - k);
+            fresh[k] = addBlock(current, at, size);
+            at += size;
+        }
+
+        int removed = last - first + 1;
+        int[] spliced = new int[blockCount - removed + pieces];
+        System.arraycopy(order, 0, spliced, 0, first);
+        System.arraycopy(fresh, 0, spliced, first, pieces);
+        System.arraycopy(order, last + 1, spliced, first + pieces, blockCount - last - 1);
+        order = spliced;
+        blockCount = spliced.length;
+
+        // Los bloques posteriores solo se desplazan
+        for (int k = first + pieces; k < blockCount; k++) {
+            startOf[order[k]] += delta;
+        }
+    }
+
+    private void build(String current) {
+        blockCount = 0;
+        startOf = new int[16];
+        lengthOf = new int[16];
+        alive = new boolean[16];
+        nextId = 0;
+        deadCount = 0;
+        keys = new long[1024];
+        lists = new int[1024][];
+        sizes = new int[1024];
+        trigramCount = 0;
+        postingCount = 0;
+
+        final int n = current.length();
+        int pieces = (n + BLOCK - 1) / BLOCK;
+        order = new int[pieces];
+        for (int at = 0; at < n; at += BLOCK) {
+            order[blockCount++] = addBlock(current, at, Math.min(BLOCK, n - at));
+        }
+        // Sin holgura de crecimiento: las ediciones posteriores vuelven a ampliar
+        for (int i = 0; i < lists.length; i++) {
+            if (lists[i] != null && lists[i].length > sizes[i]) lists[i] = Arrays.copyOf(lists[i], sizes[i]);
+        }
+        indexed = current;
+    }
+
+    /** Registra el bloque [start, start+length) de 'current' y devuelve su id. */
+    private int addBlock(String current, int start, int length) {
+        int id = nextId++;
+        if (id == startOf.length) {
+            int cap = Math.max(16, id * 2);
+            startOf = Arrays.copyOf(startOf, cap);
+            lengthOf = Arrays.copyOf(lengthOf, cap);
+            alive = Arrays.copyOf(alive, cap);
+        }
+        startOf[id] = start;
+        lengthOf[id] = length;
+        alive[id] = true;
+
+        int hi = Math.min(start + length + OVERLAP, current.length() - 2);
+        if (start >= hi) return id;
+        char a = fold(current.charAt(start));
+        char b = fold(current.charAt(start + 1));
+        for (int p = start; p < hi; p++) {
+            char c = fold(current.charAt(p + 2));
+            append(key(a, b, c), id);
+            a = b;
+            b = c;
+        }
+        return id;
+    }
+
+    /* ---------------------- tabla de trigramas ---------------------- */
+
+    private static long key(char a, char b, char c) {
+        return USED | ((long) a << 32) | ((long) b << 16) | c;
+    }
+
+    private static int hash(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 40) & mask;
+    }
+
+    /** Casilla del trigrama, o -1 si no aparece en el texto. */
+    private int find(long key) {
+        int mask = keys.length - 1;
+        for (int i = hash(key, mask); ; i = (i + 1) & mask) {
+            if (keys[i] == key) return i;
+            if (keys[i] == 0) return -1;
+        }
+    }
+
+    /** Agrega 'id' a la lista del trigrama (una vez por bloque). */
+    private void append(long key, int id) {
+        int mask = keys.length - 1;
+        int i = hash(key, mask);
+        while (keys[i] != key && keys[i] != 0) i = (i + 1) & mask;
+        if (keys[i] == 0) {
+            keys[i] = key;
+            lists[i] = new int[2];
+            if (++trigramCount * 2 > keys.length) {
+                grow();
+                append(key, id);
+                return;
+            }
+        }
+        int size = sizes[i];
+        int[] list = lists[i];
+        if (size > 0 && list[size - 1] == id) return;
+        if (size == list.length) lists[i] = list = Arrays.copyOf(list, size + (size >> 3) + 2); // holgura <= 1/8
+        list[size] = id;
+        sizes[i] = size + 1;
+        postingCount++;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[][] oldLists = lists;
+        int[] oldSizes = sizes;
+        keys = new long[oldKeys.length * 2];
+        lists = new int[keys.length][];
+        sizes = new int[keys.length];
+        int mask = keys.length - 1;
+        for (int s = 0; s < oldKeys.length; s++) {
+            if (oldKeys[s] == 0) continue;
+            int i = hash(oldKeys[s], mask);
+            while (keys[i] != 0) i = (i + 1) & mask;
+            keys[i] = oldKeys[s];
+            lists[i] = oldLists[s];
+            sizes[i] = oldSizes[s];
+        }
+    }
+
+    /* ---------------------- utilitarios internos ---------------------- */
+
+    /** Primer índice en [from, size) con list[i] >= id (búsqueda exponencial). */
+    private static int gallop(int[] list, int from, int size, int id) {
+        int step = 1;
+        int hi = from;
+        while (hi < size && list[hi] < id) {
+            from = hi + 1;
+            hi += step;
+            step <<= 1;
+        }
+        int lo = from;
+        hi = Math.min(hi, size);
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (list[mid] < id) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    private static void sortBySize(int[][] lists, int[] sizes, int count) {
+        for (int i = 1; i < count; i++) {
+            int[] l = lists[i];
+            int s = sizes[i];
+            int j = i - 1;
+            while (j >= 0 && sizes[j] > s) {
+                lists[j + 1] = lists[j];
+                sizes[j + 1] = sizes[j];
+                j--;
+            }
+            lists[j + 1] = l;
+            sizes[j + 1] = s;
+        }
+    }
+
+    private static char fold(char c) {
+        if (c < 128) return (c >= 'A' && c <= 'Z') ? (char) (c + ('a' - 'A')) : c;
+        return Character.toLowerCase(c);
+    }
+
+    private static boolean hasSurrogate(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (Character.isSurrogate(s.charAt(i))) return true;
+        }
+        return false;
+    }
+}
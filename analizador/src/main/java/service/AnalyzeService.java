@@ -1,22 +1,32 @@
 package service;
 
 import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.Objects;
 
 import core.io.TextLoader;
+import core.lexing.LexerCache;
 import core.lexing.LexerEngine;
+import core.lexing.TokenSink;
 import model.config.Config;
 import model.lexical.LexError;
+import model.lexical.LineIndex;
 import model.lexical.Token;
+import model.lexical.TokenBuffer;
 
 /**
  * Fachada mínima para ejecutar el análisis léxico sobre un texto,
  * de acuerdo con la configuración dinámica (config.json).
  *
  * Responsabilidades:
- *  - Recibir texto (o cargarlo desde archivo) y delegar a {@link LexerEngine}.
+ *  - Recibir texto (o cargarlo desde archivo) y delegar a {@link LexerEngine}
+ *    en modo PARALLEL (los textos grandes se reparten por tramos; los
+ *    pequeños se analizan igual que en modo DFA).
+ *  - Reutilizar el lexer compilado de la {@link LexerCache} mientras la
+ *    configuración no cambie.
  *  - Retornar las listas de tokens y errores (sin UI, sin reportes aquí).
  *
  * Restricciones:
@@ -25,20 +35,51 @@ import model.lexical.Token;
 public final class AnalyzeService {
 
     private final Config config;
+    private final LexerCache cache;
 
     public AnalyzeService(Config config) {
+        this(config, LexerCache.shared());
+    }
+
+    public AnalyzeService(Config config, LexerCache cache) {
         this.config = Objects.requireNonNull(config, "config no puede ser null");
+        this.cache = Objects.requireNonNull(cache, "cache no puede ser null");
     }
 
     /**
      * Analiza un texto en memoria.
      * @param text contenido a analizar
-     * @return resultado con tokens y errores (listas inmutables)
+     * @return resultado con el buffer de tokens y los errores
      */
     public Result analyzeText(String text) {
-        var lexer = new LexerEngine(config);
+        var lexer = cache.engine(config, LexerEngine.Mode.PARALLEL);
         var res = lexer.analyze(text);
-        return new Result(res.tokens(), res.errors());
+        return new Result(res.buffer(), res.errors());
+    }
+
+    /**
+     * Analiza un texto reutilizando su índice de líneas (p. ej. el cacheado en
+     * {@link model.document.DocumentModel#getLineIndex()}).
+     * @param text  contenido a analizar
+     * @param lines índice de líneas de ese mismo texto
+     * @return resultado con el buffer de tokens y los errores
+     */
+    public Result analyzeText(String text, LineIndex lines) {
+        var lexer = cache.engine(config, LexerEngine.Mode.PARALLEL);
+        var res = lexer.analyze(text, lines);
+        return new Result(res.buffer(), res.errors());
+    }
+
+    /**
+     * Validación rápida (aprobado/reprobado): solo errores y conteos por tipo,
+     * sin tokens ni lexemas; se detiene tras maxErrors errores.
+     * @param text      contenido a validar
+     * @param maxErrors límite de errores (>= 1; 1 basta para saber si está limpio)
+     * @return conteos y errores encontrados
+     */
+    public LexerEngine.Validation validateText(String text, int maxErrors) {
+        var lexer = cache.engine(config, LexerEngine.Mode.DFA);
+        return lexer.validate(text, maxErrors);
     }
 
     /**
@@ -53,6 +94,41 @@ public final class AnalyzeService {
         return analyzeText(text);
     }
 
-    /** DTO simple para exponer el resultado (tokens + errores). */
-    public record Result(List<Token> tokens, List<LexError> errors) { }
+    /**
+     * Analiza un archivo por flujo, con memoria acotada: el texto no se carga
+     * completo y cada token se entrega al sink (p. ej.
+     * {@link GradingService.Tally}) a medida que se reconoce.
+     *
+     * Hasta 2 GB el archivo se mapea y el lexer recorre directamente sus bytes
+     * (sin decodificar a chars); por encima se lee como Reader.
+     *
+     * @param path ruta del archivo (UTF-8; saltos de línea normalizados como en load)
+     * @param sink destino de tokens y errores
+     * @throws IOException si falla la lectura del archivo
+     */
+    public void analyzeFile(Path path, TokenSink sink) throws IOException {
+        var loader = new TextLoader();
+        var lexer = cache.engine(config, LexerEngine.Mode.DFA);
+        if (path != null && Files.isRegularFile(path) && Files.size(path) <= Integer.MAX_VALUE) {
+            lexer.analyze(loader.map(path), sink);
+            return;
+        }
+        try (Reader reader = loader.open(path)) {
+            lexer.analyze(reader, sink);
+        }
+    }
+
+    /** DTO simple para exponer el resultado (buffer de tokens + errores). */
+    public record Result(TokenBuffer buffer, List<LexError> errors) {
+
+        /** Resultado vacío (sin tokens ni errores). */
+        public static Result empty() {
+            return new Result(new TokenBuffer(""), List.of());
+        }
+
+        /** Vista perezosa de los tokens como registros {@link Token}. */
+        public List<Token> tokens() {
+            return buffer.asList();
+        }
+    }
 }
@@ -5,9 +5,12 @@ package service;
 import java.util.List;
 import java.util.Objects;
 
+import core.lexing.TokenSink;
 import model.config.Config;
 import model.lexical.LexError;
 import model.lexical.Token;
+import model.lexical.TokenBuffer;
+import model.lexical.TokenType;
 import model.report.GeneralReport;
 
 /**
@@ -35,13 +38,44 @@ public final class GradingService {
         Objects.requireNonNull(tokens, "tokens no puede ser null");
         Objects.requireNonNull(errors, "errors no puede ser null");
 
-        int valid = tokens.size();
-        int err = errors.size();
+        return build(config, tokens.size(), errors.size(), notUsedCalculator.compute(config, tokens));
+    }
+
+    /**
+     * Igual que {@link #build(Config, List, List)} leyendo del buffer columnar
+     * ("no utilizados" por id de la tabla de símbolos).
+     *
+     * @param config configuración dinámica (para "no utilizados")
+     * @param tokens buffer de tokens
+     * @param errors lista de errores léxicos
+     * @return GeneralReport con calificación y conjuntos "no usados"
+     */
+    public GeneralReport build(Config config, TokenBuffer tokens, List<LexError> errors) {
+        Objects.requireNonNull(config, "config no puede ser null");
+        Objects.requireNonNull(tokens, "tokens no puede ser null");
+        Objects.requireNonNull(errors, "errors no puede ser null");
+
+        return build(config, tokens.size(), errors.size(), notUsedCalculator.compute(config, tokens));
+    }
+
+    /**
+     * Construye el reporte general a partir de un {@link Tally} llenado
+     * durante el análisis (sin retener tokens ni errores).
+     *
+     * @param config configuración dinámica (para "no utilizados")
+     * @param tally  conteos acumulados
+     * @return GeneralReport con calificación y conjuntos "no usados"
+     */
+    public GeneralReport build(Config config, Tally tally) {
+        Objects.requireNonNull(config, "config no puede ser null");
+        Objects.requireNonNull(tally, "tally no puede ser null");
+        return build(config, tally.tokens, tally.errors, notUsedCalculator.compute(config, tally.usage));
+    }
+
+    private static GeneralReport build(Config config, int valid, int err, NotUsedCalculator.Result notUsed) {
         int total = valid + err;
         double percent = (total == 0) ? 100.0 : (valid * 100.0) / total;
 
-        var notUsed = notUsedCalculator.compute(config, tokens);
-
         return new GeneralReport(
                 err,
                 valid,
@@ -51,4 +85,35 @@ public final class GradingService {
                 notUsed.puntuacionNoUsada(),
                 notUsed.agrupacionNoUsada());
     }
+
+    /**
+     * Sink que solo cuenta: tokens, errores y lexemas usados de las
+     * categorías de "no utilizados". Memoria acotada por la configuración.
+     */
+    public static final class Tally implements TokenSink {
+        private final NotUsedCalculator.Usage usage = new NotUsedCalculator.Usage();
+        private int tokens;
+        private int errors;
+
+        @Override
+        public void token(TokenType type, CharSequence text, int start, int length) {
+            tokens++;
+            if (NotUsedCalculator.Usage.tracks(type)) {
+                usage.add(type, text.subSequence(start, start + length).toString());
+            }
+        }
+
+        @Override
+        public void error(CharSequence text, int start, int length, String message) {
+            errors++;
+        }
+
+        public int tokens() {
+            return tokens;
+        }
+
+        public int errors() {
+            return errors;
+        }
+    }
 }
@@ -7,10 +7,11 @@ import java.util.List;
 import java.util.Objects;
 
 import core.highlight.ColorPalette;
+import core.lexing.IncrementalLexer;
+import core.lexing.LexerCache;
 import core.lexing.LexerEngine;
 import model.config.Config;
-import model.lexical.Position;
-import model.lexical.Token;
+import model.lexical.TokenBuffer;
 import model.lexical.TokenType;
 
 /**
@@ -18,6 +19,9 @@ import model.lexical.TokenType;
  * (resaltado) para el texto de entrada.  Utiliza el {@link LexerEngine}
  * para obtener tokens (incluyendo comentarios y errores) y generar
  * instrucciones de coloreo.
+ *
+ * El lexer compilado se toma de la {@link LexerCache}: reanalizar mientras se
+ * escribe no recompila tablas ni AFD si la configuración no cambió.
  */
 public final class HighlightService {
 
@@ -31,9 +35,15 @@ public final class HighlightService {
     }
 
     private final Config config;
+    private final LexerCache cache;
 
     public HighlightService(Config config) {
+        this(config, LexerCache.shared());
+    }
+
+    public HighlightService(Config config, LexerCache cache) {
         this.config = Objects.requireNonNull(config, "config no puede ser null");
+        this.cache = Objects.requireNonNull(cache, "cache no puede ser null");
     }
 
     /**
@@ -49,59 +59,40 @@ public final class HighlightService {
         String normalized = text.replace("\r\n", "\n").replace('\r', '\n');
 
         // 1) Analizar texto para obtener tokens (incluyen comentarios y errores)
-        var lexer = new LexerEngine(config);
+        var lexer = cache.engine(config, LexerEngine.Mode.DFA);
         var result = lexer.analyze(normalized);
 
-        // 2) Precalcular inicios de línea para traducir Position -> índice
-        int[] lineStarts = computeLineStarts(normalized);
+        // 2) Tokens: el buffer ya guarda desplazamientos, no hay que traducir posiciones
+        return spans(result.buffer());
+    }
 
-        List<HighlightSpan> spans = new ArrayList<>();
+    /**
+     * Crea un relexer incremental con la configuración actual, para colorear
+     * el editor tras cada edición sin reanalizar todo el texto. Debe
+     * recrearse si cambia la configuración.
+     */
+    public IncrementalLexer newIncrementalLexer() {
+        return new IncrementalLexer(cache.engine(config, LexerEngine.Mode.DFA));
+    }
 
-        // 3) Tokens
-        for (Token t : result.tokens()) {
-            int start = positionToIndex(lineStarts, t.posicion());
-            int end = start + t.lexema().length();
-            spans.add(new HighlightSpan(start, end, colorFor(t.tipo())));
+    /**
+     * Rangos de coloreo de los tokens indicados (p. ej. los insertados por un
+     * {@link IncrementalLexer.TokenDelta}).
+     *
+     * @param tokens tokens con desplazamientos sobre el texto del editor
+     * @return lista inmutable de rangos coloreados
+     */
+    public List<HighlightSpan> spans(TokenBuffer tokens) {
+        Objects.requireNonNull(tokens, "tokens no puede ser null");
+        List<HighlightSpan> spans = new ArrayList<>(tokens.size());
+        for (int i = 0; i < tokens.size(); i++) {
+            spans.add(new HighlightSpan(tokens.start(i), tokens.end(i), colorFor(tokens.type(i))));
         }
-
         return Collections.unmodifiableList(spans);
     }
 
     /* ===================== helpers internos ===================== */
 
-    private static int[] computeLineStarts(String text) {
-        int n = text.length();
-        int[] tmp = new int[n + 1];
-        int count = 0;
-        tmp[count++] = 0;
-        for (int i = 0; i < n; i++) {
-            char ch = text.charAt(i);
-            if (ch == '\r') {
-                int next = i + 1;
-                if (next < n && text.charAt(next) == '\n') {
-                    tmp[count++] = next + 1;
-                    i = next;
-                } else {
-                    tmp[count++] = next;
-                }
-            } else if (ch == '\n') {
-                tmp[count++] = i + 1;
-            }
-        }
-        int[] starts = new int[count];
-        System.arraycopy(tmp, 0, starts, 0, count);
-        return starts;
-    }
-
-    private static int positionToIndex(int[] lineStarts, Position pos) {
-        int line = pos.linea();
-        int col = pos.columna();
-        if (line < 1 || line > lineStarts.length)
-            return 0;
-        int base = lineStarts[line - 1];
-        return base + Math.max(0, col - 1);
-    }
-
     private static Color colorFor(TokenType type) {
         return switch (type) {
             case RESERVED_WORD -> ColorPalette.RESERVED;
@@ -3,7 +3,10 @@ package service;
 import java.util.*;
 
 import model.config.Config;
+import model.lexical.SymbolTable;
 import model.lexical.Token;
+import model.lexical.TokenBuffer;
+import model.lexical.TokenType;
 
 /**
  * Calcula el conjunto de "tokens definidos pero NO utilizados" según
@@ -28,34 +31,104 @@ public final class NotUsedCalculator {
             Set<String> agrupacionNoUsada) {
     }
 
+    /**
+     * Lexemas usados por categoría; se llena token a token (p. ej. desde un
+     * {@link core.lexing.TokenSink}) sin retener la lista de tokens.
+     */
+    public static final class Usage {
+        private final Set<String> reserved = new LinkedHashSet<>();
+        private final Set<String> operators = new LinkedHashSet<>();
+        private final Set<String> punctuation = new LinkedHashSet<>();
+        private final Set<String> grouping = new LinkedHashSet<>();
+
+        /** ¿El tipo participa en el cálculo de "no usados"? */
+        public static boolean tracks(TokenType type) {
+            return type == TokenType.RESERVED_WORD || type == TokenType.OPERATOR
+                    || type == TokenType.PUNCTUATION || type == TokenType.GROUPING;
+        }
+
+        /** Registra un token usado. */
+        public void add(TokenType type, String lexeme) {
+            switch (type) {
+                case RESERVED_WORD -> reserved.add(lexeme);
+                case OPERATOR -> operators.add(lexeme);
+                case PUNCTUATION -> punctuation.add(lexeme);
+                case GROUPING -> grouping.add(lexeme);
+                default -> {
+                    /* otros tipos no aplican al cálculo de “no usados” */ }
+            }
+        }
+    }
+
     public Result compute(Config config, List<Token> tokens) {
         Objects.requireNonNull(config, "config no puede ser null");
-        Set<String> usedReserved = new LinkedHashSet<>();
-        Set<String> usedOperators = new LinkedHashSet<>();
-        Set<String> usedPunctuation = new LinkedHashSet<>();
-        Set<String> usedGrouping = new LinkedHashSet<>();
-
+        Usage usage = new Usage();
         if (tokens != null) {
             for (Token t : tokens) {
-                switch (t.tipo()) {
-                    case RESERVED_WORD -> usedReserved.add(t.lexema());
-                    case OPERATOR -> usedOperators.add(t.lexema());
-                    case PUNCTUATION -> usedPunctuation.add(t.lexema());
-                    case GROUPING -> usedGrouping.add(t.lexema());
-                    default -> {
-                        /* otros tipos no aplican al cálculo de “no usados” */ }
-                }
+                usage.add(t.tipo(), t.lexema());
             }
         }
+        return compute(config, usage);
+    }
+
+    /**
+     * Igual que {@link #compute(Config, List)} leyendo del buffer columnar:
+     * marca por id de la tabla de símbolos qué categorías se usaron (un byte
+     * por lexema distinto) y luego busca cada símbolo de la configuración por
+     * su id, sin materializar lexemas.
+     */
+    public Result compute(Config config, TokenBuffer tokens) {
+        Objects.requireNonNull(config, "config no puede ser null");
+        Objects.requireNonNull(tokens, "tokens no puede ser null");
+
+        SymbolTable symbols = tokens.symbols();
+        byte[] used = new byte[symbols.size()];
+        for (int i = 0; i < tokens.size(); i++) {
+            used[tokens.id(i)] |= bit(tokens.type(i));
+        }
+
+        return new Result(
+                diff(config.getPalabrasReservadas(), symbols, used, bit(TokenType.RESERVED_WORD)),
+                diff(config.getOperadores(), symbols, used, bit(TokenType.OPERATOR)),
+                diff(config.getPuntuacion(), symbols, used, bit(TokenType.PUNCTUATION)),
+                diff(config.getAgrupacion(), symbols, used, bit(TokenType.GROUPING)));
+    }
+
+    /** Igual que {@link #compute(Config, List)} a partir de usos ya acumulados. */
+    public Result compute(Config config, Usage usage) {
+        Objects.requireNonNull(config, "config no puede ser null");
+        Objects.requireNonNull(usage, "usage no puede ser null");
 
-        Set<String> notUsedReserved = diff(config.getPalabrasReservadas(), usedReserved);
-        Set<String> notUsedOperators = diff(config.getOperadores(), usedOperators);
-        Set<String> notUsedPunctuation = diff(config.getPuntuacion(), usedPunctuation);
-        Set<String> notUsedGrouping = diff(config.getAgrupacion(), usedGrouping);
+        Set<String> notUsedReserved = diff(config.getPalabrasReservadas(), usage.reserved);
+        Set<String> notUsedOperators = diff(config.getOperadores(), usage.operators);
+        Set<String> notUsedPunctuation = diff(config.getPuntuacion(), usage.punctuation);
+        Set<String> notUsedGrouping = diff(config.getAgrupacion(), usage.grouping);
 
         return new Result(notUsedReserved, notUsedOperators, notUsedPunctuation, notUsedGrouping);
     }
 
+    private static byte bit(TokenType type) {
+        return switch (type) {
+            case RESERVED_WORD -> 1;
+            case OPERATOR -> 2;
+            case PUNCTUATION -> 4;
+            case GROUPING -> 8;
+            default -> 0;
+        };
+    }
+
+    private static Set<String> diff(Set<String> universe, SymbolTable symbols, byte[] used, byte bit) {
+        Set<String> res = new LinkedHashSet<>();
+        if (universe != null) {
+            for (String s : universe) {
+                int id = symbols.find(s);
+                if (id < 0 || (used[id] & bit) == 0)
+                    res.add(s);
+            }
+        }
+        return res;
+    }
+
     private static Set<String> diff(Set<String> universe, Set<String> used) {
         Set<String> res = new LinkedHashSet<>();
         if (universe != null) {
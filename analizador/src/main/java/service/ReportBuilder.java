@@ -7,6 +7,8 @@ import java.util.Objects;
 
 import model.lexical.LexError;
 import model.lexical.Token;
+import model.lexical.TokenBuffer;
+import model.lexical.TokenType;
 import model.report.ErrorRow;
 import model.report.LexemeCountRow;
 import model.report.TokenRow;
@@ -72,6 +74,26 @@ public final class ReportBuilder {
         return new Result(List.of(), tokenRows, countRows);
     }
 
+    /**
+     * Misma regla que {@link #build(List, List)} leyendo directamente del
+     * buffer columnar (sin materializar registros Token).
+     */
+    public Result build(TokenBuffer tokens, List<LexError> errors) {
+        Objects.requireNonNull(tokens, "tokens no puede ser null");
+        Objects.requireNonNull(errors, "errors no puede ser null");
+
+        if (!errors.isEmpty()) {
+            return new Result(buildErrorRows(errors),
+                    List.of(),
+                    List.of());
+        }
+        // Sin errores: mostrar tokens y recuento, EXCLUYENDO comentarios
+        TokenBuffer sinComentarios = tokens.without(TokenType.COMMENT);
+        var tokenRows = buildTokenRows(sinComentarios);
+        var countRows = statsService.countByLexemeAndType(sinComentarios);
+        return new Result(List.of(), tokenRows, countRows);
+    }
+
     /** Convierte la lista de errores a filas ErrorRow. */
     public List<ErrorRow> buildErrorRows(List<LexError> errors) {
         if (errors == null || errors.isEmpty())
@@ -93,4 +115,15 @@ public final class ReportBuilder {
         }
         return Collections.unmodifiableList(rows);
     }
+
+    /** Convierte el buffer de tokens a filas TokenRow. */
+    public List<TokenRow> buildTokenRows(TokenBuffer tokens) {
+        if (tokens == null || tokens.isEmpty())
+            return List.of();
+        List<TokenRow> rows = new ArrayList<>(tokens.size());
+        for (int i = 0; i < tokens.size(); i++) {
+            rows.add(new TokenRow(tokens.type(i), tokens.lexeme(i), tokens.start(i), tokens.lineIndex()));
+        }
+        return Collections.unmodifiableList(rows);
+    }
 }
@@ -1,11 +1,17 @@
 package service;
 
+import java.util.List;
 import java.util.Objects;
 
 import core.search.SearchEngine;
 import model.config.Config;
 import model.document.DocumentModel;
+import model.lexical.LineIndex;
+import model.lexical.TokenType;
+import model.search.FoldedText;
 import model.search.SearchResult;
+import model.search.TokenIndex;
+import model.search.TrigramIndex;
 
 /**
  * Servicio de alto nivel para ejecutar búsquedas de patrones sobre el texto
@@ -38,7 +44,53 @@ public final class SearchService {
         Objects.requireNonNull(doc, "doc no puede ser null");
         String text = Objects.requireNonNull(doc.getText(), "El texto del documento no puede ser null");
 
-        SearchResult res = engine.search(text, pattern, caseSensitive, wholeWord, includeComments, config);
+        SearchResult res = engine.search(text, doc.getLineIndex(), doc.getFoldedText(), doc.getTrigramIndex(),
+                pattern, caseSensitive, wholeWord, includeComments, config);
+        doc.setSearchResult(res);
+        return res;
+    }
+
+    /**
+     * Busca todos los {@code patterns} en una sola pasada sobre el texto del
+     * documento (p. ej. todas las palabras reservadas) y almacena el
+     * resultado. Cada coincidencia indica su patrón en
+     * {@link model.search.MatchRange#patternIndex()}.
+     *
+     * @param patterns patrones a buscar (no null ni vacía)
+     * @see SearchEngine#searchAll(String, LineIndex, FoldedText, List, boolean, boolean, boolean, Config)
+     */
+    public SearchResult searchAll(DocumentModel doc,
+            List<String> patterns,
+            boolean caseSensitive,
+            boolean wholeWord,
+            boolean includeComments,
+            Config config) {
+        Objects.requireNonNull(doc, "doc no puede ser null");
+        String text = Objects.requireNonNull(doc.getText(), "El texto del documento no puede ser null");
+
+        SearchResult res = engine.searchAll(text, doc.getLineIndex(), doc.getFoldedText(), patterns, caseSensitive,
+                wholeWord, includeComments, config);
+        doc.setSearchResult(res);
+        return res;
+    }
+
+    /**
+     * Busca sobre los tokens del último análisis (sin recorrer el texto): por
+     * lexema, por tipo o por ambos, p. ej. todos los IDENTIFIER "x". Almacena
+     * el resultado en el documento.
+     *
+     * @param lexeme lexema exacto (null = cualquiera)
+     * @param type   tipo de token (null = cualquiera)
+     * @throws IllegalStateException si el documento no tiene un análisis
+     * @see TokenIndex#find(String, TokenType)
+     */
+    public SearchResult searchTokens(DocumentModel doc, String lexeme, TokenType type) {
+        Objects.requireNonNull(doc, "doc no puede ser null");
+        TokenIndex index = doc.getTokenIndex();
+        if (index == null) {
+            throw new IllegalStateException("No hay un análisis para buscar por tokens.");
+        }
+        SearchResult res = index.find(lexeme, type);
         doc.setSearchResult(res);
         return res;
     }
@@ -54,7 +106,26 @@ public final class SearchService {
      * {@link #search(DocumentModel, String, boolean, boolean, boolean, Config)}.
      */
     public SearchResult findAll(String text, String pattern, boolean caseSensitive, boolean wholeWord) {
+        Objects.requireNonNull(text, "text");
+        return findAll(text, new LineIndex(text), null, null, pattern, caseSensitive, wholeWord);
+    }
+
+    /**
+     * Igual que {@link #findAll(String, String, boolean, boolean)} reutilizando
+     * el índice de líneas, la copia en minúsculas y el índice de trigramas del
+     * texto (p. ej. los de {@link DocumentModel}, tomados en el EDT y usados en
+     * segundo plano).
+     *
+     * @param lines    índice de líneas del mismo texto (no null)
+     * @param folded   copia plegada del mismo texto (puede ser null)
+     * @param trigrams índice de trigramas del documento (puede ser null)
+     */
+    public SearchResult findAll(String text, LineIndex lines, FoldedText folded, TrigramIndex trigrams,
+            String pattern, boolean caseSensitive, boolean wholeWord) {
         return engine.search(Objects.requireNonNull(text, "text"),
+                lines,
+                folded,
+                trigrams,
                 Objects.requireNonNull(pattern, "pattern"),
                 caseSensitive,
                 wholeWord,
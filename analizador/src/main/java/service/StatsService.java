@@ -2,7 +2,9 @@ package service;
 
 import java.util.*;
 
+import model.lexical.SymbolTable;
 import model.lexical.Token;
+import model.lexical.TokenBuffer;
 import model.lexical.TokenType;
 import model.report.LexemeCountRow;
 
@@ -43,4 +45,56 @@ public final class StatsService {
         }
         return rows;
     }
+
+    /**
+     * Recuento por (lexema, tipo) leyendo del buffer columnar. Cuenta por id
+     * de la tabla de símbolos en arreglos primitivos: no se hashea ni se copia
+     * ningún lexema, y cada fila usa el String ya internado.
+     *
+     * Un lexema casi siempre tiene un único tipo; si aparece con otro (caso
+     * raro) ese par se lleva aparte.
+     *
+     * @param tokens buffer de tokens válidos
+     * @return lista de filas LexemeCountRow (orden de primera aparición)
+     */
+    public List<LexemeCountRow> countByLexemeAndType(TokenBuffer tokens) {
+        if (tokens == null || tokens.isEmpty())
+            return List.of();
+
+        SymbolTable symbols = tokens.symbols();
+        int[] counts = new int[symbols.size()];
+        TokenType[] firstType = new TokenType[symbols.size()];
+        int[] order = new int[symbols.size()];
+        int distinct = 0;
+        // id -> (otro tipo -> conteo), solo para lexemas con más de un tipo
+        Map<Integer, Map<TokenType, Integer>> others = new HashMap<>();
+
+        for (int i = 0; i < tokens.size(); i++) {
+            int id = tokens.id(i);
+            TokenType type = tokens.type(i);
+            if (firstType[id] == null) {
+                firstType[id] = type;
+                order[distinct++] = id;
+            }
+            if (firstType[id] == type) {
+                counts[id]++;
+            } else {
+                others.computeIfAbsent(id, k -> new LinkedHashMap<>()).merge(type, 1, Integer::sum);
+            }
+        }
+
+        List<LexemeCountRow> rows = new ArrayList<>(distinct + others.size());
+        for (int k = 0; k < distinct; k++) {
+            int id = order[k];
+            String lex = symbols.lexeme(id);
+            rows.add(new LexemeCountRow(lex, firstType[id], counts[id]));
+            Map<TokenType, Integer> extra = others.get(id);
+            if (extra != null) {
+                for (var e : extra.entrySet()) {
+                    rows.add(new LexemeCountRow(lex, e.getKey(), e.getValue()));
+                }
+            }
+        }
+        return rows;
+    }
 }
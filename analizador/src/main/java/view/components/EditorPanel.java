@@ -20,6 +20,8 @@ public class EditorPanel extends javax.swing.JPanel {
     private Runnable onSave;    // Ctrl+S
     private Runnable onAnalyze; // F5
 
+    private long editCount;     // cambios del documento desde la creación
+
     /**
      * Creates new form EditorPanel
      */
@@ -38,6 +40,22 @@ public class EditorPanel extends javax.swing.JPanel {
         txtEditor.setCaretPosition(0);
         txtEditor.setDragEnabled(true);
         scrollEditor.setWheelScrollingEnabled(true);
+        txtEditor.getDocument().addDocumentListener(new javax.swing.event.DocumentListener() {
+            @Override
+            public void insertUpdate(javax.swing.event.DocumentEvent e) {
+                editCount++;
+            }
+
+            @Override
+            public void removeUpdate(javax.swing.event.DocumentEvent e) {
+                editCount++;
+            }
+
+            @Override
+            public void changedUpdate(javax.swing.event.DocumentEvent e) {
+                // solo atributos (coloreo): el texto no cambia
+            }
+        });
 
         // Instalar atajos estándar (delegan en handlers inyectados)
         installKeyBindings();
@@ -114,6 +132,14 @@ public class EditorPanel extends javax.swing.JPanel {
         return txtEditor.getText();
     }
 
+    /**
+     * Contador de cambios del texto (inserciones y borrados; no atributos).
+     * Si no cambió, {@link #getEditorText()} devolvería el mismo contenido.
+     */
+    public long getEditCount() {
+        return editCount;
+    }
+
     /**
      * Reemplaza el texto del editor (caret al inicio).
      */
@@ -192,6 +218,22 @@ public class EditorPanel extends javax.swing.JPanel {
         }
     }
 
+    /**
+     * Restaura atributos por defecto solo en el rango indicado (coloreo
+     * incremental).
+     */
+    public void resetAttributes(int start, int length) {
+        if (length <= 0) {
+            return;
+        }
+        try {
+            SimpleAttributeSet def = new SimpleAttributeSet();
+            getStyledDocument().setCharacterAttributes(start, length, def, true);
+        } catch (Exception ex) {
+            Logger.getLogger(EditorPanel.class.getName()).log(Level.WARNING, "Error restableciendo atributos", ex);
+        }
+    }
+
     /**
      * Actualiza la barra de estado (posiciones) con texto formateado desde el
      * Controller.
@@ -21,6 +21,10 @@ public class SearchPanel extends javax.swing.JPanel {
     private Runnable onPrev;     // Anterior (Shift+F3 / Shift+Enter)
     private Runnable onClose;    // Cerrar (Esc)
 
+    // Ámbito de búsqueda: texto o un tipo de token (se agrega fuera del código generado)
+    private static final String SCOPE_TEXT = "Texto";
+    private final JComboBox<Object> cmbAmbito = new JComboBox<>();
+
     /**
      * Creates new form SearchPanel
      */
@@ -33,6 +37,15 @@ public class SearchPanel extends javax.swing.JPanel {
      * Ajustes de UI posteriores al initComponents()
      */
     private void postInitConfigure() {
+        // 0) Selector de ámbito (texto / tipo de token), tras "Palabra completa"
+        cmbAmbito.addItem(SCOPE_TEXT);
+        for (model.lexical.TokenType t : model.lexical.TokenType.values()) {
+            cmbAmbito.addItem(t);
+        }
+        cmbAmbito.setToolTipText("Buscar en el texto o entre los tokens del último análisis de ese tipo");
+        int afterWholeWord = java.util.Arrays.asList(panelControles.getComponents()).indexOf(chkPalabraCompleta) + 1;
+        panelControles.add(cmbAmbito, new GridBagConstraints(), afterWholeWord);
+
         // 1) Layout: que el campo de búsqueda se expanda en GridBagLayout
         if (panelControles.getLayout() instanceof java.awt.GridBagLayout gbl) {
             var comps = panelControles.getComponents();
@@ -237,6 +250,14 @@ public class SearchPanel extends javax.swing.JPanel {
         chkPalabraCompleta.setSelected(v);
     }
 
+    /**
+     * Tipo de token elegido en el selector de ámbito, o null si se busca en
+     * el texto.
+     */
+    public model.lexical.TokenType getSelectedTokenType() {
+        return (cmbAmbito.getSelectedItem() instanceof model.lexical.TokenType t) ? t : null;
+    }
+
     /**
      * Actualiza el contador como "Coincidencias: N"
      */
@@ -283,6 +304,7 @@ public class SearchPanel extends javax.swing.JPanel {
         btnSiguiente.setEnabled(enabled);
         chkIgnorarMayus.setEnabled(enabled);
         chkPalabraCompleta.setEnabled(enabled);
+        cmbAmbito.setEnabled(enabled);
     }
 
     /**
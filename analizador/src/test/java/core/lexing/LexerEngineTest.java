@@ -1,13 +1,34 @@
 package core.lexing;
 
+import static core.lexing.RandomDocuments.randomDocument;
+import static core.lexing.RandomDocuments.randomPiece;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.ByteArrayOutputStream;
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import core.io.ConfigLoader;
+import core.io.TextLoader;
+import model.config.CommentsConfig;
 import model.config.Config;
+import model.lexical.LexError;
+import model.lexical.LineIndex;
+import model.lexical.Position;
+import model.lexical.Token;
 import model.lexical.TokenType;
 
 public class LexerEngineTest {
@@ -63,4 +84,271 @@ public class LexerEngineTest {
         assertEquals("\"/* */\"", t.lexema());
         assertTrue(res.errors().isEmpty());
     }
+
+    @Test
+    void dfaModeMatchesCascadeOnSampleText() throws Exception {
+        Config cfg = loadConfig();
+        String text = "SI contador = 12.5 + 3; // fin\n"
+                + "\"hola, mundo\" 585f3.40 12. x ++ --- /* *. */ hola /* sin cierre\n"
+                + "para (i) { \"@\" } ### @ é *";
+        assertSameAnalysis(new LexerEngine(cfg, LexerEngine.Mode.CASCADE),
+                new LexerEngine(cfg, LexerEngine.Mode.DFA), text);
+    }
+
+    @Test
+    void dfaModeMatchesCascadeOnRandomText() throws Exception {
+        List<Config> configs = List.of(loadConfig(), customConfig());
+        String alphabet = "aZx09.+-*/=%,;:(){}[]\"#@ \n\r\té";
+        Random rnd = new Random(42);
+        for (Config cfg : configs) {
+            var cascade = new LexerEngine(cfg, LexerEngine.Mode.CASCADE);
+            var dfa = new LexerEngine(cfg, LexerEngine.Mode.DFA);
+            for (int i = 0; i < 2000; i++) {
+                StringBuilder sb = new StringBuilder();
+                int len = rnd.nextInt(40);
+                for (int j = 0; j < len; j++) sb.append(alphabet.charAt(rnd.nextInt(alphabet.length())));
+                assertSameAnalysis(cascade, dfa, sb.toString());
+            }
+        }
+    }
+
+    @Test
+    void incrementalRelexMatchesFullAnalysisAfterRandomEdits() throws Exception {
+        List<Config> configs = List.of(loadConfig(), customConfig());
+        Random rnd = new Random(7);
+        for (Config cfg : configs) {
+            var dfa = new LexerEngine(cfg, LexerEngine.Mode.DFA);
+            for (int doc = 0; doc < 50; doc++) {
+                StringBuilder sb = new StringBuilder(randomDocument(rnd, 40));
+                var incremental = new IncrementalLexer(dfa);
+                incremental.reset(sb);
+                for (int e = 0; e < 100; e++) {
+                    int offset = rnd.nextInt(sb.length() + 1);
+                    int removed = Math.min(rnd.nextInt(4), sb.length() - offset);
+                    String inserted = rnd.nextInt(3) == 0 ? "" : randomPiece(rnd);
+                    sb.replace(offset, offset + removed, inserted);
+                    incremental.edit(sb, offset, removed, inserted.length());
+
+                    String text = sb.toString();
+                    assertEquals(dfa.analyze(text).tokens(), incremental.snapshot(text).asList(),
+                            () -> "tokens para: " + text);
+                }
+            }
+        }
+    }
+
+    @Test
+    void chunkedAnalysisMatchesSequentialAcrossBoundaries() throws Exception {
+        List<Config> configs = List.of(loadConfig(), customConfig());
+        // Cadenas y comentarios de bloque que cruzan saltos de línea (y por tanto cortes)
+        Random rnd = new Random(11);
+        var pool = new ForkJoinPool(4);
+        try {
+            for (Config cfg : configs) {
+                var dfa = new LexerEngine(cfg, LexerEngine.Mode.DFA);
+                for (int i = 0; i < 300; i++) {
+                    String text = randomDocument(rnd, 200);
+                    var expected = dfa.analyze(text);
+                    var actual = new ChunkedLexer(dfa, pool, 1 + rnd.nextInt(16)).analyze(text, new LineIndex(text));
+                    assertEquals(expected.tokens(), actual.tokens(), () -> "tokens para: " + text);
+                    assertEquals(expected.errors(), actual.errors(), () -> "errores para: " + text);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void pushAndPullApisMatchResult() throws Exception {
+        String alphabet = "aZx09.+-*/=%,;:(){}[]\"#@ \n\r\té";
+        Random rnd = new Random(5);
+        for (Config cfg : List.of(loadConfig(), customConfig())) {
+            for (LexerEngine.Mode mode : LexerEngine.Mode.values()) {
+                var lexer = new LexerEngine(cfg, mode);
+                for (int i = 0; i < 500; i++) {
+                    StringBuilder sb = new StringBuilder();
+                    for (int j = rnd.nextInt(40); j > 0; j--) sb.append(alphabet.charAt(rnd.nextInt(alphabet.length())));
+                    String text = sb.toString();
+                    var expected = lexer.analyze(text);
+
+                    var sink = new LexerEngine.ResultSink(text, new LineIndex(text));
+                    lexer.analyze(text, sink);
+                    assertEquals(expected.tokens(), sink.result().tokens(), () -> "push para: " + text);
+                    assertEquals(expected.errors(), sink.result().errors(), () -> "push para: " + text);
+
+                    List<LexError> pulledErrors = new ArrayList<>();
+                    List<Token> pulled = new ArrayList<>();
+                    lexer.spliterator(text, pulledErrors::add).forEachRemaining(pulled::add);
+                    assertEquals(expected.tokens(), pulled, () -> "pull para: " + text);
+                    assertEquals(expected.errors(), pulledErrors, () -> "pull para: " + text);
+                }
+            }
+        }
+    }
+
+    @Test
+    void readerStreamingMatchesInMemoryAnalysis() throws Exception {
+        Random rnd = new Random(3);
+        for (Config cfg : List.of(loadConfig(), customConfig())) {
+            var lexer = new LexerEngine(cfg);
+            for (int i = 0; i < 300; i++) {
+                String text = randomDocument(rnd, 80);
+                var expected = lexer.analyze(text);
+
+                List<Token> tokens = new ArrayList<>();
+                List<LexError> errors = new ArrayList<>();
+                // Buffer mínimo y lecturas cortas: fuerza vueltas del anillo y crecimiento
+                Reader reader = new FilterReader(new StringReader(text)) {
+                    @Override
+                    public int read(char[] cbuf, int off, int len) throws IOException {
+                        return super.read(cbuf, off, Math.min(len, 1 + rnd.nextInt(3)));
+                    }
+                };
+                lexer.analyze(reader, new TokenSink() {
+                    Position pos;
+
+                    @Override
+                    public void position(long offset, int line, int column) {
+                        pos = new Position(line, column);
+                    }
+
+                    @Override
+                    public void token(TokenType type, CharSequence window, int start, int length) {
+                        tokens.add(new Token(type, window.subSequence(start, start + length).toString(), pos));
+                    }
+
+                    @Override
+                    public void error(CharSequence window, int start, int length, String message) {
+                        errors.add(new LexError(window.subSequence(start, start + length).toString(), pos, message));
+                    }
+                }, 2);
+                assertEquals(expected.tokens(), tokens, () -> "tokens para: " + text);
+                assertEquals(expected.errors(), errors, () -> "errores para: " + text);
+            }
+        }
+    }
+
+    @Test
+    void mappedByteStreamingMatchesLoadedText(@TempDir Path dir) throws Exception {
+        // Saltos CR/CRLF, no-ASCII de 2 y 4 bytes y UTF-8 mal formado (bytes sueltos)
+        byte[][] invalid = { { (byte) 0xC3 }, { (byte) 0xE2, (byte) 0x82 }, { (byte) 0xFF }, { (byte) 0xED, (byte) 0xA0, (byte) 0x80 } };
+        Random rnd = new Random(17);
+        Path file = dir.resolve("entrada.txt");
+        var loader = new TextLoader();
+        for (Config cfg : List.of(loadConfig(), customConfig())) {
+            var lexer = new LexerEngine(cfg);
+            for (int i = 0; i < 200; i++) {
+                var bytes = new ByteArrayOutputStream();
+                randomDocument(rnd, 80).codePoints().forEach(cp -> {
+                    if (rnd.nextInt(25) == 0) bytes.writeBytes(invalid[rnd.nextInt(invalid.length)]);
+                    bytes.writeBytes(Character.toString(cp).getBytes(StandardCharsets.UTF_8));
+                });
+                Files.write(file, bytes.toByteArray());
+                String text = loader.load(file);
+                var expected = lexer.analyze(text);
+
+                List<Token> tokens = new ArrayList<>();
+                List<LexError> errors = new ArrayList<>();
+                lexer.analyze(loader.map(file), new TokenSink() {
+                    Position pos;
+
+                    @Override
+                    public void position(long offset, int line, int column) {
+                        pos = new Position(line, column);
+                    }
+
+                    @Override
+                    public void token(TokenType type, CharSequence window, int start, int length) {
+                        tokens.add(new Token(type, window.subSequence(start, start + length).toString(), pos));
+                    }
+
+                    @Override
+                    public void error(CharSequence window, int start, int length, String message) {
+                        errors.add(new LexError(window.subSequence(start, start + length).toString(), pos, message));
+                    }
+                });
+                assertEquals(expected.tokens(), tokens, () -> "tokens para: " + text);
+                assertEquals(expected.errors(), errors, () -> "errores para: " + text);
+            }
+        }
+    }
+
+    @Test
+    void validationCountsMatchFullAnalysisAndStopsEarly() throws Exception {
+        Config cfg = loadConfig();
+        String text = "SI contador = 12.5 + 3; // fin\n"
+                + "\"hola\" 585f3.40 12. x ++ --- @ hola /* sin cierre\n";
+        for (LexerEngine.Mode mode : LexerEngine.Mode.values()) {
+            var engine = new LexerEngine(cfg, mode);
+            var full = engine.analyze(text);
+
+            var all = engine.validate(text, Integer.MAX_VALUE);
+            assertTrue(all.complete());
+            assertEquals(full.errors(), all.errors());
+            assertEquals(full.buffer().size(), all.tokenCount());
+            for (TokenType type : TokenType.values()) {
+                int expected = 0;
+                for (int i = 0; i < full.buffer().size(); i++) {
+                    if (full.buffer().type(i) == type) expected++;
+                }
+                assertEquals(expected, all.count(type), type::name);
+            }
+
+            var first = engine.validate(text, 1);
+            assertFalse(first.complete());
+            assertFalse(first.isClean());
+            assertEquals(full.errors().subList(0, 1), first.errors());
+            assertEquals(1, first.count(TokenType.ERROR));
+        }
+        assertTrue(new LexerEngine(cfg).validate("SI x = 1;", 1).isClean());
+    }
+
+    @Test
+    void lexerLoopsAllocateOnlyTheirOutput() throws Exception {
+        var threads = java.lang.management.ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean mx) || !mx.isThreadAllocatedMemorySupported()) {
+            return; // la JVM no mide asignaciones por hilo
+        }
+        String text = ("SI contador = 12.5 + 3; // fin de linea\n"
+                + "PARA ( indice = 0 ; indice ) { total = total * 2 , valor : otro }"
+                + " \"hola mundo\" */ comentario /*\n").repeat(4000);
+        var lines = new LineIndex(text);
+        // PARALLEL no se mide: reparte los tramos entre hilos del pool y la
+        // medición es por hilo (cada tramo usa el mismo bucle que DFA)
+        for (LexerEngine.Mode mode : List.of(LexerEngine.Mode.CASCADE, LexerEngine.Mode.DFA)) {
+            var engine = new LexerEngine(loadConfig(), mode);
+            for (int i = 0; i < 20; i++) engine.analyze(text, lines); // calentamiento (JIT)
+
+            long before = mx.getCurrentThreadAllocatedBytes();
+            var result = engine.analyze(text, lines);
+            long allocated = mx.getCurrentThreadAllocatedBytes() - before;
+
+            // Salida: columnas del TokenBuffer (1 + 3 * 4 bytes por token, reservadas
+            // de antemano a razón de ~1 token cada 4 chars; este texto no las hace
+            // crecer) y la tabla de símbolos; el bucle en sí no asigna nada por token
+            assertTrue(result.errors().isEmpty());
+            assertTrue(result.buffer().size() <= LexerEngine.estimateTokens(text));
+            long output = LexerEngine.estimateTokens(text) * 13L + (64 << 10);
+            assertTrue(allocated < output,
+                    () -> mode + ": " + allocated + " bytes para " + result.buffer().size() + " tokens");
+        }
+    }
+
+    private static Config customConfig() {
+        Config cfg = new Config();
+        cfg.setPalabrasReservadas(Set.of("si", "x"));
+        cfg.setOperadores(Set.of("+", "+=", "=", "==", "-", "*", "**", "/"));
+        cfg.setPuntuacion(Set.of(".", ";", ".."));
+        cfg.setAgrupacion(Set.of("(", ")"));
+        cfg.setComentarios(new CommentsConfig("#", "/*", "*/"));
+        return cfg;
+    }
+
+    private static void assertSameAnalysis(LexerEngine cascade, LexerEngine dfa, String text) {
+        var expected = cascade.analyze(text);
+        var actual = dfa.analyze(text);
+        assertEquals(expected.tokens(), actual.tokens(), () -> "tokens para: " + text);
+        assertEquals(expected.errors(), actual.errors(), () -> "errores para: " + text);
+    }
 }
@@ -0,0 +1,37 @@
+package core.lexing;
+
+import java.util.Random;
+
+/**
+ * Documentos al azar para las pruebas del lexer, de la búsqueda y de los
+ * servicios: trozos pegados sin separador, de modo que los tokens se cortan
+ * y se combinan de formas distintas en cada documento.
+ */
+public final class RandomDocuments {
+
+    /**
+     * Cadenas y comentarios sin cerrar (de config.json y de la config con
+     * "#"), saltos CR/LF/CRLF, no-ASCII de 2 y 4 bytes y U+FFFF.
+     */
+    private static final String[] PIECES = { "contador", "si", "x1", "12", "3.14", "\"hola", "\"", "//", "/*", "*/",
+            "#", "\n", "\r", "\r\n", " ", "+", "=", "(", ")", ";", "..", "@", "é", "😀", "\uFFFF" };
+
+    private RandomDocuments() { }
+
+    /** Documento de 0 a maxPieces - 1 trozos de código al azar. */
+    public static String randomDocument(Random rnd, int maxPieces) {
+        return randomDocument(rnd, PIECES, maxPieces);
+    }
+
+    /** Documento de 0 a maxPieces - 1 trozos tomados de 'pieces'. */
+    public static String randomDocument(Random rnd, String[] pieces, int maxPieces) {
+        StringBuilder sb = new StringBuilder();
+        for (int j = rnd.nextInt(maxPieces); j > 0; j--) sb.append(pieces[rnd.nextInt(pieces.length)]);
+        return sb.toString();
+    }
+
+    /** Un trozo de código al azar (p. ej. para insertar en una edición). */
+    public static String randomPiece(Random rnd) {
+        return PIECES[rnd.nextInt(PIECES.length)];
+    }
+}
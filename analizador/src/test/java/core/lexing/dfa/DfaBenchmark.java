@@ -0,0 +1,131 @@
+package core.lexing.dfa;
+
+import java.nio.file.Path;
+import java.util.Random;
+
+import core.io.ConfigLoader;
+import core.lexing.LexerEngine;
+import core.lexing.stream.CharClasses;
+import core.lexing.stream.CharCursor;
+import model.config.Config;
+
+/**
+ * Micro-benchmark (manual, sin JMH) del AFD léxico y de los modos del lexer.
+ * Secciones, en orden de salida:
+ * 1. AFD empaquetado (clases de equivalencia + matriz densa) frente a la
+ *    búsqueda lineal sobre List&lt;Transition&gt;, en ns/char.
+ * 2. Análisis completo de un texto grande: modo DFA (secuencial) frente a
+ *    PARALLEL (tramos en el ForkJoinPool común).
+ * 3. Corpus dominado por identificadores: CASCADE (despacho por primer
+ *    carácter) frente a DFA.
+ * 4. Validación (solo errores y conteos) frente al análisis completo, y
+ *    tiempo hasta el primer error.
+ *
+ * No es una prueba de JUnit. Ejecutar desde analizador/ tras mvn test-compile:
+ *   java -cp target/classes:target/test-classes:&lt;gson.jar&gt; core.lexing.dfa.DfaBenchmark
+ */
+public final class DfaBenchmark {
+
+    private static final int ROUNDS = 7;
+
+    private DfaBenchmark() { }
+
+    public static void main(String[] args) throws Exception {
+        Config cfg = new ConfigLoader().load(Path.of("resources/config.json"));
+        Dfa<LexRule> dfa = LexerDfaCompiler.compile(cfg, r ->
+                System.out.printf("minimización: %d -> %d estados%n", r.statesBefore(), r.statesAfter()));
+        String text = corpus(2_000_000);
+
+        System.out.printf("estados=%d clases=%d texto=%d chars%n",
+                dfa.states().size(), dfa.classCount(), text.length());
+        for (int r = 0; r < ROUNDS; r++) {
+            long linear = time(() -> scan(dfa, text, false));
+            long packed = time(() -> scan(dfa, text, true));
+            System.out.printf("ronda %d: lineal %.2f ns/char, empaquetado %.2f ns/char (x%.1f)%n",
+                    r, (double) linear / text.length(), (double) packed / text.length(),
+                    (double) linear / packed);
+        }
+
+        // Análisis completo: secuencial (DFA) frente a tramos en paralelo
+        String big = corpus(20_000_000);
+        LexerEngine sequential = new LexerEngine(cfg, LexerEngine.Mode.DFA);
+        LexerEngine parallel = new LexerEngine(cfg, LexerEngine.Mode.PARALLEL);
+        for (int r = 0; r < ROUNDS; r++) {
+            long seq = time(() -> sequential.analyze(big).buffer().size());
+            long par = time(() -> parallel.analyze(big).buffer().size());
+            System.out.printf("ronda %d: DFA %.2f ns/char, PARALLEL %.2f ns/char (x%.1f, %d hilos)%n",
+                    r, (double) seq / big.length(), (double) par / big.length(), (double) seq / par,
+                    java.util.concurrent.ForkJoinPool.getCommonPoolParallelism());
+        }
+
+        // Cascada (con despacho por primer carácter) sobre un corpus dominado por identificadores
+        String idents = identifierCorpus(2_000_000);
+        LexerEngine cascade = new LexerEngine(cfg, LexerEngine.Mode.CASCADE);
+        for (int r = 0; r < ROUNDS; r++) {
+            long casc = time(() -> cascade.analyze(idents).buffer().size());
+            long seq = time(() -> sequential.analyze(idents).buffer().size());
+            System.out.printf("ronda %d: identificadores CASCADE %.2f ns/char, DFA %.2f ns/char%n",
+                    r, (double) casc / idents.length(), (double) seq / idents.length());
+        }
+
+        // Validación (solo errores y conteos) frente al análisis completo
+        for (int r = 0; r < ROUNDS; r++) {
+            long full = time(() -> sequential.analyze(text).buffer().size());
+            long check = time(() -> sequential.validate(text, Integer.MAX_VALUE).tokenCount());
+            long first = time(() -> sequential.validate(text, 1).tokenCount());
+            System.out.printf("ronda %d: análisis %.2f ns/char, validación %.2f ns/char, hasta el 1er error %.0f us%n",
+                    r, (double) full / text.length(), (double) check / text.length(), first / 1e3);
+        }
+    }
+
+    /** Recorre el texto token a token como lo hace el lexer en modo DFA. */
+    private static int scan(Dfa<LexRule> dfa, String text, boolean packed) {
+        CharCursor cursor = new CharCursor(text);
+        int tokens = 0;
+        while (!cursor.eof()) {
+            if (CharClasses.isSpaceOrNewline(cursor.peek())) {
+                cursor.next();
+                continue;
+            }
+            Dfa.Match<LexRule> m = packed ? dfa.evaluate(cursor) : dfa.evaluateLinear(cursor);
+            int len = m.accepted() ? Math.max(1, m.length() - m.acceptTag().trailing()) : 1;
+            for (int i = 0; i < len && !cursor.eof(); i++) cursor.next();
+            tokens++;
+        }
+        return tokens;
+    }
+
+    static String corpus(int size) {
+        String[] pieces = {
+            "contador", "SI", "entonces", "x1", "12", "3.1416", "\"hola mundo\"",
+            "// comentario de linea\n", "*/ bloque /*", "+", "=", "(", ")", ";", ",", "\n"
+        };
+        Random rnd = new Random(7);
+        StringBuilder sb = new StringBuilder(size + 32);
+        while (sb.length() < size) {
+            sb.append(pieces[rnd.nextInt(pieces.length)]).append(' ');
+        }
+        return sb.toString();
+    }
+
+    /** Texto de identificadores y palabras reservadas con algún operador suelto. */
+    static String identifierCorpus(int size) {
+        String[] pieces = {
+            "contador", "indice", "SI", "entonces", "x1", "valorMaximo", "tmp2", "suma", "=", "+"
+        };
+        Random rnd = new Random(11);
+        StringBuilder sb = new StringBuilder(size + 32);
+        while (sb.length() < size) {
+            sb.append(pieces[rnd.nextInt(pieces.length)]).append(rnd.nextInt(8) == 0 ? '\n' : ' ');
+        }
+        return sb.toString();
+    }
+
+    static long time(java.util.function.IntSupplier task) {
+        long t0 = System.nanoTime();
+        int sink = task.getAsInt();
+        long elapsed = System.nanoTime() - t0;
+        if (sink == Integer.MIN_VALUE) System.out.println(sink);
+        return elapsed;
+    }
+}
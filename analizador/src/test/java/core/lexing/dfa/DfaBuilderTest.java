@@ -0,0 +1,110 @@
+package core.lexing.dfa;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import core.io.ConfigLoader;
+import core.lexing.stream.CharClasses;
+import core.lexing.stream.CharCursor;
+import model.config.Config;
+
+public class DfaBuilderTest {
+
+    private static Config loadConfig() throws Exception {
+        return new ConfigLoader().load(Path.of("resources/config.json"));
+    }
+
+    @Test
+    void minimizeDropsRedundantStatesAndKeepsLanguage() {
+        DfaBuilder<String> builder = redundantBuilder();
+        DfaBuilder.Reduction reduction = builder.minimize(0);
+        // Inicio + un estado por etiqueta: sin el inalcanzable ni el muerto,
+        // y con las dos cadenas de "ID" y de "NUM" fusionadas
+        assertEquals(9, reduction.statesBefore());
+        assertEquals(3, reduction.statesAfter());
+        Dfa<String> minimized = builder.build(reduction.startState());
+        assertEquals(3, minimized.states().size());
+
+        Dfa<String> original = redundantBuilder().build(0);
+        Random rnd = new Random(3);
+        for (int t = 0; t < 2000; t++) {
+            StringBuilder sb = new StringBuilder();
+            for (int j = rnd.nextInt(12); j > 0; j--) sb.append("ab1x?".charAt(rnd.nextInt(5)));
+            String text = sb.toString();
+            var expected = original.evaluate(new CharCursor(text));
+            var actual = minimized.evaluate(new CharCursor(text));
+            assertEquals(expected.accepted(), actual.accepted(), text);
+            assertEquals(expected.length(), actual.length(), text);
+            assertEquals(expected.acceptTag(), actual.acceptTag(), text);
+        }
+    }
+
+    @Test
+    void minimizedLexerDfaGivesSameTokens() throws Exception {
+        Random rnd = new Random(4);
+        List<Config> configs = new ArrayList<>(List.of(loadConfig()));
+        for (int i = 0; i < 6; i++) configs.add(DfaTest.randomConfig(rnd));
+        for (Config cfg : configs) {
+            int[] counts = new int[2];
+            Dfa<LexRule> minimized = LexerDfaCompiler.compile(cfg, r -> {
+                counts[0] = r.statesBefore();
+                counts[1] = r.statesAfter();
+            });
+            Dfa<LexRule> original = LexerDfaCompiler.compileUnminimized(cfg);
+            assertEquals(counts[0], original.states().size());
+            assertEquals(counts[1], minimized.states().size());
+            assertTrue(counts[1] < counts[0], () -> counts[0] + " -> " + counts[1]);
+
+            String alphabet = "aZx09_ \n\r\"é😀+-*/=%<>!&|.,;:()[]{}#~^?";
+            for (int t = 0; t < 300; t++) {
+                StringBuilder sb = new StringBuilder();
+                for (int j = rnd.nextInt(60); j > 0; j--) sb.append(alphabet.charAt(rnd.nextInt(alphabet.length())));
+                String text = sb.toString();
+                assertEquals(tokens(original, text), tokens(minimized, text), () -> "texto: " + text);
+            }
+        }
+    }
+
+    /**
+     * ID = [ab]+ con dos cadenas de estados equivalentes, NUM = 1+ en dos
+     * estados, un estado muerto (x+) y uno inalcanzable: 9 estados, 3 tras
+     * minimizar.
+     */
+    private static DfaBuilder<String> redundantBuilder() {
+        DfaBuilder<String> b = new DfaBuilder<>();
+        for (int i = 0; i < 9; i++) b.addState();
+        b.onChar(0, 'a', 1).onChar(0, 'b', 2);
+        for (int s = 1; s <= 4; s++) {
+            b.setAccepting(s, "ID").onChar(s, 'a', 3).onChar(s, 'b', 4);
+        }
+        b.onChar(0, '1', 5).setAccepting(5, "NUM").onChar(5, '1', 6);
+        b.setAccepting(6, "NUM").onChar(6, '1', 6);
+        b.onChar(0, 'x', 7).onChar(7, 'x', 7);   // muerto: nunca acepta
+        b.setAccepting(8, "ID").onChar(8, 'a', 1); // inalcanzable
+        return b;
+    }
+
+    /** Tokens (regla y longitud) como los recorre el lexer en modo DFA. */
+    private static List<String> tokens(Dfa<LexRule> dfa, String text) {
+        List<String> out = new ArrayList<>();
+        var cursor = new CharCursor(text);
+        var m = new Dfa.Match<LexRule>();
+        while (!cursor.eof()) {
+            if (CharClasses.isSpaceOrNewline(cursor.peek())) {
+                cursor.next();
+                continue;
+            }
+            dfa.evaluate(cursor, m);
+            int len = m.accepted() ? Math.max(1, m.length() - m.acceptTag().trailing()) : 1;
+            out.add(m.acceptTag() + ":" + len);
+            cursor.advance(len);
+        }
+        return out;
+    }
+}
@@ -0,0 +1,101 @@
+package core.lexing.dfa;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import core.io.ConfigLoader;
+import core.lexing.stream.CharCursor;
+import model.config.CommentsConfig;
+import model.config.Config;
+
+public class DfaTest {
+
+    private static final String SYMBOLS = "+-*/=%<>!&|.,;:()[]{}#~^?";
+
+    private static Config loadConfig() throws Exception {
+        return new ConfigLoader().load(Path.of("resources/config.json"));
+    }
+
+    @Test
+    void packedEvaluationMatchesLinearEvaluation() throws Exception {
+        Random rnd = new Random(2);
+        List<Config> configs = new ArrayList<>(List.of(loadConfig()));
+        for (int i = 0; i < 8; i++) configs.add(randomConfig(rnd));
+        for (Config cfg : configs) {
+            Dfa<LexRule> dfa = LexerDfaCompiler.compile(cfg);
+            String alphabet = "aZx09_ \n\r\t\"é€😀" + SYMBOLS;
+            var reused = new Dfa.Match<LexRule>();
+            for (int t = 0; t < 200; t++) {
+                StringBuilder sb = new StringBuilder();
+                for (int j = rnd.nextInt(40); j > 0; j--) sb.append(alphabet.charAt(rnd.nextInt(alphabet.length())));
+                if (rnd.nextBoolean()) sb.append(cfg.getComentarios().getBloqueInicio()); // sin cierre hasta EOF
+                String text = sb.toString();
+                // Cada desplazamiento, incluido el fin (EOF) y la mitad de un par sustituto
+                for (int at = 0; at <= text.length(); at++) {
+                    var cursor = new CharCursor(text);
+                    cursor.seek(at);
+                    Dfa.Match<LexRule> expected = dfa.evaluateLinear(cursor);
+                    String ctx = "texto='" + text + "' desde " + at;
+                    assertSameMatch(expected, dfa.evaluate(cursor), ctx);
+                    assertSameMatch(expected, dfa.evaluate(cursor, reused), ctx);
+                    assertEquals(at, cursor.index(), ctx); // no consume
+                }
+            }
+        }
+    }
+
+    private static void assertSameMatch(Dfa.Match<LexRule> expected, Dfa.Match<LexRule> actual, String ctx) {
+        assertEquals(expected.accepted(), actual.accepted(), ctx);
+        assertEquals(expected.length(), actual.length(), ctx);
+        assertEquals(expected.acceptTag(), actual.acceptTag(), ctx);
+        assertEquals(expected.examined(), actual.examined(), ctx);
+    }
+
+    /**
+     * Configuración al azar: símbolos de 1 a 3 chars (con prefijos comunes
+     * entre secciones) repartidos sin repetir, palabras reservadas cortas y
+     * delimitadores de comentario distintos entre sí.
+     */
+    static Config randomConfig(Random rnd) {
+        Set<String> used = new LinkedHashSet<>();
+        Config cfg = new Config();
+        cfg.setOperadores(symbols(rnd, used, 3 + rnd.nextInt(6)));
+        cfg.setPuntuacion(symbols(rnd, used, 1 + rnd.nextInt(4)));
+        cfg.setAgrupacion(symbols(rnd, used, 1 + rnd.nextInt(4)));
+        Set<String> words = new LinkedHashSet<>();
+        for (int i = rnd.nextInt(6); i > 0; i--) {
+            StringBuilder w = new StringBuilder();
+            for (int k = 1 + rnd.nextInt(4); k > 0; k--) w.append("aZx".charAt(rnd.nextInt(3)));
+            words.add(w.toString());
+        }
+        cfg.setPalabrasReservadas(words);
+        Set<String> comments = new LinkedHashSet<>();
+        while (comments.size() < 3) comments.add(symbol(rnd, 2));
+        var it = comments.iterator();
+        cfg.setComentarios(new CommentsConfig(it.next(), it.next(), it.next()));
+        return cfg;
+    }
+
+    private static Set<String> symbols(Random rnd, Set<String> used, int count) {
+        Set<String> out = new LinkedHashSet<>();
+        while (out.size() < count) {
+            String s = symbol(rnd, 3);
+            if (used.add(s)) out.add(s);
+        }
+        return out;
+    }
+
+    private static String symbol(Random rnd, int maxLength) {
+        StringBuilder sb = new StringBuilder();
+        for (int k = 1 + rnd.nextInt(maxLength); k > 0; k--) sb.append(SYMBOLS.charAt(rnd.nextInt(SYMBOLS.length())));
+        return sb.toString();
+    }
+}
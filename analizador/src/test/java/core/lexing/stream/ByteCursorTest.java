@@ -0,0 +1,37 @@
+package core.lexing.stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+public class ByteCursorTest {
+
+    @Test
+    void windowLengthIsDecodedLookaheadOnly() {
+        String text = "ab\r\ncé😀" + "x".repeat(10_000);
+        ByteCursor cursor = new ByteCursor(ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)));
+        CharSequence window = cursor.window();
+        assertEquals(0, window.length());
+
+        // CRLF se lee como un '\n' y el emoji como su par sustituto
+        assertEquals("😀".charAt(1), cursor.peek(6));
+        assertEquals(7, window.length());
+        assertEquals("ab\ncé😀", window.toString());
+
+        // Mirar más cerca no la achica; consumir la corre
+        cursor.peek(1);
+        assertEquals(7, window.length());
+        cursor.next();
+        cursor.next();
+        assertEquals(5, window.length());
+        assertEquals("\ncé😀", window.toString());
+
+        for (int i = 0; i < 5; i++) cursor.next();
+        assertEquals(0, window.length());
+        assertEquals('x', window.charAt(0));
+        assertEquals(1, window.length());
+    }
+}
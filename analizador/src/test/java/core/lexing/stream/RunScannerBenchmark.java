@@ -0,0 +1,89 @@
+package core.lexing.stream;
+
+import java.nio.file.Path;
+
+import core.io.ConfigLoader;
+import core.lexing.LexerEngine;
+import model.config.Config;
+
+/**
+ * Micro-benchmark (manual, sin JMH) del escáner de rachas: implementación
+ * escalar frente a la elegida para esta JVM, sobre comentarios e
+ * identificadores largos.
+ *
+ * No es una prueba de JUnit. Ejecutar desde analizador/ tras mvn test-compile:
+ *   java --add-modules jdk.incubator.vector \
+ *        -cp target/classes:target/test-classes:&lt;gson.jar&gt; core.lexing.stream.RunScannerBenchmark
+ * Para el análisis completo en escalar, repetir con -Danalizador.scan=scalar.
+ */
+public final class RunScannerBenchmark {
+
+    private static final int ROUNDS = 7;
+    private static final int CALLS = 20_000;
+
+    private RunScannerBenchmark() { }
+
+    public static void main(String[] args) throws Exception {
+        RunScanner scalar = RunScanner.scalar();
+        RunScanner chosen = RunScanner.get();
+        System.out.printf("escáner: %s%n", chosen.name());
+
+        // Rachas de 4K chars recorridas muchas veces (cada llamada llega al final)
+        char[] comment = repeat("texto de un comentario largo ", 4096).toCharArray();
+        char[] ident = repeat("identificadorMuyLargo2", 4096).toCharArray();
+        long chars = (long) CALLS * comment.length;
+        long identChars = (long) CALLS * ident.length;
+        for (int r = 0; r < ROUNDS; r++) {
+            long s1 = time(() -> repeatCalls(() -> scalar.indexOf('*', comment, 0, comment.length)));
+            long v1 = time(() -> repeatCalls(() -> chosen.indexOf('*', comment, 0, comment.length)));
+            long s2 = time(() -> repeatCalls(() -> scalar.skipAlnum(ident, 0, ident.length)));
+            long v2 = time(() -> repeatCalls(() -> chosen.skipAlnum(ident, 0, ident.length)));
+            System.out.printf("ronda %d: cierre de comentario %.3f -> %.3f ns/char (x%.1f), "
+                    + "identificador %.3f -> %.3f ns/char (x%.1f)%n",
+                    r, (double) s1 / chars, (double) v1 / chars, (double) s1 / v1,
+                    (double) s2 / identChars, (double) v2 / identChars, (double) s2 / v2);
+        }
+
+        // Análisis completo en modo CASCADE (usa el escáner a través de CharCursor)
+        Config cfg = new ConfigLoader().load(Path.of("resources/config.json"));
+        LexerEngine cascade = new LexerEngine(cfg, LexerEngine.Mode.CASCADE);
+        String text = corpus(2_000_000);
+        for (int r = 0; r < ROUNDS; r++) {
+            long t = time(() -> cascade.analyze(text).buffer().size());
+            System.out.printf("ronda %d: CASCADE (%s) %.2f ns/char%n", r, chosen.name(), (double) t / text.length());
+        }
+    }
+
+    /** Comentarios de bloque y de línea largos e identificadores de 40-200 chars. */
+    static String corpus(int size) {
+        StringBuilder sb = new StringBuilder(size + 512);
+        int n = 0;
+        while (sb.length() < size) {
+            sb.append("/* ").append(repeat("bloque sin asteriscos ", 10 + n % 20)).append("*/\n");
+            sb.append("// ").append(repeat("linea ", 20 + n % 30)).append('\n');
+            sb.append(repeat("nombreLargo", 4 + n % 16)).append(n).append(" = 1234567890;\n");
+            n++;
+        }
+        return sb.toString();
+    }
+
+    private static int repeatCalls(java.util.function.IntSupplier call) {
+        int acc = 0;
+        for (int i = 0; i < CALLS; i++) acc += call.getAsInt();
+        return acc;
+    }
+
+    private static String repeat(String s, int minLength) {
+        StringBuilder sb = new StringBuilder(minLength + s.length());
+        while (sb.length() < minLength) sb.append(s);
+        return sb.toString();
+    }
+
+    static long time(java.util.function.IntSupplier task) {
+        long t0 = System.nanoTime();
+        int sink = task.getAsInt();
+        long elapsed = System.nanoTime() - t0;
+        if (sink == Integer.MIN_VALUE) System.out.println(sink);
+        return elapsed;
+    }
+}
@@ -0,0 +1,75 @@
+package core.lexing.stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class RunScannerTest {
+
+    // Bordes de los rangos comparados, no-ASCII con byte bajo ASCII ('聁'
+    // es 'A' en el byte bajo) y sustitutos sueltos y en pareja
+    private static final String ALPHABET = " \n\r\t azAZ09@[`{/:*é聁İ 😀￿";
+
+    @Test
+    void selectedScannersMatchScalarAroundLaneWidth() {
+        RunScanner scalar = RunScanner.scalar();
+        List<RunScanner> scanners = new ArrayList<>(List.of(RunScanner.get()));
+        RunScanner vector = vectorIfAvailable();
+        if (vector != null) scanners.add(vector);
+
+        Random rnd = new Random(17);
+        // Hasta 3 vectores de 32 carriles (AVX-512) y algo más: prueba colas y cortes en cada carril
+        for (int len = 0; len <= 100; len++) {
+            for (int t = 0; t < 60; t++) {
+                char[] a = block(rnd, len + 8);
+                int from = rnd.nextInt(8);
+                int to = from + len;
+                char c = ALPHABET.charAt(rnd.nextInt(ALPHABET.length()));
+                for (RunScanner scanner : scanners) {
+                    String ctx = scanner.name() + " '" + new String(a, from, len) + "' [" + from + ", " + to + ")";
+                    assertEquals(scalar.skipSpaces(a, from, to), scanner.skipSpaces(a, from, to), ctx);
+                    assertEquals(scalar.skipAlnum(a, from, to), scanner.skipAlnum(a, from, to), ctx);
+                    assertEquals(scalar.skipDigits(a, from, to), scanner.skipDigits(a, from, to), ctx);
+                    assertEquals(scalar.indexOf(c, a, from, to), scanner.indexOf(c, a, from, to), ctx + " c=" + c);
+                    assertEquals(scalar.indexOfLineBreak(a, from, to), scanner.indexOfLineBreak(a, from, to), ctx);
+                }
+            }
+        }
+    }
+
+    /**
+     * Bloque formado sobre todo por una misma clase de chars (blancos,
+     * alfanuméricos o dígitos) con algún char del alfabeto completo
+     * intercalado: las rachas llegan a cruzar varios vectores.
+     */
+    private static char[] block(Random rnd, int n) {
+        String run = switch (rnd.nextInt(3)) {
+            case 0 -> " \n\r";
+            case 1 -> "azAZ09";
+            default -> "0123456789";
+        };
+        int breakEvery = 1 + rnd.nextInt(120);
+        char[] a = new char[n];
+        for (int i = 0; i < n; i++) {
+            a[i] = (rnd.nextInt(breakEvery) == 0)
+                    ? ALPHABET.charAt(rnd.nextInt(ALPHABET.length()))
+                    : run.charAt(rnd.nextInt(run.length()));
+        }
+        return a;
+    }
+
+    /** Implementación vectorial si la JVM tiene el módulo (se carga como en RunScanner.get()). */
+    private static RunScanner vectorIfAvailable() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) return null;
+        try {
+            return (RunScanner) Class.forName("core.lexing.stream.VectorRunScanner")
+                    .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError ex) {
+            return null;
+        }
+    }
+}
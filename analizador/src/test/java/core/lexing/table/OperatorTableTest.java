@@ -0,0 +1,90 @@
+package core.lexing.table;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import core.lexing.stream.CharCursor;
+
+public class OperatorTableTest {
+
+    private static final String ALPHABET = "=+-<>!";
+
+    @Test
+    void mergedTableMatchesPlainSets() {
+        Random rnd = new Random(13);
+        List<List<Set<String>>> cases = new ArrayList<>();
+        // Prefijos cruzados entre categorías: "=" operador y "==" puntuación, etc.
+        cases.add(List.of(Set.of("=", "+", "+++"), Set.of("==", "+="), Set.of("===", "!")));
+        for (int t = 0; t < 300; t++) {
+            List<Set<String>> categories = new ArrayList<>();
+            for (int c = 1 + rnd.nextInt(4); c > 0; c--) {
+                Set<String> set = new LinkedHashSet<>();
+                for (int k = rnd.nextInt(6); k > 0; k--) set.add(random(rnd, 1 + rnd.nextInt(4)));
+                categories.add(set);
+            }
+            cases.add(categories);
+        }
+
+        for (List<Set<String>> categories : cases) {
+            OperatorTable merged = OperatorTable.merged(categories);
+            Set<String> union = new HashSet<>();
+            categories.forEach(union::addAll);
+            String ctx = categories.toString();
+            assertTable(union, merged, rnd, ctx);
+            for (int i = 0; i < categories.size(); i++) {
+                assertTable(categories.get(i), merged.category(i), rnd, ctx + " categoría " + i);
+            }
+            assertTable(union, new OperatorTable(union), rnd, ctx + " sin combinar");
+        }
+    }
+
+    /** Compara una tabla con búsquedas en un Set: contains, containsRun y el match más largo. */
+    private static void assertTable(Set<String> expected, OperatorTable table, Random rnd, String ctx) {
+        assertEquals(expected, new HashSet<>(table.symbols()), ctx);
+        int maxLen = 0;
+        for (String s : expected) maxLen = Math.max(maxLen, s.length());
+        assertEquals(maxLen, table.maxSymbolLength(), ctx);
+        for (int k = 1; k < table.symbols().size(); k++) {
+            assertTrue(table.symbols().get(k - 1).length() >= table.symbols().get(k).length(), ctx);
+        }
+
+        for (int len = 1; len <= 5; len++) {
+            for (int t = 0; t < 20; t++) {
+                String s = random(rnd, len);
+                assertEquals(expected.contains(s), table.contains(s), ctx + " contains " + s);
+            }
+        }
+        for (char c : ALPHABET.toCharArray()) {
+            for (int count = -1; count <= 6; count++) {
+                boolean run = count > 0 && expected.contains(String.valueOf(c).repeat(count));
+                assertEquals(run, table.containsRun(c, count), ctx + " containsRun " + c + "x" + count);
+            }
+        }
+
+        String text = random(rnd, 30);
+        var cursor = new CharCursor(text);
+        for (int at = 0; at <= text.length(); at++) {
+            cursor.seek(at);
+            String longest = null;
+            for (String s : expected) {
+                if (text.startsWith(s, at) && (longest == null || s.length() > longest.length())) longest = s;
+            }
+            assertEquals(longest, table.longestMatch(cursor), ctx + " en '" + text + "'@" + at);
+            assertEquals(longest == null ? 0 : longest.length(), table.longestMatchLength(cursor), ctx);
+        }
+    }
+
+    private static String random(Random rnd, int length) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) sb.append(ALPHABET.charAt(rnd.nextInt(ALPHABET.length())));
+        return sb.toString();
+    }
+}
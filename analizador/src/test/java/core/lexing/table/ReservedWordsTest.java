@@ -0,0 +1,59 @@
+package core.lexing.table;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+public class ReservedWordsTest {
+
+    @Test
+    void rangeLookupMatchesHashSetOnRandomText() {
+        Random rnd = new Random(14);
+        for (int t = 0; t < 200; t++) {
+            Set<String> words = new LinkedHashSet<>();
+            for (int k = rnd.nextInt(12); k > 0; k--) {
+                String w = word(rnd, rnd.nextInt(8) == 0 ? 60 + rnd.nextInt(20) : 1 + rnd.nextInt(6));
+                words.add(w);
+                // Vecina que difiere solo en el último char (a veces también reservada)
+                String twin = w.substring(0, w.length() - 1) + (char) (w.charAt(w.length() - 1) ^ 1);
+                if (rnd.nextBoolean()) words.add(twin);
+            }
+            if (rnd.nextInt(4) == 0) words.addAll(List.of("Aa", "BB")); // mismo String.hashCode
+            ReservedWords table = new ReservedWords(words);
+
+            // Texto con palabras, vecinas y basura pegadas: cada subrango es candidato
+            List<String> pool = new ArrayList<>(words);
+            pool.addAll(List.of("a", "b", "Ab", "x", "é", " "));
+            StringBuilder text = new StringBuilder();
+            for (int j = rnd.nextInt(20); j > 0; j--) {
+                String p = pool.get(rnd.nextInt(pool.size()));
+                if (p.length() > 1 && rnd.nextInt(3) == 0) {
+                    p = p.substring(0, p.length() - 1) + (char) (p.charAt(p.length() - 1) ^ 1);
+                }
+                text.append(p);
+            }
+
+            for (int start = 0; start <= text.length(); start++) {
+                for (int len = 0; start + len <= text.length() && len <= 90; len++) {
+                    String sub = text.substring(start, start + len);
+                    assertEquals(words.contains(sub), table.isReserved(text, start, len),
+                            () -> "palabras=" + words + " rango='" + sub + "'");
+                    assertEquals(words.contains(sub), table.isReserved(sub));
+                }
+            }
+        }
+    }
+
+    private static String word(Random rnd, int length) {
+        String letters = "abcABC";
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) sb.append(letters.charAt(rnd.nextInt(letters.length())));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,66 @@
+package core.search;
+
+import java.util.Random;
+import java.util.function.LongSupplier;
+
+/**
+ * Micro-benchmark (manual, sin JMH) de {@link PatternScanner}: escáner
+ * ingenuo frente al motor elegido por {@link SubstringSearch}, con patrones
+ * cortos y largos, sensibles e insensibles a mayúsculas y periódicos.
+ *
+ * No es una prueba de JUnit. Ejecutar desde analizador/ tras mvn test-compile:
+ *   java -cp target/classes:target/test-classes core.search.PatternScannerBenchmark
+ */
+public final class PatternScannerBenchmark {
+
+    private static final int ROUNDS = 5;
+
+    private PatternScannerBenchmark() { }
+
+    public static void main(String[] args) {
+        String text = corpus(4_000_000);
+        String periodicText = "ab".repeat(1_000_000) + "c";
+        Case[] cases = {
+                new Case("corto, sensible", text, "contador", true),
+                new Case("corto, insensible", text, "CONTADOR", false),
+                new Case("largo, sensible", text, "acumulador_total_de_la_iteracion", true),
+                new Case("largo, insensible", text, "Acumulador_Total_De_La_Iteracion", false),
+                new Case("periódico", periodicText, "ab".repeat(20) + "c", true),
+        };
+        for (Case c : cases) {
+            String algorithm = SubstringSearch.compile(c.pattern, c.caseSensitive).name();
+            for (int r = 0; r < ROUNDS; r++) {
+                long naive = time(() -> PatternScanner.naiveFindAll(c.text, c.pattern, c.caseSensitive, false).size());
+                long fast = time(() -> PatternScanner.findAll(c.text, c.pattern, c.caseSensitive, false).size());
+                System.out.printf("ronda %d: %-18s ingenuo %.3f -> %s %.3f ns/char (x%.1f)%n",
+                        r, c.label, (double) naive / c.text.length(), algorithm,
+                        (double) fast / c.text.length(), (double) naive / fast);
+            }
+        }
+    }
+
+    private record Case(String label, String text, String pattern, boolean caseSensitive) { }
+
+    /** Código con identificadores largos y pocas apariciones de cada patrón. */
+    static String corpus(int size) {
+        String[] words = { "contador", "indice", "acumulador_total", "de", "la", "iteracion", "SI", "PARA",
+                "=", "+", ";", "(", ")", "12.5", "\"cadena de texto\"", "// comentario", "\n" };
+        Random rnd = new Random(3);
+        StringBuilder sb = new StringBuilder(size + 64);
+        int n = 0;
+        while (sb.length() < size) {
+            sb.append(words[rnd.nextInt(words.length)]).append(' ');
+            if (++n % 5000 == 0) sb.append("acumulador_total_de_la_iteracion ");
+        }
+        return sb.toString();
+    }
+
+    private static long time(LongSupplier work) {
+        long sink = 0;
+        long t0 = System.nanoTime();
+        sink += work.getAsLong();
+        long t = System.nanoTime() - t0;
+        if (sink == Long.MIN_VALUE) System.out.println();
+        return t;
+    }
+}
@@ -0,0 +1,121 @@
+package core.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import model.search.FoldedText;
+
+public class PatternScannerTest {
+
+    @Test
+    void compilePicksAlgorithmByPatternShape() {
+        assertEquals("indexOf", SubstringSearch.compile("hola", true).name());
+        assertEquals("horspool", SubstringSearch.compile("hola", false).name());
+        assertEquals("horspool", SubstringSearch.compile("identificadorMuyLargo", true).name());
+        assertEquals("two-way", SubstringSearch.compile("abababababababababab", true).name());
+        assertEquals("two-way", SubstringSearch.compile("AaAa", false).name());
+    }
+
+    @Test
+    void matchesNaiveScannerOnRandomText() {
+        // Alfabeto pobre para forzar solapes y patrones periódicos; letras con
+        // mayúsculas no ASCII, '_' y un par sustituto (U+10400/U+10428, Deseret)
+        String[] pieces = { "a", "b", "A", "B", "_", " ", "ab", "aab", "É", "é", "ß",
+                "𐐀", "𐐨", "\uD801" };
+        Random rnd = new Random(21);
+        for (int t = 0; t < 3000; t++) {
+            String text = random(rnd, pieces, rnd.nextInt(120));
+            String pattern = random(rnd, pieces, 1 + rnd.nextInt(t % 3 == 0 ? 24 : 6));
+            if (rnd.nextInt(4) == 0 && text.length() > 2) {
+                // Patrón tomado del texto: garantiza al menos una coincidencia
+                int a = rnd.nextInt(text.length() - 1);
+                pattern = text.substring(a, a + 1 + rnd.nextInt(Math.min(30, text.length() - a - 1)));
+            }
+            for (boolean caseSensitive : new boolean[]{ true, false }) {
+                for (boolean wholeWord : new boolean[]{ true, false }) {
+                    String ctx = "texto='" + text + "' patrón='" + pattern + "' cs=" + caseSensitive + " ww=" + wholeWord;
+                    assertEquals(spans(PatternScanner.naiveFindAll(text, pattern, caseSensitive, wholeWord)),
+                            spans(PatternScanner.findAll(text, pattern, caseSensitive, wholeWord)), ctx);
+                    List<String> expected = spans(PatternScanner.naiveFindAllCodePoints(text, pattern, caseSensitive, wholeWord));
+                    assertEquals(expected,
+                            spans(PatternScanner.findAllCodePoints(text, pattern, caseSensitive, wholeWord)), ctx);
+                    assertEquals(expected,
+                            spans(PatternScanner.findAllCodePoints(new FoldedText(text), pattern, caseSensitive, wholeWord)), ctx);
+                }
+            }
+        }
+    }
+
+    @Test
+    void multiPatternMatchesOneSearchPerPattern() {
+        String[] pieces = { "a", "b", "A", "B", "_", " ", "ab", "aab", "É", "é", "ß", "𐐀", "𐐨" };
+        Random rnd = new Random(23);
+        for (int t = 0; t < 1500; t++) {
+            String text = random(rnd, pieces, rnd.nextInt(150));
+            List<String> patterns = new ArrayList<>();
+            int count = 1 + rnd.nextInt(8);
+            for (int k = 0; k < count; k++) {
+                // Prefijos y sufijos unos de otros y algún duplicado
+                String p = (k > 0 && rnd.nextInt(4) == 0)
+                        ? patterns.get(rnd.nextInt(k))
+                        : random(rnd, pieces, 1 + rnd.nextInt(4));
+                if (rnd.nextBoolean() && p.length() > 1) p = p.substring(rnd.nextInt(p.length() - 1));
+                patterns.add(p);
+            }
+            for (boolean caseSensitive : new boolean[]{ true, false }) {
+                for (boolean wholeWord : new boolean[]{ true, false }) {
+                    List<String> expected = new ArrayList<>();
+                    List<int[]> raw = new ArrayList<>();
+                    for (int p = 0; p < count; p++) {
+                        for (int[] s : PatternScanner.naiveFindAllCodePoints(text, patterns.get(p), caseSensitive, wholeWord)) {
+                            raw.add(new int[]{ s[0], s[1], p });
+                        }
+                    }
+                    raw.sort((x, y) -> x[0] != y[0] ? Integer.compare(x[0], y[0]) : Integer.compare(x[2], y[2]));
+                    for (int[] s : raw) expected.add(s[0] + "+" + s[1] + "#" + s[2]);
+
+                    String ctx = "texto='" + text + "' patrones=" + patterns + " cs=" + caseSensitive + " ww=" + wholeWord;
+                    assertEquals(expected, tagged(PatternScanner.findAllCodePoints(text, null, patterns, caseSensitive, wholeWord)), ctx);
+                    assertEquals(expected, tagged(PatternScanner.findAllCodePoints(text, new FoldedText(text), patterns,
+                            caseSensitive, wholeWord)), ctx);
+                }
+            }
+        }
+    }
+
+    @Test
+    void foldingKeepsUtf16Length() {
+        // La copia plegada comparte posiciones con el original
+        for (int cp = 0; cp <= Character.MAX_CODE_POINT; cp++) {
+            String s = new String(Character.toChars(cp));
+            assertEquals(s.length(), FoldedText.fold(s).length(), "U+" + Integer.toHexString(cp));
+        }
+        String sample = "Año ÉPOCA 𐐀x ß";
+        assertEquals("año época 𐐨x ß", FoldedText.fold(sample));
+        String lower = "ya en minúsculas";
+        assertSame(lower, FoldedText.fold(lower));
+    }
+
+    private static String random(Random rnd, String[] pieces, int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) sb.append(pieces[rnd.nextInt(pieces.length)]);
+        return sb.toString();
+    }
+
+    private static List<String> spans(List<int[]> raw) {
+        List<String> out = new ArrayList<>(raw.size());
+        for (int[] s : raw) out.add(s[0] + "+" + s[1]);
+        return out;
+    }
+
+    private static List<String> tagged(List<int[]> raw) {
+        List<String> out = new ArrayList<>(raw.size());
+        for (int[] s : raw) out.add(s[0] + "+" + s[1] + "#" + s[2]);
+        return out;
+    }
+}
@@ -0,0 +1,78 @@
+package core.search;
+
+import static core.lexing.RandomDocuments.randomDocument;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import core.io.ConfigLoader;
+import model.config.Config;
+import model.lexical.LineIndex;
+import model.search.FoldedText;
+import model.search.MatchRange;
+import model.search.SearchResult;
+
+public class SearchEngineTest {
+
+    private static Config loadConfig() throws Exception {
+        return new ConfigLoader().load(Path.of("resources/config.json"));
+    }
+
+    @Test
+    void searchAllMatchesOneSearchPerPatternAroundComments() throws Exception {
+        Config cfg = loadConfig();
+        SearchEngine engine = new SearchEngine();
+        // Comentarios de línea ("//" hasta el salto) y de bloque ("*/" ... "/*")
+        String[] pieces = { "contador", "Contador", "total", "x", " ", " ", "=", ";", "\n",
+                "// nota total\n", "*/ contador total /*", "*/ sin cierre x", "//", "é", "É" };
+        List<String> patterns = List.of("contador", "total", "x", "nota", "conta", "É");
+        Random rnd = new Random(23);
+        for (int t = 0; t < 300; t++) {
+            String text = randomDocument(rnd, pieces, 60);
+            LineIndex lines = new LineIndex(text);
+            FoldedText folded = new FoldedText(text);
+            for (boolean includeComments : new boolean[]{ false, true }) {
+                for (boolean cs : new boolean[]{ true, false }) {
+                    for (boolean ww : new boolean[]{ true, false }) {
+                        List<MatchRange> expected = new ArrayList<>();
+                        for (int p = 0; p < patterns.size(); p++) {
+                            for (MatchRange r : engine.search(text, lines, patterns.get(p), cs, ww, includeComments, cfg).matches()) {
+                                expected.add(new MatchRange(r.startIndex(), r.endIndex(), lines, p));
+                            }
+                        }
+                        expected.sort(Comparator.comparingInt(MatchRange::startIndex)
+                                .thenComparingInt(MatchRange::patternIndex));
+
+                        String ctx = "texto='" + text + "' cs=" + cs + " ww=" + ww + " comentarios=" + includeComments;
+                        assertEquals(spans(expected),
+                                spans(engine.searchAll(text, lines, null, patterns, cs, ww, includeComments, cfg)), ctx);
+                        assertEquals(spans(expected),
+                                spans(engine.searchAll(text, lines, folded, patterns, cs, ww, includeComments, cfg)), ctx);
+                    }
+                }
+            }
+        }
+
+        String text = "contador // contador\n*/ total contador /* total";
+        LineIndex lines = new LineIndex(text);
+        var outside = engine.searchAll(text, lines, null, List.of("total", "contador"), true, true, false, cfg);
+        assertEquals(List.of("0..7#1", "42..46#0"), spans(outside));
+        assertEquals(5, engine.searchAll(text, lines, null, List.of("total", "contador"), true, true, true, cfg).total());
+    }
+
+    private static List<String> spans(List<MatchRange> ranges) {
+        List<String> out = new ArrayList<>(ranges.size());
+        for (MatchRange r : ranges) out.add(r.startIndex() + ".." + r.endIndex() + "#" + r.patternIndex());
+        return out;
+    }
+
+    private static List<String> spans(SearchResult result) {
+        return spans(result.matches());
+    }
+}
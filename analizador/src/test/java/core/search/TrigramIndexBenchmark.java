@@ -0,0 +1,88 @@
+package core.search;
+
+import java.util.Random;
+
+import model.lexical.LineIndex;
+import model.search.FoldedText;
+import model.search.TrigramIndex;
+
+/**
+ * Micro-benchmark (manual, sin JMH) del índice de trigramas: construcción,
+ * memoria, latencia de consulta frente al recorrido completo y costo de
+ * consultar tras una edición de un char (reindexa solo los bloques tocados).
+ *
+ * No es una prueba de JUnit. Ejecutar desde analizador/ tras mvn test-compile:
+ *   java -Xmx4g -cp target/classes:target/test-classes core.search.TrigramIndexBenchmark [chars]
+ */
+public final class TrigramIndexBenchmark {
+
+    private static final int ROUNDS = 5;
+
+    private TrigramIndexBenchmark() { }
+
+    public static void main(String[] args) {
+        int size = (args.length > 0) ? Integer.parseInt(args[0]) : 100_000_000;
+        String text = corpus(size);
+        LineIndex lines = new LineIndex(text);
+        FoldedText folded = new FoldedText(text);
+        folded.text();
+        SearchEngine engine = new SearchEngine();
+
+        TrigramIndex index = new TrigramIndex(text);
+        long t0 = System.nanoTime();
+        index.candidateWindows(text, "xyz", true);
+        long build = System.nanoTime() - t0;
+        System.out.printf("texto %,d chars; construcción %d ms; %s (%.2f bytes/char)%n", text.length(),
+                build / 1_000_000, index.stats(), (double) index.stats().memoryBytes() / text.length());
+
+        String[] queries = { "saldo_final_qzx", "Total_Mensual", "PARA", "contador_" };
+        for (String q : queries) {
+            for (boolean cs : new boolean[]{ true, false }) {
+                for (int r = 0; r < ROUNDS; r++) {
+                    long a = System.nanoTime();
+                    int scan = engine.search(text, lines, folded, null, q, cs, false, true, null).total();
+                    long b = System.nanoTime();
+                    int indexed = engine.search(text, lines, folded, index, q, cs, false, true, null).total();
+                    long c = System.nanoTime();
+                    System.out.printf("ronda %d: %-34s cs=%-5b recorrido %8.2f ms (%d) -> índice %8.2f ms (%d)%n",
+                            r, "'" + q + "'", cs, (b - a) / 1e6, scan, (c - b) / 1e6, indexed);
+                }
+            }
+        }
+
+        // Edición de un char a mitad del texto: actualizar + consultar
+        for (int r = 0; r < ROUNDS; r++) {
+            int at = text.length() / 2 + r * 997;
+            text = text.substring(0, at) + 'q' + text.substring(at + 1);
+            index.setText(text);
+            long a = System.nanoTime();
+            index.candidateWindows(text, "saldo_final_qzx", true);
+            System.out.printf("ronda %d: edición de 1 char + consulta %.2f ms; %s%n",
+                    r, (System.nanoTime() - a) / 1e6, index.stats());
+        }
+    }
+
+    /**
+     * Código con vocabulario amplio (identificadores con sufijos al azar),
+     * un identificador raro ("saldo_final_qzx", ~1 cada 2 MB) y palabras
+     * reservadas frecuentes.
+     */
+    static String corpus(int size) {
+        String[] prefixes = { "contador_", "indice_", "total_", "suma_", "Total_", "valor_", "tmp_", "dato_" };
+        String[] keywords = { "SI", "PARA", "MIENTRAS", "=", "+", ";", "(", ")", "\n" };
+        Random rnd = new Random(24);
+        StringBuilder sb = new StringBuilder(size + 64);
+        while (sb.length() < size) {
+            if (rnd.nextInt(3) == 0) {
+                sb.append(keywords[rnd.nextInt(keywords.length)]);
+            } else {
+                sb.append(prefixes[rnd.nextInt(prefixes.length)]);
+                for (int k = 0; k < 5; k++) sb.append((char) ('a' + rnd.nextInt(26)));
+            }
+            sb.append(' ');
+            if (rnd.nextInt(250_000) == 0) sb.append("saldo_final_qzx ");
+            if (rnd.nextInt(20_000) == 0) sb.append("Total_Mensual ");
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,79 @@
+package model.lexical;
+
+import static core.lexing.RandomDocuments.randomDocument;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class LineIndexTest {
+
+    @Test
+    void positionsMatchNaiveScanForMixedLineBreaks() {
+        String[] pieces = { "a", "bc", " ", "é", "\r", "\n", "\r\n", "\n\r", "\r\r\n" };
+        Random rnd = new Random(5);
+        List<String> texts = new ArrayList<>(List.of("", "\n", "\r", "\r\n", "ab\r\n", "a\rb\nc\r\nd", "\r\n\r\n"));
+        for (int t = 0; t < 500; t++) {
+            StringBuilder sb = new StringBuilder(randomDocument(rnd, pieces, 30));
+            if (rnd.nextBoolean()) sb.append(pieces[4 + rnd.nextInt(3)]); // salto final
+            texts.add(sb.toString());
+        }
+        for (String text : texts) {
+            Position[] expected = naivePositions(text);
+            var index = new LineIndex(text);
+            String ctx = "texto='" + text.replace("\r", "\\r").replace("\n", "\\n") + "'";
+            assertEquals(expected[text.length()].linea(), index.lineCount(), ctx);
+            for (int offset = 0; offset <= text.length(); offset++) {
+                String at = ctx + " en " + offset;
+                assertEquals(expected[offset], index.position(offset), at);
+                assertEquals(expected[offset].linea(), index.line(offset), at);
+                assertEquals(expected[offset].columna(), index.column(offset), at);
+                // Inverso: el LF de un CRLF comparte posición con el char siguiente
+                boolean crlfTail = offset > 0 && offset < text.length()
+                        && text.charAt(offset) == '\n' && text.charAt(offset - 1) == '\r';
+                assertEquals(crlfTail ? offset + 1 : offset, index.offsetOf(expected[offset]), at);
+            }
+            for (int line = 1; line <= index.lineCount(); line++) {
+                assertEquals(new Position(line, 1), expected[index.lineStart(line)], ctx + " línea " + line);
+            }
+        }
+    }
+
+    @Test
+    void rejectsOffsetsOutsideText() {
+        var index = new LineIndex("ab\n");
+        assertThrows(IndexOutOfBoundsException.class, () -> index.position(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> index.position(4));
+        assertThrows(IllegalArgumentException.class, () -> index.lineStart(3));
+        assertEquals(new Position(2, 1), index.position(3));
+    }
+
+    /**
+     * Recorrido carácter a carácter con las reglas de CharCursor: CR, LF y
+     * CRLF son un salto; el LF de un CRLF ya está en la línea siguiente.
+     */
+    private static Position[] naivePositions(String text) {
+        Position[] out = new Position[text.length() + 1];
+        int line = 1;
+        int column = 1;
+        for (int i = 0; i < text.length(); i++) {
+            out[i] = new Position(line, column);
+            char ch = text.charAt(i);
+            if (ch == '\r' && i + 1 < text.length() && text.charAt(i + 1) == '\n') {
+                line++;
+                column = 1;
+                out[++i] = new Position(line, column);
+            } else if (ch == '\r' || ch == '\n') {
+                line++;
+                column = 1;
+            } else {
+                column++;
+            }
+        }
+        out[text.length()] = new Position(line, column);
+        return out;
+    }
+}
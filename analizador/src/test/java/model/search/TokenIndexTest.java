@@ -0,0 +1,53 @@
+package model.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import model.lexical.TokenBuffer;
+import model.lexical.TokenType;
+
+public class TokenIndexTest {
+
+    @Test
+    void findsByLexemeTypeOrBothInTextOrder() {
+        String src = "x = x % 2;\nSI x\n\"x\" % xx";
+        TokenBuffer buffer = new TokenBuffer(src);
+        add(buffer, src, TokenType.IDENTIFIER, "x", 0);
+        add(buffer, src, TokenType.OPERATOR, "=", 0);
+        add(buffer, src, TokenType.IDENTIFIER, "x", 4);
+        add(buffer, src, TokenType.OPERATOR, "%", 0);
+        add(buffer, src, TokenType.NUMBER, "2", 0);
+        add(buffer, src, TokenType.PUNCTUATION, ";", 0);
+        add(buffer, src, TokenType.RESERVED_WORD, "SI", 0);
+        add(buffer, src, TokenType.IDENTIFIER, "x", 14);
+        add(buffer, src, TokenType.STRING, "\"x\"", 0);
+        add(buffer, src, TokenType.OPERATOR, "%", 20);
+        add(buffer, src, TokenType.IDENTIFIER, "xx", 0);
+        TokenIndex index = new TokenIndex(buffer);
+
+        assertEquals(List.of("0..0@1:1", "4..4@1:5", "14..14@2:4"), ranges(index.find("x", TokenType.IDENTIFIER)));
+        assertEquals(List.of("0..0@1:1", "4..4@1:5", "14..14@2:4"), ranges(index.find("x", null)));
+        assertEquals(List.of("6..6@1:7", "20..20@3:5"), ranges(index.find("%", TokenType.OPERATOR)));
+        assertEquals(List.of("2..2@1:3", "6..6@1:7", "20..20@3:5"), ranges(index.find(null, TokenType.OPERATOR)));
+        assertEquals(List.of("16..18@3:1"), ranges(index.find(null, TokenType.STRING)));
+        assertEquals(0, index.find("x", TokenType.OPERATOR).total());
+        assertEquals(0, index.find("y", null).total());
+        assertThrows(IllegalArgumentException.class, () -> index.find(null, null));
+    }
+
+    private static void add(TokenBuffer buffer, String src, TokenType type, String lexeme, int from) {
+        buffer.add(type, src.indexOf(lexeme, from), lexeme.length());
+    }
+
+    private static List<String> ranges(SearchResult result) {
+        List<String> out = new ArrayList<>();
+        for (MatchRange r : result.matches()) {
+            out.add(r.startIndex() + ".." + r.endIndex() + "@" + r.startPosition().linea() + ":" + r.startPosition().columna());
+        }
+        return out;
+    }
+}
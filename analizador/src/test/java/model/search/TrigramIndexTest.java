@@ -0,0 +1,104 @@
+package model.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import core.search.SearchEngine;
+import model.document.DocumentModel;
+import model.lexical.LineIndex;
+
+public class TrigramIndexTest {
+
+    @Test
+    void indexedSearchMatchesFullScanAcrossEdits() {
+        // Bloques pequeños respecto al texto: muchas coincidencias cruzan bordes
+        String[] words = { "si", "SI", "para", "Para", "contador", "Contador_total", "x", "ÉPOCA", "época",
+                " ", " ", "\n", "=", ";", "𐐀", "𐐨" };
+        Random rnd = new Random(24);
+        String text = random(rnd, words, 12_000);
+        TrigramIndex index = new TrigramIndex(text);
+        SearchEngine engine = new SearchEngine();
+        String[] patterns = { "contador", "CONTADOR_TOTAL", "para ", "si", "a c", "época", "tal\nx", "𐐨x",
+                "zzz", "r_total" + " ".repeat(3) };
+
+        for (int round = 0; round < 60; round++) {
+            // Edición: borrar e insertar en un punto al azar (a veces al final o todo)
+            int from = rnd.nextInt(text.length() + 1);
+            int to = Math.min(text.length(), from + rnd.nextInt(round % 10 == 0 ? 20_000 : 40));
+            String inserted = random(rnd, words, rnd.nextInt(round % 7 == 0 ? 3_000 : 6));
+            text = text.substring(0, from) + inserted + text.substring(to);
+            index.setText(text);
+
+            LineIndex lines = new LineIndex(text);
+            FoldedText folded = new FoldedText(text);
+            for (String p : patterns) {
+                for (boolean cs : new boolean[]{ true, false }) {
+                    for (boolean ww : new boolean[]{ true, false }) {
+                        String ctx = "ronda " + round + " patrón='" + p + "' cs=" + cs + " ww=" + ww;
+                        List<String> expected = spans(engine.search(text, lines, p, cs, ww, true, null));
+                        assertEquals(expected, spans(engine.search(text, lines, null, index, p, cs, ww, true, null)), ctx);
+                        assertEquals(expected, spans(engine.search(text, lines, folded, index, p, cs, ww, true, null)), ctx);
+                    }
+                }
+            }
+        }
+        TrigramIndex.Stats stats = index.stats();
+        assertTrue(stats.blocks() > 0 && stats.memoryBytes() > 0, stats.toString());
+    }
+
+    @Test
+    void shortOrForeignQueriesFallBackToScan() {
+        TrigramIndex index = new TrigramIndex("contador = contador + 1;");
+        assertNull(index.candidateWindows("contador = contador + 1;", "co", true));
+        assertNull(index.candidateWindows("otro texto", "contador", true));
+        assertArrayEquals(new int[0], index.candidateWindows("contador = contador + 1;", "zzz", true));
+        assertArrayEquals(new int[]{ 0, 24 }, index.candidateWindows("contador = contador + 1;", "CONTADOR", false));
+    }
+
+    @Test
+    void unchangedDocumentTextIsNotReindexed() {
+        String[] words = { "si", "para", "contador", "x", " ", "\n", "=", ";" };
+        String text = random(new Random(7), words, 20_000);
+        var doc = new DocumentModel();
+        doc.setText(text);
+        doc.setTrigramIndexEnabled(true);
+        TrigramIndex index = doc.getTrigramIndex();
+        SearchEngine engine = new SearchEngine();
+        int expected = engine.search(text, new LineIndex(text), "contador", true, false, true, null).total();
+        assertEquals(expected, engine.search(doc.getText(), doc.getLineIndex(), doc.getFoldedText(), index,
+                "contador", true, false, true, null).total());
+        assertEquals(1, index.stats().updates());
+
+        // Mismo contenido en otra instancia (p. ej. una nueva lectura del editor)
+        long version = doc.getVersion();
+        doc.setText(new String(text.toCharArray()));
+        assertSame(text, doc.getText());
+        assertEquals(version, doc.getVersion());
+        assertEquals(expected, engine.search(doc.getText(), doc.getLineIndex(), doc.getFoldedText(), index,
+                "contador", true, false, true, null).total());
+        assertEquals(1, index.stats().updates());
+
+        doc.setText(text + "contador");
+        assertEquals(version + 1, doc.getVersion());
+        assertEquals(expected + 1, engine.search(doc.getText(), doc.getLineIndex(), doc.getFoldedText(), index,
+                "contador", true, false, true, null).total());
+        assertEquals(2, index.stats().updates());
+    }
+
+    private static String random(Random rnd, String[] words, int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) sb.append(words[rnd.nextInt(words.length)]);
+        return sb.toString();
+    }
+
+    private static List<String> spans(SearchResult result) {
+        List<String> out = new ArrayList<>(result.total());
+        for (MatchRange r : result.matches()) out.add(r.startIndex() + ".." + r.endIndex());
+        return out;
+    }
+}
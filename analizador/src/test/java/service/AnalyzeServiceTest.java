@@ -0,0 +1,57 @@
+package service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import core.io.ConfigLoader;
+import core.io.TextLoader;
+import model.config.Config;
+import model.report.GeneralReport;
+
+public class AnalyzeServiceTest {
+
+    private static Config loadConfig() throws Exception {
+        return new ConfigLoader().load(Path.of("resources/config.json"));
+    }
+
+    @Test
+    void streamingFileAnalysisMatchesLoadedText(@TempDir Path dir) throws Exception {
+        Config cfg = loadConfig();
+        AnalyzeService as = new AnalyzeService(cfg);
+        GradingService grading = new GradingService();
+
+        // Saltos CRLF, no-ASCII y un byte UTF-8 mal formado (0xFF)
+        var bytes = new ByteArrayOutputStream();
+        bytes.write("SI año = 12.5 + 3; // comentario\r\n".getBytes(StandardCharsets.UTF_8));
+        bytes.write("PARA ( índice ) { \"hola\" } @ ".getBytes(StandardCharsets.UTF_8));
+        bytes.write(0xFF);
+        bytes.write(" x = 😀 ;\r\n/* sin cierre".getBytes(StandardCharsets.UTF_8));
+        Path file = dir.resolve("entrada.txt");
+        Files.write(file, bytes.toByteArray());
+
+        var tally = new GradingService.Tally();
+        as.analyzeFile(file, tally);
+        GeneralReport streamed = grading.build(cfg, tally);
+
+        var loaded = as.analyzeText(new TextLoader().load(file));
+        GeneralReport expected = grading.build(cfg, loaded.buffer(), loaded.errors());
+
+        assertTrue(expected.errorCount() > 0);
+        assertEquals(loaded.buffer().size(), tally.tokens());
+        assertEquals(loaded.errors().size(), tally.errors());
+        assertEquals(expected.errorCount(), streamed.errorCount());
+        assertEquals(expected.validTokenCount(), streamed.validTokenCount());
+        assertEquals(expected.percentValid(), streamed.percentValid());
+        assertEquals(expected.reservadasNoUsadas(), streamed.reservadasNoUsadas());
+        assertEquals(expected.operadoresNoUsados(), streamed.operadoresNoUsados());
+        assertEquals(expected.puntuacionNoUsada(), streamed.puntuacionNoUsada());
+        assertEquals(expected.agrupacionNoUsada(), streamed.agrupacionNoUsada());
+    }
+}
@@ -0,0 +1,52 @@
+package service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import core.io.ConfigLoader;
+import core.lexing.LexerEngine;
+import model.config.Config;
+import model.report.GeneralReport;
+
+public class GradingServiceTest {
+
+    private static Config loadConfig() throws Exception {
+        return new ConfigLoader().load(Path.of("resources/config.json"));
+    }
+
+    @Test
+    void tallyReportMatchesBufferReport() throws Exception {
+        Config cfg = loadConfig();
+        GradingService grading = new GradingService();
+        // Los dos últimos textos tienen errores léxicos
+        List<String> texts = List.of(
+                "",
+                "SI contador = 12.5 + 3; // fin\nPARA ( x ) { y , z : w }",
+                "\"hola\" 585f3.40 12. x ++ --- @ hola /* sin cierre\n",
+                "SI x = 1; \"sin cierre\n# é 3.14.15 ;;");
+        for (LexerEngine.Mode mode : LexerEngine.Mode.values()) {
+            var engine = new LexerEngine(cfg, mode);
+            for (String text : texts) {
+                var result = engine.analyze(text);
+                var tally = new GradingService.Tally();
+                engine.analyze(text, tally);
+
+                GeneralReport expected = grading.build(cfg, result.buffer(), result.errors());
+                GeneralReport actual = grading.build(cfg, tally);
+                String ctx = mode + ": " + text;
+                if (texts.indexOf(text) >= 2) assertTrue(actual.errorCount() > 0, ctx);
+                assertEquals(expected.errorCount(), actual.errorCount(), ctx);
+                assertEquals(expected.validTokenCount(), actual.validTokenCount(), ctx);
+                assertEquals(expected.percentValid(), actual.percentValid(), ctx);
+                assertEquals(expected.reservadasNoUsadas(), actual.reservadasNoUsadas(), ctx);
+                assertEquals(expected.operadoresNoUsados(), actual.operadoresNoUsados(), ctx);
+                assertEquals(expected.puntuacionNoUsada(), actual.puntuacionNoUsada(), ctx);
+                assertEquals(expected.agrupacionNoUsada(), actual.agrupacionNoUsada(), ctx);
+            }
+        }
+    }
+}
@@ -4,11 +4,13 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import java.nio.file.Path;
 import java.util.List;
+import java.util.Set;
 
 import org.junit.jupiter.api.Test;
 
 import core.highlight.ColorPalette;
 import core.io.ConfigLoader;
+import core.lexing.LexerCache;
 import model.config.Config;
 
 public class HighlightServiceTest {
@@ -28,4 +30,38 @@ public class HighlightServiceTest {
         spans = hs.highlight("@");
         assertEquals(ColorPalette.ERROR, spans.get(0).color());
     }
+
+    @Test
+    void sharesCompiledLexerUntilConfigChanges() throws Exception {
+        Config cfg = loadConfig();
+        LexerCache cache = new LexerCache();
+        HighlightService hs = new HighlightService(cfg, cache);
+        AnalyzeService as = new AnalyzeService(cfg, cache);
+
+        hs.highlight("x = 1");
+        hs.highlight("x = 2");
+        as.analyzeText("x = 3");
+        assertEquals(1, cache.misses());
+        assertEquals(2, cache.hits());
+
+        // Editar el Config en su lugar cambia la huella: se recompila
+        cfg.setOperadores(Set.of("+"));
+        List<HighlightService.HighlightSpan> spans = hs.highlight("=");
+        assertEquals(ColorPalette.ERROR, spans.get(0).color());
+        assertEquals(2, cache.misses());
+
+        // Reasignar el mismo contenido cambia la versión pero no la huella
+        cfg.setOperadores(Set.of("+"));
+        hs.highlight("x");
+        assertEquals(2, cache.misses());
+        assertEquals(3, cache.hits());
+
+        // Editar los comentarios también cambia la versión
+        cfg.getComentarios().setLinea("#");
+        spans = hs.highlight("# nota");
+        assertEquals(ColorPalette.COMMENT, spans.get(0).color());
+        assertEquals(3, cache.misses());
+
+        assertThrows(UnsupportedOperationException.class, () -> cfg.getOperadores().add("-"));
+    }
 }
@@ -0,0 +1,61 @@
+package service;
+
+import static core.lexing.RandomDocuments.randomDocument;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import core.io.ConfigLoader;
+import model.config.Config;
+import model.lexical.TokenBuffer;
+import model.lexical.TokenType;
+import model.report.LexemeCountRow;
+
+public class StatsServiceTest {
+
+    private static Config loadConfig() throws Exception {
+        return new ConfigLoader().load(Path.of("resources/config.json"));
+    }
+
+    @Test
+    void symbolIdsMatchLexemeBasedReports() throws Exception {
+        Config cfg = loadConfig();
+        AnalyzeService as = new AnalyzeService(cfg);
+        // Cadenas cerradas y un solo comentario: pocos lexemas distintos
+        String[] pieces = { "SI ", "contador ", "x1 ", "12 ", "3.5 ", "\"hola\" ", "+ ", "= ", "( ", ") ", "; ",
+                "// nota\n ", "\n " };
+        Random rnd = new Random(5);
+        StringBuilder sb = new StringBuilder();
+        // Más de 128K chars: el modo PARALLEL empalma tramos con tablas de símbolos distintas
+        while (sb.length() < 200_000) sb.append(randomDocument(rnd, pieces, 1000));
+
+        TokenBuffer buffer = as.analyzeText(sb.toString()).buffer();
+        TokenBuffer valid = buffer.without(TokenType.COMMENT);
+        StatsService stats = new StatsService();
+        assertEquals(rows(stats.countByLexemeAndType(valid.asList())), rows(stats.countByLexemeAndType(valid)));
+
+        NotUsedCalculator notUsed = new NotUsedCalculator();
+        assertEquals(notUsed.compute(cfg, buffer.asList()), notUsed.compute(cfg, buffer));
+
+        // Un mismo lexema comparte id y String en todas sus apariciones
+        int first = -1;
+        for (int i = 0; i < buffer.size(); i++) {
+            if (!buffer.lexeme(i).equals("contador")) continue;
+            if (first < 0) {
+                first = i;
+            } else {
+                assertEquals(buffer.id(first), buffer.id(i));
+                assertSame(buffer.lexeme(first), buffer.lexeme(i));
+            }
+        }
+        assertTrue(buffer.symbols().size() < 64);
+    }
+
+    private static List<String> rows(List<LexemeCountRow> rows) {
+        return rows.stream().map(r -> r.lexema() + "|" + r.tipo() + "|" + r.cantidad()).toList();
+    }
+}